@@ -0,0 +1,65 @@
+-- Included twice by indexes.sql: prints the plan of every query and records its median time.
+
+\echo ==================== :phase ====================
+
+CREATE OR REPLACE FUNCTION pg_temp.median_millis(statement TEXT, runs INT) RETURNS NUMERIC AS $$
+DECLARE
+  started TIMESTAMPTZ;
+  samples NUMERIC[] := ARRAY[]::NUMERIC[];
+BEGIN
+  EXECUTE statement;
+  FOR i IN 1..runs LOOP
+    started := clock_timestamp();
+    EXECUTE statement;
+    samples := samples || (extract(epoch FROM clock_timestamp() - started) * 1000)::NUMERIC;
+  END LOOP;
+  RETURN round(
+    (SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY s) FROM unnest(samples) s)::NUMERIC, 3);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TEMP TABLE IF NOT EXISTS queries (query TEXT PRIMARY KEY, statement TEXT);
+TRUNCATE queries;
+INSERT INTO queries VALUES
+  ('findByItemAndStatus',
+   format('SELECT * FROM reviews WHERE item_id = %s AND status = ''APPROVED''', :item_id)),
+  ('findByItemInAndStatus (one meal)',
+   'SELECT r.* FROM reviews r WHERE r.status = ''APPROVED'' AND r.item_id IN'
+   || ' (SELECT id FROM menuitem WHERE dining_commons_code = ''portola'' AND meal_code = ''dinner'''
+   || ' AND name IN (''Entree 1'', ''Entree 2'', ''Entree 3'', ''Entree 4'', ''Entree 5''))'),
+  ('findByStatus (AWAITING_REVIEW)',
+   'SELECT * FROM reviews WHERE status = ''AWAITING_REVIEW'''),
+  ('findByReviewer',
+   format('SELECT * FROM reviews WHERE user_id = %s', :user_id)),
+  ('findItemStatistics (last 30 days)',
+   'SELECT i.id, i.name, AVG(r.items_stars), COUNT(*) FROM reviews r JOIN menuitem i'
+   || ' ON i.id = r.item_id WHERE r.status = ''APPROVED'' AND r.items_stars IS NOT NULL'
+   || ' AND r.date_item_served >= TIMESTAMP ''2026-06-01'' GROUP BY i.id, i.name'),
+  ('findByDiningCommonsCodeAndMealCode',
+   'SELECT * FROM menuitem WHERE dining_commons_code = ''portola'' AND meal_code = ''dinner'''),
+  ('findByDiningCommonsCodeAndMealCodeAndNameAndStation',
+   'SELECT * FROM menuitem WHERE dining_commons_code = ''portola'' AND meal_code = ''dinner'''
+   || ' AND name = ''Entree 42'' AND station = ''Station 2'''),
+  ('users.findByEmail',
+   format('SELECT * FROM users WHERE email = %s', quote_literal(:email))),
+  ('admins.existsByEmail',
+   format('SELECT 1 FROM admins WHERE email = %s LIMIT 1', quote_literal(:email))),
+  ('moderators.existsByEmail',
+   format('SELECT 1 FROM moderators WHERE email = %s LIMIT 1', quote_literal(:email)));
+
+DO $$
+DECLARE
+  q RECORD;
+  line TEXT;
+BEGIN
+  FOR q IN SELECT * FROM queries ORDER BY query LOOP
+    RAISE NOTICE '---------- % ----------', q.query;
+    FOR line IN EXECUTE 'EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) ' || q.statement LOOP
+      RAISE NOTICE '%', line;
+    END LOOP;
+  END LOOP;
+END;
+$$;
+
+INSERT INTO timings
+SELECT :'phase', query, pg_temp.median_millis(statement, :runs) FROM queries;
@@ -0,0 +1,118 @@
+-- Query plans and timings of the hot review, menu item and user lookups, without and with the
+-- indexes from ReviewsIndexes.json, MenuItemIndexes.json and UsersIndexes.json.
+--
+-- Runs against Postgres in its own schema, so it never touches the application's tables:
+--
+--   psql "$DATABASE_URL" -v reviews=1000000 -f docs/benchmarks/indexes.sql > indexes.txt
+--
+-- The data is generated with a fixed seed, so every run sees the same rows.
+
+\set ON_ERROR_STOP on
+\if :{?reviews}
+\else
+  \set reviews 1000000
+\endif
+
+DROP SCHEMA IF EXISTS dining_benchmark CASCADE;
+CREATE SCHEMA dining_benchmark;
+SET search_path = dining_benchmark;
+
+-- ---------- schema (as created by the changesets, without the new indexes) ----------
+
+CREATE TABLE users (id BIGSERIAL PRIMARY KEY, email VARCHAR(255), full_name VARCHAR(255));
+CREATE TABLE admins (id BIGSERIAL PRIMARY KEY, email VARCHAR(255));
+CREATE TABLE moderators (id BIGSERIAL PRIMARY KEY, email VARCHAR(255));
+CREATE TABLE menuitem (
+  id BIGINT PRIMARY KEY,
+  dining_commons_code VARCHAR(255),
+  meal_code VARCHAR(255),
+  name VARCHAR(255),
+  station VARCHAR(255));
+CREATE TABLE reviews (
+  id BIGSERIAL PRIMARY KEY,
+  item_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  reviewer_comments VARCHAR(255),
+  items_stars BIGINT,
+  date_item_served TIMESTAMP NOT NULL,
+  status VARCHAR(255) NOT NULL,
+  user_id_moderator VARCHAR(255),
+  moderator_comments VARCHAR(255),
+  date_created TIMESTAMP NOT NULL,
+  date_edited TIMESTAMP NOT NULL);
+
+-- ---------- data ----------
+
+SELECT setseed(0.156);
+
+-- 20,000 users, 20 admins, 50 moderators
+INSERT INTO users (email, full_name)
+SELECT 'user' || g || '@ucsb.edu', 'User ' || g FROM generate_series(1, 20000) g;
+INSERT INTO admins (email) SELECT 'user' || g || '@ucsb.edu' FROM generate_series(1, 20) g;
+INSERT INTO moderators (email) SELECT 'user' || g || '@ucsb.edu' FROM generate_series(21, 70) g;
+
+-- 5 commons x 4 meals x 1,000 entrees x 4 stations = 80,000 menu items
+INSERT INTO menuitem (id, dining_commons_code, meal_code, name, station)
+SELECT row_number() OVER (), c, m, 'Entree ' || e, 'Station ' || s
+FROM unnest(ARRAY['carrillo', 'de-la-guerra', 'ortega', 'portola', 'hollister']) c,
+     unnest(ARRAY['breakfast', 'brunch', 'lunch', 'dinner']) m,
+     generate_series(1, 1000) e,
+     generate_series(1, 4) s;
+
+-- :reviews reviews over two years; 80% approved, 15% awaiting review, 5% rejected
+INSERT INTO reviews (item_id, user_id, reviewer_comments, items_stars, date_item_served, status,
+                     date_created, date_edited)
+SELECT 1 + floor(random() * 80000)::BIGINT,
+       1 + floor(random() * 20000)::BIGINT,
+       'Review ' || g,
+       1 + floor(random() * 5)::BIGINT,
+       served,
+       CASE WHEN r < 0.80 THEN 'APPROVED' WHEN r < 0.95 THEN 'AWAITING_REVIEW' ELSE 'REJECTED' END,
+       served,
+       served
+FROM (SELECT g, random() AS r,
+             TIMESTAMP '2024-07-01' + random() * INTERVAL '730 days' AS served
+      FROM generate_series(1, :reviews) g) seeded;
+
+ANALYZE;
+
+-- ---------- queries, as issued by the repositories ----------
+
+\set item_id 4242
+\set user_id 1234
+\set email '''user1234@ucsb.edu'''
+
+CREATE TEMP TABLE timings (phase TEXT, query TEXT, millis NUMERIC);
+
+-- every query is run once to warm up, then this many times; the median is recorded
+\set runs 21
+
+\set phase 'before'
+\ir indexes-queries.sql
+
+-- ---------- the new indexes ----------
+
+CREATE INDEX reviews_item_status_idx ON reviews (item_id, status);
+CREATE INDEX reviews_status_served_idx ON reviews (status, date_item_served);
+CREATE INDEX reviews_user_idx ON reviews (user_id);
+CREATE UNIQUE INDEX menuitem_natural_key_uk
+  ON menuitem (dining_commons_code, meal_code, name, station);
+CREATE UNIQUE INDEX users_email_uk ON users (email);
+CREATE INDEX admins_email_idx ON admins (email);
+CREATE INDEX moderators_email_idx ON moderators (email);
+ANALYZE;
+
+\set phase 'after'
+\ir indexes-queries.sql
+
+-- ---------- summary ----------
+
+SELECT b.query,
+       b.millis AS before_ms,
+       a.millis AS after_ms,
+       round(b.millis / NULLIF(a.millis, 0), 1) AS speedup
+FROM timings b JOIN timings a ON a.query = b.query AND a.phase = 'after'
+WHERE b.phase = 'before'
+ORDER BY b.query;
+
+DROP SCHEMA dining_benchmark CASCADE;
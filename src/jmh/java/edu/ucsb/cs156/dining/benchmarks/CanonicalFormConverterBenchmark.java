@@ -0,0 +1,57 @@
+package edu.ucsb.cs156.dining.benchmarks;
+
+import edu.ucsb.cs156.dining.utilities.CanonicalFormConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link CanonicalFormConverter}, which the role registry runs on every email it checks or
+ * loads. Half of the emails are {@code umail} addresses in mixed case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CanonicalFormConverterBenchmark {
+
+  private static final int EMAILS = 1_000;
+
+  private List<String> emails;
+
+  @Setup
+  public void setup() {
+    emails = new ArrayList<>(EMAILS);
+    for (int i = 0; i < EMAILS; i++) {
+      emails.add(i % 2 == 0 ? "user" + i + "@ucsb.edu" : "User" + i + "@Umail.UCSB.edu");
+    }
+  }
+
+  @Benchmark
+  public void convertToValidEmail(Blackhole blackhole) {
+    for (String email : emails) {
+      blackhole.consume(CanonicalFormConverter.convertToValidEmail(email));
+    }
+  }
+
+  @Benchmark
+  public void areEquivalentEmails(Blackhole blackhole) {
+    for (int i = 1; i < EMAILS; i++) {
+      blackhole.consume(
+          CanonicalFormConverter.areEquivalentEmails(emails.get(i - 1), emails.get(i)));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package edu.ucsb.cs156.dining.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuItemView;
+import edu.ucsb.cs156.dining.models.ReviewView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the JSON the menu endpoints read and write: the entrees of a meal from the UCSB Dining
+ * API, the menu items with their reviews that {@code UCSBDiningMenuItemsController.get_menu_items}
+ * returns, and lists of reviews. The object mapper is configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonBenchmark {
+
+  private static final TypeReference<List<Entree>> ENTREES = new TypeReference<>() {};
+
+  private static final TypeReference<List<Review>> REVIEWS = new TypeReference<>() {};
+
+  /** Number of entrees, menu items or reviews in a list. */
+  @Param({"50", "500"})
+  int size;
+
+  private ObjectMapper mapper;
+
+  private List<Entree> entrees;
+  private String entreesJson;
+
+  private List<Review> reviews;
+  private String reviewsJson;
+
+  private List<MenuItemView> menuItems;
+
+  @Setup
+  public void setup() throws JsonProcessingException {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    entrees = SyntheticData.entrees(size);
+    entreesJson = mapper.writeValueAsString(entrees);
+
+    List<MenuItem> items = SyntheticData.menuItems().subList(0, size);
+    reviews = SyntheticData.reviews(items, size);
+    reviewsJson = mapper.writeValueAsString(reviews);
+
+    // every item with five of the reviews
+    menuItems = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      List<ReviewView> views = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        views.add(ReviewView.of(reviews.get((i * 5 + j) % size)));
+      }
+      menuItems.add(MenuItemView.of(items.get(i), views));
+    }
+  }
+
+  @Benchmark
+  public List<Entree> readEntrees() throws JsonProcessingException {
+    return mapper.readValue(entreesJson, ENTREES);
+  }
+
+  @Benchmark
+  public String writeEntrees() throws JsonProcessingException {
+    return mapper.writeValueAsString(entrees);
+  }
+
+  @Benchmark
+  public List<Review> readReviews() throws JsonProcessingException {
+    return mapper.readValue(reviewsJson, REVIEWS);
+  }
+
+  @Benchmark
+  public String writeReviews() throws JsonProcessingException {
+    return mapper.writeValueAsString(reviews);
+  }
+
+  @Benchmark
+  public String writeMenuItems() throws JsonProcessingException {
+    return mapper.writeValueAsString(menuItems);
+  }
+}
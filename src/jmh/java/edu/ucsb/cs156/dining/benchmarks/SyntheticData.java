@@ -0,0 +1,146 @@
+package edu.ucsb.cs156.dining.benchmarks;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Synthetic menu items and reviews for the benchmarks. The random seeds are fixed, so every run
+ * (and every commit) measures the same data.
+ */
+public final class SyntheticData {
+
+  public static final List<String> COMMONS =
+      List.of("carrillo", "de-la-guerra", "ortega", "portola");
+
+  public static final List<String> MEALS = List.of("breakfast", "brunch", "lunch", "dinner");
+
+  /** Number of menu items the reviews are spread over. */
+  public static final int ITEMS = 2_000;
+
+  /** Number of users the reviews are spread over. */
+  public static final int USERS = 500;
+
+  /** The reviews are of items served over this many days. */
+  public static final int DAYS = 730;
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+  private SyntheticData() {}
+
+  /**
+   * @return {@link #ITEMS} menu items, spread evenly over the dining commons and meals
+   */
+  public static List<MenuItem> menuItems() {
+    List<MenuItem> items = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      items.add(
+          MenuItem.builder()
+              .id(i + 1)
+              .diningCommonsCode(COMMONS.get(i % COMMONS.size()))
+              .mealCode(MEALS.get(i / COMMONS.size() % MEALS.size()))
+              .name("Item " + (i + 1))
+              .station("Station " + i % 12)
+              .build());
+    }
+    return items;
+  }
+
+  /**
+   * @param count number of entrees
+   * @return the entrees of a meal, as the UCSB Dining API returns them
+   */
+  public static List<Entree> entrees(int count) {
+    List<Entree> entrees = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      entrees.add(new Entree("Entree " + (i + 1) + " (v)", "Station " + i % 12));
+    }
+    return entrees;
+  }
+
+  /**
+   * Reviews of random items by random users, served on random days. Nine in ten are approved, and
+   * one in four has comments.
+   *
+   * @param items the items to review
+   * @param count number of reviews
+   * @return the reviews
+   */
+  public static List<Review> reviews(List<MenuItem> items, int count) {
+    Random random = new Random(count);
+    List<User> users = new ArrayList<>(USERS);
+    for (int i = 0; i < USERS; i++) {
+      users.add(
+          User.builder()
+              .id(i + 1)
+              .email("user" + (i + 1) + "@ucsb.edu")
+              .fullName("User " + (i + 1))
+              .alias(i % 3 == 0 ? null : "Gaucho " + (i + 1))
+              .build());
+    }
+    List<LocalDateTime> days = new ArrayList<>(DAYS);
+    for (int i = 0; i < DAYS; i++) {
+      days.add(FIRST_DAY.plusDays(i).atTime(12, 0));
+    }
+
+    List<Review> reviews = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      LocalDateTime served = days.get(random.nextInt(DAYS));
+      reviews.add(
+          Review.builder()
+              .id(i + 1)
+              .item(items.get(random.nextInt(items.size())))
+              .reviewer(users.get(random.nextInt(USERS)))
+              .itemsStars(1L + random.nextInt(5))
+              .reviewerComments(random.nextInt(4) == 0 ? "Tasty, but a little cold" : null)
+              .status(
+                  random.nextInt(10) == 0
+                      ? ModerationStatus.AWAITING_REVIEW
+                      : ModerationStatus.APPROVED)
+              .dateItemServed(served)
+              .dateCreated(served.plusHours(1))
+              .build());
+    }
+    return reviews;
+  }
+
+  /**
+   * @param items the items to review
+   * @param count number of reviews
+   * @return what the approved ones of {@link #reviews} contribute to the rating aggregates
+   */
+  public static List<ReviewContribution> contributions(List<MenuItem> items, int count) {
+    return reviews(items, count).stream()
+        .map(ReviewContribution::of)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  /**
+   * A stand-in for a repository: every call is answered by {@code answer}, without a database.
+   *
+   * @param type the repository interface
+   * @param answer computes the result of a call from the method and its arguments
+   * @return the stand-in
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T stub(Class<T> type, BiFunction<Method, Object[], Object> answer) {
+    return (T)
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (proxy, method, args) -> answer.apply(method, args));
+  }
+}
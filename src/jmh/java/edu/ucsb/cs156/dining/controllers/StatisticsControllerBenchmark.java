@@ -0,0 +1,133 @@
+package edu.ucsb.cs156.dining.controllers;
+
+import edu.ucsb.cs156.dining.benchmarks.SyntheticData;
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.models.CommonsAverage;
+import edu.ucsb.cs156.dining.models.CommonsAverageOverTime;
+import edu.ucsb.cs156.dining.models.ItemStatistic;
+import edu.ucsb.cs156.dining.models.MealAverage;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.services.ReviewAggregateService;
+import edu.ucsb.cs156.dining.services.StatisticsCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Measures the statistics endpoints on a cache miss, for rating aggregates built from 10k, 100k and
+ * 1M synthetic reviews. The repositories answer from memory, so this is the time the app spends
+ * turning the aggregate rows into responses, without the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StatisticsControllerBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  int reviews;
+
+  private StatisticsController controller;
+
+  private WebRequest request;
+
+  @Setup
+  public void setup() {
+    List<MenuItem> items = SyntheticData.menuItems();
+    Map<String, ReviewAggregate> aggregates = new LinkedHashMap<>();
+    for (ReviewContribution c : SyntheticData.contributions(items, reviews)) {
+      for (ReviewAggregate group : ReviewAggregateService.groupsFor(c)) {
+        ReviewAggregate row = aggregates.computeIfAbsent(group.getGroupKey(), key -> group);
+        row.setStarsSum(row.getStarsSum() + c.stars());
+        row.setReviewCount(row.getReviewCount() + 1);
+      }
+    }
+    Map<ReviewAggregate.Scope, List<ReviewAggregate>> byScope = new HashMap<>();
+    Map<String, List<ReviewAggregate>> mealsByCommons = new HashMap<>();
+    for (ReviewAggregate row : aggregates.values()) {
+      byScope.computeIfAbsent(row.getScope(), scope -> new ArrayList<>()).add(row);
+      if (row.getScope() == ReviewAggregate.Scope.COMMONS_MEAL) {
+        mealsByCommons
+            .computeIfAbsent(row.getDiningCommonsCode(), code -> new ArrayList<>())
+            .add(row);
+      }
+    }
+
+    controller = new StatisticsController();
+    controller.reviewAggregateRepository =
+        SyntheticData.stub(
+            ReviewAggregateRepository.class,
+            (method, args) ->
+                switch (method.getName()) {
+                  case "findByScope" -> byScope.getOrDefault(args[0], List.of());
+                  case "findByScopeAndDiningCommonsCode" ->
+                      mealsByCommons.getOrDefault(args[1], List.of());
+                  default -> throw new UnsupportedOperationException(method.getName());
+                });
+    controller.menuItemRepository =
+        SyntheticData.stub(
+            MenuItemRepository.class,
+            (method, args) -> {
+              if (!method.getName().equals("findAllById")) {
+                throw new UnsupportedOperationException(method.getName());
+              }
+              return items;
+            });
+    controller.statisticsCache = new StatisticsCache(Duration.ofHours(1), 1000);
+    request = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+  }
+
+  @Benchmark
+  public List<ItemStatistic> bestItems() {
+    controller.statisticsCache.invalidate();
+    return controller.bestItems(StatisticsController.PERIOD_ALL, 5, null, null, request);
+  }
+
+  @Benchmark
+  public List<ItemStatistic> worstItems() {
+    controller.statisticsCache.invalidate();
+    return controller.worstItems(StatisticsController.PERIOD_ALL, 5, null, null, request);
+  }
+
+  @Benchmark
+  public List<CommonsAverage> commonsAverages() {
+    controller.statisticsCache.invalidate();
+    return controller.commonsAverages(request);
+  }
+
+  @Benchmark
+  public List<CommonsAverageOverTime> commonsAveragesOverTime() {
+    controller.statisticsCache.invalidate();
+    return controller.commonsAveragesOverTime(request);
+  }
+
+  @Benchmark
+  public List<MealAverage> commonsMealAverages() {
+    controller.statisticsCache.invalidate();
+    return controller.commonsMealAverages("carrillo", request);
+  }
+}
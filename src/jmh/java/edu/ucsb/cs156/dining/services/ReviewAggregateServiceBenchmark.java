@@ -0,0 +1,72 @@
+package edu.ucsb.cs156.dining.services;
+
+import edu.ucsb.cs156.dining.benchmarks.SyntheticData;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how the rating aggregates are kept up to date, for 10k, 100k and 1M synthetic reviews:
+ * finding the groups of each review, and summing a batch of changes per group the way a bulk
+ * moderation does. The repository answers from memory, so the database is not part of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReviewAggregateServiceBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  int reviews;
+
+  private List<ReviewContribution> contributions;
+
+  private ReviewAggregateService service;
+
+  @Setup
+  public void setup() {
+    contributions = SyntheticData.contributions(SyntheticData.menuItems(), reviews);
+    service = new ReviewAggregateService();
+    service.reviewAggregateRepository =
+        SyntheticData.stub(
+            ReviewAggregateRepository.class,
+            (method, args) -> {
+              if (!method.getName().equals("addToGroup")) {
+                throw new UnsupportedOperationException(method.getName());
+              }
+              return 1;
+            });
+    service.statisticsCache = new StatisticsCache(Duration.ofHours(1), 1000);
+  }
+
+  @Benchmark
+  public void groupsFor(Blackhole blackhole) {
+    for (ReviewContribution c : contributions) {
+      for (ReviewAggregate group : ReviewAggregateService.groupsFor(c)) {
+        blackhole.consume(group);
+      }
+    }
+  }
+
+  @Benchmark
+  public void onReviewsChanged() {
+    service.onReviewsChanged(List.of(), contributions);
+  }
+}
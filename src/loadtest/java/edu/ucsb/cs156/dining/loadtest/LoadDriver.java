@@ -0,0 +1,245 @@
+package edu.ucsb.cs156.dining.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.loadtest.Recorder.EndpointResult;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load test of the app running in the wiremock profile (see docs/load-testing.md). It starts {@code
+ * users} {@link VirtualUser}s over {@code rampUp}, lets them all visit the app for {@code
+ * duration}, and then reports the throughput and the latency percentiles of each endpoint during
+ * that time, as a table and as JSON.
+ *
+ * <p>Options are given as {@code name=value} arguments, e.g. {@code users=200 duration=5m}.
+ */
+@Slf4j
+public class LoadDriver {
+
+  /**
+   * Options of a load test.
+   *
+   * @param app url of the app
+   * @param wiremock url of the wiremock server, which simulates the OAuth provider
+   * @param users number of virtual users
+   * @param rampUp time over which the users are started; not part of the results
+   * @param duration how long all users visit the app
+   * @param thinkTime mean time a user waits between two requests
+   * @param timeout time after which a request counts as failed
+   * @param result file to write the results to, as JSON
+   * @param compare result file of an earlier run to compare the results with, or null
+   */
+  public record Options(
+      URI app,
+      URI wiremock,
+      int users,
+      Duration rampUp,
+      Duration duration,
+      Duration thinkTime,
+      Duration timeout,
+      Path result,
+      Path compare) {
+
+    /**
+     * @param args {@code name=value} pairs; names that are not given get their defaults
+     * @return the options
+     */
+    public static Options parse(String... args) {
+      Map<String, String> values = new HashMap<>();
+      values.put("app", "http://localhost:8080");
+      values.put("wiremock", "http://localhost:8090");
+      values.put("users", "50");
+      values.put("rampUp", "30s");
+      values.put("duration", "2m");
+      values.put("thinkTime", "2s");
+      values.put("timeout", "30s");
+      values.put("result", "target/loadtest-result.json");
+      values.put("compare", "");
+      for (String arg : args) {
+        String[] parts = arg.split("=", 2);
+        if (parts.length != 2 || !values.containsKey(parts[0])) {
+          throw new IllegalArgumentException(
+              "expected one of %s followed by =value, not %s".formatted(values.keySet(), arg));
+        }
+        values.put(parts[0], parts[1]);
+      }
+      return new Options(
+          URI.create(values.get("app")),
+          URI.create(values.get("wiremock")),
+          Integer.parseInt(values.get("users")),
+          DurationStyle.detectAndParse(values.get("rampUp")),
+          DurationStyle.detectAndParse(values.get("duration")),
+          DurationStyle.detectAndParse(values.get("thinkTime")),
+          DurationStyle.detectAndParse(values.get("timeout")),
+          Path.of(values.get("result")),
+          values.get("compare").isEmpty() ? null : Path.of(values.get("compare")));
+    }
+  }
+
+  /**
+   * The results of a load test, as they are written to the result file.
+   *
+   * @param users number of virtual users
+   * @param durationSeconds how long the results were recorded
+   * @param thinkTimeMillis mean time a user waited between two requests
+   * @param endpoints the results of each endpoint
+   * @param logins the results of the logins, which happened during the ramp up
+   */
+  public record Report(
+      int users,
+      double durationSeconds,
+      long thinkTimeMillis,
+      List<EndpointResult> endpoints,
+      List<EndpointResult> logins) {
+
+    /**
+     * Prints the results as a table.
+     *
+     * @param out where to print them
+     */
+    public void print(PrintStream out) {
+      out.printf(
+          "%d users, %.0f s, think time %d ms%n%n", users, durationSeconds, thinkTimeMillis);
+      String format = "%-48s %9s %7s %8s %8s %8s %8s%n";
+      out.printf(format, "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+      List<EndpointResult> all = new ArrayList<>(endpoints);
+      all.addAll(logins);
+      for (EndpointResult e : all) {
+        out.printf(
+            format,
+            e.endpoint(),
+            e.requests(),
+            e.errors(),
+            "%.1f".formatted(e.throughput()),
+            "%.1f".formatted(e.p50()),
+            "%.1f".formatted(e.p95()),
+            "%.1f".formatted(e.p99()));
+      }
+      long requests = 0;
+      double throughput = 0;
+      for (EndpointResult e : endpoints) {
+        requests += e.requests();
+        throughput += e.throughput();
+      }
+      out.printf("%nall endpoints: %d requests, %.1f req/s%n", requests, throughput);
+    }
+
+    /**
+     * Prints the throughput, the latency percentiles and the errors of each endpoint next to those
+     * of an earlier run, e.g. of the app on platform threads next to the app on virtual threads.
+     *
+     * @param baseline the results of the earlier run
+     * @param out where to print them
+     */
+    public void printComparison(Report baseline, PrintStream out) {
+      out.printf("%nthis run (%d users) / earlier run (%d users)%n%n", users, baseline.users());
+      String format = "%-48s %17s %17s %17s %13s%n";
+      out.printf(format, "endpoint", "req/s", "p95 ms", "p99 ms", "errors");
+      Map<String, EndpointResult> earlier = new HashMap<>();
+      for (EndpointResult e : baseline.endpoints()) {
+        earlier.put(e.endpoint(), e);
+      }
+      for (EndpointResult e : endpoints) {
+        EndpointResult b = earlier.get(e.endpoint());
+        out.printf(
+            format,
+            e.endpoint(),
+            compare(e, b, EndpointResult::throughput),
+            compare(e, b, EndpointResult::p95),
+            compare(e, b, EndpointResult::p99),
+            compare(e, b, EndpointResult::errors));
+      }
+    }
+
+    private static String compare(
+        EndpointResult now, EndpointResult earlier, ToDoubleFunction<EndpointResult> value) {
+      String before = earlier == null ? "-" : "%.1f".formatted(value.applyAsDouble(earlier));
+      return "%.1f / %s".formatted(value.applyAsDouble(now), before);
+    }
+  }
+
+  private final Options options;
+
+  public LoadDriver(Options options) {
+    this.options = options;
+  }
+
+  /**
+   * Runs the load test.
+   *
+   * @return its results
+   */
+  public Report run() throws InterruptedException {
+    HttpClient client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(options.timeout())
+            .build();
+    Recorder requests = new Recorder();
+    Recorder logins = new Recorder();
+
+    long startNanos = System.nanoTime();
+    long endNanos = startNanos + options.rampUp().plus(options.duration()).toNanos();
+    log.info("starting {} users over {}", options.users(), options.rampUp());
+    logins.start();
+    try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < options.users(); i++) {
+        long delay = options.rampUp().toNanos() * i / options.users();
+        VirtualUser user = new VirtualUser(i + 1, client, options, requests, logins, endNanos);
+        users.submit(
+            () -> {
+              Thread.sleep(Duration.ofNanos(delay));
+              user.run();
+              return null;
+            });
+      }
+      Thread.sleep(options.rampUp());
+      log.info("all users started, recording for {}", options.duration());
+      requests.start();
+      Thread.sleep(Duration.ofNanos(Math.max(0, endNanos - System.nanoTime())));
+      requests.stop();
+      logins.stop();
+    }
+    return new Report(
+        options.users(),
+        requests.elapsed().toMillis() / 1000.0,
+        options.thinkTime().toMillis(),
+        requests.results(),
+        logins.results());
+  }
+
+  /**
+   * Runs a load test against an app that is already running, prints its results and writes them to
+   * the result file.
+   *
+   * @param args options, see {@link Options#parse}
+   */
+  public static void main(String[] args) throws InterruptedException, IOException {
+    Options options = Options.parse(args);
+    Report report = new LoadDriver(options).run();
+    report.print(System.out);
+    ObjectMapper mapper = new ObjectMapper();
+    if (options.compare() != null) {
+      report.printComparison(
+          mapper.readValue(options.compare().toFile(), Report.class), System.out);
+    }
+    Files.createDirectories(options.result().toAbsolutePath().getParent());
+    mapper.writerWithDefaultPrettyPrinter().writeValue(options.result().toFile(), report);
+    System.out.println("results written to " + options.result());
+  }
+}
@@ -0,0 +1,121 @@
+package edu.ucsb.cs156.dining.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the latencies of the requests to each endpoint while it is recording, and sums them up
+ * as throughput and percentiles.
+ */
+public class Recorder {
+
+  /**
+   * What the load test measured for one endpoint.
+   *
+   * @param endpoint method and path template of the endpoint
+   * @param requests number of requests
+   * @param errors number of requests that failed, or got a status of 400 or more
+   * @param throughput requests per second
+   * @param p50 median latency, in milliseconds
+   * @param p95 95th percentile of the latency, in milliseconds
+   * @param p99 99th percentile of the latency, in milliseconds
+   */
+  public record EndpointResult(
+      String endpoint,
+      long requests,
+      long errors,
+      double throughput,
+      double p50,
+      double p95,
+      double p99) {}
+
+  private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+  private volatile long startedNanos;
+  private volatile long stoppedNanos;
+  private volatile boolean recording;
+
+  /** Starts recording; requests that finish before this are not counted. */
+  public void start() {
+    startedNanos = System.nanoTime();
+    recording = true;
+  }
+
+  /** Stops recording; requests that finish after this are not counted. */
+  public void stop() {
+    recording = false;
+    stoppedNanos = System.nanoTime();
+  }
+
+  /**
+   * @param endpoint method and path template of the endpoint
+   * @param latencyNanos how long the request took
+   * @param ok whether it succeeded
+   */
+  public void record(String endpoint, long latencyNanos, boolean ok) {
+    if (recording) {
+      samples.computeIfAbsent(endpoint, e -> new Samples()).add(latencyNanos, ok);
+    }
+  }
+
+  /**
+   * @return how long this recorded
+   */
+  public Duration elapsed() {
+    return Duration.ofNanos(stoppedNanos - startedNanos);
+  }
+
+  /**
+   * @return the results of every endpoint, in the order of their names
+   */
+  public List<EndpointResult> results() {
+    double seconds = Math.max(elapsed().toNanos(), 1) / 1e9;
+    List<EndpointResult> results = new ArrayList<>();
+    samples.keySet().stream()
+        .sorted()
+        .forEach(endpoint -> results.add(samples.get(endpoint).result(endpoint, seconds)));
+    return results;
+  }
+
+  private static final class Samples {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void add(long latencyNanos, boolean ok) {
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, count * 2);
+      }
+      latencies[count++] = latencyNanos;
+      if (!ok) {
+        errors++;
+      }
+    }
+
+    synchronized EndpointResult result(String endpoint, double seconds) {
+      long[] sorted = Arrays.copyOf(latencies, count);
+      Arrays.sort(sorted);
+      return new EndpointResult(
+          endpoint,
+          count,
+          errors,
+          count / seconds,
+          percentile(sorted, 0.50),
+          percentile(sorted, 0.95),
+          percentile(sorted, 0.99));
+    }
+
+    /** Nearest-rank percentile, in milliseconds. */
+    private static double percentile(long[] sorted, double p) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int rank = (int) Math.ceil(p * sorted.length);
+      return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+  }
+}
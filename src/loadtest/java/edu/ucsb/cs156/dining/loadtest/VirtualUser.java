@@ -0,0 +1,332 @@
+package edu.ucsb.cs156.dining.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.services.wiremock.UCSBDiningApiPayloads;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockServiceImpl;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One fake user of the load test. It logs in through the OAuth flow of the simulated provider, then
+ * keeps visiting the app the way students do around a meal: it opens the app, looks at the dining
+ * commons, at the meals of one of them and at the menu of the meal that is being served, and now
+ * and then at an item, its own reviews or the best rated items, or it reviews an item. Between two
+ * requests, it thinks for a random time.
+ *
+ * <p>It keeps its own cookies, so that all users can share one HttpClient.
+ */
+@Slf4j
+public class VirtualUser {
+
+  /** How likely a visit is to include each of the optional requests. */
+  static final double OPEN_ITEM = 0.4;
+
+  static final double OWN_REVIEWS = 0.1;
+  static final double BEST_ITEMS = 0.1;
+  static final double POST_REVIEW = 0.05;
+
+  private static final String REGISTRATION = "my-oauth-provider";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final String username;
+  private final HttpClient client;
+  private final LoadDriver.Options options;
+  private final Recorder requests;
+  private final Recorder logins;
+  private final long endNanos;
+  private final Random random;
+
+  private final Map<String, String> cookies = new HashMap<>();
+  private boolean loggedIn;
+
+  /**
+   * @param number number of the user; it logs in as {@code loadtest-<number>}
+   * @param client the HttpClient to send requests with
+   * @param options options of the load test
+   * @param requests records the requests to the app
+   * @param logins records the logins
+   * @param endNanos the user stops when {@link System#nanoTime} reaches this
+   */
+  public VirtualUser(
+      int number,
+      HttpClient client,
+      LoadDriver.Options options,
+      Recorder requests,
+      Recorder logins,
+      long endNanos) {
+    this.username = WiremockServiceImpl.LOAD_TEST_USER_PREFIX + number;
+    this.client = client;
+    this.options = options;
+    this.requests = requests;
+    this.logins = logins;
+    this.endNanos = endNanos;
+    this.random = new Random(number);
+  }
+
+  /** Visits the app until the end of the load test. */
+  public void run() throws InterruptedException {
+    while (System.nanoTime() < endNanos) {
+      if (!loggedIn) {
+        loggedIn = login();
+      }
+      visit();
+    }
+  }
+
+  /**
+   * Logs in: starts the OAuth flow in the app, submits the login form of the simulated provider and
+   * returns to the app with the code.
+   *
+   * @return whether the app accepted the login
+   */
+  boolean login() throws InterruptedException {
+    long start = System.nanoTime();
+    boolean ok = false;
+    try {
+      HttpResponse<String> authorize =
+          send(HttpRequest.newBuilder(app("/oauth2/authorization/" + REGISTRATION)).GET());
+      Map<String, String> query = query(location(authorize));
+
+      String form =
+          form(
+              Map.of(
+                  "state", query.get("state"),
+                  "redirectUri", query.get("redirect_uri"),
+                  "username", username,
+                  "password", "password"));
+      HttpResponse<String> login =
+          send(
+              HttpRequest.newBuilder(options.wiremock().resolve("/login"))
+                  .header("Content-Type", "application/x-www-form-urlencoded")
+                  .POST(HttpRequest.BodyPublishers.ofString(form)));
+
+      HttpResponse<String> callback = send(HttpRequest.newBuilder(location(login)).GET());
+      ok = callback.statusCode() == 302 && !location(callback).toString().contains("error");
+      if (!ok) {
+        log.warn("{} could not log in: {}", username, callback.headers().map());
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("{} could not log in: {}", username, e.toString());
+    } finally {
+      logins.record("login (OAuth flow)", System.nanoTime() - start, ok);
+    }
+    return ok;
+  }
+
+  /** One visit to the app around a meal. */
+  void visit() throws InterruptedException {
+    // most look at today's menus; some plan for tomorrow
+    LocalDate date = LocalDate.now().plusDays(random.nextInt(5) == 0 ? 1 : 0);
+    String commons = pick(UCSBDiningApiPayloads.COMMONS);
+    String meal = currentMeal();
+
+    String meals = "/api/diningcommons/%s/%s".formatted(date, commons);
+    if (!step("/api/currentUser", "GET /api/currentUser")
+        || !step("/api/dining/all", "GET /api/dining/all")
+        || !step(meals, "GET /api/diningcommons/{date}/{commons}")
+        || !think()) {
+      return;
+    }
+    String menu =
+        get(
+            "/api/diningcommons/%s/%s/%s".formatted(date, commons, meal),
+            "GET /api/diningcommons/{date}/{commons}/{meal}");
+    List<Long> itemIds = ids(menu);
+
+    if (!itemIds.isEmpty() && random.nextDouble() < OPEN_ITEM && think()) {
+      get("/api/diningcommons/menuitem?id=" + pick(itemIds), "GET /api/diningcommons/menuitem");
+    }
+    if (random.nextDouble() < OWN_REVIEWS && think()) {
+      get("/api/reviews/userReviews", "GET /api/reviews/userReviews");
+    }
+    if (random.nextDouble() < BEST_ITEMS && think()) {
+      get("/api/statistics/items/best", "GET /api/statistics/items/best");
+    }
+    if (!itemIds.isEmpty() && random.nextDouble() < POST_REVIEW && think()) {
+      postReview(pick(itemIds));
+    }
+  }
+
+  private void postReview(long itemId) throws InterruptedException {
+    Map<String, String> params = new LinkedHashMap<>();
+    params.put("itemId", Long.toString(itemId));
+    params.put("itemsStars", Integer.toString(1 + random.nextInt(5)));
+    params.put("dateItemServed", LocalDate.now().atTime(12, 0).toString());
+    if (random.nextInt(3) == 0) {
+      // reviews with comments wait for a moderator
+      params.put("reviewerComments", "Written by the load test");
+    }
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(app("/api/reviews/post?" + form(params)))
+            .POST(HttpRequest.BodyPublishers.noBody());
+    String xsrf = cookies.get("XSRF-TOKEN");
+    if (xsrf != null) {
+      request.header("X-XSRF-TOKEN", xsrf);
+    }
+    timed("POST /api/reviews/post", request);
+  }
+
+  /**
+   * Thinks, then sends a GET request.
+   *
+   * @return whether the load test is still running and the request succeeded
+   */
+  private boolean step(String path, String endpoint) throws InterruptedException {
+    return think() && get(path, endpoint) != null;
+  }
+
+  /**
+   * @return the body of the response, or null if the request failed
+   */
+  private String get(String path, String endpoint) throws InterruptedException {
+    return timed(endpoint, HttpRequest.newBuilder(app(path)).GET());
+  }
+
+  private String timed(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+    long start = System.nanoTime();
+    try {
+      HttpResponse<String> response = send(request);
+      boolean ok = response.statusCode() < 400;
+      requests.record(endpoint, System.nanoTime() - start, ok);
+      if (response.statusCode() == 401 || response.statusCode() == 403) {
+        loggedIn = false;
+      }
+      return ok ? response.body() : null;
+    } catch (IOException e) {
+      requests.record(endpoint, System.nanoTime() - start, false);
+      return null;
+    }
+  }
+
+  private HttpResponse<String> send(HttpRequest.Builder request)
+      throws IOException, InterruptedException {
+    if (!cookies.isEmpty()) {
+      request.header(
+          "Cookie",
+          cookies.entrySet().stream()
+              .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+              .collect(Collectors.joining("; ")));
+    }
+    request.timeout(options.timeout());
+    HttpResponse<String> response =
+        client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    if (response.uri().getPort() == options.app().getPort()) {
+      for (String header : response.headers().allValues("Set-Cookie")) {
+        String pair = header.split(";", 2)[0];
+        int equals = pair.indexOf('=');
+        if (equals > 0) {
+          String value = pair.substring(equals + 1).trim();
+          if (value.isEmpty()) {
+            cookies.remove(pair.substring(0, equals).trim());
+          } else {
+            cookies.put(pair.substring(0, equals).trim(), value);
+          }
+        }
+      }
+    }
+    return response;
+  }
+
+  /**
+   * Waits for a random think time, with an exponential distribution around {@code
+   * options.thinkTime()}.
+   *
+   * @return whether the load test is still running afterwards
+   */
+  private boolean think() throws InterruptedException {
+    double mean = options.thinkTime().toNanos();
+    long nanos = (long) (-mean * Math.log(1 - random.nextDouble()));
+    long remaining = endNanos - System.nanoTime();
+    Thread.sleep(Duration.ofNanos(Math.max(0, Math.min(nanos, remaining))));
+    return System.nanoTime() < endNanos;
+  }
+
+  /** The meal being served now; brunch replaces breakfast and lunch now and then. */
+  private String currentMeal() {
+    int hour = LocalTime.now().getHour();
+    if (hour >= 15) {
+      return "dinner";
+    }
+    if (random.nextInt(7) == 0) {
+      return "brunch";
+    }
+    return hour < 10 ? "breakfast" : "lunch";
+  }
+
+  private <T> T pick(List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  private static List<Long> ids(String menu) {
+    List<Long> ids = new ArrayList<>();
+    if (menu == null || menu.isEmpty()) {
+      return ids;
+    }
+    try {
+      for (JsonNode item : MAPPER.readTree(menu)) {
+        ids.add(item.path("id").asLong());
+      }
+    } catch (IOException e) {
+      log.warn("could not read menu: {}", e.toString());
+    }
+    return ids;
+  }
+
+  private URI app(String path) {
+    return options.app().resolve(path);
+  }
+
+  private static URI location(HttpResponse<String> response) {
+    return response
+        .uri()
+        .resolve(
+            response
+                .headers()
+                .firstValue("Location")
+                .orElseThrow(
+                    () ->
+                        new IllegalStateException(
+                            "no redirect from %s: %d"
+                                .formatted(response.uri(), response.statusCode()))));
+  }
+
+  private static Map<String, String> query(URI uri) {
+    Map<String, String> query = new HashMap<>();
+    for (String pair : uri.getRawQuery().split("&")) {
+      String[] parts = pair.split("=", 2);
+      query.put(
+          URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+          parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+    }
+    return query;
+  }
+
+  private static String form(Map<String, String> values) {
+    return values.entrySet().stream()
+        .map(
+            value ->
+                URLEncoder.encode(value.getKey(), StandardCharsets.UTF_8)
+                    + "="
+                    + URLEncoder.encode(value.getValue(), StandardCharsets.UTF_8))
+        .collect(Collectors.joining("&"));
+  }
+}
@@ -13,12 +13,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /** The ExampleApplication class is the main entry point for the application. */
 @SpringBootApplication
 @Slf4j
 @EnableJpaAuditing(dateTimeProviderRef = "utcDateTimeProvider")
 @EnableCaching
+@EnableScheduling
 public class ExampleApplication {
 
   @Autowired WiremockService wiremockService;
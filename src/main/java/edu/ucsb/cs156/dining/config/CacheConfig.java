@@ -0,0 +1,128 @@
+package edu.ucsb.cs156.dining.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the caches for responses from the UCSB APIs.
+ *
+ * <p>Every cache is a bounded Caffeine cache that records hits, misses and evictions (these are
+ * reported by {@link edu.ucsb.cs156.dining.controllers.CacheController}). Only the caches listed
+ * here exist; a {@code @Cacheable} naming any other cache fails instead of silently getting an
+ * unbounded one.
+ *
+ * <p>The menu cache is keyed by {@code date|commons}. The menu for today or a later day can still
+ * change, so it is fetched again after a short time; menus for past days are kept much longer. The
+ * list of dining commons is kept for a day. The menu items of a single meal are cached separately
+ * by {@link edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache}, which uses the same settings.
+ */
+@Configuration
+public class CacheConfig {
+
+  public static final String MENU = "menu";
+  public static final String MENU_ITEM = "menuItem";
+  public static final String DINING_COMMONS = "diningCommons";
+
+  @Value("${app.cache.menus.maximumSize:1000}")
+  long menuMaximumSize;
+
+  @Value("${app.cache.menus.currentTtl:15m}")
+  Duration currentMenuTtl;
+
+  @Value("${app.cache.menus.pastTtl:7d}")
+  Duration pastMenuTtl;
+
+  @Value("${app.cache.diningCommons.ttl:1d}")
+  Duration diningCommonsTtl;
+
+  /**
+   * Expires menu entries depending on the date at the start of their key (as a string): entries for
+   * days before today live for {@code pastTtl}, all others (including keys without a date) for
+   * {@code currentTtl}.
+   */
+  public static class MenuExpiry implements Expiry<Object, Object> {
+    private final Clock clock;
+    private final Duration currentTtl;
+    private final Duration pastTtl;
+
+    public MenuExpiry(Clock clock, Duration currentTtl, Duration pastTtl) {
+      this.clock = clock;
+      this.currentTtl = currentTtl;
+      this.pastTtl = pastTtl;
+    }
+
+    /**
+     * @param key a cache key starting with an iso date
+     * @return whether the key is for a day before today
+     */
+    public boolean isPast(Object key) {
+      try {
+        LocalDate day = LocalDate.parse(key.toString().substring(0, 10));
+        return day.isBefore(LocalDate.now(clock));
+      } catch (DateTimeParseException | StringIndexOutOfBoundsException e) {
+        return false;
+      }
+    }
+
+    Duration ttlFor(Object key) {
+      return isPast(key) ? pastTtl : currentTtl;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+      return ttlFor(key).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        Object key, Object value, long currentTime, long currentDuration) {
+      return ttlFor(key).toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+
+  CaffeineCache menuCache(String name, Clock clock) {
+    return new CaffeineCache(
+        name,
+        Caffeine.newBuilder()
+            .maximumSize(menuMaximumSize)
+            .expireAfter(new MenuExpiry(clock, currentMenuTtl, pastMenuTtl))
+            .recordStats()
+            .build());
+  }
+
+  CaffeineCache diningCommonsCache() {
+    return new CaffeineCache(
+        DINING_COMMONS,
+        Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(diningCommonsTtl)
+            .recordStats()
+            .build());
+  }
+
+  /**
+   * @param clock the clock of {@link ClockConfig}, which tells what day it is on campus
+   */
+  @Bean
+  public CacheManager cacheManager(Clock clock) {
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(List.of(menuCache(MENU, clock), diningCommonsCache()));
+    return cacheManager;
+  }
+}
@@ -0,0 +1,23 @@
+package edu.ucsb.cs156.dining.config;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the clock that tells what day it is on campus.
+ *
+ * <p>Menus are published per day in the time zone of UCSB ({@code app.timezone}), while the server
+ * usually runs in UTC. Between 4 or 5 pm and midnight on campus, it is already the next day in UTC,
+ * so "today" must always be computed with this clock and never with the default zone of the JVM.
+ */
+@Configuration
+public class ClockConfig {
+
+  @Bean
+  public Clock clock(@Value("${app.timezone:America/Los_Angeles}") ZoneId zone) {
+    return Clock.system(zone);
+  }
+}
@@ -0,0 +1,85 @@
+package edu.ucsb.cs156.dining.config;
+
+import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Configures the metrics that are not set up by Spring Boot itself (see docs/metrics.md).
+ *
+ * <p>Spring Boot already times every request ({@code http.server.requests}), records the caches
+ * of the cache manager, the Hikari connection pool and, with {@code hibernate.generate_statistics},
+ * the statements Hibernate runs. This adds the controller that handled a request as a tag of
+ * {@code http.server.requests}, and records the menu items cache, which is not in the cache
+ * manager, and the pool of connections to the UCSB API.
+ */
+@Configuration
+public class MetricsConfig {
+
+  /** Tag of {@code http.server.requests} with the simple name of the controller. */
+  public static final String CONTROLLER_TAG = "controller";
+
+  /**
+   * Tags the timings of requests with the controller that handled them, or {@code none} for
+   * requests that no controller handled (static files, redirects of the OAuth login, ...).
+   */
+  public static class ControllerObservationConvention
+      extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+      return super.getLowCardinalityKeyValues(context).and(controller(context));
+    }
+
+    KeyValue controller(ServerRequestObservationContext context) {
+      Object handler =
+          context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+      if (handler instanceof HandlerMethod method) {
+        return KeyValue.of(CONTROLLER_TAG, method.getBeanType().getSimpleName());
+      }
+      return KeyValue.of(CONTROLLER_TAG, "none");
+    }
+  }
+
+  @Bean
+  public ServerRequestObservationConvention serverRequestObservationConvention() {
+    return new ControllerObservationConvention();
+  }
+
+  /**
+   * Records the menu items cache like Spring Boot records the caches of the cache manager, so that
+   * all of them are in the same metrics ({@code cache.gets}, {@code cache.evictions}, ...).
+   */
+  @Bean
+  public MeterBinder menuItemsCacheMetrics(UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache) {
+    return registry ->
+        CaffeineCacheMetrics.monitor(
+            registry,
+            ucsbDiningMenuItemsCache.nativeCache(),
+            CacheConfig.MENU_ITEM,
+            "cache.manager",
+            "ucsbDiningMenuItemsCache");
+  }
+
+  /**
+   * Records the connections of the pool of {@link UCSBApiClientConfig}: how many are leased and
+   * available, and how many requests wait for one ({@code httpcomponents.httpclient.pool.*}).
+   */
+  @Bean
+  public MeterBinder ucsbApiConnectionPoolMetrics(
+      PoolingHttpClientConnectionManager ucsbApiConnectionManager) {
+    return new PoolingHttpClientConnectionManagerMetricsBinder(
+        ucsbApiConnectionManager, UCSBApiClientConfig.POOL);
+  }
+}
@@ -2,24 +2,24 @@ package edu.ucsb.cs156.dining.config;
 
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
-import edu.ucsb.cs156.dining.repositories.AdminRepository;
-import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -27,7 +27,12 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
@@ -50,12 +55,43 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Slf4j
 public class SecurityConfig {
 
-  @Value("#{'${app.admin.emails}'.split(',')}")
-  private final List<String> adminEmails = new ArrayList<>();
+  @Autowired RoleRegistry roleRegistry;
 
-  @Autowired AdminRepository adminRepository;
+  @Value("${app.metrics.username:prometheus}")
+  String metricsUsername;
 
-  @Autowired ModeratorRepository moderatorRepository;
+  @Value("${app.metrics.password:}")
+  String metricsPassword;
+
+  /**
+   * The `metricsFilterChain` method secures the Prometheus endpoint, which is served to Prometheus
+   * rather than to a browser. Prometheus authenticates with HTTP basic as `app.metrics.username`
+   * and `app.metrics.password`; admins who are logged in may read the metrics too. Without a
+   * password, only admins can.
+   *
+   * @param http injected HttpSecurity object (injected by Spring framework)
+   */
+  @Bean
+  @Order(1)
+  public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+    http.securityMatcher(EndpointRequest.to("prometheus"))
+        .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("ADMIN", "METRICS"))
+        .httpBasic(Customizer.withDefaults())
+        .userDetailsService(metricsUserDetailsService());
+    return http.build();
+  }
+
+  private UserDetailsService metricsUserDetailsService() {
+    if (!StringUtils.hasText(metricsPassword)) {
+      return new InMemoryUserDetailsManager();
+    }
+    PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    return new InMemoryUserDetailsManager(
+        User.withUsername(metricsUsername)
+            .password(encoder.encode(metricsPassword))
+            .roles("METRICS")
+            .build());
+  }
 
   /**
    * The `filterChain` method in this Java code configures various security settings for an HTTP
@@ -132,27 +168,23 @@ public class SecurityConfig {
 
   /**
    * This method checks if the given email belongs to an admin user either from a predefined list or
-   * by querying the admin repository.
+   * from the admins table.
    *
    * @param email email address of the user
    * @return whether the user with the given email is an admin
    */
   public boolean getAdmin(String email) {
-    if (adminEmails.contains(email)) {
-      return true;
-    }
-    return adminRepository.existsByEmail(email);
+    return roleRegistry.isAdmin(email);
   }
 
   /**
-   * This method checks if the given email belongs to a moderator user by querying the moderator
-   * repository.
+   * This method checks if the given email belongs to a moderator user.
    *
    * @param email email address of the user
    * @return whether the user with the given email is a moderator
    */
   public boolean getModerator(String email) {
-    return moderatorRepository.existsByEmail(email);
+    return roleRegistry.isModerator(email);
   }
 }
 
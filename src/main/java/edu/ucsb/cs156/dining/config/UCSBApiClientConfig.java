@@ -0,0 +1,110 @@
+package edu.ucsb.cs156.dining.config;
+
+import java.time.Duration;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Configures the HTTP client that the services use to call the UCSB API.
+ *
+ * <p>All of them share one {@link RestTemplate}, backed by one pool of keep-alive connections, so
+ * a request reuses the connection (and TLS session) of an earlier one instead of opening its own.
+ * Every step of a request is bounded: waiting for a connection from the pool ({@code
+ * connectionRequestTimeout}), opening one ({@code connectTimeout}) and waiting for the response
+ * ({@code responseTimeout}), so a slow UCSB API cannot hold the thread that serves a request for
+ * longer than that. Connections that were idle for {@code idleTimeout}, or are older than {@code
+ * timeToLive}, are closed.
+ *
+ * <p>The pool is reported as the {@code httpcomponents.httpclient.pool.*} metrics (see {@link
+ * MetricsConfig}).
+ */
+@Configuration
+public class UCSBApiClientConfig {
+
+  /** Name of the pool in its metrics. */
+  public static final String POOL = "ucsbApi";
+
+  @Value("${app.ucsb.api.client.maxConnections:20}")
+  int maxConnections;
+
+  @Value("${app.ucsb.api.client.connectTimeout:2s}")
+  Duration connectTimeout;
+
+  @Value("${app.ucsb.api.client.connectionRequestTimeout:1s}")
+  Duration connectionRequestTimeout;
+
+  @Value("${app.ucsb.api.client.responseTimeout:10s}")
+  Duration responseTimeout;
+
+  @Value("${app.ucsb.api.client.idleTimeout:30s}")
+  Duration idleTimeout;
+
+  @Value("${app.ucsb.api.client.timeToLive:5m}")
+  Duration timeToLive;
+
+  static Timeout timeout(Duration duration) {
+    return Timeout.ofMilliseconds(duration.toMillis());
+  }
+
+  static TimeValue timeValue(Duration duration) {
+    return TimeValue.ofMilliseconds(duration.toMillis());
+  }
+
+  /**
+   * @return the pool of connections to the UCSB API; all requests go to the same host, so a single
+   *     route may use all of its connections
+   */
+  @Bean
+  public PoolingHttpClientConnectionManager ucsbApiConnectionManager() {
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxConnections)
+        .setMaxConnPerRoute(maxConnections)
+        .setDefaultConnectionConfig(
+            ConnectionConfig.custom()
+                .setConnectTimeout(timeout(connectTimeout))
+                .setSocketTimeout(timeout(responseTimeout))
+                .setTimeToLive(timeValue(timeToLive))
+                .build())
+        .build();
+  }
+
+  @Bean
+  public CloseableHttpClient ucsbApiHttpClient(
+      PoolingHttpClientConnectionManager ucsbApiConnectionManager) {
+    return HttpClients.custom()
+        .setConnectionManager(ucsbApiConnectionManager)
+        .setDefaultRequestConfig(
+            RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout(connectionRequestTimeout))
+                .setResponseTimeout(timeout(responseTimeout))
+                .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(timeValue(idleTimeout))
+        .build();
+  }
+
+  /**
+   * @return the RestTemplate of the services that call the UCSB API; it is built with the
+   *     RestTemplateBuilder of Spring Boot, so it is also timed as {@code http.client.requests},
+   *     and in the wiremock profile sends its requests to wiremock
+   */
+  @Bean
+  public RestTemplate ucsbApiRestTemplate(
+      RestTemplateBuilder restTemplateBuilder, CloseableHttpClient ucsbApiHttpClient) {
+    return restTemplateBuilder
+        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(ucsbApiHttpClient))
+        .build();
+  }
+}
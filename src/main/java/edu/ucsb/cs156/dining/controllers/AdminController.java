@@ -3,6 +3,7 @@ package edu.ucsb.cs156.dining.controllers;
 import edu.ucsb.cs156.dining.entities.Admin;
 import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
 import edu.ucsb.cs156.dining.repositories.AdminRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import edu.ucsb.cs156.dining.utilities.CanonicalFormConverter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,7 +12,6 @@ import java.util.List;
 import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -28,12 +28,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController extends ApiController {
   @Autowired AdminRepository adminRepository;
 
-  @Value("#{'${app.admin.emails}'.split(',')}")
-  List<String> adminEmails;
+  @Autowired RoleRegistry roleRegistry;
 
   public static record AdminDTO(String email, boolean isInAdminEmails) {
-    public AdminDTO(Admin admin, List<String> adminEmails) {
-      this(admin.getEmail(), adminEmails.contains(admin.getEmail()));
+    public AdminDTO(Admin admin, RoleRegistry roleRegistry) {
+      this(admin.getEmail(), roleRegistry.isInAdminEmails(admin.getEmail()));
     }
   }
 
@@ -50,6 +49,7 @@ public class AdminController extends ApiController {
     String convertedEmail = CanonicalFormConverter.convertToValidEmail(email);
     Admin admin = new Admin(convertedEmail);
     Admin savedAdmin = adminRepository.save(admin);
+    roleRegistry.setAdmin(convertedEmail, true);
     return savedAdmin;
   }
 
@@ -65,7 +65,7 @@ public class AdminController extends ApiController {
     Iterable<Admin> admins = adminRepository.findAll();
     List<AdminDTO> adminDTOs =
         StreamSupport.stream(admins.spliterator(), false)
-            .map(admin -> new AdminDTO(admin, adminEmails))
+            .map(admin -> new AdminDTO(admin, roleRegistry))
             .toList();
 
     return adminDTOs;
@@ -85,11 +85,12 @@ public class AdminController extends ApiController {
     if (admins.isEmpty()) {
       throw new EntityNotFoundException(Admin.class, email);
     }
-    if (adminEmails.contains(email)) {
+    if (roleRegistry.isInAdminEmails(email)) {
       throw new UnsupportedOperationException(
           "Forbidden to delete an admin from ADMIN_EMAILS list");
     }
     adminRepository.deleteByEmail(email);
+    roleRegistry.setAdmin(email, false);
     return genericMessage("Admin with id %s deleted".formatted(email));
   }
 }
@@ -0,0 +1,80 @@
+package edu.ucsb.cs156.dining.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import edu.ucsb.cs156.dining.config.CacheConfig;
+import edu.ucsb.cs156.dining.models.CacheStatistics;
+import edu.ucsb.cs156.dining.models.MenuWarmupReport;
+import edu.ucsb.cs156.dining.services.MenuWarmupService;
+import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This is a REST controller for inspecting the caches of UCSB API responses.
+ *
+ * @see edu.ucsb.cs156.dining.config.CacheConfig
+ */
+@Tag(name = "Caches")
+@RequestMapping("/api/caches")
+@RestController
+public class CacheController extends ApiController {
+
+  @Autowired CacheManager cacheManager;
+
+  @Autowired UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache;
+
+  @Autowired MenuWarmupService menuWarmupService;
+
+  static CacheStatistics statistics(String name, Cache<?, ?> cache) {
+    CacheStats stats = cache.stats();
+    return CacheStatistics.builder()
+        .name(name)
+        .size(cache.estimatedSize())
+        .hitCount(stats.hitCount())
+        .missCount(stats.missCount())
+        .evictionCount(stats.evictionCount())
+        .hitRate(stats.hitRate())
+        .build();
+  }
+
+  /**
+   * Lists the statistics of every cache that records them.
+   *
+   * @return the size and hit/miss/eviction counts of each cache
+   */
+  @Operation(summary = "Get statistics for the caches of UCSB API responses")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @GetMapping("")
+  public List<CacheStatistics> cacheStatistics() {
+    List<CacheStatistics> statistics = new ArrayList<>();
+    for (String name : cacheManager.getCacheNames()) {
+      if (cacheManager.getCache(name).getNativeCache() instanceof Cache<?, ?> cache) {
+        statistics.add(statistics(name, cache));
+      }
+    }
+    statistics.add(statistics(CacheConfig.MENU_ITEM, ucsbDiningMenuItemsCache.nativeCache()));
+    return statistics;
+  }
+
+  /**
+   * Fetches today's and tomorrow's menus right away instead of waiting for the scheduled warmup.
+   *
+   * @return what was loaded and how long it took
+   */
+  @Operation(summary = "Warm up the menu caches for today and tomorrow")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @PostMapping("/warmup")
+  public MenuWarmupReport warmup() throws Exception {
+    return menuWarmupService.warmup();
+  }
+}
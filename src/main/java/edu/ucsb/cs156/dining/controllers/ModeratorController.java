@@ -3,6 +3,7 @@ package edu.ucsb.cs156.dining.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ucsb.cs156.dining.entities.Moderator;
 import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import edu.ucsb.cs156.dining.utilities.CanonicalFormConverter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,6 +31,8 @@ public class ModeratorController extends ApiController {
 
   @Autowired ObjectMapper mapper;
 
+  @Autowired RoleRegistry roleRegistry;
+
   /**
    * Create a new Moderator, available only to Admins.
    *
@@ -43,6 +46,7 @@ public class ModeratorController extends ApiController {
     String convertedEmail = CanonicalFormConverter.convertToValidEmail(email);
     Moderator moderator = Moderator.builder().email(convertedEmail).build();
     moderatorRepository.save(moderator);
+    roleRegistry.setModerator(convertedEmail, true);
     return moderator;
   }
 
@@ -70,6 +74,7 @@ public class ModeratorController extends ApiController {
     }
 
     moderatorRepository.deleteByEmail(email);
+    roleRegistry.setModerator(email, false);
     return ResponseEntity.status(200)
         .body(String.format("Moderator with email %s deleted.", email));
   }
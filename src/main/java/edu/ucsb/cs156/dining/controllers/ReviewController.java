@@ -7,19 +7,33 @@ import edu.ucsb.cs156.dining.entities.User;
 import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
 import edu.ucsb.cs156.dining.models.CurrentUser;
 import edu.ucsb.cs156.dining.models.EditedReview;
+import edu.ucsb.cs156.dining.models.ModerationOutcome;
+import edu.ucsb.cs156.dining.models.ReviewModeration;
+import edu.ucsb.cs156.dining.models.ReviewView;
 import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
 import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.services.ModerationService;
+import edu.ucsb.cs156.dining.services.ReviewExportService;
+import edu.ucsb.cs156.dining.services.ReviewService;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,6 +48,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** This is a REST controller for Reviews */
 @Tag(name = "Review")
@@ -58,39 +73,137 @@ public class ReviewController extends ApiController {
 
   @Autowired MenuItemRepository menuItemRepository;
 
+  @Autowired ReviewService reviewService;
+
+  @Autowired ReviewExportService reviewExportService;
+
+  @Autowired ModerationService moderationService;
+
+  /** Number of reviews per page when {@code after} is given without a {@code size}. */
+  static final int DEFAULT_PAGE_SIZE = 50;
+
+  /** Largest page of a review listing. */
+  static final int MAX_PAGE_SIZE = 500;
+
+  /** Response header with the {@code after} value for the next page, absent on the last page. */
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static boolean isPaged(Long after, Integer size) {
+    return after != null || size != null;
+  }
+
+  private static long start(Long after) {
+    return after == null ? 0 : after;
+  }
+
+  /** The page to read: all reviews unless {@code after} or {@code size} is given. */
+  private static Pageable pageable(Long after, Integer size) {
+    if (!isPaged(after, size)) {
+      return Pageable.unpaged();
+    }
+    int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    return PageRequest.ofSize(pageSize);
+  }
+
+  /** Returns one page of a review listing, with the cursor for the next page if there is one. */
+  private static ResponseEntity<List<ReviewView>> page(Slice<ReviewView> slice) {
+    List<ReviewView> reviews = slice.getContent();
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (slice.hasNext()) {
+      response.header(NEXT_CURSOR_HEADER, String.valueOf(reviews.get(reviews.size() - 1).id()));
+    }
+    return response.body(reviews);
+  }
+
   /**
-   * This method returns a list of all Reviews.
+   * This method returns a list of all Reviews, or one page of them.
    *
-   * @return a list of all Reviews
+   * <p>The review listings are paged by id (keyset pagination): a page holds the first {@code size}
+   * reviews with an id greater than {@code after}. If there are more, the {@code X-Next-Cursor}
+   * header holds the {@code after} value for the next page. Without {@code after} and {@code size}
+   * the whole list is returned.
+   *
+   * @param after id of the last review of the previous page, 0 for the first page
+   * @param size number of reviews per page
+   * @return a list of all Reviews, or one page of them
    */
-  @Operation(summary = "List all Reviews")
+  @Operation(summary = "List all Reviews, optionally one page at a time")
   @PreAuthorize("hasRole('ROLE_ADMIN')")
   @GetMapping("/all")
-  public Iterable<Review> allReviews() {
-    log.info("Attempting to log all reviews");
-    Iterable<Review> reviews = reviewRepository.findAll();
-    log.info("all reviews found, ", reviews);
-    return reviews;
+  public ResponseEntity<List<ReviewView>> allReviews(
+      @Parameter(name = "after", description = "id of the last review of the previous page")
+          @RequestParam(required = false)
+          Long after,
+      @Parameter(name = "size", description = "number of reviews per page, at most 500")
+          @RequestParam(required = false)
+          Integer size) {
+    return page(reviewRepository.findViewsAfter(start(after), pageable(after, size)));
   }
 
   /**
-   * This method returns a list of all Reviews.
+   * Exports the reviews for offline analysis. The export is written straight to the response while
+   * the reviews are read from the database, so it works for any number of reviews.
    *
-   * @return a list of all Reviews
+   * @param format ndjson (one JSON object per line) or csv
+   * @param status status of the reviews to export, all reviews if absent
+   * @param from first day served to export
+   * @param to last day served to export
+   * @return the export, as an attachment
+   */
+  @Operation(summary = "Export reviews as NDJSON or CSV")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportReviews(
+      @Parameter(name = "format", description = "ndjson or csv")
+          @RequestParam(defaultValue = "ndjson")
+          String format,
+      @Parameter(name = "status", description = "only export reviews with this status")
+          @RequestParam(required = false)
+          ModerationStatus status,
+      @Parameter(name = "from", description = "first day served to export, e.g. 2025-04-01")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @Parameter(name = "to", description = "last day served to export, e.g. 2025-04-30")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to) {
+    ReviewExportService.Format exportFormat = ReviewExportService.Format.parse(format);
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new IllegalArgumentException("from must not be after to");
+    }
+    StreamingResponseBody body =
+        out -> reviewExportService.export(exportFormat, status, from, to, out);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename("reviews." + exportFormat.getExtension())
+                .build()
+                .toString())
+        .body(body);
+  }
+
+  /**
+   * This method returns the approved reviews of a menu item.
+   *
+   * @param itemId id of the menu item
+   * @return the approved reviews of the item
    */
   @Operation(summary = "List all approved reviews for a specific item")
   @GetMapping("/approved/forItem/{itemId}")
-  public Iterable<Review> allApprovedReviewsForItem(
+  public List<ReviewView> allApprovedReviewsForItem(
       @Parameter(name = "itemId") @PathVariable("itemId") long itemId) {
     log.info("Attempting to log all approved reviews for item with id: {}", itemId);
-    MenuItem item =
-        menuItemRepository
-            .findById(itemId)
-            .orElseThrow(() -> new EntityNotFoundException(MenuItem.class, itemId));
-    Iterable<Review> reviews =
-        reviewRepository.findByItemAndStatus(item, ModerationStatus.APPROVED);
-    log.info("all approved reviews for item found, ", reviews);
-    return reviews;
+    if (!menuItemRepository.existsById(itemId)) {
+      throw new EntityNotFoundException(MenuItem.class, itemId);
+    }
+    return reviewRepository.findViewsByItemIdInAndStatus(
+        List.of(itemId), ModerationStatus.APPROVED);
   }
 
   /**
@@ -145,23 +258,31 @@ public class ReviewController extends ApiController {
     CurrentUser user = getCurrentUser();
     review.setReviewer(user.getUser());
     log.info("reviews={}", review);
-    review = reviewRepository.save(review);
-    return review;
+    return reviewService.create(review);
   }
 
   /**
    * This method allows a user to get a list of reviews that they have previously made. Only user
    * can only get a list of their own reviews, and you cant request another persons reviews
    *
-   * @return a list of reviews sent by a given user
+   * @param after id of the last review of the previous page (see {@link #allReviews})
+   * @param size number of reviews per page
+   * @return a list of reviews sent by a given user, or one page of them
    */
   @Operation(summary = "Get all reviews a user has sent: only callable by the user")
   @PreAuthorize("hasRole('ROLE_USER')")
   @GetMapping("/userReviews")
-  public Iterable<Review> get_all_review_by_user_id() {
+  public ResponseEntity<List<ReviewView>> get_all_review_by_user_id(
+      @Parameter(name = "after", description = "id of the last review of the previous page")
+          @RequestParam(required = false)
+          Long after,
+      @Parameter(name = "size", description = "number of reviews per page, at most 500")
+          @RequestParam(required = false)
+          Integer size) {
     CurrentUser user = getCurrentUser();
-    Iterable<Review> reviews = reviewRepository.findByReviewer(user.getUser());
-    return reviews;
+    return page(
+        reviewRepository.findViewsByReviewerIdAfter(
+            user.getUser().getId(), start(after), pageable(after, size)));
   }
 
   @Operation(summary = "Edit a review")
@@ -169,58 +290,51 @@ public class ReviewController extends ApiController {
   @PutMapping("/reviewer")
   public Review editReview(@Parameter Long id, @RequestBody @Valid EditedReview incoming) {
 
-    Review oldReview =
-        reviewRepository
-            .findById(id)
-            .orElseThrow(() -> new EntityNotFoundException(Review.class, id));
     User current = getCurrentUser().getUser();
-    if (current.getId() != oldReview.getReviewer().getId()) {
-      throw new AccessDeniedException("No permission to edit review");
-    }
-
-    if (incoming.getItemStars() < 1 || incoming.getItemStars() > 5) {
-      throw new IllegalArgumentException("Items stars must be between 1 and 5.");
-    } else {
-      oldReview.setItemsStars(incoming.getItemStars());
-    }
-
-    if (hasReviewerComments(incoming.getReviewerComments())) {
-      oldReview.setReviewerComments(incoming.getReviewerComments());
-      oldReview.setStatus(ModerationStatus.AWAITING_REVIEW);
-    } else {
-      oldReview.setReviewerComments(null);
-      oldReview.setStatus(ModerationStatus.APPROVED);
-    }
-
-    oldReview.setDateItemServed(incoming.getDateItemServed());
-
-    oldReview.setModeratorComments(null);
-
-    Review review = reviewRepository.save(oldReview);
-
-    return review;
+    return reviewService.update(
+        id,
+        oldReview -> {
+          if (current.getId() != oldReview.getReviewer().getId()) {
+            throw new AccessDeniedException("No permission to edit review");
+          }
+
+          if (incoming.getItemStars() < 1 || incoming.getItemStars() > 5) {
+            throw new IllegalArgumentException("Items stars must be between 1 and 5.");
+          } else {
+            oldReview.setItemsStars(incoming.getItemStars());
+          }
+
+          if (hasReviewerComments(incoming.getReviewerComments())) {
+            oldReview.setReviewerComments(incoming.getReviewerComments());
+            oldReview.setStatus(ModerationStatus.AWAITING_REVIEW);
+          } else {
+            oldReview.setReviewerComments(null);
+            oldReview.setStatus(ModerationStatus.APPROVED);
+          }
+
+          oldReview.setDateItemServed(incoming.getDateItemServed());
+
+          oldReview.setModeratorComments(null);
+        });
   }
 
   @Operation(summary = "Delete a review")
   @PreAuthorize("hasRole('ROLE_USER')")
   @DeleteMapping("/reviewer")
   public Object deleteReview(@Parameter Long id) {
-    Review review =
-        reviewRepository
-            .findById(id)
-            .orElseThrow(() -> new EntityNotFoundException(Review.class, id));
-
     CurrentUser currentUser = getCurrentUser();
     User current = currentUser.getUser();
     boolean currentUserIsAdmin =
         currentUser.getRoles().stream()
             .map(GrantedAuthority::getAuthority)
             .anyMatch("ROLE_ADMIN"::equals);
-    if (current.getId() != review.getReviewer().getId() && !currentUserIsAdmin) {
-      throw new AccessDeniedException("No permission to delete review");
-    }
-
-    reviewRepository.delete(review);
+    reviewService.delete(
+        id,
+        review -> {
+          if (current.getId() != review.getReviewer().getId() && !currentUserIsAdmin) {
+            throw new AccessDeniedException("No permission to delete review");
+          }
+        });
     return genericMessage("Review with id %s deleted".formatted(id));
   }
 
@@ -229,41 +343,58 @@ public class ReviewController extends ApiController {
   @PutMapping("/moderate")
   public Review moderateReview(
       @Parameter Long id, @Parameter ModerationStatus status, @Parameter String moderatorComments) {
-    Review review =
-        reviewRepository
-            .findById(id)
-            .orElseThrow(() -> new EntityNotFoundException(Review.class, id));
-
-    review.setModeratorComments(moderatorComments);
-    review.setStatus(status);
+    return reviewService.update(
+        id,
+        review -> {
+          review.setModeratorComments(moderatorComments);
+          review.setStatus(status);
+        });
+  }
 
-    review = reviewRepository.save(review);
-    return review;
+  /**
+   * Moderates several reviews at once, in one transaction. Ids of reviews that do not exist are
+   * reported as {@code NOT_FOUND}; the other reviews are updated.
+   *
+   * @param moderations the id, new status and moderator comments of each review, at most 500
+   * @return the outcome for each id, in the same order
+   */
+  @Operation(summary = "Moderate several reviews at once")
+  @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MODERATOR')")
+  @PutMapping("/moderate/bulk")
+  public List<ModerationOutcome> moderateReviews(@RequestBody List<ReviewModeration> moderations) {
+    return moderationService.moderateReviews(moderations);
   }
 
   @Operation(summary = "See reviews that need moderation")
   @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MODERATOR')")
   @GetMapping("/needsmoderation")
-  public Iterable<Review> needsmoderation() {
-    Iterable<Review> reviewsList = reviewRepository.findByStatus(ModerationStatus.AWAITING_REVIEW);
-    return reviewsList;
+  public ResponseEntity<List<ReviewView>> needsmoderation(
+      @Parameter(name = "after", description = "id of the last review of the previous page")
+          @RequestParam(required = false)
+          Long after,
+      @Parameter(name = "size", description = "number of reviews per page, at most 500")
+          @RequestParam(required = false)
+          Integer size) {
+    return page(
+        reviewRepository.findViewsByStatusAfter(
+            ModerationStatus.AWAITING_REVIEW, start(after), pageable(after, size)));
   }
 
   @PreAuthorize("hasRole('ROLE_USER')")
   @GetMapping("/{id}")
-  public Review getReviewById(@PathVariable Long id) {
+  public ReviewView getReviewById(@PathVariable Long id) {
 
     // 1. Look up the review or 404
-    Review review =
+    ReviewView review =
         reviewRepository
-            .findById(id)
+            .findViewById(id)
             .orElseThrow(() -> new EntityNotFoundException(Review.class, id));
 
     // 2. Get current requester
     User requester = getCurrentUser().getUser();
 
     // 3. Evaluate permissions
-    boolean isOwner = (review.getReviewer().getId() == requester.getId());
+    boolean isOwner = (review.reviewerId() == requester.getId());
     boolean isAdmin =
         getCurrentUser().getRoles().stream().anyMatch(r -> r.getAuthority().equals("ROLE_ADMIN"));
     boolean isModerator =
@@ -1,34 +1,41 @@
 package edu.ucsb.cs156.dining.controllers;
 
 import edu.ucsb.cs156.dining.entities.MenuItem;
-import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
 import edu.ucsb.cs156.dining.models.CommonsAverage;
 import edu.ucsb.cs156.dining.models.CommonsAverageOverTime;
 import edu.ucsb.cs156.dining.models.ItemStatistic;
 import edu.ucsb.cs156.dining.models.MealAverage;
-import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.services.ReviewAggregateService;
+import edu.ucsb.cs156.dining.services.StatisticsCache;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import edu.ucsb.cs156.dining.utilities.TopK;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller that exposes aggregated review statistics. These endpoints power the "Review
@@ -37,6 +44,14 @@ import org.springframework.web.bind.annotation.RestController;
  * <p>Only reviews with moderation status {@link ModerationStatus#APPROVED} (or reviews that have no
  * comments and were therefore auto-approved) are considered when computing the statistics, so that
  * unmoderated user content does not influence what we publish.
+ *
+ * <p>All statistics are read from the {@link ReviewAggregate} rows maintained by {@link
+ * ReviewAggregateService}, so their cost depends on the number of groups (for time periods: the
+ * number of items and days) rather than the number of reviews.
+ *
+ * <p>Responses are cached in the {@link StatisticsCache} until the next review change, and carry
+ * the cache version as their {@code ETag}, so a client polling with {@code If-None-Match} gets a
+ * 304 response while nothing has changed.
  */
 @Tag(name = "Statistics")
 @RequestMapping("/api/statistics")
@@ -44,7 +59,13 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class StatisticsController extends ApiController {
 
-  @Autowired ReviewRepository reviewRepository;
+  @Autowired ReviewAggregateRepository reviewAggregateRepository;
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired ReviewAggregateService reviewAggregateService;
+
+  @Autowired StatisticsCache statisticsCache;
 
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<Map<String, String>> handleValidationExceptions(
@@ -61,8 +82,6 @@ public class StatisticsController extends ApiController {
   public static final String PERIOD_1M = "1M";
   public static final String PERIOD_1W = "1W";
 
-  private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
-
   /**
    * Returns the cutoff {@link LocalDateTime} for the supplied period. {@code ALL} (or any
    * unrecognised value) maps to {@code null}, meaning no lower bound.
@@ -84,77 +103,107 @@ public class StatisticsController extends ApiController {
     }
   }
 
-  /** Loads only approved reviews from the repository (the only ones we expose in statistics). */
-  private List<Review> approvedReviews() {
-    List<Review> approved = new ArrayList<>();
-    for (Review r : reviewRepository.findByStatus(ModerationStatus.APPROVED)) {
-      approved.add(r);
-    }
-    return approved;
-  }
-
-  /** Applies a "served on or after the cutoff" filter (if a cutoff was given). */
-  private List<Review> filterByCutoff(List<Review> reviews, LocalDateTime cutoff) {
-    if (cutoff == null) {
-      return reviews;
-    }
-    List<Review> filtered = new ArrayList<>();
-    for (Review r : reviews) {
-      if (r.getDateItemServed() != null && !r.getDateItemServed().isBefore(cutoff)) {
-        filtered.add(r);
-      }
-    }
-    return filtered;
-  }
-
-  /** Groups reviews by their associated menu item id and computes aggregate statistics. */
-  private List<ItemStatistic> aggregateByItem(List<Review> reviews) {
-    Map<Long, List<Review>> byItem = new HashMap<>();
-    for (Review r : reviews) {
-      MenuItem item = r.getItem();
-      if (item == null) {
-        continue;
-      }
-      byItem.computeIfAbsent(item.getId(), k -> new ArrayList<>()).add(r);
+  /** Builds the all-time statistics for every reviewed item from the item aggregates. */
+  private List<ItemStatistic> itemStatisticsFromAggregates() {
+    List<ReviewAggregate> aggregates =
+        reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM);
+    Map<Long, MenuItem> items = new HashMap<>();
+    for (MenuItem item :
+        menuItemRepository.findAllById(
+            aggregates.stream().map(ReviewAggregate::getItemId).toList())) {
+      items.put(item.getId(), item);
     }
     List<ItemStatistic> stats = new ArrayList<>();
-    for (Map.Entry<Long, List<Review>> entry : byItem.entrySet()) {
-      List<Review> itemReviews = entry.getValue();
-      MenuItem item = itemReviews.get(0).getItem();
-      double total = 0.0;
-      long count = 0L;
-      for (Review r : itemReviews) {
-        if (r.getItemsStars() != null) {
-          total += r.getItemsStars();
-          count++;
-        }
-      }
-      if (count == 0L) {
+    for (ReviewAggregate aggregate : aggregates) {
+      MenuItem item = items.get(aggregate.getItemId());
+      if (item == null) {
         continue;
       }
       stats.add(
           ItemStatistic.builder()
-              .itemId(entry.getKey())
+              .itemId(item.getId())
               .itemName(item.getName())
               .diningCommonsCode(item.getDiningCommonsCode())
               .mealCode(item.getMealCode())
               .station(item.getStation())
-              .averageStars(total / count)
-              .reviewCount(count)
+              .averageStars(aggregate.averageStars())
+              .reviewCount(aggregate.getReviewCount())
               .build());
     }
     return stats;
   }
 
-  /** Rejects negative limits before they reach {@code Stream.limit}, which throws. */
+  /**
+   * Statistics for every item reviewed in a range of days (either end may be null). All-time
+   * statistics come from the item aggregates, anything else is summed from the daily aggregates.
+   */
+  private List<ItemStatistic> itemStatistics(LocalDate from, LocalDate to) {
+    if (from == null && to == null) {
+      return itemStatisticsFromAggregates();
+    }
+    return reviewAggregateRepository.findItemStatisticsBetween(from, to);
+  }
+
+  /**
+   * Answers a request from the statistics cache. Returns null, which Spring turns into a 304
+   * response, if the client's {@code If-None-Match} already names the current version.
+   */
+  private <T> T cached(WebRequest request, String key, Supplier<T> compute) {
+    if (request.checkNotModified(statisticsCache.etag())) {
+      return null;
+    }
+    return statisticsCache.get(key, compute);
+  }
+
+  /**
+   * The first {@code limit} items in the given order. An explicit {@code from}/{@code to} takes
+   * precedence over {@code period}; a period counts whole days starting with the day of its
+   * cutoff, so the cache key changes with the date.
+   */
+  private List<ItemStatistic> rankedItems(
+      WebRequest request,
+      String endpoint,
+      String period,
+      int limit,
+      LocalDate from,
+      LocalDate to,
+      Comparator<ItemStatistic> order) {
+    validateLimit(limit);
+    if (from == null && to == null) {
+      LocalDateTime cutoff = cutoffForPeriod(period, LocalDateTime.now());
+      from = cutoff == null ? null : cutoff.toLocalDate();
+    } else if (from != null && to != null && from.isAfter(to)) {
+      throw new IllegalArgumentException("from must not be after to");
+    }
+    LocalDate start = from;
+    return cached(
+        request,
+        "%s|%s|%s|%d".formatted(endpoint, start, to, limit),
+        () -> TopK.first(itemStatistics(start, to), limit, order));
+  }
+
+  /** Highest average first; ties go to the item with more reviews, then to the lower id. */
+  static final Comparator<ItemStatistic> BEST_FIRST =
+      Comparator.comparingDouble(ItemStatistic::getAverageStars)
+          .reversed()
+          .thenComparing(Comparator.comparingLong(ItemStatistic::getReviewCount).reversed())
+          .thenComparing(Comparator.comparing(ItemStatistic::getItemId));
+
+  /** Lowest average first; ties go to the item with more reviews, then to the lower id. */
+  static final Comparator<ItemStatistic> WORST_FIRST =
+      Comparator.comparingDouble(ItemStatistic::getAverageStars)
+          .thenComparing(Comparator.comparingLong(ItemStatistic::getReviewCount).reversed())
+          .thenComparing(Comparator.comparing(ItemStatistic::getItemId));
+
+  /** Rejects negative limits with a 400 rather than letting the top-K selection throw. */
   private void validateLimit(int limit) {
     if (limit < 0) {
       throw new IllegalArgumentException("limit must be non-negative");
     }
   }
 
-  /** Best items endpoint, supports a time period filter and a maximum result count. */
-  @Operation(summary = "Best rated items, optionally restricted to a recent time period")
+  /** Best items endpoint, supports a time period or range of days and a maximum result count. */
+  @Operation(summary = "Best rated items, optionally restricted to a time period or range of days")
   @PreAuthorize("hasRole('ROLE_USER')")
   @GetMapping("/items/best")
   public List<ItemStatistic> bestItems(
@@ -163,21 +212,22 @@ public class StatisticsController extends ApiController {
           String period,
       @Parameter(name = "limit", description = "Maximum number of items to return")
           @RequestParam(name = "limit", defaultValue = "5")
-          int limit) {
-    log.info("statistics.bestItems period={} limit={}", period, limit);
-    validateLimit(limit);
-    LocalDateTime cutoff = cutoffForPeriod(period, LocalDateTime.now());
-    List<ItemStatistic> stats = aggregateByItem(filterByCutoff(approvedReviews(), cutoff));
-    stats.sort(
-        Comparator.comparingDouble(ItemStatistic::getAverageStars)
-            .reversed()
-            .thenComparing(Comparator.comparingLong(ItemStatistic::getReviewCount).reversed())
-            .thenComparing(Comparator.comparing(ItemStatistic::getItemId)));
-    return stats.stream().limit(limit).collect(Collectors.toCollection(ArrayList::new));
+          int limit,
+      @Parameter(name = "from", description = "first day served to count, e.g. 2025-04-01")
+          @RequestParam(name = "from", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @Parameter(name = "to", description = "last day served to count, e.g. 2025-04-30")
+          @RequestParam(name = "to", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to,
+      WebRequest request) {
+    log.info("statistics.bestItems period={} limit={} from={} to={}", period, limit, from, to);
+    return rankedItems(request, "best", period, limit, from, to, BEST_FIRST);
   }
 
-  /** Worst items endpoint, supports a time period filter and a maximum result count. */
-  @Operation(summary = "Worst rated items, optionally restricted to a recent time period")
+  /** Worst items endpoint, supports a time period or range of days and a maximum result count. */
+  @Operation(summary = "Worst rated items, optionally restricted to a time period or range of days")
   @PreAuthorize("hasRole('ROLE_USER')")
   @GetMapping("/items/worst")
   public List<ItemStatistic> worstItems(
@@ -186,43 +236,38 @@ public class StatisticsController extends ApiController {
           String period,
       @Parameter(name = "limit", description = "Maximum number of items to return")
           @RequestParam(name = "limit", defaultValue = "5")
-          int limit) {
-    log.info("statistics.worstItems period={} limit={}", period, limit);
-    validateLimit(limit);
-    LocalDateTime cutoff = cutoffForPeriod(period, LocalDateTime.now());
-    List<ItemStatistic> stats = aggregateByItem(filterByCutoff(approvedReviews(), cutoff));
-    stats.sort(
-        Comparator.comparingDouble(ItemStatistic::getAverageStars)
-            .thenComparing(Comparator.comparingLong(ItemStatistic::getReviewCount).reversed())
-            .thenComparing(Comparator.comparing(ItemStatistic::getItemId)));
-    return stats.stream().limit(limit).collect(Collectors.toCollection(ArrayList::new));
+          int limit,
+      @Parameter(name = "from", description = "first day served to count, e.g. 2025-04-01")
+          @RequestParam(name = "from", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @Parameter(name = "to", description = "last day served to count, e.g. 2025-04-30")
+          @RequestParam(name = "to", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to,
+      WebRequest request) {
+    log.info("statistics.worstItems period={} limit={} from={} to={}", period, limit, from, to);
+    return rankedItems(request, "worst", period, limit, from, to, WORST_FIRST);
   }
 
   /** Average review score for each dining commons. */
   @Operation(summary = "Average review score for each dining commons")
   @PreAuthorize("hasRole('ROLE_USER')")
   @GetMapping("/commons/averages")
-  public List<CommonsAverage> commonsAverages() {
+  public List<CommonsAverage> commonsAverages(WebRequest request) {
     log.info("statistics.commonsAverages");
-    Map<String, double[]> byCommons = new HashMap<>();
-    for (Review r : approvedReviews()) {
-      MenuItem item = r.getItem();
-      if (item == null || item.getDiningCommonsCode() == null || r.getItemsStars() == null) {
-        continue;
-      }
-      double[] acc = byCommons.computeIfAbsent(item.getDiningCommonsCode(), k -> new double[2]);
-      acc[0] += r.getItemsStars();
-      acc[1] += 1.0;
-    }
+    return cached(request, "commonsAverages", this::computeCommonsAverages);
+  }
+
+  private List<CommonsAverage> computeCommonsAverages() {
     List<CommonsAverage> result = new ArrayList<>();
-    for (Map.Entry<String, double[]> entry : byCommons.entrySet()) {
-      double[] acc = entry.getValue();
-      long count = (long) acc[1];
+    for (ReviewAggregate aggregate :
+        reviewAggregateRepository.findByScope(ReviewAggregate.Scope.COMMONS)) {
       result.add(
           CommonsAverage.builder()
-              .diningCommonsCode(entry.getKey())
-              .averageStars(acc[0] / acc[1])
-              .reviewCount(count)
+              .diningCommonsCode(aggregate.getDiningCommonsCode())
+              .averageStars(aggregate.averageStars())
+              .reviewCount(aggregate.getReviewCount())
               .build());
     }
     result.sort(Comparator.comparing(CommonsAverage::getDiningCommonsCode));
@@ -233,37 +278,21 @@ public class StatisticsController extends ApiController {
   @Operation(summary = "Average review score for each dining commons grouped by month")
   @PreAuthorize("hasRole('ROLE_USER')")
   @GetMapping("/commons/averages/overtime")
-  public List<CommonsAverageOverTime> commonsAveragesOverTime() {
+  public List<CommonsAverageOverTime> commonsAveragesOverTime(WebRequest request) {
     log.info("statistics.commonsAveragesOverTime");
-    Map<String, double[]> buckets = new HashMap<>();
-    Map<String, String[]> labels = new HashMap<>();
-    for (Review r : approvedReviews()) {
-      MenuItem item = r.getItem();
-      if (item == null
-          || item.getDiningCommonsCode() == null
-          || r.getItemsStars() == null
-          || r.getDateItemServed() == null) {
-        continue;
-      }
-      String code = item.getDiningCommonsCode();
-      String period = r.getDateItemServed().format(MONTH_FORMATTER);
-      String key = code + "|" + period;
-      double[] acc = buckets.computeIfAbsent(key, k -> new double[2]);
-      acc[0] += r.getItemsStars();
-      acc[1] += 1.0;
-      labels.computeIfAbsent(key, k -> new String[] {code, period});
-    }
+    return cached(request, "commonsAveragesOverTime", this::computeCommonsAveragesOverTime);
+  }
+
+  private List<CommonsAverageOverTime> computeCommonsAveragesOverTime() {
     List<CommonsAverageOverTime> result = new ArrayList<>();
-    for (Map.Entry<String, double[]> entry : buckets.entrySet()) {
-      String[] label = labels.get(entry.getKey());
-      double[] acc = entry.getValue();
-      long count = (long) acc[1];
+    for (ReviewAggregate aggregate :
+        reviewAggregateRepository.findByScope(ReviewAggregate.Scope.COMMONS_MONTH)) {
       result.add(
           CommonsAverageOverTime.builder()
-              .diningCommonsCode(label[0])
-              .period(label[1])
-              .averageStars(acc[0] / acc[1])
-              .reviewCount(count)
+              .diningCommonsCode(aggregate.getDiningCommonsCode())
+              .period(aggregate.getPeriod())
+              .averageStars(aggregate.averageStars())
+              .reviewCount(aggregate.getReviewCount())
               .build());
     }
     result.sort(
@@ -279,34 +308,36 @@ public class StatisticsController extends ApiController {
   public List<MealAverage> commonsMealAverages(
       @Parameter(name = "code", description = "dining commons code, e.g. 'carrillo'")
           @PathVariable("code")
-          String code) {
+          String code,
+      WebRequest request) {
     log.info("statistics.commonsMealAverages code={}", code);
-    Map<String, double[]> byMeal = new HashMap<>();
-    for (Review r : approvedReviews()) {
-      MenuItem item = r.getItem();
-      if (item == null
-          || item.getMealCode() == null
-          || r.getItemsStars() == null
-          || !code.equals(item.getDiningCommonsCode())) {
-        continue;
-      }
-      double[] acc = byMeal.computeIfAbsent(item.getMealCode(), k -> new double[2]);
-      acc[0] += r.getItemsStars();
-      acc[1] += 1.0;
-    }
+    return cached(request, "commonsMealAverages|" + code, () -> computeMealAverages(code));
+  }
+
+  private List<MealAverage> computeMealAverages(String code) {
     List<MealAverage> result = new ArrayList<>();
-    for (Map.Entry<String, double[]> entry : byMeal.entrySet()) {
-      double[] acc = entry.getValue();
-      long count = (long) acc[1];
+    for (ReviewAggregate aggregate :
+        reviewAggregateRepository.findByScopeAndDiningCommonsCode(
+            ReviewAggregate.Scope.COMMONS_MEAL, code)) {
       result.add(
           MealAverage.builder()
               .diningCommonsCode(code)
-              .mealCode(entry.getKey())
-              .averageStars(acc[0] / acc[1])
-              .reviewCount(count)
+              .mealCode(aggregate.getMealCode())
+              .averageStars(aggregate.averageStars())
+              .reviewCount(aggregate.getReviewCount())
               .build());
     }
     result.sort(Comparator.comparing(MealAverage::getMealCode));
     return result;
   }
+
+  /** Recomputes the rating aggregates from the reviews table (admin only). */
+  @Operation(summary = "Rebuild the rating aggregates used by the statistics endpoints")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @PostMapping("/aggregates/rebuild")
+  public Object rebuildAggregates() {
+    log.info("statistics.rebuildAggregates");
+    int rows = reviewAggregateService.rebuild();
+    return genericMessage("Rebuilt %d rating aggregates".formatted(rows));
+  }
 }
@@ -1,19 +1,17 @@
 package edu.ucsb.cs156.dining.controllers;
 
 import edu.ucsb.cs156.dining.entities.MenuItem;
-import edu.ucsb.cs156.dining.entities.Review;
 import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
 import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuItemSummary;
+import edu.ucsb.cs156.dining.models.MenuItemView;
 import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
-import edu.ucsb.cs156.dining.repositories.ReviewRepository;
-import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsService;
-import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import edu.ucsb.cs156.dining.services.MenuItemService;
+import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -29,17 +27,17 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class UCSBDiningMenuItemsController extends ApiController {
 
-  @Autowired UCSBDiningMenuItemsService ucsbDiningMenuItemsService;
+  @Autowired UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache;
 
   @Autowired MenuItemRepository menuItemRepository;
 
-  @Autowired ReviewRepository reviewRepository;
+  @Autowired MenuItemService menuItemService;
 
   @Operation(summary = "Get list of entrees being served at given meal, dining common, and day")
   @GetMapping(
       value = "/{date-time}/{dining-commons-code}/{meal-code}",
       produces = "application/json")
-  public ResponseEntity<List<MenuItem>> get_menu_items(
+  public ResponseEntity<List<MenuItemView>> get_menu_items(
       @Parameter(
               description =
                   "date (in iso format, e.g. YYYY-mm-dd) or date-time (in iso format e.g. YYYY-mm-ddTHH:MM:SS)")
@@ -49,43 +47,38 @@ public class UCSBDiningMenuItemsController extends ApiController {
       @PathVariable("meal-code") String mealcode)
       throws Exception {
 
-    List<Entree> body = ucsbDiningMenuItemsService.get(datetime, diningcommoncode, mealcode);
+    List<Entree> body = ucsbDiningMenuItemsCache.get(datetime, diningcommoncode, mealcode);
 
-    List<MenuItem> menuitems = new ArrayList<>();
+    List<MenuItem> menuitems = menuItemService.upsert(diningcommoncode, mealcode, body);
 
-    for (Entree entree : body) {
-      Optional<MenuItem> exists =
-          menuItemRepository.findByDiningCommonsCodeAndMealCodeAndNameAndStation(
-              diningcommoncode, mealcode, entree.getName(), entree.getStation());
-
-      MenuItem newMenuItem = exists.orElse(new MenuItem());
-      // MenuItem newMenuItem = new MenuItem();
-      newMenuItem.setDiningCommonsCode(diningcommoncode);
-      newMenuItem.setMealCode(mealcode);
-      newMenuItem.setName(entree.getName());
-      newMenuItem.setStation(entree.getStation());
-
-      menuItemRepository.save(newMenuItem);
-
-      List<Review> approvedReviews =
-          (List<Review>)
-              reviewRepository.findByItemAndStatus(newMenuItem, ModerationStatus.APPROVED);
-      newMenuItem.setReviews(approvedReviews);
-
-      menuitems.add(newMenuItem);
-    }
+    return ResponseEntity.ok().body(menuItemService.withApprovedReviews(menuitems));
+  }
 
-    return ResponseEntity.ok().body(menuitems);
+  @Operation(
+      summary =
+          "Get list of entrees being served at given meal, dining common, and day, with the average"
+              + " of their approved ratings instead of the reviews")
+  @GetMapping(
+      value = "/{date-time}/{dining-commons-code}/{meal-code}/summary",
+      produces = "application/json")
+  public List<MenuItemSummary> get_menu_item_summaries(
+      @Parameter(description = "date (in iso format, e.g. YYYY-mm-dd)") @PathVariable("date-time")
+          String datetime,
+      @PathVariable("dining-commons-code") String diningcommoncode,
+      @PathVariable("meal-code") String mealcode)
+      throws Exception {
+    List<Entree> body = ucsbDiningMenuItemsCache.get(datetime, diningcommoncode, mealcode);
+    return menuItemService.summaries(menuItemService.upsert(diningcommoncode, mealcode, body));
   }
 
-  @Operation(summary = "Get a single menu item by ID")
+  @Operation(summary = "Get a single menu item by ID, with its approved reviews")
   @GetMapping(value = "/menuitem", produces = "application/json")
-  public ResponseEntity<MenuItem> get_menu_item_by_id(
+  public ResponseEntity<MenuItemView> get_menu_item_by_id(
       @Parameter(description = "ID of the menu item") @RequestParam long id) throws Exception {
-    Optional<MenuItem> menuItem = menuItemRepository.findById(id);
-    if (menuItem.isEmpty()) {
-      throw new EntityNotFoundException(MenuItem.class, id);
-    }
-    return ResponseEntity.ok().body(menuItem.get());
+    MenuItem menuItem =
+        menuItemRepository
+            .findById(id)
+            .orElseThrow(() -> new EntityNotFoundException(MenuItem.class, id));
+    return ResponseEntity.ok().body(menuItemService.withApprovedReviews(List.of(menuItem)).get(0));
   }
 }
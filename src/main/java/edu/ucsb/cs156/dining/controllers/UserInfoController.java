@@ -4,14 +4,10 @@ import edu.ucsb.cs156.dining.entities.User;
 import edu.ucsb.cs156.dining.models.CurrentUser;
 import edu.ucsb.cs156.dining.models.CurrentUserDTO;
 import edu.ucsb.cs156.dining.models.UserDTO;
-import edu.ucsb.cs156.dining.repositories.AdminRepository;
-import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.ArrayList;
-import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,12 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class UserInfoController extends ApiController {
 
-  @Value("#{'${app.admin.emails}'.split(',')}")
-  private final List<String> adminEmails = new ArrayList<>();
-
-  @Autowired AdminRepository adminRepository;
-
-  @Autowired ModeratorRepository moderatorRepository;
+  @Autowired RoleRegistry roleRegistry;
 
   /**
    * This method returns the current user.
@@ -43,9 +34,7 @@ public class UserInfoController extends ApiController {
     User user = currentUser.getUser();
     UserDTO userDTO =
         new UserDTO(
-            user,
-            adminEmails.contains(user.getEmail()) || adminRepository.existsByEmail(user.getEmail()),
-            moderatorRepository.existsByEmail(user.getEmail()));
+            user, roleRegistry.isAdmin(user.getEmail()), roleRegistry.isModerator(user.getEmail()));
     return new CurrentUserDTO(userDTO, currentUser.getRoles());
   }
 }
@@ -6,20 +6,29 @@ import edu.ucsb.cs156.dining.entities.Admin;
 import edu.ucsb.cs156.dining.entities.Moderator;
 import edu.ucsb.cs156.dining.entities.User;
 import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
+import edu.ucsb.cs156.dining.models.AliasModeration;
 import edu.ucsb.cs156.dining.models.CurrentUser;
+import edu.ucsb.cs156.dining.models.ModerationOutcome;
 import edu.ucsb.cs156.dining.models.UserDTO;
 import edu.ucsb.cs156.dining.repositories.AdminRepository;
 import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
 import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.ModerationService;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
+import edu.ucsb.cs156.dining.services.UserCache;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -39,9 +48,6 @@ import org.springframework.web.server.ResponseStatusException;
 @RestController
 public class UsersController extends ApiController {
 
-  @Value("#{'${app.admin.emails}'.split(',')}")
-  private final List<String> adminEmails = new ArrayList<>();
-
   @Autowired UserRepository userRepository;
 
   @Autowired AdminRepository adminRepository;
@@ -50,22 +56,88 @@ public class UsersController extends ApiController {
 
   @Autowired ObjectMapper mapper;
 
+  @Autowired RoleRegistry roleRegistry;
+
+  @Autowired UserCache userCache;
+
+  @Autowired ModerationService moderationService;
+
+  /** Properties the users listing can be sorted by. */
+  static final Set<String> SORT_PROPERTIES =
+      Set.of("id", "email", "fullName", "givenName", "familyName", "alias");
+
+  /** Largest page of the users listing. */
+  static final int MAX_PAGE_SIZE = 1000;
+
+  /** Response header with the total number of users when a page is requested. */
+  static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<Map<String, String>> handleValidationExceptions(
+      IllegalArgumentException ex) {
+    return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+  }
+
+  /**
+   * Parses a sort parameter such as {@code email} or {@code email,desc}. Ties are broken by id, so
+   * that pages do not overlap.
+   */
+  static Sort parseSort(String sort) {
+    String[] parts = sort.split(",");
+    String property = parts[0].trim();
+    if (parts.length > 2 || !SORT_PROPERTIES.contains(property)) {
+      throw new IllegalArgumentException(
+          "sort must be one of %s, optionally followed by ,asc or ,desc"
+              .formatted(SORT_PROPERTIES.stream().sorted().toList()));
+    }
+    Sort.Direction direction =
+        parts.length == 2 ? Sort.Direction.fromString(parts[1].trim()) : Sort.Direction.ASC;
+    Sort order = Sort.by(direction, property);
+    return property.equals("id") ? order : order.and(Sort.by("id"));
+  }
+
   /**
-   * This method returns a list of all users. Accessible only to users with the role "ROLE_ADMIN".
+   * This method returns the users, one page at a time or all of them. Accessible only to users with
+   * the role "ROLE_ADMIN".
    *
-   * @return a list of all users
-   * @throws JsonProcessingException if there is an error processing the JSON
+   * <p>The users are read with one query; their admin and moderator flags come from the {@link
+   * RoleRegistry}, without a query per user.
+   *
+   * @param page zero-based page number; all users are returned when it is omitted
+   * @param size number of users per page
+   * @param sort property to sort by, optionally followed by {@code ,asc} or {@code ,desc}
+   * @return the users, with the total number of users in the {@code X-Total-Count} header when a
+   *     page was requested
    */
-  @Operation(summary = "Get a list of all users")
+  @Operation(summary = "Get a list of users, optionally one page at a time")
   @PreAuthorize("hasRole('ROLE_ADMIN')")
   @GetMapping("/admin/users")
-  public ResponseEntity<String> users() throws JsonProcessingException {
-
-    Iterable<User> users = userRepository.findAll();
-    List<UserDTO> userDTOs =
-        StreamSupport.stream(users.spliterator(), false).map(this::userDTO).toList();
-    String body = mapper.writeValueAsString(userDTOs);
-    return ResponseEntity.ok().body(body);
+  public ResponseEntity<List<UserDTO>> users(
+      @Parameter(name = "page", description = "zero-based page number; all users if omitted")
+          @RequestParam(name = "page", required = false)
+          Integer page,
+      @Parameter(name = "size", description = "number of users per page, at most 1000")
+          @RequestParam(name = "size", defaultValue = "100")
+          int size,
+      @Parameter(name = "sort", description = "e.g. email or email,desc")
+          @RequestParam(name = "sort", defaultValue = "id")
+          String sort) {
+    Sort order = parseSort(sort);
+    if (page == null) {
+      Iterable<User> users = userRepository.findAll(order);
+      return ResponseEntity.ok(
+          StreamSupport.stream(users.spliterator(), false).map(this::userDTO).toList());
+    }
+    if (page < 0) {
+      throw new IllegalArgumentException("page must be non-negative");
+    }
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    Page<User> users = userRepository.findAll(PageRequest.of(page, size, order));
+    return ResponseEntity.ok()
+        .header(TOTAL_COUNT_HEADER, String.valueOf(users.getTotalElements()))
+        .body(users.map(this::userDTO).getContent());
   }
 
   /**
@@ -108,17 +180,23 @@ public class UsersController extends ApiController {
   @PostMapping("/currentUser/updateAlias")
   public ResponseEntity<User> updateProposedAlias(@RequestParam String proposedAlias) {
     CurrentUser currentUser = super.getCurrentUser();
-    User user = currentUser.getUser();
+    long id = currentUser.getUser().getId();
 
     if (userRepository.findByAlias(proposedAlias).isPresent()) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Alias already in use.");
     }
 
-    user.setProposedAlias(proposedAlias);
-    user.setStatus(ModerationStatus.AWAITING_REVIEW);
-    User savedUser = userRepository.save(user);
-
-    return ResponseEntity.ok(savedUser);
+    // the current user comes from the UserCache and is shared with concurrent requests, so the
+    // change is made to a copy read from the database
+    User user =
+        userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(User.class, id));
+    try {
+      user.setProposedAlias(proposedAlias);
+      user.setStatus(ModerationStatus.AWAITING_REVIEW);
+      return ResponseEntity.ok(userRepository.save(user));
+    } finally {
+      userCache.invalidate(user.getEmail());
+    }
   }
 
   /**
@@ -145,10 +223,28 @@ public class UsersController extends ApiController {
     }
 
     userRepository.save(user);
+    userCache.invalidate(user.getEmail());
 
     return user;
   }
 
+  /**
+   * This method allows an admin or moderator to approve or reject the proposed aliases of several
+   * users at once, in one transaction. Ids of users that do not exist are reported as {@code
+   * NOT_FOUND}; the other users are updated.
+   *
+   * @param moderations the id of each user and whether their proposed alias is approved, at most
+   *     500
+   * @return the outcome for each id, in the same order
+   */
+  @Operation(summary = "Approve or reject the proposed aliases of several users at once")
+  @PreAuthorize("hasAnyRole('ROLE_ADMIN','ROLE_MODERATOR')")
+  @PutMapping("/currentUser/updateAliasModeration/bulk")
+  public List<ModerationOutcome> updateAliasModerations(
+      @RequestBody List<AliasModeration> moderations) {
+    return moderationService.moderateAliases(moderations);
+  }
+
   /**
    * This method allows an admin to toggle whether a user's email appears in the admin table. Will
    * not toggle emails from adminEmails.
@@ -163,10 +259,11 @@ public class UsersController extends ApiController {
     User user =
         userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(User.class, id));
 
-    if (!adminEmails.contains(user.getEmail())) {
+    if (!roleRegistry.isInAdminEmails(user.getEmail())) {
       boolean isAdmin = adminRepository.existsByEmail(user.getEmail());
       if (isAdmin) adminRepository.deleteByEmail(user.getEmail());
       else adminRepository.save(new Admin(user.getEmail()));
+      roleRegistry.setAdmin(user.getEmail(), !isAdmin);
     }
 
     return userDTO(user);
@@ -188,14 +285,13 @@ public class UsersController extends ApiController {
     boolean isModerator = moderatorRepository.existsByEmail(user.getEmail());
     if (isModerator) moderatorRepository.deleteByEmail(user.getEmail());
     else moderatorRepository.save(new Moderator(user.getEmail()));
+    roleRegistry.setModerator(user.getEmail(), !isModerator);
 
     return userDTO(user);
   }
 
   private UserDTO userDTO(User user) {
     String email = user.getEmail();
-    boolean isAdmin = adminEmails.contains(email) || adminRepository.existsByEmail(email);
-    boolean isModerator = moderatorRepository.existsByEmail(email);
-    return new UserDTO(user, isAdmin, isModerator);
+    return new UserDTO(user, roleRegistry.isAdmin(email), roleRegistry.isModerator(email));
   }
 }
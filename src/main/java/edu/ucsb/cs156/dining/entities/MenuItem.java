@@ -1,24 +1,34 @@
 package edu.ucsb.cs156.dining.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.List;
 import lombok.*;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
 
 /**
  * This is a JPA entity that represents a MenuItem
  *
- * <p>A MenuItem represents an actual menu item in a dining commons at UCSB
+ * <p>A MenuItem represents an actual menu item in a dining commons at UCSB. There is at most one
+ * MenuItem per dining commons, meal, name and station.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity(name = "menuitem")
+@Table(
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "MENUITEM_NATURAL_KEY_UK",
+            columnNames = {"diningCommonsCode", "mealCode", "name", "station"}))
 public class MenuItem {
+  /**
+   * Ids come from a sequence rather than an identity column so that new menu items can be inserted
+   * in JDBC batches; Hibernate reserves 50 ids per round trip.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menuitem_seq")
+  @SequenceGenerator(name = "menuitem_seq", sequenceName = "MENUITEM_SEQ", allocationSize = 50)
   private long id;
 
   private String diningCommonsCode;
@@ -26,8 +36,13 @@ public class MenuItem {
   private String name;
   private String station;
 
+  /**
+   * The reviews of the item. They are loaded lazily, only when the list is used, so loading a menu
+   * item does not load every review it ever had.
+   */
   @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @JsonIgnore
   @OneToMany(mappedBy = "item")
-  @Fetch(FetchMode.JOIN)
   private List<Review> reviews;
 }
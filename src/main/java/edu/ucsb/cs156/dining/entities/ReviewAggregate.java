@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.dining.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import lombok.*;
+
+/**
+ * This is a JPA entity that holds a running total (sum of stars and number of reviews) of the
+ * approved reviews in one statistics group.
+ *
+ * <p>Which of the key columns are filled in depends on the {@link Scope}: an {@code ITEM} row only
+ * has an {@code itemId}, a {@code COMMONS} row only a {@code diningCommonsCode}, and so on. The
+ * rows are kept up to date by {@code ReviewAggregateService} whenever a review changes, so that the
+ * statistics endpoints never have to scan the reviews table.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "reviewaggregates")
+public class ReviewAggregate {
+
+  /** The grouping that an aggregate row belongs to. */
+  public enum Scope {
+    ITEM,
+    ITEM_DAY,
+    COMMONS,
+    COMMONS_MEAL,
+    COMMONS_MONTH;
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long id;
+
+  /** Unique key of the group, e.g. {@code COMMONS_MEAL|carrillo|lunch}. */
+  @Column(nullable = false, unique = true)
+  private String groupKey;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Scope scope;
+
+  private Long itemId;
+  private String diningCommonsCode;
+  private String mealCode;
+
+  /** Calendar month in {@code yyyy-MM} format, only set for {@code COMMONS_MONTH} rows. */
+  private String period;
+
+  /** Day the item was served, only set for {@code ITEM_DAY} rows. */
+  private LocalDate dayServed;
+
+  private long starsSum;
+  private long reviewCount;
+
+  /**
+   * Average star rating of the reviews counted in this row.
+   *
+   * @return starsSum divided by reviewCount
+   */
+  public double averageStars() {
+    return (double) starsSum / reviewCount;
+  }
+}
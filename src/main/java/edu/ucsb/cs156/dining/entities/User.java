@@ -6,8 +6,6 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.*;
-import org.hibernate.annotations.Fetch;
-import org.hibernate.annotations.FetchMode;
 
 /** This is a JPA entity that represents a user. */
 @Data
@@ -15,6 +13,7 @@ import org.hibernate.annotations.FetchMode;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder
 @Entity(name = "users")
+@Table(uniqueConstraints = @UniqueConstraint(name = "USERS_EMAIL_UK", columnNames = "email"))
 public class User {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,10 +36,14 @@ public class User {
 
   private LocalDate dateApproved;
 
+  /**
+   * The reviews of the user. They are loaded lazily, only when the list is used, so loading a user
+   * when they log in does not load every review they ever wrote.
+   */
   @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   @JsonIgnore
   @OneToMany(mappedBy = "reviewer")
-  @Fetch(FetchMode.JOIN)
   private List<Review> reviews;
 
   public String getAlias() {
@@ -0,0 +1,25 @@
+package edu.ucsb.cs156.dining.errors;
+
+import lombok.Getter;
+
+/**
+ * This is an error class for a custom RuntimeException that is used to indicate that the row of a
+ * rating aggregate group could not be inserted because a concurrent transaction inserted it first.
+ */
+@Getter
+public class AggregateGroupConflictException extends RuntimeException {
+
+  /** The key of the group that was inserted twice. */
+  private final String groupKey;
+
+  /**
+   * Constructor for the exception
+   *
+   * @param groupKey the key of the group, e.g. {@code ITEM|7}
+   * @param cause the violation of the unique group key
+   */
+  public AggregateGroupConflictException(String groupKey, Throwable cause) {
+    super("review aggregate group %s already exists".formatted(groupKey), cause);
+    this.groupKey = groupKey;
+  }
+}
@@ -1,16 +1,11 @@
 package edu.ucsb.cs156.dining.interceptors;
 
-import edu.ucsb.cs156.dining.repositories.AdminRepository;
-import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,20 +17,19 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * Keeps the admin and moderator roles of the logged in user up to date, since they can change while
+ * the user is logged in. The roles come from {@link RoleRegistry}; the authentication is only
+ * replaced when they actually changed.
+ */
 @Slf4j
 @Component
 public class RoleInterceptor implements HandlerInterceptor {
 
-  private final AdminRepository adminRepository;
+  private final RoleRegistry roleRegistry;
 
-  private final ModeratorRepository moderatorRepository;
-
-  @Value("#{'${app.admin.emails}'.split(',')}")
-  private final List<String> adminEmails = new ArrayList<>();
-
-  public RoleInterceptor(AdminRepository adminRepository, ModeratorRepository moderatorRepository) {
-    this.adminRepository = adminRepository;
-    this.moderatorRepository = moderatorRepository;
+  public RoleInterceptor(RoleRegistry roleRegistry) {
+    this.roleRegistry = roleRegistry;
   }
 
   @Override
@@ -50,23 +44,24 @@ public class RoleInterceptor implements HandlerInterceptor {
           oauthUser instanceof OidcUser oidcUser
               ? oidcUser.getEmail()
               : oauthUser.getAttribute("email");
-      Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-      Set<GrantedAuthority> revisedAuthorities = new HashSet<>();
+      Set<String> roles = roleRegistry.roles(email);
 
-      authorities.stream()
-          .filter(
-              grantedAuth ->
-                  !grantedAuth.getAuthority().equals("ROLE_ADMIN")
-                      && !grantedAuth.getAuthority().equals("ROLE_MODERATOR"))
-          .forEach(revisedAuthorities::add);
-
-      if (adminEmails.contains(email) || adminRepository.existsByEmail(email)) {
-        revisedAuthorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+      Set<String> currentRoles = new HashSet<>();
+      Set<GrantedAuthority> revisedAuthorities = new HashSet<>();
+      for (GrantedAuthority grantedAuth : authentication.getAuthorities()) {
+        String authority = grantedAuth.getAuthority();
+        if (authority.equals(RoleRegistry.ROLE_ADMIN)
+            || authority.equals(RoleRegistry.ROLE_MODERATOR)) {
+          currentRoles.add(authority);
+        } else {
+          revisedAuthorities.add(grantedAuth);
+        }
       }
-      if (moderatorRepository.existsByEmail(email)) {
-        revisedAuthorities.add(new SimpleGrantedAuthority("ROLE_MODERATOR"));
+      if (currentRoles.equals(roles)) {
+        return true;
       }
 
+      roles.forEach(role -> revisedAuthorities.add(new SimpleGrantedAuthority(role)));
       Authentication newAuth =
           new OAuth2AuthenticationToken(
               oauthUser, revisedAuthorities, oauthToken.getAuthorizedClientRegistrationId());
@@ -0,0 +1,9 @@
+package edu.ucsb.cs156.dining.models;
+
+/**
+ * One decision of a bulk alias moderation.
+ *
+ * @param id id of the user
+ * @param approved whether the proposed alias of the user is approved
+ */
+public record AliasModeration(Long id, Boolean approved) {}
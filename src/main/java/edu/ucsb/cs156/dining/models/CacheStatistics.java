@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.dining.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Size and hit/miss/eviction counts of one cache since startup. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CacheStatistics {
+  private String name;
+  private long size;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private double hitRate;
+}
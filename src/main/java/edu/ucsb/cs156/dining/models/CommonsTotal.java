@@ -0,0 +1,7 @@
+package edu.ucsb.cs156.dining.models;
+
+/**
+ * Sum of the stars and number of reviews for one dining commons. Used to rebuild the commons
+ * aggregates.
+ */
+public record CommonsTotal(String diningCommonsCode, Long starsSum, Long reviewCount) {}
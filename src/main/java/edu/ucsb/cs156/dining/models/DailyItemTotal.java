@@ -0,0 +1,9 @@
+package edu.ucsb.cs156.dining.models;
+
+import java.time.LocalDate;
+
+/**
+ * Sum of the stars and number of reviews for one menu item on one day (the day the item was
+ * served). Used to rebuild the daily rating aggregates.
+ */
+public record DailyItemTotal(Long itemId, LocalDate day, Long starsSum, Long reviewCount) {}
@@ -0,0 +1,6 @@
+package edu.ucsb.cs156.dining.models;
+
+/**
+ * Sum of the stars and number of reviews for one menu item. Used to rebuild the item aggregates.
+ */
+public record ItemTotal(Long itemId, Long starsSum, Long reviewCount) {}
@@ -0,0 +1,8 @@
+package edu.ucsb.cs156.dining.models;
+
+/**
+ * Sum of the stars and number of reviews for one meal at one dining commons. Used to rebuild the
+ * meal aggregates.
+ */
+public record MealTotal(
+    String diningCommonsCode, String mealCode, Long starsSum, Long reviewCount) {}
@@ -0,0 +1,27 @@
+package edu.ucsb.cs156.dining.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A menu item with the average of its approved ratings instead of the reviews themselves, for
+ * listing a whole menu.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MenuItemSummary {
+  private long id;
+  private String diningCommonsCode;
+  private String mealCode;
+  private String name;
+  private String station;
+
+  /** Average stars of the approved reviews, null if there are none. */
+  private Double averageStars;
+
+  private long reviewCount;
+}
@@ -0,0 +1,33 @@
+package edu.ucsb.cs156.dining.models;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import java.util.List;
+
+/**
+ * A menu item together with its approved reviews, as the menu endpoints return it.
+ *
+ * @param reviews the approved reviews of the item
+ */
+public record MenuItemView(
+    long id,
+    String diningCommonsCode,
+    String mealCode,
+    String name,
+    String station,
+    List<ReviewView> reviews) {
+
+  /**
+   * @param menuItem the menu item
+   * @param reviews the approved reviews of the item
+   * @return the view of the menu item
+   */
+  public static MenuItemView of(MenuItem menuItem, List<ReviewView> reviews) {
+    return new MenuItemView(
+        menuItem.getId(),
+        menuItem.getDiningCommonsCode(),
+        menuItem.getMealCode(),
+        menuItem.getName(),
+        menuItem.getStation(),
+        reviews);
+  }
+}
@@ -0,0 +1,21 @@
+package edu.ucsb.cs156.dining.models;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Outcome of one run of the menu warmup (see MenuWarmupService). */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MenuWarmupReport {
+  private List<String> dates;
+  private int diningCommons;
+  private int keysLoaded;
+  private int failures;
+  private int menuItems;
+  private long durationMillis;
+}
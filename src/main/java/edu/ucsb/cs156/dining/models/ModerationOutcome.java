@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.dining.models;
+
+/**
+ * What a bulk moderation did with one id.
+ *
+ * @param id id of the review or user
+ * @param outcome whether it was updated
+ */
+public record ModerationOutcome(long id, Outcome outcome) {
+
+  /** The outcomes of a bulk moderation. */
+  public enum Outcome {
+    UPDATED,
+    NOT_FOUND
+  }
+}
@@ -0,0 +1,8 @@
+package edu.ucsb.cs156.dining.models;
+
+/**
+ * Sum of the stars and number of reviews for one dining commons in one calendar month ({@code
+ * yyyy-MM}). Used to rebuild the monthly commons aggregates.
+ */
+public record MonthlyCommonsTotal(
+    String diningCommonsCode, String period, Long starsSum, Long reviewCount) {}
@@ -0,0 +1,51 @@
+package edu.ucsb.cs156.dining.models;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDateTime;
+
+/**
+ * The part of a review that is counted in the rating aggregates. Taking one of these before a
+ * review is modified lets us later subtract exactly what the review used to add.
+ */
+public record ReviewContribution(
+    long itemId,
+    String diningCommonsCode,
+    String mealCode,
+    LocalDateTime dateItemServed,
+    long stars) {
+
+  /**
+   * Captures what a review currently contributes to the statistics.
+   *
+   * @param review the review (may be null)
+   * @return the contribution, or null if the review is not counted (not approved, no stars or no
+   *     item)
+   */
+  public static ReviewContribution of(Review review) {
+    return review == null ? null : of(review, review.getStatus());
+  }
+
+  /**
+   * Captures what a review would contribute to the statistics if it had the given status.
+   *
+   * @param review the review
+   * @param status the status
+   * @return the contribution, or null if the review would not be counted
+   */
+  public static ReviewContribution of(Review review, ModerationStatus status) {
+    if (status != ModerationStatus.APPROVED
+        || review.getItemsStars() == null
+        || review.getItem() == null) {
+      return null;
+    }
+    MenuItem item = review.getItem();
+    return new ReviewContribution(
+        item.getId(),
+        item.getDiningCommonsCode(),
+        item.getMealCode(),
+        review.getDateItemServed(),
+        review.getItemsStars());
+  }
+}
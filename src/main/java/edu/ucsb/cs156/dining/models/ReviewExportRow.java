@@ -0,0 +1,59 @@
+package edu.ucsb.cs156.dining.models;
+
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.lang.reflect.RecordComponent;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One review in the review export, flattened together with its menu item and reviewer alias. Rows
+ * are read straight from a query, so they are not tracked by the persistence context.
+ */
+public record ReviewExportRow(
+    Long id,
+    Long itemId,
+    String itemName,
+    String diningCommonsCode,
+    String mealCode,
+    String station,
+    Long reviewerId,
+    String reviewerAlias,
+    Long itemsStars,
+    String reviewerComments,
+    ModerationStatus status,
+    LocalDateTime dateItemServed,
+    LocalDateTime dateCreated,
+    LocalDateTime dateEdited,
+    String userIdModerator,
+    String moderatorComments) {
+
+  /** Names of the columns, in the order of {@link #values()}. */
+  public static final List<String> COLUMNS =
+      Arrays.stream(ReviewExportRow.class.getRecordComponents())
+          .map(RecordComponent::getName)
+          .toList();
+
+  /**
+   * @return the values of the columns, in the order of {@link #COLUMNS}
+   */
+  public List<Object> values() {
+    return Arrays.asList(
+        id,
+        itemId,
+        itemName,
+        diningCommonsCode,
+        mealCode,
+        station,
+        reviewerId,
+        reviewerAlias,
+        itemsStars,
+        reviewerComments,
+        status,
+        dateItemServed,
+        dateCreated,
+        dateEdited,
+        userIdModerator,
+        moderatorComments);
+  }
+}
@@ -0,0 +1,12 @@
+package edu.ucsb.cs156.dining.models;
+
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+
+/**
+ * One decision of a bulk review moderation.
+ *
+ * @param id id of the review
+ * @param status the new status of the review
+ * @param moderatorComments comments by the moderator, may be null
+ */
+public record ReviewModeration(Long id, ModerationStatus status, String moderatorComments) {}
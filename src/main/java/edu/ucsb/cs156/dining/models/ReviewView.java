@@ -0,0 +1,76 @@
+package edu.ucsb.cs156.dining.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDateTime;
+
+/**
+ * A review as the review endpoints return it: the review, the menu item it is about and the alias
+ * of the reviewer, but nothing else about the reviewer's account.
+ *
+ * <p>The review listings read these with a single constructor-expression query (see {@link
+ * edu.ucsb.cs156.dining.repositories.ReviewRepository}), so they neither load the reviews, menu
+ * items and users as entities nor serialize their associations.
+ *
+ * @param reviewerId id of the reviewer, for access checks; not serialized
+ */
+public record ReviewView(
+    long id,
+    Long itemsStars,
+    String reviewerComments,
+    ModerationStatus status,
+    LocalDateTime dateItemServed,
+    Item item,
+    @JsonIgnore long reviewerId,
+    String reviewerAlias) {
+
+  /** The menu item a review is about. */
+  public record Item(long id, String name, String diningCommonsCode) {}
+
+  /** Used by the constructor expressions of the review queries. */
+  public ReviewView(
+      Long id,
+      Long itemsStars,
+      String reviewerComments,
+      ModerationStatus status,
+      LocalDateTime dateItemServed,
+      Long itemId,
+      String itemName,
+      String diningCommonsCode,
+      Long reviewerId,
+      String reviewerAlias) {
+    this(
+        id,
+        itemsStars,
+        reviewerComments,
+        status,
+        dateItemServed,
+        new Item(itemId, itemName, diningCommonsCode),
+        reviewerId,
+        reviewerAlias);
+  }
+
+  /**
+   * @param review a review that has already been loaded
+   * @return the view of the review
+   */
+  public static ReviewView of(Review review) {
+    Item item =
+        review.getItem() == null
+            ? null
+            : new Item(
+                review.getItem().getId(),
+                review.getItem().getName(),
+                review.getItem().getDiningCommonsCode());
+    return new ReviewView(
+        review.getId(),
+        review.getItemsStars(),
+        review.getReviewerComments(),
+        review.getStatus(),
+        review.getDateItemServed(),
+        item,
+        review.getReviewer() == null ? 0 : review.getReviewer().getId(),
+        review.getReviewer() == null ? null : review.getReviewer().getAlias());
+  }
+}
@@ -3,6 +3,7 @@ package edu.ucsb.cs156.dining.repositories;
 import edu.ucsb.cs156.dining.entities.Admin;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,4 +24,10 @@ public interface AdminRepository extends CrudRepository<Admin, Long> {
   long deleteByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  /**
+   * @return the emails of all admins
+   */
+  @Query("SELECT a.email FROM Admin a")
+  List<String> findAllEmails();
 }
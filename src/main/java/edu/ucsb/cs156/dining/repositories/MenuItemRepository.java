@@ -1,6 +1,7 @@
 package edu.ucsb.cs156.dining.repositories;
 
 import edu.ucsb.cs156.dining.entities.MenuItem;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
@@ -19,5 +20,14 @@ public interface MenuItemRepository extends CrudRepository<MenuItem, Long> {
   Optional<MenuItem> findByDiningCommonsCodeAndMealCodeAndNameAndStation(
       String diningCommonsCode, String mealCode, String name, String station);
 
+  /**
+   * This method returns all menu items of a meal at a dining commons.
+   *
+   * @param diningCommonsCode of menu items
+   * @param mealCode of menu items
+   * @return the menu items of the meal
+   */
+  List<MenuItem> findByDiningCommonsCodeAndMealCode(String diningCommonsCode, String mealCode);
+
   boolean existsById(Long id);
 }
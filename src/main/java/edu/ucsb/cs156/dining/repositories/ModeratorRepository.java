@@ -3,6 +3,7 @@ package edu.ucsb.cs156.dining.repositories;
 import edu.ucsb.cs156.dining.entities.Moderator;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,4 +25,10 @@ public interface ModeratorRepository extends CrudRepository<Moderator, Long> {
   long deleteByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  /**
+   * @return the emails of all moderators
+   */
+  @Query("SELECT m.email FROM Moderator m")
+  List<String> findAllEmails();
 }
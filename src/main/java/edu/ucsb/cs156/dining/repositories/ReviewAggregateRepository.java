@@ -0,0 +1,82 @@
+package edu.ucsb.cs156.dining.repositories;
+
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.models.ItemStatistic;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** The ReviewAggregateRepository is a repository for ReviewAggregate entities */
+@Repository
+public interface ReviewAggregateRepository extends CrudRepository<ReviewAggregate, Long> {
+
+  List<ReviewAggregate> findByScope(ReviewAggregate.Scope scope);
+
+  List<ReviewAggregate> findByScopeAndDiningCommonsCode(
+      ReviewAggregate.Scope scope, String diningCommonsCode);
+
+  List<ReviewAggregate> findByScopeAndItemIdIn(
+      ReviewAggregate.Scope scope, Collection<Long> itemIds);
+
+  /**
+   * Atomically adds to the running totals of a group, so that concurrent review changes cannot
+   * overwrite each other.
+   *
+   * @param groupKey key of the group
+   * @param stars stars to add (negative to subtract)
+   * @param count reviews to add (negative to subtract)
+   * @return number of rows updated (0 if the group does not exist yet)
+   */
+  @Modifying
+  @Query(
+      "UPDATE reviewaggregates a SET a.starsSum = a.starsSum + :stars,"
+          + " a.reviewCount = a.reviewCount + :count WHERE a.groupKey = :groupKey")
+  int addToGroup(
+      @Param("groupKey") String groupKey, @Param("stars") long stars, @Param("count") long count);
+
+  /**
+   * Deletes a group once its last review has been subtracted.
+   *
+   * @param groupKey key of the group
+   * @return number of rows deleted
+   */
+  @Modifying
+  @Query("DELETE FROM reviewaggregates a WHERE a.groupKey = :groupKey AND a.reviewCount <= 0")
+  int deleteIfEmpty(@Param("groupKey") String groupKey);
+
+  /**
+   * Deletes all groups with a single statement. Unlike {@code deleteAll()}, which only removes the
+   * rows when the persistence context is flushed, the rows are gone as soon as this returns, so
+   * groups with the same keys can be inserted right after it in the same transaction.
+   *
+   * @return number of rows deleted
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM reviewaggregates a")
+  int deleteAllGroups();
+
+  /**
+   * Statistics for every item reviewed in a range of days, summed from the {@code ITEM_DAY} rows,
+   * so the cost depends on the number of days rather than on the number of reviews.
+   *
+   * @param from first day served to count (null for no lower bound)
+   * @param to last day served to count (null for no upper bound)
+   * @return one row per item with at least one review in the range
+   */
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.ItemStatistic(i.id, i.name, i.diningCommonsCode,"
+          + " i.mealCode, i.station, cast(SUM(a.starsSum) as Double) / SUM(a.reviewCount),"
+          + " SUM(a.reviewCount))"
+          + " FROM reviewaggregates a JOIN menuitem i ON i.id = a.itemId"
+          + " WHERE a.scope = edu.ucsb.cs156.dining.entities.ReviewAggregate.Scope.ITEM_DAY"
+          + " AND (:from IS NULL OR a.dayServed >= :from)"
+          + " AND (:to IS NULL OR a.dayServed <= :to)"
+          + " GROUP BY i.id, i.name, i.diningCommonsCode, i.mealCode, i.station")
+  List<ItemStatistic> findItemStatisticsBetween(
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -3,11 +3,45 @@ package edu.ucsb.cs156.dining.repositories;
 import edu.ucsb.cs156.dining.entities.MenuItem;
 import edu.ucsb.cs156.dining.entities.Review;
 import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.CommonsTotal;
+import edu.ucsb.cs156.dining.models.DailyItemTotal;
+import edu.ucsb.cs156.dining.models.ItemTotal;
+import edu.ucsb.cs156.dining.models.MealTotal;
+import edu.ucsb.cs156.dining.models.MonthlyCommonsTotal;
+import edu.ucsb.cs156.dining.models.ReviewExportRow;
+import edu.ucsb.cs156.dining.models.ReviewView;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-/** The ReviewRepository is a repository for Review entities */
+/**
+ * The ReviewRepository is a repository for Review entities
+ *
+ * <p>The {@code find...Totals} queries let the database do the grouping: they return the sum of the
+ * stars and the number of reviews of each group instead of loading every review (and its item and
+ * reviewer). Each of them only counts reviews that have stars. The sums are exact, unlike sums
+ * recovered from an average.
+ *
+ * <p>The finders that return {@link Review} entities fetch the item and reviewer of each review in
+ * the same query ({@link EntityGraph}); otherwise Hibernate would load them with one more query per
+ * distinct item and reviewer.
+ */
 @Repository
 public interface ReviewRepository extends CrudRepository<Review, Long> {
 
@@ -17,9 +51,190 @@ public interface ReviewRepository extends CrudRepository<Review, Long> {
    *     reviews over the past year well then this method will return only the reviews that this
    *     user has sent
    */
+  @EntityGraph(attributePaths = {"item", "reviewer"})
   Iterable<Review> findByReviewer(User user);
 
+  @EntityGraph(attributePaths = {"item", "reviewer"})
   Iterable<Review> findByStatus(ModerationStatus moderationStatus);
 
+  @EntityGraph(attributePaths = {"item", "reviewer"})
   Iterable<Review> findByItemAndStatus(MenuItem item, ModerationStatus approved);
+
+  /**
+   * @param items the menu items
+   * @param status the status
+   * @return the reviews of any of the items that have the status, in one query
+   */
+  @EntityGraph(attributePaths = {"item", "reviewer"})
+  List<Review> findByItemInAndStatus(Collection<MenuItem> items, ModerationStatus status);
+
+  /**
+   * Reads a review for changing it. Its row stays locked until the end of the transaction, so a
+   * concurrent change of the same review waits until this one has committed.
+   *
+   * @param id id of the review
+   * @return the review, if it exists
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT r FROM reviews r WHERE r.id = :id")
+  Optional<Review> findByIdForUpdate(@Param("id") long id);
+
+  /**
+   * Reads several reviews for changing them; their rows stay locked until the end of the
+   * transaction, like {@link #findByIdForUpdate}.
+   *
+   * @param ids ids of reviews
+   * @return the reviews with those ids that exist, in one query
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @EntityGraph(attributePaths = {"item", "reviewer"})
+  List<Review> findByIdIn(Collection<Long> ids);
+
+  /**
+   * Moderates several reviews with one {@code UPDATE}. This bypasses the entity listeners, so the
+   * edit date is passed in, and the persistence context is cleared afterwards.
+   *
+   * @param ids ids of the reviews
+   * @param status the new status
+   * @param moderatorComments the new moderator comments
+   * @param dateEdited the edit date
+   * @return the number of reviews updated
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE reviews r SET r.status = :status, r.moderatorComments = :moderatorComments,"
+          + " r.dateEdited = :dateEdited WHERE r.id IN :ids")
+  int moderate(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") ModerationStatus status,
+      @Param("moderatorComments") String moderatorComments,
+      @Param("dateEdited") LocalDateTime dateEdited);
+
+  /**
+   * Selects a {@link ReviewView} for each review {@code r}, together with its item {@code i} and
+   * reviewer {@code u}, in one query.
+   */
+  String REVIEW_VIEW =
+      "SELECT new edu.ucsb.cs156.dining.models.ReviewView(r.id, r.itemsStars,"
+          + " r.reviewerComments, r.status, r.dateItemServed, i.id, i.name, i.diningCommonsCode,"
+          + " u.id, COALESCE(u.alias, 'Anonymous User'))"
+          + " FROM reviews r JOIN r.item i JOIN r.reviewer u";
+
+  /**
+   * Lists the reviews in id order, starting after a given id. For keyset pagination, pass the id of
+   * the last review of the previous page (or 0) and a {@code Pageable} for page 0, so that the
+   * query is limited without an {@code OFFSET}; pass {@link Pageable#unpaged()} for all reviews.
+   *
+   * @param after id of the last review already seen
+   * @param pageable the page size
+   * @return the next reviews in id order
+   */
+  @Query(REVIEW_VIEW + " WHERE r.id > :after ORDER BY r.id")
+  Slice<ReviewView> findViewsAfter(@Param("after") long after, Pageable pageable);
+
+  /** Same as {@link #findViewsAfter}, restricted to one status. */
+  @Query(REVIEW_VIEW + " WHERE r.status = :status AND r.id > :after ORDER BY r.id")
+  Slice<ReviewView> findViewsByStatusAfter(
+      @Param("status") ModerationStatus status, @Param("after") long after, Pageable pageable);
+
+  /** Same as {@link #findViewsAfter}, restricted to one reviewer. */
+  @Query(REVIEW_VIEW + " WHERE u.id = :reviewerId AND r.id > :after ORDER BY r.id")
+  Slice<ReviewView> findViewsByReviewerIdAfter(
+      @Param("reviewerId") long reviewerId, @Param("after") long after, Pageable pageable);
+
+  /**
+   * Lists the reviews with a given status of several menu items, in id order.
+   *
+   * @param itemIds ids of the menu items
+   * @param status the status
+   * @return the reviews
+   */
+  @Query(REVIEW_VIEW + " WHERE i.id IN :itemIds AND r.status = :status ORDER BY r.id")
+  List<ReviewView> findViewsByItemIdInAndStatus(
+      @Param("itemIds") Collection<Long> itemIds, @Param("status") ModerationStatus status);
+
+  @Query(REVIEW_VIEW + " WHERE r.id = :id")
+  Optional<ReviewView> findViewById(@Param("id") long id);
+
+  /** Total stars and number of reviews per item (see {@link ItemTotal}). */
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.ItemTotal(i.id, SUM(r.itemsStars), COUNT(r))"
+          + " FROM reviews r JOIN r.item i"
+          + " WHERE r.status = :status AND r.itemsStars IS NOT NULL"
+          + " GROUP BY i.id")
+  List<ItemTotal> findItemTotals(@Param("status") ModerationStatus status);
+
+  /** Total stars and number of reviews per dining commons (see {@link CommonsTotal}). */
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.CommonsTotal(i.diningCommonsCode,"
+          + " SUM(r.itemsStars), COUNT(r))"
+          + " FROM reviews r JOIN r.item i"
+          + " WHERE r.status = :status AND r.itemsStars IS NOT NULL"
+          + " AND i.diningCommonsCode IS NOT NULL"
+          + " GROUP BY i.diningCommonsCode")
+  List<CommonsTotal> findCommonsTotals(@Param("status") ModerationStatus status);
+
+  /** Total stars and number of reviews per dining commons and meal (see {@link MealTotal}). */
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.MealTotal(i.diningCommonsCode, i.mealCode,"
+          + " SUM(r.itemsStars), COUNT(r))"
+          + " FROM reviews r JOIN r.item i"
+          + " WHERE r.status = :status AND r.itemsStars IS NOT NULL"
+          + " AND i.diningCommonsCode IS NOT NULL AND i.mealCode IS NOT NULL"
+          + " GROUP BY i.diningCommonsCode, i.mealCode")
+  List<MealTotal> findMealTotals(@Param("status") ModerationStatus status);
+
+  /**
+   * Total stars and number of reviews per dining commons and month served (see {@link
+   * MonthlyCommonsTotal}).
+   */
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.MonthlyCommonsTotal(i.diningCommonsCode,"
+          + " format(r.dateItemServed as 'yyyy-MM'), SUM(r.itemsStars), COUNT(r))"
+          + " FROM reviews r JOIN r.item i"
+          + " WHERE r.status = :status AND r.itemsStars IS NOT NULL"
+          + " AND i.diningCommonsCode IS NOT NULL AND r.dateItemServed IS NOT NULL"
+          + " GROUP BY i.diningCommonsCode, format(r.dateItemServed as 'yyyy-MM')")
+  List<MonthlyCommonsTotal> findMonthlyCommonsTotals(@Param("status") ModerationStatus status);
+
+  /** Total stars and number of reviews per item and day served (see {@link DailyItemTotal}). */
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.DailyItemTotal(i.id,"
+          + " cast(r.dateItemServed as LocalDate), SUM(r.itemsStars), COUNT(r))"
+          + " FROM reviews r JOIN r.item i"
+          + " WHERE r.status = :status AND r.itemsStars IS NOT NULL"
+          + " AND r.dateItemServed IS NOT NULL"
+          + " GROUP BY i.id, cast(r.dateItemServed as LocalDate)")
+  List<DailyItemTotal> findDailyItemTotals(@Param("status") ModerationStatus status);
+
+  /** Number of rows {@link #streamExportRows} fetches from the database at a time. */
+  String EXPORT_FETCH_SIZE = "500";
+
+  /**
+   * Streams the reviews for the review export in id order, optionally restricted to one status and
+   * a range of serving dates. The rows are fetched {@link #EXPORT_FETCH_SIZE} at a time, so memory
+   * use does not depend on the number of reviews. Must be called in a transaction, and the stream
+   * must be closed.
+   *
+   * @param status status of the reviews, null for all
+   * @param from earliest date served, null for no lower bound
+   * @param to date served before which the reviews end (exclusive), null for no upper bound
+   * @return the reviews
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+  @Query(
+      "SELECT new edu.ucsb.cs156.dining.models.ReviewExportRow(r.id, i.id, i.name,"
+          + " i.diningCommonsCode, i.mealCode, i.station, u.id,"
+          + " COALESCE(u.alias, 'Anonymous User'), r.itemsStars, r.reviewerComments, r.status,"
+          + " r.dateItemServed, r.dateCreated, r.dateEdited, r.userIdModerator,"
+          + " r.moderatorComments)"
+          + " FROM reviews r JOIN r.item i JOIN r.reviewer u"
+          + " WHERE (:status IS NULL OR r.status = :status)"
+          + " AND (:from IS NULL OR r.dateItemServed >= :from)"
+          + " AND (:to IS NULL OR r.dateItemServed < :to)"
+          + " ORDER BY r.id")
+  Stream<ReviewExportRow> streamExportRows(
+      @Param("status") ModerationStatus status,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
 }
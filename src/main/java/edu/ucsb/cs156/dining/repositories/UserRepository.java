@@ -2,14 +2,21 @@ package edu.ucsb.cs156.dining.repositories;
 
 import edu.ucsb.cs156.dining.entities.User;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /** The UserRepository is a repository for User entities. */
 @Repository
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository
+    extends CrudRepository<User, Long>, PagingAndSortingRepository<User, Long> {
   /**
    * This method returns a User entity with a given email.
    *
@@ -30,4 +37,33 @@ public interface UserRepository extends CrudRepository<User, Long> {
   List<User> findByProposedAliasNotNull();
 
   List<User> findByStatusAndProposedAliasNotNull(ModerationStatus status);
+
+  /**
+   * Approves the proposed aliases of several users with one {@code UPDATE}: each proposed alias
+   * becomes the alias. The persistence context is cleared afterwards.
+   *
+   * @param ids ids of the users
+   * @param dateApproved the approval date
+   * @return the number of users updated
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE users u SET u.alias = u.proposedAlias, u.proposedAlias = NULL,"
+          + " u.status = :status, u.dateApproved = :dateApproved WHERE u.id IN :ids")
+  int approveProposedAliases(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") ModerationStatus status,
+      @Param("dateApproved") LocalDate dateApproved);
+
+  /**
+   * Sets the status of several users with one {@code UPDATE}. The persistence context is cleared
+   * afterwards.
+   *
+   * @param ids ids of the users
+   * @param status the new status
+   * @return the number of users updated
+   */
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE users u SET u.status = :status WHERE u.id IN :ids")
+  int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") ModerationStatus status);
 }
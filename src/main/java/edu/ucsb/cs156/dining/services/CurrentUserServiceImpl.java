@@ -8,6 +8,7 @@ import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
@@ -15,11 +16,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * This is a service that provides information about the current user.
  *
  * <p>This is the version of the service used in production.
+ *
+ * <p>The {@link User} is looked up once per request and kept in the request attributes; between
+ * requests it is kept in the {@link UserCache}.
  */
 @Slf4j
 @Service("currentUser")
@@ -29,6 +35,11 @@ public class CurrentUserServiceImpl extends CurrentUserService {
 
   @Autowired GrantedAuthoritiesService grantedAuthoritiesService;
 
+  @Autowired UserCache userCache;
+
+  /** Name of the request attribute that holds the user of the current request. */
+  static final String USER_ATTRIBUTE = CurrentUserServiceImpl.class.getName() + ".user";
+
   /**
    * This method returns the current user as a User object.
    *
@@ -36,7 +47,7 @@ public class CurrentUserServiceImpl extends CurrentUserService {
    */
   public CurrentUser getCurrentUser() {
     CurrentUser cu = CurrentUser.builder().user(this.getUser()).roles(this.getRoles()).build();
-    log.info("getCurrentUser returns {}", cu);
+    log.debug("getCurrentUser returns {}", cu);
     return cu;
   }
 
@@ -45,7 +56,8 @@ public class CurrentUserServiceImpl extends CurrentUserService {
    * automatically injected by Spring.
    *
    * <p>This method also has a side effect of storing the user in the database if they are not
-   * already there.
+   * already there. If the same user logs in twice at the same time, the unique key on the email
+   * rejects the second insert, and the user stored by the first one is returned.
    *
    * @param securityContext the security context (provided by Spring)
    * @param authentication the authentication token (provided by Spring)
@@ -54,6 +66,14 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   public User getOAuth2AuthenticatedUser(
       SecurityContext securityContext, Authentication authentication) {
     OAuth2User oAuthUser = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+    String email = oAuthUser.getAttribute("email");
+    if (email == null) {
+      return loadOrCreate(oAuthUser);
+    }
+    return userCache.get(email, key -> loadOrCreate(oAuthUser));
+  }
+
+  private User loadOrCreate(OAuth2User oAuthUser) {
     String email = oAuthUser.getAttribute("email");
     String googleSub = oAuthUser.getAttribute("sub");
     String pictureUrl = oAuthUser.getAttribute("picture");
@@ -64,14 +84,13 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     String locale = oAuthUser.getAttribute("locale");
     String hostedDomain = oAuthUser.getAttribute("hd");
 
-    java.util.Map<java.lang.String, java.lang.Object> attrs = oAuthUser.getAttributes();
-    log.info("attrs={}", attrs);
-
     Optional<User> ou = userRepository.findByEmail(email);
     if (ou.isPresent()) {
       return ou.get();
     }
 
+    log.debug("Creating user for attrs={}", oAuthUser.getAttributes());
+
     User u =
         User.builder()
             .googleSub(googleSub)
@@ -84,8 +103,13 @@ public class CurrentUserServiceImpl extends CurrentUserService {
             .locale(locale)
             .hostedDomain(hostedDomain)
             .build();
-    userRepository.save(u);
-    return u;
+    try {
+      userRepository.save(u);
+      return u;
+    } catch (DataIntegrityViolationException e) {
+      log.info("User {} was created concurrently", email);
+      return userRepository.findByEmail(email).orElseThrow(() -> e);
+    }
   }
 
   /**
@@ -97,10 +121,19 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     SecurityContext securityContext = SecurityContextHolder.getContext();
     Authentication authentication = securityContext.getAuthentication();
 
-    if (authentication instanceof OAuth2AuthenticationToken) {
+    if (!(authentication instanceof OAuth2AuthenticationToken)) {
+      return null;
+    }
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request == null) {
       return getOAuth2AuthenticatedUser(securityContext, authentication);
     }
-    return null;
+    User user = (User) request.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (user == null) {
+      user = getOAuth2AuthenticatedUser(securityContext, authentication);
+      request.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+    }
+    return user;
   }
 
   /**
@@ -8,7 +8,6 @@ import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -33,6 +32,8 @@ public class DiningCommonsService {
 
   @Autowired private ObjectMapper mapper;
 
+  @Autowired private UCSBApiMetrics ucsbApiMetrics;
+
   @Value("${app.ucsb.api.consumer_key}")
   private String apiKey;
 
@@ -40,8 +41,12 @@ public class DiningCommonsService {
 
   private final RestTemplate restTemplate;
 
-  public DiningCommonsService(RestTemplateBuilder restTemplateBuilder) {
-    restTemplate = restTemplateBuilder.build();
+  /**
+   * @param ucsbApiRestTemplate the RestTemplate shared by the services that call the UCSB API (see
+   *     {@link edu.ucsb.cs156.dining.config.UCSBApiClientConfig})
+   */
+  public DiningCommonsService(RestTemplate ucsbApiRestTemplate) {
+    restTemplate = ucsbApiRestTemplate;
   }
 
   @Cacheable("diningCommons")
@@ -55,12 +60,14 @@ public class DiningCommonsService {
     log.info("Fetching dining commons from UCSB API");
 
     HttpEntity<String> entity = new HttpEntity<>(headers);
-    ResponseEntity<String> re =
-        restTemplate.exchange(ENDPOINT, HttpMethod.GET, entity, String.class);
-
-    String retBody = re.getBody();
     List<DiningCommons> commons =
-        mapper.readValue(retBody, new TypeReference<List<DiningCommons>>() {});
+        ucsbApiMetrics.record(
+            DiningCommonsService.class,
+            () -> {
+              ResponseEntity<String> re =
+                  restTemplate.exchange(ENDPOINT, HttpMethod.GET, entity, String.class);
+              return mapper.readValue(re.getBody(), new TypeReference<List<DiningCommons>>() {});
+            });
 
     return commons;
   }
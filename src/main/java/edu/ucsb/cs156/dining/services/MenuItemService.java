@@ -0,0 +1,148 @@
+package edu.ucsb.cs156.dining.services;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuItemSummary;
+import edu.ucsb.cs156.dining.models.MenuItemView;
+import edu.ucsb.cs156.dining.models.ReviewView;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * This service keeps the menuitem table in step with the menus from the UCSB API, so that every
+ * entree that has been served has a {@link MenuItem} that can be reviewed.
+ */
+@Slf4j
+@Service
+public class MenuItemService {
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired ReviewAggregateRepository reviewAggregateRepository;
+
+  /** Identifies a menu item within a meal. */
+  private record ItemKey(String name, String station) {}
+
+  /**
+   * Makes sure that there is a menu item for every entree of a meal.
+   *
+   * <p>The existing items of the meal are loaded with one query; only the missing ones are written,
+   * together in one batch. If another request inserted some of the same items in the meantime, the
+   * unique key on the menu items rejects the batch and the meal is looked up again.
+   *
+   * @param diningCommonsCode the dining commons the meal is served at
+   * @param mealCode the meal
+   * @param entrees the entrees of the meal
+   * @return the menu items, in the same order as the entrees
+   */
+  public List<MenuItem> upsert(String diningCommonsCode, String mealCode, List<Entree> entrees) {
+    try {
+      return insertMissing(diningCommonsCode, mealCode, entrees);
+    } catch (DataIntegrityViolationException e) {
+      log.info("Menu items of {} {} were inserted concurrently", diningCommonsCode, mealCode);
+      return insertMissing(diningCommonsCode, mealCode, entrees);
+    }
+  }
+
+  private List<MenuItem> insertMissing(
+      String diningCommonsCode, String mealCode, List<Entree> entrees) {
+    Map<ItemKey, MenuItem> items = new HashMap<>();
+    for (MenuItem item :
+        menuItemRepository.findByDiningCommonsCodeAndMealCode(diningCommonsCode, mealCode)) {
+      items.putIfAbsent(new ItemKey(item.getName(), item.getStation()), item);
+    }
+
+    List<MenuItem> menuItems = new ArrayList<>();
+    List<MenuItem> created = new ArrayList<>();
+    for (Entree entree : entrees) {
+      MenuItem menuItem =
+          items.computeIfAbsent(
+              new ItemKey(entree.getName(), entree.getStation()),
+              key -> {
+                MenuItem item =
+                    MenuItem.builder()
+                        .diningCommonsCode(diningCommonsCode)
+                        .mealCode(mealCode)
+                        .name(key.name())
+                        .station(key.station())
+                        .build();
+                created.add(item);
+                return item;
+              });
+      menuItems.add(menuItem);
+    }
+
+    if (!created.isEmpty()) {
+      menuItemRepository.saveAll(created);
+    }
+    return menuItems;
+  }
+
+  /**
+   * Adds the approved reviews to each menu item, loading them with one query.
+   *
+   * @param menuItems the menu items
+   * @return the menu items with their approved reviews, in the same order
+   */
+  public List<MenuItemView> withApprovedReviews(List<MenuItem> menuItems) {
+    Map<Long, List<ReviewView>> reviews = new HashMap<>();
+    if (!menuItems.isEmpty()) {
+      List<Long> ids = menuItems.stream().map(MenuItem::getId).toList();
+      for (ReviewView review :
+          reviewRepository.findViewsByItemIdInAndStatus(ids, ModerationStatus.APPROVED)) {
+        reviews.computeIfAbsent(review.item().id(), id -> new ArrayList<>()).add(review);
+      }
+    }
+    List<MenuItemView> views = new ArrayList<>();
+    for (MenuItem menuItem : menuItems) {
+      views.add(MenuItemView.of(menuItem, reviews.getOrDefault(menuItem.getId(), List.of())));
+    }
+    return views;
+  }
+
+  /**
+   * Summarizes the approved ratings of each menu item. The numbers come from the {@code ITEM} rows
+   * of the review aggregates, so this is one query no matter how many reviews there are.
+   *
+   * @param menuItems the menu items
+   * @return one summary per menu item, in the same order
+   */
+  public List<MenuItemSummary> summaries(List<MenuItem> menuItems) {
+    Map<Long, ReviewAggregate> aggregates = new HashMap<>();
+    if (!menuItems.isEmpty()) {
+      List<Long> ids = menuItems.stream().map(MenuItem::getId).toList();
+      for (ReviewAggregate aggregate :
+          reviewAggregateRepository.findByScopeAndItemIdIn(ReviewAggregate.Scope.ITEM, ids)) {
+        aggregates.put(aggregate.getItemId(), aggregate);
+      }
+    }
+    List<MenuItemSummary> summaries = new ArrayList<>();
+    for (MenuItem menuItem : menuItems) {
+      ReviewAggregate aggregate = aggregates.get(menuItem.getId());
+      summaries.add(
+          MenuItemSummary.builder()
+              .id(menuItem.getId())
+              .diningCommonsCode(menuItem.getDiningCommonsCode())
+              .mealCode(menuItem.getMealCode())
+              .name(menuItem.getName())
+              .station(menuItem.getStation())
+              .averageStars(aggregate == null ? null : aggregate.averageStars())
+              .reviewCount(aggregate == null ? 0 : aggregate.getReviewCount())
+              .build());
+    }
+    return summaries;
+  }
+}
@@ -0,0 +1,205 @@
+package edu.ucsb.cs156.dining.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.models.DiningCommons;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuWarmupReport;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This service fetches the menus of every dining commons for today and tomorrow ahead of time, so
+ * that the first student to look at a menu does not have to wait for the UCSB API.
+ *
+ * <p>Going through the usual services fills the {@code menu} cache and the {@link
+ * UCSBDiningMenuItemsCache}, and every entree gets its menu item. At most {@code concurrency}
+ * requests to the UCSB API are made at a time, each on a virtual thread of its own when the app
+ * runs on virtual threads ({@code spring.threads.virtual.enabled}), or else on a pool of {@code
+ * concurrency} platform threads. A menu that cannot be fetched is counted as a failure and does not
+ * stop the rest of the warmup.
+ */
+@Slf4j
+@Service
+public class MenuWarmupService {
+
+  @Autowired DiningCommonsService diningCommonsService;
+
+  @Autowired UCSBDiningMenuService ucsbDiningMenuService;
+
+  @Autowired UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache;
+
+  @Autowired MenuItemService menuItemService;
+
+  @Autowired ObjectMapper objectMapper;
+
+  @Value("${app.menuWarmup.concurrency:4}")
+  int concurrency;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  boolean virtualThreads;
+
+  /** The clock of {@link edu.ucsb.cs156.dining.config.ClockConfig}, in the time zone of campus. */
+  @Autowired Clock clock;
+
+  /** A meal served at a dining commons on some date. */
+  record Meal(String date, String diningCommonsCode, String mealCode) {}
+
+  /**
+   * Runs the warmup on the schedule given by {@code app.menuWarmup.cron}, in the time zone of
+   * campus ({@code app.timezone}).
+   */
+  @Scheduled(
+      cron = "${app.menuWarmup.cron:0 0 5,10,15 * * *}",
+      zone = "${app.timezone:America/Los_Angeles}")
+  public void scheduledWarmup() throws Exception {
+    warmup();
+  }
+
+  /**
+   * Fetches the meals of every dining commons for today and tomorrow, and the entrees of each meal.
+   *
+   * @return what was loaded and how long it took
+   */
+  public MenuWarmupReport warmup() throws Exception {
+    long start = System.nanoTime();
+    LocalDate today = LocalDate.now(clock);
+    List<String> dates = List.of(today.toString(), today.plusDays(1).toString());
+    List<DiningCommons> commons = diningCommonsService.get();
+
+    List<Callable<List<Meal>>> mealTasks = new ArrayList<>();
+    for (String date : dates) {
+      for (DiningCommons c : commons) {
+        mealTasks.add(() -> meals(date, c.getCode()));
+      }
+    }
+
+    int keysLoaded = 0;
+    int failures = 0;
+    int menuItems = 0;
+    Semaphore permits = new Semaphore(concurrency);
+    try (ExecutorService executor = executor()) {
+      List<Callable<Integer>> entreeTasks = new ArrayList<>();
+      for (List<Meal> meals : runAll(executor, permits, mealTasks)) {
+        if (meals == null) {
+          failures++;
+          continue;
+        }
+        keysLoaded++;
+        for (Meal meal : meals) {
+          entreeTasks.add(() -> entrees(meal));
+        }
+      }
+      for (Integer count : runAll(executor, permits, entreeTasks)) {
+        if (count == null) {
+          failures++;
+          continue;
+        }
+        keysLoaded++;
+        menuItems += count;
+      }
+    }
+
+    long durationMillis = (System.nanoTime() - start) / 1_000_000;
+    log.info(
+        "Menu warmup for {} loaded {} keys ({} failures, {} menu items) in {} ms",
+        dates,
+        keysLoaded,
+        failures,
+        menuItems,
+        durationMillis);
+    return MenuWarmupReport.builder()
+        .dates(dates)
+        .diningCommons(commons.size())
+        .keysLoaded(keysLoaded)
+        .failures(failures)
+        .menuItems(menuItems)
+        .durationMillis(durationMillis)
+        .build();
+  }
+
+  /**
+   * @return an executor that runs each task on a new virtual thread, or on a pool of {@code
+   *     concurrency} platform threads
+   */
+  ExecutorService executor() {
+    if (virtualThreads) {
+      return Executors.newThreadPerTaskExecutor(
+          Thread.ofVirtual().name("menu-warmup-", 0).factory());
+    }
+    return Executors.newFixedThreadPool(
+        concurrency, Thread.ofPlatform().name("menu-warmup-", 0).factory());
+  }
+
+  /**
+   * Runs the tasks, at most as many at a time as there are permits (virtual threads are not pooled,
+   * so the pool does not limit them).
+   */
+  private static <T> List<T> runAll(
+      ExecutorService executor, Semaphore permits, List<Callable<T>> tasks) throws Exception {
+    List<Callable<T>> limited = new ArrayList<>();
+    for (Callable<T> task : tasks) {
+      limited.add(
+          () -> {
+            permits.acquire();
+            try {
+              return task.call();
+            } finally {
+              permits.release();
+            }
+          });
+    }
+    List<T> results = new ArrayList<>();
+    for (Future<T> future : executor.invokeAll(limited)) {
+      results.add(future.get());
+    }
+    return results;
+  }
+
+  /**
+   * @return the meals served at a dining commons on a date (empty if it is closed), or null if they
+   *     could not be fetched
+   */
+  List<Meal> meals(String date, String diningCommonsCode) {
+    List<Meal> meals = new ArrayList<>();
+    try {
+      String json = ucsbDiningMenuService.getJSON(date, diningCommonsCode);
+      if (json == null) {
+        return meals;
+      }
+      for (JsonNode meal : objectMapper.readTree(json)) {
+        meals.add(new Meal(date, diningCommonsCode, meal.path("code").asText()));
+      }
+      return meals;
+    } catch (Exception e) {
+      log.warn("Could not warm up meals of {} on {}: {}", diningCommonsCode, date, e.toString());
+      return null;
+    }
+  }
+
+  /**
+   * @return the number of entrees of a meal, or null if they could not be fetched
+   */
+  Integer entrees(Meal meal) {
+    try {
+      List<Entree> entrees =
+          ucsbDiningMenuItemsCache.get(meal.date(), meal.diningCommonsCode(), meal.mealCode());
+      return menuItemService.upsert(meal.diningCommonsCode(), meal.mealCode(), entrees).size();
+    } catch (Exception e) {
+      log.warn("Could not warm up {}: {}", meal, e.toString());
+      return null;
+    }
+  }
+}
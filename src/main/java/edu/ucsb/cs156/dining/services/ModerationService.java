@@ -0,0 +1,206 @@
+package edu.ucsb.cs156.dining.services;
+
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.AliasModeration;
+import edu.ucsb.cs156.dining.models.ModerationOutcome;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.models.ReviewModeration;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Moderates many reviews or aliases at once, for clearing the moderation queues.
+ *
+ * <p>Each bulk moderation runs in one transaction: the rows are read with one query and written
+ * with one {@code UPDATE ... WHERE id IN} per distinct decision, instead of a read and a write per
+ * id.
+ */
+@Slf4j
+@Service
+public class ModerationService {
+
+  /** Largest number of decisions in one bulk moderation. */
+  public static final int MAX_BATCH_SIZE = 500;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired ReviewAggregateService reviewAggregateService;
+
+  @Autowired UserRepository userRepository;
+
+  @Autowired UserCache userCache;
+
+  /**
+   * The provider that JPA auditing stamps edited reviews with, so that reviews moderated in bulk
+   * get the same kind of edit date as reviews moderated one at a time.
+   */
+  @Autowired DateTimeProvider utcDateTimeProvider;
+
+  /** The reviews that get the same status and moderator comments are updated together. */
+  private record Decision(ModerationStatus status, String moderatorComments) {}
+
+  /**
+   * Checks the ids of a bulk moderation.
+   *
+   * @param ids the ids
+   * @throws IllegalArgumentException if there are too many ids, or an id is missing or repeated
+   */
+  static void checkIds(List<Long> ids) {
+    if (ids.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException("at most %d ids at a time".formatted(MAX_BATCH_SIZE));
+    }
+    Set<Long> seen = new HashSet<>();
+    for (Long id : ids) {
+      if (id == null) {
+        throw new IllegalArgumentException("every decision needs an id");
+      }
+      if (!seen.add(id)) {
+        throw new IllegalArgumentException("id %d is given more than once".formatted(id));
+      }
+    }
+  }
+
+  /**
+   * Sets the status and moderator comments of several reviews, and applies the changes to the
+   * rating aggregates.
+   *
+   * @param moderations the decision for each review
+   * @return the outcome for each review, in the same order
+   * @throws IllegalArgumentException if the decisions are not valid (see {@link #checkIds})
+   */
+  @Transactional
+  public List<ModerationOutcome> moderateReviews(List<ReviewModeration> moderations) {
+    List<Long> ids = moderations.stream().map(ReviewModeration::id).toList();
+    checkIds(ids);
+    for (ReviewModeration moderation : moderations) {
+      if (moderation.status() == null) {
+        throw new IllegalArgumentException("review %d needs a status".formatted(moderation.id()));
+      }
+    }
+
+    Map<Long, Review> reviews = new HashMap<>();
+    for (Review review : reviewRepository.findByIdIn(ids)) {
+      reviews.put(review.getId(), review);
+    }
+
+    Map<Decision, List<Long>> decisions = new LinkedHashMap<>();
+    List<ReviewContribution> removed = new ArrayList<>();
+    List<ReviewContribution> added = new ArrayList<>();
+    List<ModerationOutcome> outcomes = new ArrayList<>();
+    for (ReviewModeration moderation : moderations) {
+      Review review = reviews.get(moderation.id());
+      if (review == null) {
+        outcomes.add(new ModerationOutcome(moderation.id(), ModerationOutcome.Outcome.NOT_FOUND));
+        continue;
+      }
+      decisions
+          .computeIfAbsent(
+              new Decision(moderation.status(), moderation.moderatorComments()),
+              decision -> new ArrayList<>())
+          .add(review.getId());
+      ReviewContribution before = ReviewContribution.of(review);
+      ReviewContribution after = ReviewContribution.of(review, moderation.status());
+      if (!Objects.equals(before, after)) {
+        if (before != null) {
+          removed.add(before);
+        }
+        if (after != null) {
+          added.add(after);
+        }
+      }
+      outcomes.add(new ModerationOutcome(review.getId(), ModerationOutcome.Outcome.UPDATED));
+    }
+
+    LocalDateTime now = LocalDateTime.from(utcDateTimeProvider.getNow().orElseThrow());
+    decisions.forEach(
+        (decision, reviewIds) ->
+            reviewRepository.moderate(
+                reviewIds, decision.status(), decision.moderatorComments(), now));
+    reviewAggregateService.onReviewsChanged(removed, added);
+    log.info("Moderated {} of {} reviews", reviews.size(), moderations.size());
+    return outcomes;
+  }
+
+  /**
+   * Approves or rejects the proposed aliases of several users.
+   *
+   * @param moderations the decision for each user
+   * @return the outcome for each user, in the same order
+   * @throws IllegalArgumentException if the decisions are not valid (see {@link #checkIds})
+   */
+  @Transactional
+  public List<ModerationOutcome> moderateAliases(List<AliasModeration> moderations) {
+    List<Long> ids = moderations.stream().map(AliasModeration::id).toList();
+    checkIds(ids);
+    for (AliasModeration moderation : moderations) {
+      if (moderation.approved() == null) {
+        throw new IllegalArgumentException(
+            "user %d needs to be approved or not".formatted(moderation.id()));
+      }
+    }
+
+    Map<Long, String> emails = new HashMap<>();
+    for (User user : userRepository.findAllById(ids)) {
+      emails.put(user.getId(), user.getEmail());
+    }
+
+    List<Long> approved = new ArrayList<>();
+    List<Long> rejected = new ArrayList<>();
+    List<ModerationOutcome> outcomes = new ArrayList<>();
+    for (AliasModeration moderation : moderations) {
+      if (!emails.containsKey(moderation.id())) {
+        outcomes.add(new ModerationOutcome(moderation.id(), ModerationOutcome.Outcome.NOT_FOUND));
+        continue;
+      }
+      (moderation.approved() ? approved : rejected).add(moderation.id());
+      outcomes.add(new ModerationOutcome(moderation.id(), ModerationOutcome.Outcome.UPDATED));
+    }
+
+    if (!approved.isEmpty()) {
+      userRepository.approveProposedAliases(approved, ModerationStatus.APPROVED, LocalDate.now());
+    }
+    if (!rejected.isEmpty()) {
+      userRepository.updateStatus(rejected, ModerationStatus.REJECTED);
+    }
+    invalidateUsersAfterCommit(emails.values());
+    log.info("Moderated the aliases of {} of {} users", emails.size(), moderations.size());
+    return outcomes;
+  }
+
+  /**
+   * Forgets the cached users once the current transaction has committed, so that a concurrent
+   * request cannot cache the users from before the change again.
+   */
+  private void invalidateUsersAfterCommit(Iterable<String> emails) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      emails.forEach(userCache::invalidate);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            emails.forEach(userCache::invalidate);
+          }
+        });
+  }
+}
@@ -0,0 +1,298 @@
+package edu.ucsb.cs156.dining.services;
+
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.errors.AggregateGroupConflictException;
+import edu.ucsb.cs156.dining.models.CommonsTotal;
+import edu.ucsb.cs156.dining.models.DailyItemTotal;
+import edu.ucsb.cs156.dining.models.ItemTotal;
+import edu.ucsb.cs156.dining.models.MealTotal;
+import edu.ucsb.cs156.dining.models.MonthlyCommonsTotal;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * This service maintains the {@link ReviewAggregate} rows that back the statistics endpoints.
+ *
+ * <p>Every change to a review is applied as a delta: whatever the review used to contribute is
+ * subtracted and whatever it contributes now is added. {@link #rebuild()} recomputes everything
+ * from the reviews table, and runs once at startup so that the aggregates always start out in sync.
+ * Whenever the aggregates change, the {@link StatisticsCache} is invalidated.
+ */
+@Slf4j
+@Service
+public class ReviewAggregateService {
+
+  public static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+  @Autowired ReviewAggregateRepository reviewAggregateRepository;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired StatisticsCache statisticsCache;
+
+  @Value("${app.statistics.rebuildOnStartup:true}")
+  boolean rebuildOnStartup;
+
+  /**
+   * Builds an empty aggregate row for a group; the group key is derived from the scope and the key
+   * columns that apply to it.
+   */
+  static ReviewAggregate group(
+      ReviewAggregate.Scope scope,
+      Long itemId,
+      String diningCommonsCode,
+      String mealCode,
+      String period,
+      LocalDate day) {
+    StringBuilder key = new StringBuilder(scope.name());
+    for (Object part : new Object[] {itemId, diningCommonsCode, mealCode, period, day}) {
+      if (part != null) {
+        key.append('|').append(part);
+      }
+    }
+    return ReviewAggregate.builder()
+        .groupKey(key.toString())
+        .scope(scope)
+        .itemId(itemId)
+        .diningCommonsCode(diningCommonsCode)
+        .mealCode(mealCode)
+        .period(period)
+        .dayServed(day)
+        .build();
+  }
+
+  /**
+   * Returns one (empty) aggregate row for every group that a contribution is counted in.
+   *
+   * @param c the contribution (may be null)
+   * @return the groups, with starsSum and reviewCount set to zero
+   */
+  public static List<ReviewAggregate> groupsFor(ReviewContribution c) {
+    List<ReviewAggregate> groups = new ArrayList<>();
+    if (c == null) {
+      return groups;
+    }
+    groups.add(group(ReviewAggregate.Scope.ITEM, c.itemId(), null, null, null, null));
+    if (c.dateItemServed() != null) {
+      LocalDate day = c.dateItemServed().toLocalDate();
+      groups.add(group(ReviewAggregate.Scope.ITEM_DAY, c.itemId(), null, null, null, day));
+    }
+    String code = c.diningCommonsCode();
+    if (code == null) {
+      return groups;
+    }
+    groups.add(group(ReviewAggregate.Scope.COMMONS, null, code, null, null, null));
+    if (c.mealCode() != null) {
+      groups.add(group(ReviewAggregate.Scope.COMMONS_MEAL, null, code, c.mealCode(), null, null));
+    }
+    if (c.dateItemServed() != null) {
+      String month = c.dateItemServed().format(MONTH_FORMATTER);
+      groups.add(group(ReviewAggregate.Scope.COMMONS_MONTH, null, code, null, month, null));
+    }
+    return groups;
+  }
+
+  /**
+   * Invalidates the statistics cache once the current transaction has committed. Invalidating any
+   * earlier would let a concurrent request cache the statistics from before the change again.
+   */
+  void invalidateCacheAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      statisticsCache.invalidate();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            statisticsCache.invalidate();
+          }
+        });
+  }
+
+  /**
+   * Inserts the row of a group that has none yet. If a concurrent transaction inserts the same
+   * group first, the insert violates the unique group key once that transaction commits.
+   *
+   * @param group the row, with its totals set
+   * @throws AggregateGroupConflictException if the group was inserted concurrently
+   */
+  void insertGroup(ReviewAggregate group) {
+    try {
+      reviewAggregateRepository.save(group);
+    } catch (DataIntegrityViolationException e) {
+      throw new AggregateGroupConflictException(group.getGroupKey(), e);
+    }
+  }
+
+  /**
+   * Applies a change to a single review to the aggregates.
+   *
+   * <p>A group that has no row yet gets one inserted (see {@link #insertGroup}); {@link
+   * ReviewService} runs the whole write again if a concurrent transaction inserted it first.
+   *
+   * @param before what the review contributed before the change (null for a new review)
+   * @param after what the review contributes after the change (null for a deleted review)
+   */
+  @Transactional
+  public void onReviewChanged(ReviewContribution before, ReviewContribution after) {
+    if (Objects.equals(before, after)) {
+      return;
+    }
+    invalidateCacheAfterCommit();
+    for (ReviewAggregate group : groupsFor(before)) {
+      reviewAggregateRepository.addToGroup(group.getGroupKey(), -before.stars(), -1);
+      reviewAggregateRepository.deleteIfEmpty(group.getGroupKey());
+    }
+    for (ReviewAggregate group : groupsFor(after)) {
+      if (reviewAggregateRepository.addToGroup(group.getGroupKey(), after.stars(), 1) == 0) {
+        group.setStarsSum(after.stars());
+        group.setReviewCount(1);
+        insertGroup(group);
+      }
+    }
+  }
+
+  /**
+   * Applies changes to many reviews to the aggregates. The changes are summed per group first, so
+   * every group is updated once however many of the reviews it counts.
+   *
+   * @param removed what the changed reviews contributed before the change
+   * @param added what the changed reviews contribute after the change
+   */
+  @Transactional
+  public void onReviewsChanged(List<ReviewContribution> removed, List<ReviewContribution> added) {
+    Map<String, ReviewAggregate> deltas = new LinkedHashMap<>();
+    for (ReviewContribution c : removed) {
+      addDelta(deltas, c, -1);
+    }
+    for (ReviewContribution c : added) {
+      addDelta(deltas, c, 1);
+    }
+    deltas.values().removeIf(delta -> delta.getStarsSum() == 0 && delta.getReviewCount() == 0);
+    if (deltas.isEmpty()) {
+      return;
+    }
+    invalidateCacheAfterCommit();
+    for (ReviewAggregate delta : deltas.values()) {
+      long stars = delta.getStarsSum();
+      long count = delta.getReviewCount();
+      if (reviewAggregateRepository.addToGroup(delta.getGroupKey(), stars, count) == 0) {
+        if (count > 0) {
+          insertGroup(delta);
+        }
+      } else if (count < 0) {
+        reviewAggregateRepository.deleteIfEmpty(delta.getGroupKey());
+      }
+    }
+  }
+
+  private static void addDelta(
+      Map<String, ReviewAggregate> deltas, ReviewContribution c, int sign) {
+    for (ReviewAggregate group : groupsFor(c)) {
+      ReviewAggregate delta = deltas.computeIfAbsent(group.getGroupKey(), key -> group);
+      delta.setStarsSum(delta.getStarsSum() + sign * c.stars());
+      delta.setReviewCount(delta.getReviewCount() + sign);
+    }
+  }
+
+  /** Sets the totals of a group to the ones summed by the database. */
+  private static ReviewAggregate summed(ReviewAggregate group, long starsSum, long reviewCount) {
+    group.setStarsSum(starsSum);
+    group.setReviewCount(reviewCount);
+    return group;
+  }
+
+  /**
+   * Throws away all aggregate rows and recomputes them from the approved reviews. The grouping and
+   * summing is done by the database (see the {@code find...Totals} queries in {@link
+   * ReviewRepository}).
+   *
+   * @return the number of aggregate rows written
+   */
+  @Transactional
+  public int rebuild() {
+    List<ReviewAggregate> aggregates = new ArrayList<>();
+    for (ItemTotal t : reviewRepository.findItemTotals(ModerationStatus.APPROVED)) {
+      aggregates.add(
+          summed(
+              group(ReviewAggregate.Scope.ITEM, t.itemId(), null, null, null, null),
+              t.starsSum(),
+              t.reviewCount()));
+    }
+    for (CommonsTotal t : reviewRepository.findCommonsTotals(ModerationStatus.APPROVED)) {
+      aggregates.add(
+          summed(
+              group(ReviewAggregate.Scope.COMMONS, null, t.diningCommonsCode(), null, null, null),
+              t.starsSum(),
+              t.reviewCount()));
+    }
+    for (MealTotal t : reviewRepository.findMealTotals(ModerationStatus.APPROVED)) {
+      aggregates.add(
+          summed(
+              group(
+                  ReviewAggregate.Scope.COMMONS_MEAL,
+                  null,
+                  t.diningCommonsCode(),
+                  t.mealCode(),
+                  null,
+                  null),
+              t.starsSum(),
+              t.reviewCount()));
+    }
+    for (MonthlyCommonsTotal t :
+        reviewRepository.findMonthlyCommonsTotals(ModerationStatus.APPROVED)) {
+      aggregates.add(
+          summed(
+              group(
+                  ReviewAggregate.Scope.COMMONS_MONTH,
+                  null,
+                  t.diningCommonsCode(),
+                  null,
+                  t.period(),
+                  null),
+              t.starsSum(),
+              t.reviewCount()));
+    }
+    for (DailyItemTotal t : reviewRepository.findDailyItemTotals(ModerationStatus.APPROVED)) {
+      aggregates.add(
+          summed(
+              group(ReviewAggregate.Scope.ITEM_DAY, t.itemId(), null, null, null, t.day()),
+              t.starsSum(),
+              t.reviewCount()));
+    }
+    reviewAggregateRepository.deleteAllGroups();
+    reviewAggregateRepository.saveAll(aggregates);
+    invalidateCacheAfterCommit();
+    log.info("Rebuilt {} review aggregates", aggregates.size());
+    return aggregates.size();
+  }
+
+  /** Rebuilds the aggregates once the application has started (unless disabled). */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional
+  public void rebuildOnStartup() {
+    if (rebuildOnStartup) {
+      rebuild();
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package edu.ucsb.cs156.dining.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.ucsb.cs156.dining.models.ReviewExportRow;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the review export: every review, optionally restricted to one status and a range of
+ * serving dates, as newline-delimited JSON or as CSV.
+ *
+ * <p>The reviews are streamed from the database in a read-only transaction and written out one row
+ * at a time, so memory use stays the same however many reviews there are.
+ */
+@Slf4j
+@Service
+public class ReviewExportService {
+
+  /** The formats of the export. */
+  public enum Format {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv;charset=UTF-8");
+
+    private final String contentType;
+
+    Format(String contentType) {
+      this.contentType = contentType;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    /**
+     * @return the file name extension of the format
+     */
+    public String getExtension() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param name name of the format, in any case
+     * @return the format
+     * @throws IllegalArgumentException if there is no format with that name
+     */
+    public static Format parse(String name) {
+      for (Format format : values()) {
+        if (format.name().equalsIgnoreCase(name)) {
+          return format;
+        }
+      }
+      throw new IllegalArgumentException("format must be ndjson or csv");
+    }
+  }
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired ObjectMapper mapper;
+
+  /**
+   * Writes the export to {@code out}, which is flushed but not closed.
+   *
+   * @param format format of the export
+   * @param status status of the reviews, null for all
+   * @param from first day served, null for no lower bound
+   * @param to last day served, null for no upper bound
+   * @param out where to write the export
+   * @return the number of reviews written
+   * @throws IOException if writing fails
+   */
+  @Transactional(readOnly = true)
+  public long export(
+      Format format, ModerationStatus status, LocalDate from, LocalDate to, OutputStream out)
+      throws IOException {
+    LocalDateTime start = from == null ? null : from.atStartOfDay();
+    LocalDateTime end = to == null ? null : to.plusDays(1).atStartOfDay();
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    long count = 0;
+    try (Stream<ReviewExportRow> rows = reviewRepository.streamExportRows(status, start, end)) {
+      Iterator<ReviewExportRow> iterator = rows.iterator();
+      if (format == Format.CSV) {
+        writeCsvLine(writer, ReviewExportRow.COLUMNS);
+      }
+      // dates as iso strings, like the CSV, whatever the mapper does by default
+      ObjectWriter json =
+          mapper
+              .writerFor(ReviewExportRow.class)
+              .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+      while (iterator.hasNext()) {
+        ReviewExportRow row = iterator.next();
+        if (format == Format.CSV) {
+          writeCsvLine(writer, row.values());
+        } else {
+          writer.write(json.writeValueAsString(row));
+          writer.write('\n');
+        }
+        count++;
+      }
+    }
+    writer.flush();
+    log.info("Exported {} reviews as {}", count, format);
+    return count;
+  }
+
+  private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+    writer.write(
+        values.stream().map(ReviewExportService::csvField).collect(Collectors.joining(",")));
+    writer.write("\r\n");
+  }
+
+  /**
+   * Formats one CSV field (RFC 4180). Text that a spreadsheet would read as a formula is prefixed
+   * with a single quote, since comments and aliases are written by users.
+   */
+  static String csvField(Object value) {
+    if (value == null) {
+      return "";
+    }
+    String text = value.toString();
+    if (!(value instanceof String)) {
+      return text;
+    }
+    if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+      text = "'" + text;
+    }
+    if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+      return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+    return text;
+  }
+}
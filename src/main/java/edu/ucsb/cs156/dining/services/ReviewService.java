@@ -0,0 +1,127 @@
+package edu.ucsb.cs156.dining.services;
+
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.errors.AggregateGroupConflictException;
+import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates, changes and deletes single reviews. Every write and the matching change to the rating
+ * aggregates (see {@link ReviewAggregateService}) run in one transaction, so the aggregates never
+ * count a review that was not written, or miss one that was.
+ *
+ * <p>A review that is changed or deleted is read with a lock on its row, so concurrent writes of
+ * the same review run one after the other, and each subtracts what the previous one wrote.
+ *
+ * <p>The first review counted in a group inserts the aggregate row of the group. When two such
+ * reviews are written at the same time, the second insert violates the unique group key. That
+ * transaction is then rolled back and run again, and this time adds to the row the other one
+ * inserted.
+ */
+@Slf4j
+@Service
+public class ReviewService {
+
+  /** How many times a write is tried before its conflict is passed on. */
+  static final int MAX_ATTEMPTS = 3;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired ReviewAggregateService reviewAggregateService;
+
+  @Autowired PlatformTransactionManager transactionManager;
+
+  /**
+   * Runs a write in a transaction of its own, and runs it again in a new transaction if it inserted
+   * an aggregate group that a concurrent write inserted first. Any other failure is passed on.
+   */
+  <T> T inTransaction(Supplier<T> write) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transaction.execute(status -> write.get());
+      } catch (AggregateGroupConflictException e) {
+        if (attempt == MAX_ATTEMPTS) {
+          throw e;
+        }
+        log.info(
+            "Review aggregate group {} was inserted concurrently (attempt {}), trying again",
+            e.getGroupKey(),
+            attempt);
+      }
+    }
+  }
+
+  /** Reads a review and locks it until the end of the transaction. */
+  private Review find(long id) {
+    return reviewRepository
+        .findByIdForUpdate(id)
+        .orElseThrow(() -> new EntityNotFoundException(Review.class, id));
+  }
+
+  /**
+   * Saves a new review and adds it to the aggregates.
+   *
+   * @param review the review
+   * @return the saved review
+   */
+  public Review create(Review review) {
+    return inTransaction(
+        () -> {
+          // an id generated by an attempt that was rolled back does not exist
+          review.setId(0);
+          Review saved = reviewRepository.save(review);
+          reviewAggregateService.onReviewChanged(null, ReviewContribution.of(saved));
+          return saved;
+        });
+  }
+
+  /**
+   * Changes a review and moves it between the aggregates accordingly. The review stays locked from
+   * the read to the commit, so a concurrent change of it waits, and then reads this change.
+   *
+   * @param id id of the review
+   * @param change checks and changes the review; may throw to abort the change
+   * @return the saved review
+   * @throws EntityNotFoundException if there is no review with the id
+   */
+  public Review update(long id, Consumer<Review> change) {
+    return inTransaction(
+        () -> {
+          Review review = find(id);
+          ReviewContribution before = ReviewContribution.of(review);
+          change.accept(review);
+          Review saved = reviewRepository.save(review);
+          reviewAggregateService.onReviewChanged(before, ReviewContribution.of(saved));
+          return saved;
+        });
+  }
+
+  /**
+   * Deletes a review and subtracts it from the aggregates. A concurrent change of the review waits,
+   * and then finds no review.
+   *
+   * @param id id of the review
+   * @param check checks that the review may be deleted; may throw to abort the deletion
+   * @return the deleted review
+   * @throws EntityNotFoundException if there is no review with the id
+   */
+  public Review delete(long id, Consumer<Review> check) {
+    return inTransaction(
+        () -> {
+          Review review = find(id);
+          check.accept(review);
+          reviewRepository.delete(review);
+          reviewAggregateService.onReviewChanged(ReviewContribution.of(review), null);
+          return review;
+        });
+  }
+}
@@ -0,0 +1,190 @@
+package edu.ucsb.cs156.dining.services;
+
+import edu.ucsb.cs156.dining.repositories.AdminRepository;
+import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import edu.ucsb.cs156.dining.utilities.CanonicalFormConverter;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers every admin and moderator check in the app: the security config at login, {@link
+ * edu.ucsb.cs156.dining.interceptors.RoleInterceptor} on each request, and the user and admin
+ * endpoints.
+ *
+ * <p>The emails of the admins and moderators are held in an immutable snapshot of hash sets, so a
+ * check is a lock-free lookup without database access. Each change made through the app replaces
+ * the snapshot with an updated copy (copy-on-write); changes are serialized, checks never wait. The
+ * snapshot is also reloaded from the database every {@code app.roleRegistry.refreshInterval}, which
+ * picks up changes made elsewhere (directly in the database, or by another instance of the app).
+ *
+ * <p>Emails are compared in their canonical form (see {@link CanonicalFormConverter}).
+ */
+@Slf4j
+@Service
+public class RoleRegistry {
+
+  public static final String ROLE_ADMIN = "ROLE_ADMIN";
+  public static final String ROLE_MODERATOR = "ROLE_MODERATOR";
+
+  private static final Set<String> ADMIN = Set.of(ROLE_ADMIN);
+  private static final Set<String> MODERATOR = Set.of(ROLE_MODERATOR);
+  private static final Set<String> ADMIN_AND_MODERATOR = Set.of(ROLE_ADMIN, ROLE_MODERATOR);
+
+  /** The emails in the admins and moderators tables. */
+  private record Snapshot(Set<String> admins, Set<String> moderators) {}
+
+  private final AdminRepository adminRepository;
+
+  private final ModeratorRepository moderatorRepository;
+
+  /** The emails in {@code app.admin.emails}. */
+  private final Set<String> adminEmails;
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Serializes the changes of the snapshot. A lock rather than {@code synchronized}, because a
+   * reload queries the database, and a virtual thread blocked inside {@code synchronized} would pin
+   * its carrier thread.
+   */
+  private final ReentrantLock changes = new ReentrantLock();
+
+  @Autowired
+  public RoleRegistry(
+      AdminRepository adminRepository,
+      ModeratorRepository moderatorRepository,
+      @Value("#{'${app.admin.emails}'.split(',')}") List<String> adminEmails) {
+    this.adminRepository = adminRepository;
+    this.moderatorRepository = moderatorRepository;
+    this.adminEmails = canonical(adminEmails);
+    reload();
+  }
+
+  private static String canonical(String email) {
+    return CanonicalFormConverter.convertToValidEmail(email);
+  }
+
+  private static Set<String> canonical(Collection<String> emails) {
+    return emails.stream()
+        .filter(Objects::nonNull)
+        .map(RoleRegistry::canonical)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /** Replaces the snapshot with the admins and moderators currently in the database. */
+  @Scheduled(
+      fixedDelayString = "${app.roleRegistry.refreshInterval:1m}",
+      initialDelayString = "${app.roleRegistry.refreshInterval:1m}")
+  public void reload() {
+    changes.lock();
+    try {
+      Snapshot loaded =
+          new Snapshot(
+              canonical(adminRepository.findAllEmails()),
+              canonical(moderatorRepository.findAllEmails()));
+      log.debug(
+          "Loaded {} admins and {} moderators", loaded.admins().size(), loaded.moderators().size());
+      snapshot = loaded;
+    } finally {
+      changes.unlock();
+    }
+  }
+
+  private static Set<String> with(Set<String> emails, String email, boolean present) {
+    Set<String> copy = new HashSet<>(emails);
+    if (present) {
+      copy.add(canonical(email));
+    } else {
+      copy.remove(canonical(email));
+    }
+    return Set.copyOf(copy);
+  }
+
+  /**
+   * Records that a user was added to or removed from the admins table.
+   *
+   * @param email email address of the user
+   * @param admin whether the user is now an admin
+   */
+  public void setAdmin(String email, boolean admin) {
+    changes.lock();
+    try {
+      Snapshot current = snapshot;
+      snapshot = new Snapshot(with(current.admins(), email, admin), current.moderators());
+    } finally {
+      changes.unlock();
+    }
+  }
+
+  /**
+   * Records that a user was added to or removed from the moderators table.
+   *
+   * @param email email address of the user
+   * @param moderator whether the user is now a moderator
+   */
+  public void setModerator(String email, boolean moderator) {
+    changes.lock();
+    try {
+      Snapshot current = snapshot;
+      snapshot = new Snapshot(current.admins(), with(current.moderators(), email, moderator));
+    } finally {
+      changes.unlock();
+    }
+  }
+
+  /**
+   * @param email email address of the user
+   * @return whether the email is listed in {@code app.admin.emails}
+   */
+  public boolean isInAdminEmails(String email) {
+    return email != null && adminEmails.contains(canonical(email));
+  }
+
+  /**
+   * @param email email address of the user
+   * @return whether the user is listed in {@code app.admin.emails} or in the admins table
+   */
+  public boolean isAdmin(String email) {
+    if (email == null) {
+      return false;
+    }
+    String key = canonical(email);
+    return adminEmails.contains(key) || snapshot.admins().contains(key);
+  }
+
+  /**
+   * @param email email address of the user
+   * @return whether the user is in the moderators table
+   */
+  public boolean isModerator(String email) {
+    return email != null && snapshot.moderators().contains(canonical(email));
+  }
+
+  /**
+   * @param email email address of the user
+   * @return the roles of the user among {@link #ROLE_ADMIN} and {@link #ROLE_MODERATOR}
+   */
+  public Set<String> roles(String email) {
+    if (email == null) {
+      return Set.of();
+    }
+    String key = canonical(email);
+    Snapshot current = snapshot;
+    boolean admin = adminEmails.contains(key) || current.admins().contains(key);
+    boolean moderator = current.moderators().contains(key);
+    if (admin) {
+      return moderator ? ADMIN_AND_MODERATOR : ADMIN;
+    }
+    return moderator ? MODERATOR : Set.of();
+  }
+}
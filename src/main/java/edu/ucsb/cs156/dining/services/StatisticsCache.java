@@ -0,0 +1,103 @@
+package edu.ucsb.cs156.dining.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache for the responses of the statistics endpoints.
+ *
+ * <p>The statistics only change when a review is counted differently, so the whole cache is
+ * invalidated by {@link ReviewAggregateService} whenever that happens. Every invalidation bumps a
+ * version number, which is also what the endpoints use as their {@code ETag}; it starts from the
+ * startup time so that tags handed out before a restart are not mistaken for current ones.
+ *
+ * <p>The keys are made from the query parameters of the requests, so the cache is bounded: it holds
+ * at most {@code app.statistics.cache.maximumSize} entries, each for at most {@code
+ * app.statistics.cache.ttl}.
+ */
+@Slf4j
+@Service
+public class StatisticsCache {
+
+  /** A cached value together with the version that was current when computing it started. */
+  record Entry(long version, Object value) {}
+
+  private final Cache<String, Entry> entries;
+
+  private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+  @Autowired
+  public StatisticsCache(
+      @Value("${app.statistics.cache.ttl:1h}") Duration ttl,
+      @Value("${app.statistics.cache.maximumSize:1000}") long maximumSize) {
+    this(ttl, maximumSize, Ticker.systemTicker());
+  }
+
+  StatisticsCache(Duration ttl, long maximumSize, Ticker ticker) {
+    this.entries =
+        Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .ticker(ticker)
+            .executor(Runnable::run)
+            .build();
+  }
+
+  /**
+   * @return the underlying Caffeine cache
+   */
+  Cache<String, Entry> nativeCache() {
+    return entries;
+  }
+
+  /**
+   * @return the current version of the statistics
+   */
+  public long version() {
+    return version.get();
+  }
+
+  /**
+   * @return the current version as a (strong) ETag value
+   */
+  public String etag() {
+    return "\"statistics-" + version() + "\"";
+  }
+
+  /**
+   * Returns the cached value for a key, computing it if there is none for the current version.
+   *
+   * <p>A value computed while an invalidation happens is stored under the old version, so it is
+   * never served as current.
+   *
+   * @param key the key, e.g. endpoint name and parameters
+   * @param compute computes the value on a miss
+   * @return the value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String key, Supplier<T> compute) {
+    long current = version();
+    Entry entry = entries.getIfPresent(key);
+    if (entry != null && entry.version() == current) {
+      return (T) entry.value();
+    }
+    T value = compute.get();
+    entries.put(key, new Entry(current, value));
+    return value;
+  }
+
+  /** Drops all cached values and moves on to a new version. */
+  public void invalidate() {
+    long next = version.incrementAndGet();
+    entries.invalidateAll();
+    log.debug("Statistics cache invalidated, version is now {}", next);
+  }
+}
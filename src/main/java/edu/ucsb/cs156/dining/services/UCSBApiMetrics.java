@@ -0,0 +1,106 @@
+package edu.ucsb.cs156.dining.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+/**
+ * Times the requests the services send to the UCSB API, as the timer {@value #TIMER} tagged with
+ * the {@code service} that sent them and their {@code outcome}. The count of the timer is the
+ * number of requests, so it also serves as their counter.
+ *
+ * <p>The requests also show up in the {@code http.client.requests} metric of Spring Boot, but
+ * that is tagged by url and status, and does not tell a response that could not be read from one
+ * that could.
+ */
+@Service
+public class UCSBApiMetrics {
+
+  public static final String TIMER = "ucsb.api.requests";
+
+  /** How a request to the UCSB API ended. */
+  public enum Outcome {
+    SUCCESS,
+    /** the API answered with a status of 4xx */
+    CLIENT_ERROR,
+    /** the API answered with a status of 5xx */
+    SERVER_ERROR,
+    /** the API could not be reached, or did not answer in time */
+    IO_ERROR,
+    /** the API answered, but its response could not be read */
+    INVALID_RESPONSE,
+    UNKNOWN
+  }
+
+  /**
+   * A request to the UCSB API.
+   *
+   * @param <T> what the request returns
+   * @param <E> the checked exception it may throw
+   */
+  @FunctionalInterface
+  public interface Call<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  @Autowired MeterRegistry meterRegistry;
+
+  /**
+   * Sends a request to the UCSB API and times it.
+   *
+   * @param service the service that sends it
+   * @param call sends the request and reads the response
+   * @return what the call returned
+   * @throws E what the call threw
+   */
+  public <T, E extends Exception> T record(Class<?> service, Call<T, E> call) throws E {
+    long start = System.nanoTime();
+    Outcome outcome = Outcome.UNKNOWN;
+    try {
+      T result = call.call();
+      outcome = Outcome.SUCCESS;
+      return result;
+    } catch (Throwable t) {
+      outcome = outcomeOf(t);
+      throw t;
+    } finally {
+      timer(service, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * @param service a service that sends requests to the UCSB API
+   * @param outcome how the requests ended
+   * @return the timer of those requests
+   */
+  public Timer timer(Class<?> service, Outcome outcome) {
+    return Timer.builder(TIMER)
+        .description("Requests to the UCSB API")
+        .tag("service", service.getSimpleName())
+        .tag("outcome", outcome.name())
+        .register(meterRegistry);
+  }
+
+  static Outcome outcomeOf(Throwable t) {
+    if (t instanceof RestClientResponseException e) {
+      if (e.getStatusCode().is4xxClientError()) {
+        return Outcome.CLIENT_ERROR;
+      }
+      if (e.getStatusCode().is5xxServerError()) {
+        return Outcome.SERVER_ERROR;
+      }
+    }
+    if (t instanceof ResourceAccessException) {
+      return Outcome.IO_ERROR;
+    }
+    if (t instanceof JsonProcessingException) {
+      return Outcome.INVALID_RESPONSE;
+    }
+    return Outcome.UNKNOWN;
+  }
+}
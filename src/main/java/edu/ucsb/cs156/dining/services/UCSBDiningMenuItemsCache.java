@@ -0,0 +1,168 @@
+package edu.ucsb.cs156.dining.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import edu.ucsb.cs156.dining.config.CacheConfig;
+import edu.ucsb.cs156.dining.models.Entree;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache in front of {@link UCSBDiningMenuItemsService}, which fetches the menu items of one meal
+ * from the UCSB API.
+ *
+ * <p>Concurrent lookups of the same date, dining commons and meal share one future, so there is at
+ * most one request to the UCSB API in flight per meal. Once an entry is older than {@code
+ * currentTtl}, the next lookup still gets the cached items immediately while a single background
+ * refresh fetches new ones (stale-while-revalidate). An entry for today or later that nobody asked
+ * for within {@code maxStale} is dropped, so a lookup never gets items older than that. Menus for
+ * past days do not change: they are never refreshed and are dropped after {@code pastTtl}.
+ */
+@Slf4j
+@Service
+public class UCSBDiningMenuItemsCache {
+
+  /**
+   * The arguments of a lookup. Its string form starts with the date, as {@link
+   * CacheConfig.MenuExpiry} expects.
+   */
+  record Key(String dateTime, String diningCommonsCode, String mealCode) {
+    @Override
+    public String toString() {
+      return String.join("|", dateTime, diningCommonsCode, mealCode);
+    }
+  }
+
+  private final UCSBDiningMenuItemsService ucsbDiningMenuItemsService;
+
+  private final CacheConfig.MenuExpiry expiry;
+
+  private final AsyncLoadingCache<Key, List<Entree>> cache;
+
+  @Autowired
+  public UCSBDiningMenuItemsCache(
+      UCSBDiningMenuItemsService ucsbDiningMenuItemsService,
+      Clock clock,
+      @Value("${app.cache.menus.maximumSize:1000}") long maximumSize,
+      @Value("${app.cache.menus.currentTtl:15m}") Duration currentTtl,
+      @Value("${app.cache.menus.maxStale:1h}") Duration maxStale,
+      @Value("${app.cache.menus.pastTtl:7d}") Duration pastTtl,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this(
+        ucsbDiningMenuItemsService,
+        clock,
+        Ticker.systemTicker(),
+        loadExecutor(virtualThreads),
+        maximumSize,
+        currentTtl,
+        maxStale,
+        pastTtl);
+  }
+
+  UCSBDiningMenuItemsCache(
+      UCSBDiningMenuItemsService ucsbDiningMenuItemsService,
+      Clock clock,
+      Ticker ticker,
+      Executor executor,
+      long maximumSize,
+      Duration currentTtl,
+      Duration maxStale,
+      Duration pastTtl) {
+    this.ucsbDiningMenuItemsService = ucsbDiningMenuItemsService;
+    this.expiry = new CacheConfig.MenuExpiry(clock, maxStale, pastTtl);
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(expiry)
+            .refreshAfterWrite(currentTtl)
+            .ticker(ticker)
+            .executor(executor)
+            .recordStats()
+            .buildAsync(
+                new CacheLoader<Key, List<Entree>>() {
+                  @Override
+                  public List<Entree> load(Key key) throws Exception {
+                    return fetch(key);
+                  }
+
+                  @Override
+                  public List<Entree> reload(Key key, List<Entree> oldValue) throws Exception {
+                    return expiry.isPast(key) ? oldValue : fetch(key);
+                  }
+                });
+  }
+
+  /**
+   * @param virtualThreads whether the app runs on virtual threads ({@code
+   *     spring.threads.virtual.enabled})
+   * @return the executor that loads and refreshes entries: a new virtual thread for each, or else
+   *     the common pool
+   */
+  static Executor loadExecutor(boolean virtualThreads) {
+    if (virtualThreads) {
+      return Executors.newThreadPerTaskExecutor(
+          Thread.ofVirtual().name("menu-items-", 0).factory());
+    }
+    return ForkJoinPool.commonPool();
+  }
+
+  private List<Entree> fetch(Key key) throws JsonProcessingException {
+    log.info("Loading menu items for {}", key);
+    return ucsbDiningMenuItemsService.get(key.dateTime(), key.diningCommonsCode(), key.mealCode());
+  }
+
+  /**
+   * Looks up the menu items of a meal without blocking. Callers asking for the same meal while it
+   * is being fetched get the same future.
+   *
+   * @param dateTime String of date in iso format
+   * @param diningCommonCode String of dining common
+   * @param mealCode String of meal code
+   * @return a future for the list of menu items
+   */
+  public CompletableFuture<List<Entree>> getAsync(
+      String dateTime, String diningCommonCode, String mealCode) {
+    return cache.get(new Key(dateTime, diningCommonCode, mealCode));
+  }
+
+  /**
+   * Looks up the menu items of a meal, waiting for them if they are not cached yet.
+   *
+   * @param dateTime String of date in iso format
+   * @param diningCommonCode String of dining common
+   * @param mealCode String of meal code
+   * @return a list of menu items
+   */
+  public List<Entree> get(String dateTime, String diningCommonCode, String mealCode)
+      throws JsonProcessingException {
+    try {
+      return getAsync(dateTime, diningCommonCode, mealCode).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof JsonProcessingException jsonException) {
+        throw jsonException;
+      }
+      throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+    }
+  }
+
+  /**
+   * @return the underlying cache, e.g. for its statistics
+   */
+  public Cache<?, ?> nativeCache() {
+    return cache.synchronous();
+  }
+}
@@ -8,8 +8,6 @@ import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -24,13 +22,19 @@ public class UCSBDiningMenuItemsService {
 
   @Autowired private ObjectMapper objectMapper;
 
+  @Autowired private UCSBApiMetrics ucsbApiMetrics;
+
   @Value("${app.ucsb.api.consumer_key}")
   private String apiKey;
 
-  private RestTemplate restTemplate = new RestTemplate();
+  private final RestTemplate restTemplate;
 
-  public UCSBDiningMenuItemsService(RestTemplateBuilder restTemplateBuilder) throws Exception {
-    restTemplate = restTemplateBuilder.build();
+  /**
+   * @param ucsbApiRestTemplate the RestTemplate shared by the services that call the UCSB API (see
+   *     {@link edu.ucsb.cs156.dining.config.UCSBApiClientConfig})
+   */
+  public UCSBDiningMenuItemsService(RestTemplate ucsbApiRestTemplate) {
+    restTemplate = ucsbApiRestTemplate;
   }
 
   public static final String ALL_MEAL_ITEMS_AT_A_DINING_COMMON_ENDPOINT =
@@ -44,7 +48,6 @@ public class UCSBDiningMenuItemsService {
    * @param mealCode String of meal code
    * @return a list of menu items
    */
-  @Cacheable("menuItem")
   public List<Entree> get(String dateTime, String diningCommonCode, String mealCode)
       throws JsonProcessingException {
 
@@ -54,10 +57,6 @@ public class UCSBDiningMenuItemsService {
     headers.set("ucsb-api-key", this.apiKey);
 
     HttpEntity<String> entity = new HttpEntity<>(headers);
-    String url = ALL_MEAL_ITEMS_AT_A_DINING_COMMON_ENDPOINT;
-    url = url.replace("{date-time}", dateTime);
-    url = url.replace("{dining-common-code}", diningCommonCode);
-    url = url.replace("{meal-code}", mealCode);
 
     log.info(
         "Fetching menu items for date: {}, dining common: {}, meal: {}",
@@ -65,10 +64,22 @@ public class UCSBDiningMenuItemsService {
         diningCommonCode,
         mealCode);
 
-    ResponseEntity<String> re = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-    String retBody = re.getBody();
-
-    List<Entree> menuItems = objectMapper.readValue(retBody, new TypeReference<List<Entree>>() {});
+    // the url is expanded by the RestTemplate, so that its metrics are tagged with the template
+    List<Entree> menuItems =
+        ucsbApiMetrics.record(
+            UCSBDiningMenuItemsService.class,
+            () -> {
+              ResponseEntity<String> re =
+                  restTemplate.exchange(
+                      ALL_MEAL_ITEMS_AT_A_DINING_COMMON_ENDPOINT,
+                      HttpMethod.GET,
+                      entity,
+                      String.class,
+                      dateTime,
+                      diningCommonCode,
+                      mealCode);
+              return objectMapper.readValue(re.getBody(), new TypeReference<List<Entree>>() {});
+            });
 
     return menuItems;
   }
@@ -2,8 +2,8 @@ package edu.ucsb.cs156.dining.services;
 
 import java.util.Arrays;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -21,19 +21,25 @@ import org.springframework.web.client.RestTemplate;
 @Slf4j
 public class UCSBDiningMenuService {
 
+  @Autowired private UCSBApiMetrics ucsbApiMetrics;
+
   @Value("${app.ucsb.api.consumer_key}")
   private String apiKey;
 
-  private RestTemplate restTemplate = new RestTemplate();
+  private final RestTemplate restTemplate;
 
-  public UCSBDiningMenuService(RestTemplateBuilder restTemplateBuilder) throws Exception {
-    restTemplate = restTemplateBuilder.build();
+  /**
+   * @param ucsbApiRestTemplate the RestTemplate shared by the services that call the UCSB API (see
+   *     {@link edu.ucsb.cs156.dining.config.UCSBApiClientConfig})
+   */
+  public UCSBDiningMenuService(RestTemplate ucsbApiRestTemplate) {
+    restTemplate = ucsbApiRestTemplate;
   }
 
   public static final String ALL_MEAL_TIMES_AT_A_DINING_COMMON_ENDPOINT =
       "https://api.ucsb.edu/dining/menu/v1/{date-time}/{dining-common-code}";
 
-  @Cacheable("menu")
+  @Cacheable(value = "menu", key = "#dateTime + '|' + #diningCommonCode")
   public String getJSON(String dateTime, String diningCommonCode) throws Exception {
 
     HttpHeaders headers = new HttpHeaders();
@@ -56,8 +62,11 @@ public class UCSBDiningMenuService {
 
     try {
       ResponseEntity<String> re =
-          restTemplate.exchange(
-              url, HttpMethod.GET, entity, String.class, dateTime, diningCommonCode);
+          ucsbApiMetrics.record(
+              UCSBDiningMenuService.class,
+              () ->
+                  restTemplate.exchange(
+                      url, HttpMethod.GET, entity, String.class, dateTime, diningCommonCode));
       contentType = re.getHeaders().getContentType();
       statusCode = (HttpStatus) re.getStatusCode();
       retVal = re.getBody();
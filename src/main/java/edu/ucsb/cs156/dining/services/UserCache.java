@@ -0,0 +1,53 @@
+package edu.ucsb.cs156.dining.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.ucsb.cs156.dining.entities.User;
+import java.time.Duration;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the {@link User} of each logged in user between requests, so that {@link
+ * CurrentUserServiceImpl} does not look the user up by email on every request.
+ *
+ * <p>Entries expire {@code app.userCache.ttl} after they were loaded. Code that changes a user must
+ * call {@link #invalidate(String)}, so that the user's next request loads the new version.
+ */
+@Service
+public class UserCache {
+
+  private final Cache<String, User> cache;
+
+  @Autowired
+  public UserCache(
+      @Value("${app.userCache.ttl:10m}") Duration ttl,
+      @Value("${app.userCache.maximumSize:10000}") long maximumSize) {
+    this.cache = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Looks up the user with the given email, loading it if it is not cached. Concurrent loads of the
+   * same email wait for each other.
+   *
+   * @param email email address of the user
+   * @param loader loads the user; nothing is cached when it returns null
+   * @return the user
+   */
+  public User get(String email, Function<String, User> loader) {
+    return cache.get(email, loader);
+  }
+
+  /**
+   * Forgets the cached user with the given email, if any.
+   *
+   * @param email email address of the user
+   */
+  public void invalidate(String email) {
+    if (email != null) {
+      cache.invalidate(email);
+    }
+  }
+}
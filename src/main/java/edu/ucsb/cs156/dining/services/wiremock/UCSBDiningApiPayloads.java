@@ -0,0 +1,191 @@
+package edu.ucsb.cs156.dining.services.wiremock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.models.Entree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Response bodies of the simulated UCSB Dining API (see {@link
+ * WiremockServiceImpl#setupDiningApiMocks}), shaped like the ones of <a
+ * href="https://developer.ucsb.edu/apis/dining">https://developer.ucsb.edu/apis/dining</a>.
+ *
+ * <p>The entrees of a meal are picked from the dishes of its stations with a random seed that
+ * depends only on the dining commons and the meal, so every run serves the same menus.
+ */
+public final class UCSBDiningApiPayloads {
+
+  public static final List<String> COMMONS =
+      List.of("carrillo", "de-la-guerra", "ortega", "portola");
+
+  public static final List<String> MEALS = List.of("breakfast", "brunch", "lunch", "dinner");
+
+  private static final Map<String, List<String>> BREAKFAST_STATIONS =
+      Map.of(
+          "Grill (Cafe)",
+          List.of(
+              "Scrambled Eggs (v)",
+              "Scrambled Tofu (vgn)",
+              "Bacon",
+              "Chicken Apple Sausage",
+              "Hash Browns (vgn)",
+              "Buttermilk Pancakes (v)",
+              "Breakfast Burrito"),
+          "Bakery",
+          List.of(
+              "Blueberry Muffin (v)",
+              "Croissant (v)",
+              "Banana Bread (v) (w/nuts)",
+              "Bagel (vgn)",
+              "Cinnamon Roll (v)"),
+          "Hot Cereal",
+          List.of("Oatmeal (vgn)", "Cream of Wheat (v)", "Grits (v)"),
+          "Fruit & Yogurt",
+          List.of("Fresh Fruit Salad (vgn)", "Greek Yogurt (v)", "Granola (vgn) (w/nuts)"));
+
+  private static final Map<String, List<String>> MAIN_STATIONS =
+      Map.of(
+          "Entrees",
+          List.of(
+              "Roast Turkey with Gravy",
+              "Chicken Tikka Masala",
+              "Beef Bulgogi",
+              "Baked Salmon with Dill",
+              "Eggplant Parmesan (v)",
+              "Vegetable Lo Mein (vgn)",
+              "Pork Carnitas",
+              "Chickpea Curry (vgn)"),
+          "Grill (Cafe)",
+          List.of(
+              "Cheeseburger",
+              "Impossible Burger (vgn)",
+              "Grilled Chicken Sandwich",
+              "French Fries (vgn)",
+              "Sweet Potato Fries (vgn)"),
+          "Pizza",
+          List.of(
+              "Cheese Pizza (v)",
+              "Pepperoni Pizza",
+              "Margherita Pizza (v)",
+              "BBQ Chicken Pizza",
+              "Vegan Pesto Pizza (vgn) (w/nuts)"),
+          "Taqueria",
+          List.of(
+              "Carne Asada Tacos",
+              "Fish Tacos",
+              "Black Bean Burrito (vgn)",
+              "Spanish Rice (vgn)",
+              "Pinto Beans (v)"),
+          "Soups",
+          List.of(
+              "Tomato Basil Soup (v)",
+              "Chicken Noodle Soup",
+              "Minestrone (vgn)",
+              "Clam Chowder"),
+          "Salad Bar",
+          List.of(
+              "Caesar Salad (v)",
+              "Greek Salad (v)",
+              "Kale Quinoa Salad (vgn)",
+              "Spinach Salad (vgn) (w/nuts)"),
+          "Desserts",
+          List.of(
+              "Chocolate Chip Cookie (v)",
+              "Brownie (v) (w/nuts)",
+              "Lemon Bar (v)",
+              "Vegan Carrot Cake (vgn) (w/nuts)",
+              "Soft Serve (v)"));
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private UCSBDiningApiPayloads() {}
+
+  /**
+   * @return the dining commons, as {@code /dining/commons/v1/} returns them
+   */
+  public static String commons() {
+    return """
+        [
+          {
+            "name": "Carrillo",
+            "code": "carrillo",
+            "hasSackMeal": false,
+            "hasTakeOutMeal": false,
+            "hasDiningCam": true,
+            "location": { "latitude": 34.409953, "longitude": -119.85277 }
+          },
+          {
+            "name": "De La Guerra",
+            "code": "de-la-guerra",
+            "hasSackMeal": false,
+            "hasTakeOutMeal": false,
+            "hasDiningCam": true,
+            "location": { "latitude": 34.409811, "longitude": -119.845715 }
+          },
+          {
+            "name": "Ortega",
+            "code": "ortega",
+            "hasSackMeal": true,
+            "hasTakeOutMeal": true,
+            "hasDiningCam": true,
+            "location": { "latitude": 34.410987, "longitude": -119.847782 }
+          },
+          {
+            "name": "Portola",
+            "code": "portola",
+            "hasSackMeal": true,
+            "hasTakeOutMeal": true,
+            "hasDiningCam": true,
+            "location": { "latitude": 34.417723, "longitude": -119.867427 }
+          }
+        ]
+        """;
+  }
+
+  /**
+   * @return the meals of a dining commons, as {@code /dining/menu/v1/{date}/{commons}} returns
+   *     them; every dining commons serves every meal on every day
+   */
+  public static String meals() {
+    List<Map<String, String>> meals = new ArrayList<>();
+    for (String meal : MEALS) {
+      String name = meal.substring(0, 1).toUpperCase() + meal.substring(1);
+      meals.add(Map.of("code", meal, "name", name));
+    }
+    return toJson(meals);
+  }
+
+  /**
+   * @param commons code of a dining commons
+   * @param meal code of a meal
+   * @return the entrees of the meal, as {@code /dining/menu/v1/{date}/{commons}/{meal}} returns
+   *     them
+   */
+  public static String entrees(String commons, String meal) {
+    Random random = new Random((commons + "|" + meal).hashCode());
+    Map<String, List<String>> stations =
+        meal.equals("breakfast") ? BREAKFAST_STATIONS : MAIN_STATIONS;
+    List<Entree> entrees = new ArrayList<>();
+    for (String station : stations.keySet().stream().sorted().toList()) {
+      List<String> dishes = new ArrayList<>(stations.get(station));
+      Collections.shuffle(dishes, random);
+      int count = Math.min(dishes.size(), 3 + random.nextInt(3));
+      for (String dish : dishes.subList(0, count)) {
+        entrees.add(new Entree(dish, station));
+      }
+    }
+    return toJson(entrees);
+  }
+
+  private static String toJson(Object value) {
+    try {
+      return MAPPER.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
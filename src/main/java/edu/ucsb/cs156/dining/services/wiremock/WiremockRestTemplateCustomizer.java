@@ -0,0 +1,60 @@
+package edu.ucsb.cs156.dining.services.wiremock;
+
+import java.net.URI;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * In the wiremock profile, sends the requests that the services make to the UCSB API to the
+ * simulated UCSB Dining API of {@link WiremockServiceImpl} instead.
+ *
+ * <p>This applies to every RestTemplate built with the RestTemplateBuilder of Spring Boot, which
+ * is how the services get theirs.
+ */
+@Slf4j
+@Component
+@Profile("wiremock")
+public class WiremockRestTemplateCustomizer implements RestTemplateCustomizer {
+
+  public static final String UCSB_API_HOST = "api.ucsb.edu";
+
+  @Override
+  public void customize(RestTemplate restTemplate) {
+    restTemplate.getInterceptors().add(redirectToWiremock());
+  }
+
+  /**
+   * @return an interceptor that sends requests to {@link #UCSB_API_HOST} to the wiremock server,
+   *     and leaves all other requests alone
+   */
+  public static ClientHttpRequestInterceptor redirectToWiremock() {
+    return (request, body, execution) -> {
+      if (!UCSB_API_HOST.equals(request.getURI().getHost())) {
+        return execution.execute(request, body);
+      }
+      URI uri =
+          UriComponentsBuilder.fromUri(request.getURI())
+              .scheme("http")
+              .host("localhost")
+              .port(WiremockServiceImpl.PORT)
+              .build(true)
+              .toUri();
+      log.debug("{} -> {}", request.getURI(), uri);
+      HttpRequest redirected =
+          new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+              return uri;
+            }
+          };
+      return execution.execute(redirected, body);
+    };
+  }
+}
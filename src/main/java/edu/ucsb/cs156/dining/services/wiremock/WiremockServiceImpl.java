@@ -1,7 +1,9 @@
 package edu.ucsb.cs156.dining.services.wiremock;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.temporaryRedirect;
@@ -10,14 +12,20 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.junit.Stubbing;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 /**
- * This is a service for mocking authentication using wiremock
+ * This is a service for mocking authentication and the UCSB Dining API using wiremock
  *
  * <p>This class relies on property values. For hints on testing, see: <a href=
  * "https://www.baeldung.com/spring-boot-testing-configurationproperties">https://www.baeldung.com/spring-boot-testing-configurationproperties</a>
@@ -28,8 +36,23 @@ import org.springframework.stereotype.Service;
 @ConfigurationProperties
 public class WiremockServiceImpl extends WiremockService {
 
+  /** Port of the wiremock server; the OAuth and UCSB API urls of this profile point to it */
+  public static final int PORT = 8090;
+
+  /**
+   * The fake users of the load test log in with this prefix and a number as their username, e.g.
+   * {@code loadtest-17}
+   */
+  public static final String LOAD_TEST_USER_PREFIX = "loadtest-";
+
   WireMockServer wireMockServer;
 
+  @Value("${app.wiremock.diningApi.medianLatency}")
+  private Duration diningApiMedianLatency;
+
+  @Value("${app.wiremock.diningApi.errorRate}")
+  private double diningApiErrorRate;
+
   /**
    * This method returns the wiremockServer
    *
@@ -111,12 +134,120 @@ public class WiremockServiceImpl extends WiremockService {
     }
   }
 
+  /**
+   * This method sets up logins for the fake users of the load test: a user who logs in as {@code
+   * loadtest-17} gets the email {@code loadtest-17@ucsb.edu}. Other usernames get the user of
+   * {@link #setupOauthMocks}.
+   *
+   * @param s in an instance of a WireMockServer or WireMockExtension
+   */
+  public static void setupLoadTestUserMocks(Stubbing s) {
+
+    // the username becomes the code, the code becomes the access token...
+    s.stubFor(
+        post(urlPathEqualTo("/login"))
+            .atPriority(1)
+            .withRequestBody(containing("username=" + LOAD_TEST_USER_PREFIX))
+            .willReturn(
+                temporaryRedirect(
+                    "{{formData request.body 'form' urlDecode=true}}{{{form.redirectUri}}}?code={{{form.username}}}&state={{{form.state}}}")));
+
+    s.stubFor(
+        post(urlPathEqualTo("/oauth/token"))
+            .atPriority(1)
+            .withRequestBody(containing("code=" + LOAD_TEST_USER_PREFIX))
+            .willReturn(
+                okJson(
+                    "{{formData request.body 'form' urlDecode=true}}{\"access_token\":\"{{form.code}}\",\"token_type\": \"Bearer\",\"expires_in\":\"3600\",\"scope\":\"https://www.googleapis.com/auth/userinfo.profile https://www.googleapis.com/auth/userinfo.email openid\"}")));
+
+    // ...and the access token tells who the user is
+    s.stubFor(
+        get(urlPathMatching("/userinfo"))
+            .atPriority(1)
+            .withHeader("Authorization", matching("Bearer " + LOAD_TEST_USER_PREFIX + "[0-9]+"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(
+                        """
+                        {
+                          "sub": "{{regexExtract request.headers.Authorization 'loadtest-[0-9]+'}}",
+                          "name": "Load Test {{regexExtract request.headers.Authorization '[0-9]+'}}",
+                          "given_name": "Load",
+                          "family_name": "Test",
+                          "email": "{{regexExtract request.headers.Authorization 'loadtest-[0-9]+'}}@ucsb.edu",
+                          "email_verified": true,
+                          "locale": "en",
+                          "hd": "ucsb.edu"
+                        }
+                        """)));
+  }
+
+  /**
+   * This method sets up a simulated UCSB Dining API: the dining commons, the meals of a dining
+   * commons on a day, and the entrees of a meal (see {@link UCSBDiningApiPayloads}). The responses
+   * are delayed by a random, log-normally distributed latency, and a fraction of them fails with a
+   * 503.
+   *
+   * @param s in an instance of a WireMockServer or WireMockExtension
+   * @param medianLatency median latency of a response
+   * @param errorRate fraction of the requests that fail, between 0 and 1
+   */
+  public static void setupDiningApiMocks(Stubbing s, Duration medianLatency, double errorRate) {
+
+    stubDiningApi(s, "/dining/commons/v1/?", UCSBDiningApiPayloads.commons(), medianLatency);
+
+    for (String commons : UCSBDiningApiPayloads.COMMONS) {
+      stubDiningApi(
+          s, "/dining/menu/v1/[^/]+/" + commons, UCSBDiningApiPayloads.meals(), medianLatency);
+      for (String meal : UCSBDiningApiPayloads.MEALS) {
+        stubDiningApi(
+            s,
+            "/dining/menu/v1/[^/]+/" + commons + "/" + meal,
+            UCSBDiningApiPayloads.entrees(commons, meal),
+            medianLatency);
+      }
+    }
+
+    if (errorRate > 0) {
+      s.stubFor(
+          get(urlPathMatching("/dining/.*"))
+              .atPriority(1)
+              .andMatching(
+                  request -> MatchResult.of(ThreadLocalRandom.current().nextDouble() < errorRate))
+              .willReturn(
+                  withLatency(
+                      aResponse()
+                          .withStatus(503)
+                          .withHeader("Content-Type", "application/json")
+                          .withBody("{\"message\":\"Service Unavailable\"}"),
+                      medianLatency)));
+    }
+  }
+
+  private static void stubDiningApi(
+      Stubbing s, String pathRegex, String json, Duration medianLatency) {
+    MappingBuilder request = get(urlPathMatching(pathRegex)).atPriority(5);
+    s.stubFor(request.willReturn(withLatency(okJson(json), medianLatency)));
+  }
+
+  private static ResponseDefinitionBuilder withLatency(
+      ResponseDefinitionBuilder response, Duration medianLatency) {
+    if (medianLatency.isZero()) {
+      return response;
+    }
+    return response.withLogNormalRandomDelay(medianLatency.toMillis(), 0.4);
+  }
+
   /** This method initializes the WireMockServer */
   public void init() {
     log.info("WiremockServiceImpl.init() called");
 
-    WireMockServer wireMockServer = new WireMockServer(options().port(8090).globalTemplating(true));
+    WireMockServer wireMockServer = new WireMockServer(options().port(PORT).globalTemplating(true));
     setupOauthMocks(wireMockServer, true);
+    setupLoadTestUserMocks(wireMockServer);
+    setupDiningApiMocks(wireMockServer, diningApiMedianLatency, diningApiErrorRate);
 
     wireMockServer.start();
 
@@ -0,0 +1,50 @@
+package edu.ucsb.cs156.dining.utilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Picks the best few elements of a collection without sorting all of it, e.g. the top rated items
+ * of the statistics endpoints (see {@code StatisticsController}).
+ */
+public final class TopK {
+
+  private TopK() {}
+
+  /**
+   * Returns the first {@code k} elements of {@code items} in the given order, i.e. the same result
+   * as sorting everything and keeping the first {@code k}, without sorting everything.
+   *
+   * <p>The items are visited once while a heap holds the best {@code k} seen so far (with the worst
+   * of those on top, so it is the one that gets replaced). That takes O(n log k) time and O(k)
+   * extra memory instead of O(n log n) and O(n).
+   *
+   * @param items the items to choose from
+   * @param k how many items to keep
+   * @param order the order of the result; the first elements in this order are kept
+   * @return at most {@code k} items, sorted by {@code order}
+   */
+  public static <T> List<T> first(Iterable<? extends T> items, int k, Comparator<? super T> order) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must be non-negative");
+    }
+    List<T> result = new ArrayList<>();
+    if (k == 0) {
+      return result;
+    }
+    PriorityQueue<T> heap = new PriorityQueue<>(order.reversed());
+    for (T item : items) {
+      if (heap.size() < k) {
+        heap.add(item);
+      } else if (order.compare(item, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(item);
+      }
+    }
+    result.addAll(heap);
+    result.sort(order);
+    return result;
+  }
+}
@@ -0,0 +1,124 @@
+package edu.ucsb.cs156.dining.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+public class CacheConfigTests {
+
+  private static final Duration CURRENT = Duration.ofMinutes(15);
+  private static final Duration PAST = Duration.ofDays(7);
+
+  private final Clock clock =
+      Clock.fixed(Instant.parse("2025-04-02T19:00:00Z"), ZoneId.of("America/Los_Angeles"));
+
+  private final CacheConfig.MenuExpiry expiry = new CacheConfig.MenuExpiry(clock, CURRENT, PAST);
+
+  private CacheConfig cacheConfig;
+
+  @BeforeEach
+  public void setup() {
+    cacheConfig = new CacheConfig();
+    cacheConfig.menuMaximumSize = 2;
+    cacheConfig.currentMenuTtl = CURRENT;
+    cacheConfig.pastMenuTtl = PAST;
+    cacheConfig.diningCommonsTtl = Duration.ofDays(1);
+  }
+
+  @Test
+  public void menus_for_past_days_are_kept_longer() {
+    assertEquals(PAST, expiry.ttlFor("2025-04-01|carrillo"));
+    assertEquals(PAST, expiry.ttlFor("2025-04-01T00:00:00|carrillo|lunch"));
+  }
+
+  @Test
+  public void menus_for_today_and_later_are_refreshed_quickly() {
+    assertEquals(CURRENT, expiry.ttlFor("2025-04-02|carrillo"));
+    assertEquals(CURRENT, expiry.ttlFor("2025-04-03|carrillo|dinner"));
+  }
+
+  @Test
+  public void keys_without_a_date_are_treated_as_current() {
+    assertEquals(CURRENT, expiry.ttlFor("today|carrillo"));
+    assertEquals(CURRENT, expiry.ttlFor("x"));
+  }
+
+  @Test
+  public void isPast_compares_with_today_in_the_clock_zone() {
+    assertTrue(expiry.isPast("2025-04-01|carrillo"));
+    assertFalse(expiry.isPast("2025-04-02|carrillo"));
+    assertFalse(expiry.isPast("today"));
+  }
+
+  @Test
+  public void today_on_campus_is_not_past_once_it_is_tomorrow_in_utc() {
+    // 6 pm on April 2nd on campus
+    Clock utc = Clock.fixed(Instant.parse("2025-04-03T01:00:00Z"), ZoneOffset.UTC);
+    Clock campus =
+        utc.withZone(new ClockConfig().clock(ZoneId.of("America/Los_Angeles")).getZone());
+
+    assertTrue(new CacheConfig.MenuExpiry(utc, CURRENT, PAST).isPast("2025-04-02|carrillo"));
+    CacheConfig.MenuExpiry campusExpiry = new CacheConfig.MenuExpiry(campus, CURRENT, PAST);
+    assertFalse(campusExpiry.isPast("2025-04-02|carrillo"));
+    assertEquals(CURRENT, campusExpiry.ttlFor("2025-04-02|carrillo"));
+    assertTrue(campusExpiry.isPast("2025-04-01|carrillo"));
+  }
+
+  @Test
+  public void writes_use_the_ttl_and_reads_keep_the_remaining_time() {
+    assertEquals(PAST.toNanos(), expiry.expireAfterCreate("2025-04-01|carrillo", "{}", 0L));
+    assertEquals(CURRENT.toNanos(), expiry.expireAfterUpdate("2025-04-02|carrillo", "{}", 0L, 5L));
+    assertEquals(5L, expiry.expireAfterRead("2025-04-02|carrillo", "{}", 0L, 5L));
+  }
+
+  @Test
+  public void menu_caches_are_bounded_and_record_statistics() {
+    CaffeineCache menu = cacheConfig.menuCache(CacheConfig.MENU, clock);
+    Cache<Object, Object> nativeCache = menu.getNativeCache();
+
+    for (int i = 1; i <= 5; i++) {
+      menu.put("2025-04-0" + i + "|carrillo", "{}");
+    }
+    menu.get("2025-04-09|carrillo");
+    nativeCache.cleanUp();
+
+    assertTrue(nativeCache.estimatedSize() <= 2);
+    assertEquals(3, nativeCache.stats().evictionCount());
+    assertEquals(1, nativeCache.stats().missCount());
+    assertTrue(nativeCache.policy().expireVariably().isPresent());
+  }
+
+  @Test
+  public void dining_commons_cache_expires_after_a_day() {
+    Cache<Object, Object> nativeCache = cacheConfig.diningCommonsCache().getNativeCache();
+
+    assertEquals(1, nativeCache.policy().eviction().get().getMaximum());
+    assertEquals(
+        Duration.ofDays(1), nativeCache.policy().expireAfterWrite().get().getExpiresAfter());
+    assertTrue(nativeCache.policy().isRecordingStats());
+  }
+
+  @Test
+  public void cache_manager_only_knows_the_configured_caches() {
+    SimpleCacheManager cacheManager = (SimpleCacheManager) cacheConfig.cacheManager(clock);
+    cacheManager.afterPropertiesSet();
+
+    assertEquals(
+        List.of(CacheConfig.MENU, CacheConfig.DINING_COMMONS),
+        List.copyOf(cacheManager.getCacheNames()));
+    assertNull(cacheManager.getCache("somethingElse"));
+  }
+}
@@ -0,0 +1,115 @@
+package edu.ucsb.cs156.dining.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class MetricsConfigTests {
+
+  static class ExampleController {
+    public String hello() {
+      return "hello";
+    }
+  }
+
+  private final MetricsConfig metricsConfig = new MetricsConfig();
+
+  private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hello");
+
+  private final ServerRequestObservationContext context =
+      new ServerRequestObservationContext(request, new MockHttpServletResponse());
+
+  @Test
+  public void requests_are_tagged_with_their_controller() throws Exception {
+    request.setAttribute(
+        HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+        new HandlerMethod(new ExampleController(), "hello"));
+
+    assertTrue(
+        metricsConfig
+            .serverRequestObservationConvention()
+            .getLowCardinalityKeyValues(context)
+            .stream()
+            .anyMatch(KeyValue.of("controller", "ExampleController")::equals));
+  }
+
+  @Test
+  public void requests_without_a_controller_are_tagged_with_none() {
+    assertTrue(
+        metricsConfig
+            .serverRequestObservationConvention()
+            .getLowCardinalityKeyValues(context)
+            .stream()
+            .anyMatch(KeyValue.of("controller", "none")::equals));
+  }
+
+  @Test
+  public void the_menu_items_cache_is_recorded_like_the_other_caches() {
+    Cache<String, String> cache = Caffeine.newBuilder().recordStats().build();
+    cache.put("key", "value");
+    cache.getIfPresent("key");
+    cache.getIfPresent("other");
+    UCSBDiningMenuItemsCache menuItemsCache = mock(UCSBDiningMenuItemsCache.class);
+    doReturn(cache).when(menuItemsCache).nativeCache();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    metricsConfig.menuItemsCacheMetrics(menuItemsCache).bindTo(registry);
+
+    assertEquals(
+        1.0,
+        registry
+            .get("cache.gets")
+            .tag("cache", CacheConfig.MENU_ITEM)
+            .tag("cache.manager", "ucsbDiningMenuItemsCache")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+    assertEquals(
+        1.0,
+        registry
+            .get("cache.gets")
+            .tag("cache", CacheConfig.MENU_ITEM)
+            .tag("result", "miss")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  public void the_pool_of_connections_to_the_ucsb_api_is_recorded() {
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(7);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    metricsConfig.ucsbApiConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+    assertEquals(
+        7.0,
+        registry
+            .get("httpcomponents.httpclient.pool.total.max")
+            .tag("httpclient", UCSBApiClientConfig.POOL)
+            .gauge()
+            .value());
+    assertEquals(
+        0.0,
+        registry
+            .get("httpcomponents.httpclient.pool.total.pending")
+            .tag("httpclient", UCSBApiClientConfig.POOL)
+            .gauge()
+            .value());
+    connectionManager.close();
+  }
+}
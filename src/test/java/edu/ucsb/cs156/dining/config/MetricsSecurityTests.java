@@ -0,0 +1,71 @@
+package edu.ucsb.cs156.dining.config;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@TestPropertySource(
+    properties = {
+      "app.metrics.username=prometheus",
+      "app.metrics.password=scrape-secret",
+      "app.statistics.rebuildOnStartup=false"
+    })
+public class MetricsSecurityTests {
+
+  @Autowired MockMvc mockMvc;
+
+  @Test
+  public void prometheus_can_read_the_metrics_with_its_password() throws Exception {
+    mockMvc
+        .perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+        .andExpect(status().isOk())
+        .andExpect(content().string(Matchers.containsString("jvm_threads_live_threads")));
+  }
+
+  @Test
+  public void anonymous_requests_are_asked_to_authenticate() throws Exception {
+    mockMvc
+        .perform(get("/actuator/prometheus"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(header().string("WWW-Authenticate", Matchers.startsWith("Basic")));
+  }
+
+  @Test
+  public void a_wrong_password_is_refused() throws Exception {
+    mockMvc
+        .perform(get("/actuator/prometheus").with(httpBasic("prometheus", "guess")))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  @WithMockUser(roles = {"USER"})
+  public void users_cannot_read_the_metrics() throws Exception {
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  public void admins_can_read_the_metrics() throws Exception {
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+  }
+
+  @Test
+  public void other_actuator_endpoints_are_not_affected() throws Exception {
+    mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+  }
+}
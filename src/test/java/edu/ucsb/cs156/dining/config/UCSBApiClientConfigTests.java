@@ -0,0 +1,114 @@
+package edu.ucsb.cs156.dining.config;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+public class UCSBApiClientConfigTests {
+
+  private final WireMockServer wireMockServer = new WireMockServer(options().dynamicPort());
+
+  private final UCSBApiClientConfig config = new UCSBApiClientConfig();
+
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  private CloseableHttpClient httpClient;
+
+  @BeforeEach
+  public void setup() {
+    config.maxConnections = 2;
+    config.connectTimeout = Duration.ofSeconds(1);
+    config.connectionRequestTimeout = Duration.ofMillis(200);
+    config.responseTimeout = Duration.ofMillis(500);
+    config.idleTimeout = Duration.ofSeconds(30);
+    config.timeToLive = Duration.ofMinutes(5);
+    wireMockServer.start();
+    wireMockServer.stubFor(get(urlEqualTo("/fast")).willReturn(ok("fast")));
+    wireMockServer.stubFor(get(urlEqualTo("/slow")).willReturn(ok("slow").withFixedDelay(2000)));
+  }
+
+  @AfterEach
+  public void teardown() throws Exception {
+    httpClient.close();
+    wireMockServer.stop();
+  }
+
+  private RestTemplate restTemplate() {
+    connectionManager = config.ucsbApiConnectionManager();
+    httpClient = config.ucsbApiHttpClient(connectionManager);
+    return config.ucsbApiRestTemplate(new RestTemplateBuilder(), httpClient);
+  }
+
+  private String url(String path) {
+    return wireMockServer.baseUrl() + path;
+  }
+
+  @Test
+  public void all_connections_of_the_pool_may_go_to_the_ucsb_api() {
+    restTemplate();
+
+    assertEquals(2, connectionManager.getMaxTotal());
+    assertEquals(2, connectionManager.getDefaultMaxPerRoute());
+  }
+
+  @Test
+  public void connections_are_kept_alive_and_reused() {
+    RestTemplate restTemplate = restTemplate();
+
+    assertEquals("fast", restTemplate.getForObject(url("/fast"), String.class));
+    assertEquals("fast", restTemplate.getForObject(url("/fast"), String.class));
+
+    assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    assertEquals(0, connectionManager.getTotalStats().getLeased());
+  }
+
+  @Test
+  public void a_slow_response_times_out() {
+    RestTemplate restTemplate = restTemplate();
+
+    ResourceAccessException e =
+        assertThrows(
+            ResourceAccessException.class,
+            () -> restTemplate.getForObject(url("/slow"), String.class));
+
+    assertInstanceOf(SocketTimeoutException.class, e.getCause());
+  }
+
+  @Test
+  public void waiting_for_a_connection_from_the_pool_times_out() throws Exception {
+    config.maxConnections = 1;
+    config.responseTimeout = Duration.ofSeconds(5);
+    RestTemplate restTemplate = restTemplate();
+    CompletableFuture<String> slow =
+        CompletableFuture.supplyAsync(() -> restTemplate.getForObject(url("/slow"), String.class));
+    while (connectionManager.getTotalStats().getLeased() == 0) {
+      Thread.sleep(10);
+    }
+
+    ResourceAccessException e =
+        assertThrows(
+            ResourceAccessException.class,
+            () -> restTemplate.getForObject(url("/fast"), String.class));
+
+    assertInstanceOf(ConnectionRequestTimeoutException.class, e.getCause());
+    assertEquals("slow", slow.get());
+  }
+}
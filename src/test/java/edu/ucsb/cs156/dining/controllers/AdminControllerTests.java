@@ -13,6 +13,7 @@ import edu.ucsb.cs156.dining.ControllerTestCase;
 import edu.ucsb.cs156.dining.entities.Admin;
 import edu.ucsb.cs156.dining.repositories.AdminRepository;
 import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import edu.ucsb.cs156.dining.testconfig.TestConfig;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,6 +25,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = AdminController.class)
@@ -37,6 +39,8 @@ public class AdminControllerTests extends ControllerTestCase {
 
   @MockitoBean UserRepository userRepository;
 
+  @MockitoSpyBean RoleRegistry roleRegistry;
+
   // Authorization tests for post
 
   @Test
@@ -99,6 +103,7 @@ public class AdminControllerTests extends ControllerTestCase {
             .andReturn();
     // assert
     verify(adminRepository, times(1)).save(admin);
+    verify(roleRegistry, times(1)).setAdmin("acdamstedt@ucsb.edu", true);
     String expectedJson = mapper.writeValueAsString(admin);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -107,15 +112,14 @@ public class AdminControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"ADMIN"})
   @Test
   public void logged_in_admin_can_get_all_admins() throws Exception {
-    List<String> adminEmails = Arrays.asList("acdamstedt@ucsb.edu");
-
     Admin admin1 = Admin.builder().email("acdamstedt@ucsb.edu").build();
 
-    AdminController.AdminDTO adminDTO1 = new AdminController.AdminDTO(admin1, adminEmails);
+    AdminController.AdminDTO adminDTO1 = new AdminController.AdminDTO("acdamstedt@ucsb.edu", true);
 
     Admin admin2 = Admin.builder().email("acdamstedt@csil.cs.ucsb.edu").build();
 
-    AdminController.AdminDTO adminDTO2 = new AdminController.AdminDTO(admin2, adminEmails);
+    AdminController.AdminDTO adminDTO2 =
+        new AdminController.AdminDTO("acdamstedt@csil.cs.ucsb.edu", false);
 
     ArrayList<Admin> expectedAdmins = new ArrayList<>();
     expectedAdmins.addAll(Arrays.asList(admin1, admin2));
@@ -156,6 +160,7 @@ public class AdminControllerTests extends ControllerTestCase {
     // assert
     verify(adminRepository, times(1)).findAllByEmail("acdamstedt@gmail.com");
     verify(adminRepository, times(1)).deleteByEmail("acdamstedt@gmail.com");
+    verify(roleRegistry, times(1)).setAdmin("acdamstedt@gmail.com", false);
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("Admin with id acdamstedt@gmail.com deleted", json.get("message"));
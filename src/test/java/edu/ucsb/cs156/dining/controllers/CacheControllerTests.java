@@ -0,0 +1,114 @@
+package edu.ucsb.cs156.dining.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.ucsb.cs156.dining.ControllerTestCase;
+import edu.ucsb.cs156.dining.models.MenuWarmupReport;
+import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.MenuWarmupService;
+import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(controllers = CacheController.class)
+public class CacheControllerTests extends ControllerTestCase {
+
+  @MockBean UserRepository userRepository;
+
+  @MockBean CacheManager cacheManager;
+
+  @MockBean UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache;
+
+  @MockBean MenuWarmupService menuWarmupService;
+
+  @Test
+  public void logged_out_users_cannot_get_cache_statistics() throws Exception {
+    mockMvc.perform(get("/api/caches")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void regular_users_cannot_get_cache_statistics() throws Exception {
+    mockMvc.perform(get("/api/caches")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void admin_gets_statistics_of_caffeine_caches() throws Exception {
+    CaffeineCache menu =
+        new CaffeineCache("menu", Caffeine.newBuilder().maximumSize(10).recordStats().build());
+    menu.put("2025-04-01|carrillo", "{}");
+    menu.get("2025-04-01|carrillo");
+    menu.get("2025-04-01|ortega");
+    menu.get("2025-04-01|ortega");
+    menu.get("2025-04-01|ortega");
+    when(cacheManager.getCacheNames()).thenReturn(List.of("menu", "other"));
+    when(cacheManager.getCache("menu")).thenReturn(menu);
+    when(cacheManager.getCache("other")).thenReturn(new ConcurrentMapCache("other"));
+    Cache<Object, Object> menuItems = Caffeine.newBuilder().recordStats().build();
+    menuItems.getIfPresent("2025-04-01|carrillo|lunch");
+    doReturn(menuItems).when(ucsbDiningMenuItemsCache).nativeCache();
+
+    mockMvc
+        .perform(get("/api/caches"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].name").value("menu"))
+        .andExpect(jsonPath("$[0].size").value(1))
+        .andExpect(jsonPath("$[0].hitCount").value(1))
+        .andExpect(jsonPath("$[0].missCount").value(3))
+        .andExpect(jsonPath("$[0].evictionCount").value(0))
+        .andExpect(jsonPath("$[0].hitRate").value(0.25))
+        .andExpect(jsonPath("$[1].name").value("menuItem"))
+        .andExpect(jsonPath("$[1].size").value(0))
+        .andExpect(jsonPath("$[1].missCount").value(1));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void regular_users_cannot_warm_up_the_caches() throws Exception {
+    mockMvc.perform(post("/api/caches/warmup").with(csrf())).andExpect(status().is(403));
+    verify(menuWarmupService, times(0)).warmup();
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void admin_can_warm_up_the_caches() throws Exception {
+    MenuWarmupReport report =
+        MenuWarmupReport.builder()
+            .dates(List.of("2025-04-02", "2025-04-03"))
+            .diningCommons(4)
+            .keysLoaded(20)
+            .failures(1)
+            .menuItems(300)
+            .durationMillis(1234)
+            .build();
+    when(menuWarmupService.warmup()).thenReturn(report);
+
+    MvcResult response =
+        mockMvc
+            .perform(post("/api/caches/warmup").with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    assertEquals(mapper.writeValueAsString(report), response.getResponse().getContentAsString());
+  }
+}
@@ -2,6 +2,7 @@ package edu.ucsb.cs156.dining.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -16,6 +17,7 @@ import edu.ucsb.cs156.dining.ControllerTestCase;
 import edu.ucsb.cs156.dining.entities.Moderator;
 import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
 import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import edu.ucsb.cs156.dining.testconfig.TestConfig;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,6 +26,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = ModeratorController.class)
@@ -32,6 +35,7 @@ public class ModeratorControllerTests extends ControllerTestCase {
 
   @MockitoBean ModeratorRepository moderatorRepository;
   @MockitoBean UserRepository userRepository;
+  @MockitoSpyBean RoleRegistry roleRegistry;
 
   // Tests for the POST endpoint
   @Test
@@ -65,6 +69,7 @@ public class ModeratorControllerTests extends ControllerTestCase {
 
     // assert
     verify(moderatorRepository, times(1)).save(eq(moderator));
+    verify(roleRegistry, times(1)).setModerator("ins@ucsb.edu", true);
     String expectedJson = mapper.writeValueAsString(moderator);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -140,6 +145,7 @@ public class ModeratorControllerTests extends ControllerTestCase {
     // Assert
     verify(moderatorRepository, times(1)).existsByEmail("ins@ucsb.edu");
     verify(moderatorRepository, times(1)).deleteByEmail("ins@ucsb.edu");
+    verify(roleRegistry, times(1)).setModerator("ins@ucsb.edu", false);
     String expectedMessage =
         String.format("Moderator with email %s deleted.", moderator.getEmail());
     String responseString = response.getResponse().getContentAsString();
@@ -163,6 +169,7 @@ public class ModeratorControllerTests extends ControllerTestCase {
     // Assert
     verify(moderatorRepository, times(1)).existsByEmail(email);
     verify(moderatorRepository, times(0)).deleteByEmail(any());
+    verify(roleRegistry, times(0)).setModerator(any(), anyBoolean());
     String expectedMessage = String.format("Moderator with email %s not found.", email);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedMessage, responseString);
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -17,15 +18,27 @@ import edu.ucsb.cs156.dining.entities.Review;
 import edu.ucsb.cs156.dining.entities.User;
 import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
 import edu.ucsb.cs156.dining.models.EditedReview;
+import edu.ucsb.cs156.dining.models.ModerationOutcome;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.models.ReviewModeration;
+import edu.ucsb.cs156.dining.models.ReviewView;
 import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
 import edu.ucsb.cs156.dining.repositories.ReviewRepository;
 import edu.ucsb.cs156.dining.repositories.UserRepository;
 import edu.ucsb.cs156.dining.services.CurrentUserService;
+import edu.ucsb.cs156.dining.services.ModerationService;
+import edu.ucsb.cs156.dining.services.ReviewAggregateService;
+import edu.ucsb.cs156.dining.services.ReviewExportService;
+import edu.ucsb.cs156.dining.services.ReviewService;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
 import edu.ucsb.cs156.dining.testconfig.TestConfig;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,12 +47,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = ReviewController.class)
-@Import(TestConfig.class)
+@Import({TestConfig.class, ReviewService.class})
 public class ReviewControllerTests extends ControllerTestCase {
 
   @MockBean ReviewRepository reviewRepository;
@@ -50,6 +66,12 @@ public class ReviewControllerTests extends ControllerTestCase {
 
   @MockBean private MenuItemRepository menuItemRepository;
 
+  @MockBean ReviewAggregateService reviewAggregateService;
+
+  @MockBean ReviewExportService reviewExportService;
+
+  @MockBean ModerationService moderationService;
+
   @Autowired private CurrentUserService currentUserService;
 
   @BeforeEach
@@ -76,6 +98,8 @@ public class ReviewControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"ADMIN"})
   @Test
   public void logged_in_admin_can_get_all() throws Exception {
+    when(reviewRepository.findViewsAfter(0L, Pageable.unpaged()))
+        .thenReturn(new SliceImpl<>(List.of()));
     mockMvc.perform(get("/api/reviews/all")).andExpect(status().is(200));
   }
 
@@ -330,6 +354,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     // Assert
     verify(reviewRepository).save(any(Review.class));
+    verify(reviewAggregateService).onReviewChanged(null, ReviewContribution.of(reviewReturn));
     String responseJson = response.getResponse().getContentAsString();
     String reviewJson = mapper.writeValueAsString(reviewReturn);
     assertEquals(responseJson, reviewJson);
@@ -389,14 +414,20 @@ public class ReviewControllerTests extends ControllerTestCase {
     ArrayList<Review> reviews = new ArrayList<>();
     reviews.addAll(Arrays.asList(review1, review2, review3));
 
-    when(reviewRepository.findAll()).thenReturn(reviews);
+    List<ReviewView> views = reviews.stream().map(ReviewView::of).toList();
+    when(reviewRepository.findViewsAfter(0L, Pageable.unpaged()))
+        .thenReturn(new SliceImpl<>(views));
     // Act
     MvcResult response =
-        mockMvc.perform(get("/api/reviews/all")).andExpect(status().is(200)).andReturn();
+        mockMvc
+            .perform(get("/api/reviews/all"))
+            .andExpect(status().is(200))
+            .andExpect(header().doesNotExist("X-Next-Cursor"))
+            .andReturn();
 
     // assert
-    verify(reviewRepository, times(1)).findAll();
-    String expectedJson = mapper.writeValueAsString(reviews);
+    verify(reviewRepository, times(1)).findViewsAfter(0L, Pageable.unpaged());
+    String expectedJson = mapper.writeValueAsString(views);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
   }
@@ -448,7 +479,9 @@ public class ReviewControllerTests extends ControllerTestCase {
     ArrayList<Review> valid_reviews = new ArrayList<>();
     valid_reviews.addAll(Arrays.asList(review1));
     reviews.addAll(Arrays.asList(review1, review2, review3));
-    when(reviewRepository.findByReviewer(eq(user1))).thenReturn(valid_reviews);
+    List<ReviewView> views = valid_reviews.stream().map(ReviewView::of).toList();
+    when(reviewRepository.findViewsByReviewerIdAfter(user1.getId(), 0L, Pageable.unpaged()))
+        .thenReturn(new SliceImpl<>(views));
 
     // Act
     MvcResult response =
@@ -458,8 +491,9 @@ public class ReviewControllerTests extends ControllerTestCase {
             .andReturn();
 
     // assert
-    verify(reviewRepository, times(1)).findByReviewer(eq(user1));
-    String expectedJson = mapper.writeValueAsString(valid_reviews);
+    verify(reviewRepository, times(1))
+        .findViewsByReviewerIdAfter(user1.getId(), 0L, Pageable.unpaged());
+    String expectedJson = mapper.writeValueAsString(views);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
   }
@@ -517,7 +551,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String requestBody = mapper.writeValueAsString(reviewEdit);
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     MvcResult response =
         mockMvc
@@ -567,7 +601,7 @@ public class ReviewControllerTests extends ControllerTestCase {
     String requestBodyTooLow = mapper.writeValueAsString(reviewTooLow);
     String requestBodyTooHigh = mapper.writeValueAsString(reviewTooHigh);
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     mockMvc
         .perform(
@@ -618,7 +652,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String requestBody = mapper.writeValueAsString(review);
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     mockMvc
         .perform(
@@ -659,7 +693,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String requestBody = mapper.writeValueAsString(review);
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     mockMvc
         .perform(
@@ -711,7 +745,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
     when(reviewRepository.save(eq(reviewResponse))).thenReturn(reviewResponse);
 
     String requestBody = mapper.writeValueAsString(reviewEdit);
@@ -730,7 +764,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String reviewJson = mapper.writeValueAsString(reviewResponse);
     String responseJson = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findById(eq(1L));
+    verify(reviewRepository, times(1)).findByIdForUpdate(eq(1L));
     verify(reviewRepository, times(1)).save(eq(reviewResponse));
     assertEquals(responseJson, reviewJson);
   }
@@ -774,7 +808,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
     when(reviewRepository.save(eq(reviewResponse))).thenReturn(reviewResponse);
 
     String requestBody = mapper.writeValueAsString(reviewEdit);
@@ -793,7 +827,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String reviewJson = mapper.writeValueAsString(reviewResponse);
     String responseJson = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findById(eq(1L));
+    verify(reviewRepository, times(1)).findByIdForUpdate(eq(1L));
     verify(reviewRepository, times(1)).save(eq(reviewResponse));
     assertEquals(responseJson, reviewJson);
   }
@@ -838,7 +872,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
     when(reviewRepository.save(eq(reviewResponse))).thenReturn(reviewResponse);
 
     String requestBody = mapper.writeValueAsString(reviewEdit);
@@ -857,8 +891,9 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String reviewJson = mapper.writeValueAsString(reviewResponse);
     String responseJson = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findById(eq(1L));
+    verify(reviewRepository, times(1)).findByIdForUpdate(eq(1L));
     verify(reviewRepository, times(1)).save(eq(reviewResponse));
+    verify(reviewAggregateService, times(1)).onReviewChanged(null, null);
     assertEquals(responseJson, reviewJson);
   }
 
@@ -872,7 +907,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .itemStars(2L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.empty());
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.empty());
 
     String requestBody = mapper.writeValueAsString(reviewEdit);
 
@@ -888,7 +923,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .andExpect(status().isNotFound())
             .andReturn();
 
-    verify(reviewRepository, times(1)).findById(eq(1L));
+    verify(reviewRepository, times(1)).findByIdForUpdate(eq(1L));
     Map<String, Object> json = responseToJson(response);
     assertEquals("Review with id 1 not found", json.get("message"));
   }
@@ -911,7 +946,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     MvcResult response =
         mockMvc
@@ -940,7 +975,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     MvcResult response =
         mockMvc
@@ -971,7 +1006,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
 
     MvcResult response =
         mockMvc
@@ -987,7 +1022,7 @@ public class ReviewControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void nonexistent_cannot_delete() throws Exception {
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.empty());
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.empty());
 
     MvcResult response =
         mockMvc
@@ -1029,7 +1064,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
     when(reviewRepository.save(eq(approved))).thenReturn(approved);
 
     MvcResult response =
@@ -1045,7 +1080,7 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String jsonExpected = mapper.writeValueAsString(approved);
     String jsonResponse = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findById(eq(1L));
+    verify(reviewRepository, times(1)).findByIdForUpdate(eq(1L));
     verify(reviewRepository, times(1)).save(eq(approved));
     assertEquals(jsonExpected, jsonResponse);
   }
@@ -1080,7 +1115,7 @@ public class ReviewControllerTests extends ControllerTestCase {
             .id(1L)
             .build();
 
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
     when(reviewRepository.save(eq(approved))).thenReturn(approved);
 
     MvcResult response =
@@ -1096,15 +1131,80 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     String jsonExpected = mapper.writeValueAsString(approved);
     String jsonResponse = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findById(eq(1L));
+    verify(reviewRepository, times(1)).findByIdForUpdate(eq(1L));
     verify(reviewRepository, times(1)).save(eq(approved));
     assertEquals(jsonExpected, jsonResponse);
   }
 
+  @WithMockUser(roles = {"MODERATOR"})
+  @Test
+  public void approving_a_review_adds_it_to_the_aggregates() throws Exception {
+    User user1 = User.builder().id(2L).build();
+
+    MenuItem menuItem1 =
+        MenuItem.builder().id(1L).diningCommonsCode("ortega").mealCode("lunch").build();
+
+    Review review1 =
+        Review.builder()
+            .dateItemServed(LocalDateTime.of(2021, 12, 12, 1, 3))
+            .reviewer(user1)
+            .itemsStars(4L)
+            .status(ModerationStatus.AWAITING_REVIEW)
+            .item(menuItem1)
+            .id(1L)
+            .build();
+
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
+    when(reviewRepository.save(any(Review.class))).thenAnswer(i -> i.getArgument(0));
+
+    mockMvc
+        .perform(
+            put("/api/reviews/moderate")
+                .param("id", "1")
+                .param("status", "APPROVED")
+                .param("moderatorComments", "acceptable")
+                .with(csrf()))
+        .andExpect(status().isOk());
+
+    ReviewContribution expected =
+        new ReviewContribution(1L, "ortega", "lunch", LocalDateTime.of(2021, 12, 12, 1, 3), 4L);
+    verify(reviewAggregateService, times(1)).onReviewChanged(null, expected);
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void deleting_an_approved_review_removes_it_from_the_aggregates() throws Exception {
+    User user1 = currentUserService.getUser();
+
+    MenuItem menuItem1 =
+        MenuItem.builder().id(1L).diningCommonsCode("ortega").mealCode("lunch").build();
+
+    Review review1 =
+        Review.builder()
+            .dateItemServed(LocalDateTime.of(2021, 12, 12, 1, 3))
+            .reviewer(user1)
+            .itemsStars(2L)
+            .status(ModerationStatus.APPROVED)
+            .item(menuItem1)
+            .id(1L)
+            .build();
+
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.of(review1));
+
+    mockMvc
+        .perform(delete("/api/reviews/reviewer").param("id", "1").with(csrf()))
+        .andExpect(status().isOk());
+
+    ReviewContribution expected =
+        new ReviewContribution(1L, "ortega", "lunch", LocalDateTime.of(2021, 12, 12, 1, 3), 2L);
+    verify(reviewRepository, times(1)).delete(eq(review1));
+    verify(reviewAggregateService, times(1)).onReviewChanged(expected, null);
+  }
+
   @WithMockUser(roles = {"MODERATOR"})
   @Test
   public void moderator_nonexistent_cannot_approve() throws Exception {
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.empty());
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.empty());
 
     MvcResult response =
         mockMvc
@@ -1124,7 +1224,7 @@ public class ReviewControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"ADMIN"})
   @Test
   public void admin_nonexistent_cannot_approve() throws Exception {
-    when(reviewRepository.findById(eq(1L))).thenReturn(Optional.empty());
+    when(reviewRepository.findByIdForUpdate(eq(1L))).thenReturn(Optional.empty());
 
     MvcResult response =
         mockMvc
@@ -1172,8 +1272,10 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     ArrayList<Review> returnableReviews = new ArrayList<>(Arrays.asList(review1, review2));
 
-    when(reviewRepository.findByStatus(eq(ModerationStatus.AWAITING_REVIEW)))
-        .thenReturn(returnableReviews);
+    List<ReviewView> views = returnableReviews.stream().map(ReviewView::of).toList();
+    when(reviewRepository.findViewsByStatusAfter(
+            ModerationStatus.AWAITING_REVIEW, 0L, Pageable.unpaged()))
+        .thenReturn(new SliceImpl<>(views));
 
     MvcResult response =
         mockMvc
@@ -1181,9 +1283,10 @@ public class ReviewControllerTests extends ControllerTestCase {
             .andExpect(status().isOk())
             .andReturn();
 
-    String expectedJson = mapper.writeValueAsString(returnableReviews);
+    String expectedJson = mapper.writeValueAsString(views);
     String responseJson = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findByStatus(eq(ModerationStatus.AWAITING_REVIEW));
+    verify(reviewRepository, times(1))
+        .findViewsByStatusAfter(ModerationStatus.AWAITING_REVIEW, 0L, Pageable.unpaged());
     assertEquals(expectedJson, responseJson);
   }
 
@@ -1218,8 +1321,10 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     ArrayList<Review> returnableReviews = new ArrayList<>(Arrays.asList(review1, review2));
 
-    when(reviewRepository.findByStatus(eq(ModerationStatus.AWAITING_REVIEW)))
-        .thenReturn(returnableReviews);
+    List<ReviewView> views = returnableReviews.stream().map(ReviewView::of).toList();
+    when(reviewRepository.findViewsByStatusAfter(
+            ModerationStatus.AWAITING_REVIEW, 0L, Pageable.unpaged()))
+        .thenReturn(new SliceImpl<>(views));
 
     MvcResult response =
         mockMvc
@@ -1227,9 +1332,10 @@ public class ReviewControllerTests extends ControllerTestCase {
             .andExpect(status().isOk())
             .andReturn();
 
-    String expectedJson = mapper.writeValueAsString(returnableReviews);
+    String expectedJson = mapper.writeValueAsString(views);
     String responseJson = response.getResponse().getContentAsString();
-    verify(reviewRepository, times(1)).findByStatus(eq(ModerationStatus.AWAITING_REVIEW));
+    verify(reviewRepository, times(1))
+        .findViewsByStatusAfter(ModerationStatus.AWAITING_REVIEW, 0L, Pageable.unpaged());
     assertEquals(expectedJson, responseJson);
   }
 
@@ -1258,9 +1364,9 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     ArrayList<Review> approvedReviews = new ArrayList<>(Arrays.asList(review1, review2));
 
-    when(menuItemRepository.findById(eq(itemId))).thenReturn(Optional.of(item));
-    when(reviewRepository.findByItemAndStatus(eq(item), eq(ModerationStatus.APPROVED)))
-        .thenReturn(approvedReviews);
+    List<ReviewView> views = approvedReviews.stream().map(ReviewView::of).toList();
+    when(reviewRepository.findViewsByItemIdInAndStatus(List.of(itemId), ModerationStatus.APPROVED))
+        .thenReturn(views);
 
     MvcResult response =
         mockMvc
@@ -1268,11 +1374,12 @@ public class ReviewControllerTests extends ControllerTestCase {
             .andExpect(status().isOk())
             .andReturn();
 
-    String expectedJson = mapper.writeValueAsString(approvedReviews);
+    String expectedJson = mapper.writeValueAsString(views);
     String responseJson = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseJson);
-    verify(menuItemRepository, times(1)).findById(eq(itemId));
-    verify(reviewRepository, times(1)).findByItemAndStatus(eq(item), eq(ModerationStatus.APPROVED));
+    verify(menuItemRepository, times(1)).existsById(eq(itemId));
+    verify(reviewRepository, times(1))
+        .findViewsByItemIdInAndStatus(List.of(itemId), ModerationStatus.APPROVED);
   }
 
   @WithMockUser(roles = {"USER"})
@@ -1280,7 +1387,6 @@ public class ReviewControllerTests extends ControllerTestCase {
   public void allApprovedReviewsForItem_returns_not_found_for_nonexistent_item() throws Exception {
 
     long itemId = 999L;
-    when(menuItemRepository.findById(eq(itemId))).thenReturn(Optional.empty());
 
     MvcResult response =
         mockMvc
@@ -1290,8 +1396,8 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("MenuItem with id 999 not found", json.get("message"));
-    verify(menuItemRepository, times(1)).findById(eq(itemId));
-    verify(reviewRepository, times(0)).findByItemAndStatus(any(), any());
+    verify(menuItemRepository, times(1)).existsById(eq(itemId));
+    verify(reviewRepository, times(0)).findViewsByItemIdInAndStatus(any(), any());
   }
 
   @WithMockUser(roles = {"USER"})
@@ -1302,14 +1408,14 @@ public class ReviewControllerTests extends ControllerTestCase {
 
     Review review = Review.builder().id(5L).reviewer(owner).item(item).build();
 
-    when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+    when(reviewRepository.findViewById(5L)).thenReturn(Optional.of(ReviewView.of(review)));
 
     MvcResult response =
         mockMvc.perform(get("/api/reviews/5").with(csrf())).andExpect(status().isOk()).andReturn();
 
-    verify(reviewRepository, times(1)).findById(5L);
+    verify(reviewRepository, times(1)).findViewById(5L);
 
-    String expectedJson = mapper.writeValueAsString(review);
+    String expectedJson = mapper.writeValueAsString(ReviewView.of(review));
     assertEquals(expectedJson, response.getResponse().getContentAsString());
   }
 
@@ -1325,11 +1431,11 @@ public class ReviewControllerTests extends ControllerTestCase {
             .item(item)
             .build();
 
-    when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+    when(reviewRepository.findViewById(5L)).thenReturn(Optional.of(ReviewView.of(review)));
 
     mockMvc.perform(get("/api/reviews/5").with(csrf())).andExpect(status().isOk());
 
-    verify(reviewRepository, times(1)).findById(5L);
+    verify(reviewRepository, times(1)).findViewById(5L);
   }
 
   @WithMockUser(roles = {"MODERATOR", "USER"})
@@ -1340,11 +1446,11 @@ public class ReviewControllerTests extends ControllerTestCase {
     Review review =
         Review.builder().id(5L).reviewer(User.builder().id(777L).build()).item(item).build();
 
-    when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+    when(reviewRepository.findViewById(5L)).thenReturn(Optional.of(ReviewView.of(review)));
 
     mockMvc.perform(get("/api/reviews/5").with(csrf())).andExpect(status().isOk());
 
-    verify(reviewRepository, times(1)).findById(5L);
+    verify(reviewRepository, times(1)).findViewById(5L);
   }
 
   @WithMockUser(roles = {"USER"})
@@ -1360,11 +1466,11 @@ public class ReviewControllerTests extends ControllerTestCase {
             .item(item)
             .build();
 
-    when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+    when(reviewRepository.findViewById(5L)).thenReturn(Optional.of(ReviewView.of(review)));
 
     mockMvc.perform(get("/api/reviews/5").with(csrf())).andExpect(status().isForbidden());
 
-    verify(reviewRepository, times(1)).findById(5L);
+    verify(reviewRepository, times(1)).findViewById(5L);
   }
 
   @Test
@@ -1375,7 +1481,7 @@ public class ReviewControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void getReviewById_not_found_returns_404() throws Exception {
-    when(reviewRepository.findById(5L)).thenReturn(Optional.empty());
+    when(reviewRepository.findViewById(5L)).thenReturn(Optional.empty());
 
     MvcResult response =
         mockMvc.perform(get("/api/reviews/5")).andExpect(status().isNotFound()).andReturn();
@@ -1395,7 +1501,7 @@ public class ReviewControllerTests extends ControllerTestCase {
     MenuItem item = MenuItem.builder().id(1L).name("Waffle").diningCommonsCode("carrillo").build();
     Review review = Review.builder().id(5L).reviewer(owner).item(item).itemsStars(4L).build();
 
-    when(reviewRepository.findById(5L)).thenReturn(Optional.of(review));
+    when(reviewRepository.findViewById(5L)).thenReturn(Optional.of(ReviewView.of(review)));
 
     mockMvc
         .perform(get("/api/reviews/5").with(csrf()))
@@ -1426,8 +1532,8 @@ public class ReviewControllerTests extends ControllerTestCase {
             .dateItemServed(LocalDateTime.of(2024, 1, 1, 12, 0))
             .build();
 
-    when(reviewRepository.findByReviewer(eq(owner)))
-        .thenReturn(new ArrayList<>(Arrays.asList(review)));
+    when(reviewRepository.findViewsByReviewerIdAfter(owner.getId(), 0L, Pageable.unpaged()))
+        .thenReturn(new SliceImpl<>(List.of(ReviewView.of(review))));
 
     mockMvc
         .perform(get("/api/reviews/userReviews").with(csrf()))
@@ -1437,4 +1543,243 @@ public class ReviewControllerTests extends ControllerTestCase {
         .andExpect(jsonPath("$[0].item.name").value("Oatmeal"))
         .andExpect(jsonPath("$[0].item.diningCommonsCode").value("ortega"));
   }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void admin_can_get_the_first_page_of_all_reviews() throws Exception {
+    Review review1 = Review.builder().id(3L).status(ModerationStatus.APPROVED).build();
+    Review review2 = Review.builder().id(8L).status(ModerationStatus.APPROVED).build();
+    List<ReviewView> views = List.of(ReviewView.of(review1), ReviewView.of(review2));
+    when(reviewRepository.findViewsAfter(0L, PageRequest.ofSize(2)))
+        .thenReturn(new SliceImpl<>(views, PageRequest.ofSize(2), true));
+
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/reviews/all?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Cursor", "8"))
+            .andReturn();
+
+    assertEquals(mapper.writeValueAsString(views), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void the_last_page_of_all_reviews_has_no_next_cursor() throws Exception {
+    Review review = Review.builder().id(9L).status(ModerationStatus.APPROVED).build();
+    when(reviewRepository.findViewsAfter(8L, PageRequest.ofSize(2)))
+        .thenReturn(new SliceImpl<>(List.of(ReviewView.of(review)), PageRequest.ofSize(2), false));
+
+    mockMvc
+        .perform(get("/api/reviews/all?after=8&size=2"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
+        .andExpect(jsonPath("$[0].id").value(9));
+  }
+
+  @WithMockUser(roles = {"MODERATOR"})
+  @Test
+  public void needs_moderation_pages_have_a_default_size() throws Exception {
+    Review review =
+        Review.builder()
+            .id(6L)
+            .status(ModerationStatus.AWAITING_REVIEW)
+            .item(MenuItem.builder().id(1L).build())
+            .build();
+    when(reviewRepository.findViewsByStatusAfter(
+            ModerationStatus.AWAITING_REVIEW, 5L, PageRequest.ofSize(50)))
+        .thenReturn(new SliceImpl<>(List.of(ReviewView.of(review)), PageRequest.ofSize(50), false));
+
+    mockMvc
+        .perform(get("/api/reviews/needsmoderation?after=5"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
+        .andExpect(jsonPath("$[0].id").value(6));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void user_can_page_their_own_reviews() throws Exception {
+    User owner = currentUserService.getUser();
+    Review review =
+        Review.builder().id(4L).reviewer(owner).status(ModerationStatus.APPROVED).build();
+    when(reviewRepository.findViewsByReviewerIdAfter(owner.getId(), 0L, PageRequest.ofSize(1)))
+        .thenReturn(new SliceImpl<>(List.of(ReviewView.of(review)), PageRequest.ofSize(1), true));
+
+    mockMvc
+        .perform(get("/api/reviews/userReviews?size=1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "4"))
+        .andExpect(jsonPath("$[0].id").value(4));
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void review_pages_must_have_a_valid_size() throws Exception {
+    MvcResult tooLarge =
+        mockMvc
+            .perform(get("/api/reviews/all?size=501"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+    assertEquals("size must be between 1 and 500", responseToJson(tooLarge).get("error"));
+
+    mockMvc.perform(get("/api/reviews/needsmoderation?size=0")).andExpect(status().isBadRequest());
+    verifyNoInteractions(reviewRepository);
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void users_cannot_export_reviews() throws Exception {
+    mockMvc.perform(get("/api/reviews/export")).andExpect(status().isForbidden());
+    verifyNoInteractions(reviewExportService);
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void admin_can_export_reviews_as_csv() throws Exception {
+    doAnswer(
+            invocation -> {
+              OutputStream out = invocation.getArgument(4);
+              out.write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+              return 1L;
+            })
+        .when(reviewExportService)
+        .export(
+            eq(ReviewExportService.Format.CSV),
+            eq(ModerationStatus.APPROVED),
+            eq(LocalDate.of(2025, 4, 1)),
+            eq(LocalDate.of(2025, 4, 30)),
+            any());
+
+    MvcResult started =
+        mockMvc
+            .perform(
+                get("/api/reviews/export?format=CSV&status=APPROVED&from=2025-04-01&to=2025-04-30"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv;charset=UTF-8"))
+        .andExpect(header().string("Content-Disposition", "attachment; filename=\"reviews.csv\""))
+        .andExpect(content().string("id\r\n1\r\n"));
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void reviews_are_exported_as_ndjson_by_default() throws Exception {
+    MvcResult started =
+        mockMvc.perform(get("/api/reviews/export")).andExpect(request().asyncStarted()).andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andExpect(
+            header().string("Content-Disposition", "attachment; filename=\"reviews.ndjson\""));
+    verify(reviewExportService, times(1))
+        .export(eq(ReviewExportService.Format.NDJSON), isNull(), isNull(), isNull(), any());
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void reviews_can_be_exported_from_a_day_on() throws Exception {
+    MvcResult started =
+        mockMvc
+            .perform(get("/api/reviews/export?from=2025-04-01"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    verify(reviewExportService, times(1))
+        .export(
+            eq(ReviewExportService.Format.NDJSON),
+            isNull(),
+            eq(LocalDate.of(2025, 4, 1)),
+            isNull(),
+            any());
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void export_rejects_unknown_formats_and_empty_ranges() throws Exception {
+    MvcResult badFormat =
+        mockMvc
+            .perform(get("/api/reviews/export?format=xml"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+    assertEquals("format must be ndjson or csv", responseToJson(badFormat).get("error"));
+
+    MvcResult badRange =
+        mockMvc
+            .perform(get("/api/reviews/export?from=2025-05-01&to=2025-04-30"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+    assertEquals("from must not be after to", responseToJson(badRange).get("error"));
+
+    verifyNoInteractions(reviewExportService);
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void users_cannot_moderate_reviews_in_bulk() throws Exception {
+    mockMvc
+        .perform(
+            put("/api/reviews/moderate/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]")
+                .with(csrf()))
+        .andExpect(status().isForbidden());
+
+    verifyNoInteractions(moderationService);
+  }
+
+  @WithMockUser(roles = {"MODERATOR"})
+  @Test
+  public void moderator_can_moderate_reviews_in_bulk() throws Exception {
+    List<ReviewModeration> moderations =
+        List.of(
+            new ReviewModeration(1L, ModerationStatus.APPROVED, null),
+            new ReviewModeration(2L, ModerationStatus.REJECTED, "off topic"));
+    List<ModerationOutcome> outcomes =
+        List.of(
+            new ModerationOutcome(1L, ModerationOutcome.Outcome.UPDATED),
+            new ModerationOutcome(2L, ModerationOutcome.Outcome.NOT_FOUND));
+    when(moderationService.moderateReviews(moderations)).thenReturn(outcomes);
+
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/reviews/moderate/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(moderations))
+                    .with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    assertEquals(
+        "[{\"id\":1,\"outcome\":\"UPDATED\"},{\"id\":2,\"outcome\":\"NOT_FOUND\"}]",
+        response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void invalid_bulk_moderations_are_rejected() throws Exception {
+    List<ReviewModeration> moderations = List.of(new ReviewModeration(1L, null, null));
+    when(moderationService.moderateReviews(moderations))
+        .thenThrow(new IllegalArgumentException("review 1 needs a status"));
+
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/reviews/moderate/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(moderations))
+                    .with(csrf()))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+
+    assertEquals("review 1 needs a status", responseToJson(response).get("error"));
+  }
 }
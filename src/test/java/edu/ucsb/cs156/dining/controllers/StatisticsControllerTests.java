@@ -1,10 +1,20 @@
 package edu.ucsb.cs156.dining.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -13,19 +23,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ucsb.cs156.dining.ControllerTestCase;
 import edu.ucsb.cs156.dining.entities.MenuItem;
 import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
 import edu.ucsb.cs156.dining.models.CommonsAverage;
 import edu.ucsb.cs156.dining.models.CommonsAverageOverTime;
 import edu.ucsb.cs156.dining.models.ItemStatistic;
 import edu.ucsb.cs156.dining.models.MealAverage;
-import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.services.ReviewAggregateService;
+import edu.ucsb.cs156.dining.services.StatisticsCache;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
 import edu.ucsb.cs156.dining.testconfig.TestConfig;
+import edu.ucsb.cs156.dining.utilities.TopK;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -34,15 +58,111 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = StatisticsController.class)
-@Import(TestConfig.class)
+@Import({TestConfig.class, StatisticsCache.class})
 public class StatisticsControllerTests extends ControllerTestCase {
 
-  @MockBean ReviewRepository reviewRepository;
+  @MockBean ReviewAggregateRepository reviewAggregateRepository;
+
+  @MockBean MenuItemRepository menuItemRepository;
+
+  @MockBean ReviewAggregateService reviewAggregateService;
+
+  @Autowired StatisticsCache statisticsCache;
 
   @Autowired ObjectMapper objectMapper;
 
+  /** The cache is shared by all tests in this class, so start each one with an empty cache. */
+  @BeforeEach
+  public void clearCache() {
+    statisticsCache.invalidate();
+  }
+
   // ---------- helpers ----------
 
+  /**
+   * Computes in memory the aggregate rows that ReviewAggregateService would maintain for the given
+   * approved reviews.
+   */
+  private static List<ReviewAggregate> aggregates(List<Review> reviews) {
+    Map<String, ReviewAggregate> rows = new LinkedHashMap<>();
+    for (Review r : reviews) {
+      ReviewContribution c = ReviewContribution.of(r);
+      for (ReviewAggregate group : ReviewAggregateService.groupsFor(c)) {
+        ReviewAggregate row = rows.computeIfAbsent(group.getGroupKey(), k -> group);
+        row.setStarsSum(row.getStarsSum() + c.stars());
+        row.setReviewCount(row.getReviewCount() + 1);
+      }
+    }
+    return new ArrayList<>(rows.values());
+  }
+
+  /**
+   * Computes in memory what {@code ReviewAggregateRepository.findItemStatisticsBetween} returns:
+   * the daily item rows in the range, summed per item.
+   */
+  private static List<ItemStatistic> itemStatistics(
+      List<Review> reviews, LocalDate from, LocalDate to) {
+    Map<Long, ReviewAggregate> totals = new LinkedHashMap<>();
+    for (ReviewAggregate a : aggregates(reviews)) {
+      if (a.getScope() != ReviewAggregate.Scope.ITEM_DAY
+          || (from != null && a.getDayServed().isBefore(from))
+          || (to != null && a.getDayServed().isAfter(to))) {
+        continue;
+      }
+      ReviewAggregate total =
+          totals.computeIfAbsent(a.getItemId(), k -> ReviewAggregate.builder().itemId(k).build());
+      total.setStarsSum(total.getStarsSum() + a.getStarsSum());
+      total.setReviewCount(total.getReviewCount() + a.getReviewCount());
+    }
+    List<ItemStatistic> stats = new ArrayList<>();
+    for (ReviewAggregate total : totals.values()) {
+      MenuItem mi =
+          reviews.stream()
+              .map(Review::getItem)
+              .filter(i -> i != null && i.getId() == total.getItemId())
+              .findFirst()
+              .get();
+      stats.add(
+          new ItemStatistic(
+              mi.getId(),
+              mi.getName(),
+              mi.getDiningCommonsCode(),
+              mi.getMealCode(),
+              mi.getStation(),
+              total.averageStars(),
+              total.getReviewCount()));
+    }
+    return stats;
+  }
+
+  /**
+   * Stubs the repositories as if the given reviews were the approved reviews in the database: the
+   * aggregate rows that the service would maintain for them, and the item statistics that the
+   * database would sum from the daily rows.
+   */
+  private void givenApprovedReviews(List<Review> reviews) {
+    List<ReviewAggregate> aggregates = aggregates(reviews);
+    for (ReviewAggregate.Scope scope : ReviewAggregate.Scope.values()) {
+      when(reviewAggregateRepository.findByScope(scope))
+          .thenReturn(aggregates.stream().filter(a -> a.getScope() == scope).toList());
+    }
+    when(reviewAggregateRepository.findByScopeAndDiningCommonsCode(
+            eq(ReviewAggregate.Scope.COMMONS_MEAL), any()))
+        .thenAnswer(
+            invocation ->
+                aggregates.stream()
+                    .filter(a -> a.getScope() == ReviewAggregate.Scope.COMMONS_MEAL)
+                    .filter(a -> a.getDiningCommonsCode().equals(invocation.getArgument(1)))
+                    .toList());
+    when(menuItemRepository.findAllById(any()))
+        .thenReturn(
+            reviews.stream().map(Review::getItem).filter(Objects::nonNull).distinct().toList());
+    when(reviewAggregateRepository.findItemStatisticsBetween(any(), any()))
+        .thenAnswer(
+            invocation ->
+                itemStatistics(reviews, invocation.getArgument(0), invocation.getArgument(1)));
+  }
+
   private MenuItem item(long id, String name, String commons, String meal, String station) {
     return MenuItem.builder()
         .id(id)
@@ -138,8 +258,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void best_items_returns_empty_list_when_no_reviews() throws Exception {
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.emptyList());
+    givenApprovedReviews(Collections.emptyList());
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -164,8 +283,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void best_items_accepts_zero_limit() throws Exception {
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.emptyList());
+    givenApprovedReviews(Collections.emptyList());
 
     mockMvc
         .perform(get("/api/statistics/items/best").param("limit", "0"))
@@ -191,7 +309,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
             review(pizza, 4L, t),
             review(pizza, 4L, t));
 
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED)).thenReturn(reviews);
+    givenApprovedReviews(reviews);
 
     MvcResult response =
         mockMvc
@@ -226,7 +344,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
       MenuItem mi = item(i, "Item" + i, "carrillo", "lunch", "Station");
       reviews.add(review(mi, 5L, t));
     }
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED)).thenReturn(reviews);
+    givenApprovedReviews(reviews);
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -244,8 +362,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   public void best_items_returns_all_when_below_limit() throws Exception {
     LocalDateTime t = LocalDateTime.of(2025, 4, 1, 12, 0);
     MenuItem mi = item(1L, "Item1", "carrillo", "lunch", "Station");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.singletonList(review(mi, 5L, t)));
+    givenApprovedReviews(Collections.singletonList(review(mi, 5L, t)));
 
     MvcResult response =
         mockMvc
@@ -270,7 +387,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
     List<Review> reviews =
         Arrays.asList(review(fresh, 5L, now.minusDays(1)), review(stale, 5L, now.minusDays(30)));
 
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED)).thenReturn(reviews);
+    givenApprovedReviews(reviews);
 
     MvcResult response =
         mockMvc
@@ -296,7 +413,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
     List<Review> reviews =
         Arrays.asList(review(fresh, 5L, now.minusDays(1)), review(stale, 5L, now.minusMonths(3)));
 
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED)).thenReturn(reviews);
+    givenApprovedReviews(reviews);
 
     MvcResult response =
         mockMvc
@@ -322,7 +439,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
     List<Review> reviews =
         Arrays.asList(review(fresh, 5L, now.minusMonths(1)), review(stale, 5L, now.minusYears(1)));
 
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED)).thenReturn(reviews);
+    givenApprovedReviews(reviews);
 
     MvcResult response =
         mockMvc
@@ -347,14 +464,13 @@ public class StatisticsControllerTests extends ControllerTestCase {
     MenuItem b = item(1L, "B", "carrillo", "lunch", "Station");
     MenuItem c = item(3L, "C", "carrillo", "lunch", "Station");
     // a has 1 review at 5*, b has 2 reviews at 5*, c has 2 reviews at 5*
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(a, 5L, t),
-                review(b, 5L, t),
-                review(b, 5L, t),
-                review(c, 5L, t),
-                review(c, 5L, t)));
+    givenApprovedReviews(
+        Arrays.asList(
+            review(a, 5L, t),
+            review(b, 5L, t),
+            review(b, 5L, t),
+            review(c, 5L, t),
+            review(c, 5L, t)));
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -384,8 +500,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(t)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Arrays.asList(good, nullItem));
+    givenApprovedReviews(Arrays.asList(good, nullItem));
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -412,8 +527,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(t)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Arrays.asList(withStars, withoutStars));
+    givenApprovedReviews(Arrays.asList(withStars, withoutStars));
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -440,8 +554,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(t)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.singletonList(noStars));
+    givenApprovedReviews(Collections.singletonList(noStars));
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -465,8 +578,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(null)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.singletonList(noDate));
+    givenApprovedReviews(Collections.singletonList(noDate));
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/best")).andExpect(status().isOk()).andReturn();
@@ -491,8 +603,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(null)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.singletonList(noDate));
+    givenApprovedReviews(Collections.singletonList(noDate));
 
     MvcResult response =
         mockMvc
@@ -513,8 +624,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void worst_items_returns_empty_when_no_reviews() throws Exception {
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.emptyList());
+    givenApprovedReviews(Collections.emptyList());
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/worst")).andExpect(status().isOk()).andReturn();
@@ -539,8 +649,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void worst_items_accepts_zero_limit() throws Exception {
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.emptyList());
+    givenApprovedReviews(Collections.emptyList());
 
     mockMvc
         .perform(get("/api/statistics/items/worst").param("limit", "0"))
@@ -561,7 +670,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
         Arrays.asList(
             review(waffle, 5L, t), review(soup, 1L, t), review(pizza, 4L, t), review(pizza, 4L, t));
 
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED)).thenReturn(reviews);
+    givenApprovedReviews(reviews);
 
     MvcResult response =
         mockMvc
@@ -586,8 +695,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   public void worst_items_returns_all_when_below_limit() throws Exception {
     LocalDateTime t = LocalDateTime.of(2025, 4, 1, 12, 0);
     MenuItem mi = item(1L, "Item1", "carrillo", "lunch", "Station");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.singletonList(review(mi, 1L, t)));
+    givenApprovedReviews(Collections.singletonList(review(mi, 1L, t)));
 
     MvcResult response =
         mockMvc
@@ -610,14 +718,13 @@ public class StatisticsControllerTests extends ControllerTestCase {
     MenuItem a = item(2L, "A", "carrillo", "lunch", "Station");
     MenuItem b = item(1L, "B", "carrillo", "lunch", "Station");
     MenuItem c = item(3L, "C", "carrillo", "lunch", "Station");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(a, 1L, t),
-                review(b, 1L, t),
-                review(b, 1L, t),
-                review(c, 1L, t),
-                review(c, 1L, t)));
+    givenApprovedReviews(
+        Arrays.asList(
+            review(a, 1L, t),
+            review(b, 1L, t),
+            review(b, 1L, t),
+            review(c, 1L, t),
+            review(c, 1L, t)));
 
     MvcResult response =
         mockMvc.perform(get("/api/statistics/items/worst")).andExpect(status().isOk()).andReturn();
@@ -639,10 +746,8 @@ public class StatisticsControllerTests extends ControllerTestCase {
     LocalDateTime now = LocalDateTime.now();
     MenuItem fresh = item(1L, "Fresh", "carrillo", "lunch", "Station");
     MenuItem stale = item(2L, "Stale", "carrillo", "lunch", "Station");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(fresh, 1L, now.minusDays(1)), review(stale, 1L, now.minusDays(60))));
+    givenApprovedReviews(
+        Arrays.asList(review(fresh, 1L, now.minusDays(1)), review(stale, 1L, now.minusDays(60))));
 
     MvcResult response =
         mockMvc
@@ -664,8 +769,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   @WithMockUser(roles = {"USER"})
   @Test
   public void commons_averages_returns_empty_when_no_reviews() throws Exception {
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.emptyList());
+    givenApprovedReviews(Collections.emptyList());
 
     MvcResult response =
         mockMvc
@@ -688,13 +792,12 @@ public class StatisticsControllerTests extends ControllerTestCase {
     MenuItem waffle = item(1L, "Waffle", "carrillo", "breakfast", "Bakery");
     MenuItem soup = item(2L, "Soup", "ortega", "lunch", "Stove");
     MenuItem pizza = item(3L, "Pizza", "ortega", "dinner", "Oven");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(waffle, 5L, t),
-                review(waffle, 3L, t),
-                review(soup, 2L, t),
-                review(pizza, 4L, t)));
+    givenApprovedReviews(
+        Arrays.asList(
+            review(waffle, 5L, t),
+            review(waffle, 3L, t),
+            review(soup, 2L, t),
+            review(pizza, 4L, t)));
 
     MvcResult response =
         mockMvc
@@ -723,10 +826,8 @@ public class StatisticsControllerTests extends ControllerTestCase {
     MenuItem portola = item(1L, "Portola item", "portola", "lunch", "Station");
     MenuItem deLaGuerra = item(2L, "DLG item", "de-la-guerra", "lunch", "Station");
     MenuItem carrillo = item(3L, "Carrillo item", "carrillo", "lunch", "Station");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(portola, 1L, t), review(deLaGuerra, 2L, t), review(carrillo, 3L, t)));
+    givenApprovedReviews(
+        Arrays.asList(review(portola, 1L, t), review(deLaGuerra, 2L, t), review(carrillo, 3L, t)));
 
     MvcResult response =
         mockMvc
@@ -765,10 +866,8 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(t)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(good, 5L, t), review(noCommons, 5L, t), withNullItem, withNullStars));
+    givenApprovedReviews(
+        Arrays.asList(review(good, 5L, t), review(noCommons, 5L, t), withNullItem, withNullStars));
 
     MvcResult response =
         mockMvc
@@ -794,13 +893,12 @@ public class StatisticsControllerTests extends ControllerTestCase {
   public void commons_averages_over_time_groups_by_month_and_sorts() throws Exception {
     MenuItem waffle = item(1L, "Waffle", "carrillo", "breakfast", "Bakery");
     MenuItem soup = item(2L, "Soup", "ortega", "lunch", "Stove");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(waffle, 5L, LocalDateTime.of(2025, 3, 5, 12, 0)),
-                review(waffle, 3L, LocalDateTime.of(2025, 3, 20, 12, 0)),
-                review(waffle, 1L, LocalDateTime.of(2025, 4, 1, 12, 0)),
-                review(soup, 2L, LocalDateTime.of(2025, 3, 15, 12, 0))));
+    givenApprovedReviews(
+        Arrays.asList(
+            review(waffle, 5L, LocalDateTime.of(2025, 3, 5, 12, 0)),
+            review(waffle, 3L, LocalDateTime.of(2025, 3, 20, 12, 0)),
+            review(waffle, 1L, LocalDateTime.of(2025, 4, 1, 12, 0)),
+            review(soup, 2L, LocalDateTime.of(2025, 3, 15, 12, 0))));
 
     MvcResult response =
         mockMvc
@@ -854,14 +952,13 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(null)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(good, 5L, LocalDateTime.of(2025, 4, 1, 12, 0)),
-                review(noCommons, 5L, LocalDateTime.of(2025, 4, 1, 12, 0)),
-                withNullItem,
-                withNullStars,
-                withNullDate));
+    givenApprovedReviews(
+        Arrays.asList(
+            review(good, 5L, LocalDateTime.of(2025, 4, 1, 12, 0)),
+            review(noCommons, 5L, LocalDateTime.of(2025, 4, 1, 12, 0)),
+            withNullItem,
+            withNullStars,
+            withNullDate));
 
     MvcResult response =
         mockMvc
@@ -893,13 +990,12 @@ public class StatisticsControllerTests extends ControllerTestCase {
     MenuItem lunchB = item(3L, "Soup", "carrillo", "lunch", "Station");
     MenuItem otherCommons = item(4L, "Pizza", "portola", "dinner", "Oven");
 
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(
-                review(waffle, 5L, t),
-                review(lunchA, 3L, t),
-                review(lunchB, 5L, t),
-                review(otherCommons, 1L, t)));
+    givenApprovedReviews(
+        Arrays.asList(
+            review(waffle, 5L, t),
+            review(lunchA, 3L, t),
+            review(lunchB, 5L, t),
+            review(otherCommons, 1L, t)));
 
     MvcResult response =
         mockMvc
@@ -927,8 +1023,7 @@ public class StatisticsControllerTests extends ControllerTestCase {
   public void commons_meal_averages_returns_empty_for_unknown_commons() throws Exception {
     LocalDateTime t = LocalDateTime.of(2025, 4, 1, 12, 0);
     MenuItem waffle = item(1L, "Waffle", "carrillo", "breakfast", "Bakery");
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(Collections.singletonList(review(waffle, 5L, t)));
+    givenApprovedReviews(Collections.singletonList(review(waffle, 5L, t)));
 
     MvcResult response =
         mockMvc
@@ -963,9 +1058,8 @@ public class StatisticsControllerTests extends ControllerTestCase {
             .dateItemServed(t)
             .status(ModerationStatus.APPROVED)
             .build();
-    when(reviewRepository.findByStatus(ModerationStatus.APPROVED))
-        .thenReturn(
-            Arrays.asList(review(good, 5L, t), review(noMeal, 5L, t), withNullItem, withNullStars));
+    givenApprovedReviews(
+        Arrays.asList(review(good, 5L, t), review(noMeal, 5L, t), withNullItem, withNullStars));
 
     MvcResult response =
         mockMvc
@@ -983,6 +1077,311 @@ public class StatisticsControllerTests extends ControllerTestCase {
     assertEquals(Long.valueOf(1L), result.get(0).getReviewCount());
   }
 
+  // ---------- aggregates ----------
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void best_items_skips_aggregates_whose_item_no_longer_exists() throws Exception {
+    ReviewAggregate orphan =
+        ReviewAggregate.builder()
+            .groupKey("ITEM|7")
+            .scope(ReviewAggregate.Scope.ITEM)
+            .itemId(7L)
+            .starsSum(5L)
+            .reviewCount(1L)
+            .build();
+    when(reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM))
+        .thenReturn(List.of(orphan));
+    when(menuItemRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+    mockMvc
+        .perform(get("/api/statistics/items/best"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void all_time_best_items_do_not_scan_the_reviews() throws Exception {
+    LocalDateTime t = LocalDateTime.of(2025, 4, 1, 12, 0);
+    MenuItem mi = item(1L, "Item", "carrillo", "lunch", "Station");
+    givenApprovedReviews(Arrays.asList(review(mi, 4L, t), review(mi, 2L, t)));
+
+    mockMvc
+        .perform(get("/api/statistics/items/best"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].averageStars").value(3.0))
+        .andExpect(jsonPath("$[0].reviewCount").value(2));
+
+    verify(reviewAggregateRepository, times(0)).findItemStatisticsBetween(any(), any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void period_best_items_are_summed_from_the_daily_aggregates() throws Exception {
+    LocalDate before = LocalDate.now().minusWeeks(1);
+    ItemStatistic stat = new ItemStatistic(1L, "Item", "carrillo", "lunch", "Station", 4.5, 2L);
+    when(reviewAggregateRepository.findItemStatisticsBetween(any(), any()))
+        .thenReturn(List.of(stat));
+
+    mockMvc
+        .perform(get("/api/statistics/items/best").param("period", "1W"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].itemId").value(1))
+        .andExpect(jsonPath("$[0].averageStars").value(4.5));
+
+    ArgumentCaptor<LocalDate> from = ArgumentCaptor.forClass(LocalDate.class);
+    verify(reviewAggregateRepository).findItemStatisticsBetween(from.capture(), isNull());
+    assertFalse(from.getValue().isBefore(before));
+    assertFalse(from.getValue().isAfter(LocalDate.now().minusWeeks(1)));
+    verify(reviewAggregateRepository, times(0)).findByScope(any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void best_items_counts_an_explicit_range_of_days() throws Exception {
+    MenuItem early = item(1L, "Early", "carrillo", "lunch", "Station");
+    MenuItem inRange = item(2L, "InRange", "carrillo", "lunch", "Station");
+    MenuItem late = item(3L, "Late", "carrillo", "lunch", "Station");
+    givenApprovedReviews(
+        Arrays.asList(
+            review(early, 5L, LocalDateTime.of(2025, 3, 31, 23, 59)),
+            review(inRange, 4L, LocalDateTime.of(2025, 4, 1, 0, 0)),
+            review(inRange, 2L, LocalDateTime.of(2025, 4, 30, 23, 59)),
+            review(late, 5L, LocalDateTime.of(2025, 5, 1, 0, 0))));
+
+    mockMvc
+        .perform(
+            get("/api/statistics/items/best")
+                .param("period", "1W")
+                .param("from", "2025-04-01")
+                .param("to", "2025-04-30"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].itemId").value(2))
+        .andExpect(jsonPath("$[0].averageStars").value(3.0))
+        .andExpect(jsonPath("$[0].reviewCount").value(2));
+
+    verify(reviewAggregateRepository)
+        .findItemStatisticsBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void worst_items_accepts_an_open_ended_range() throws Exception {
+    MenuItem early = item(1L, "Early", "carrillo", "lunch", "Station");
+    MenuItem late = item(2L, "Late", "carrillo", "lunch", "Station");
+    givenApprovedReviews(
+        Arrays.asList(
+            review(early, 1L, LocalDateTime.of(2025, 3, 31, 12, 0)),
+            review(late, 2L, LocalDateTime.of(2025, 4, 2, 12, 0))));
+
+    mockMvc
+        .perform(get("/api/statistics/items/worst").param("to", "2025-04-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].itemId").value(1));
+
+    verify(reviewAggregateRepository).findItemStatisticsBetween(null, LocalDate.of(2025, 4, 1));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void best_items_accepts_a_range_without_an_end() throws Exception {
+    MenuItem early = item(1L, "Early", "carrillo", "lunch", "Station");
+    MenuItem late = item(2L, "Late", "carrillo", "lunch", "Station");
+    givenApprovedReviews(
+        Arrays.asList(
+            review(early, 5L, LocalDateTime.of(2025, 3, 31, 12, 0)),
+            review(late, 4L, LocalDateTime.of(2025, 4, 2, 12, 0))));
+
+    mockMvc
+        .perform(get("/api/statistics/items/best").param("from", "2025-04-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].itemId").value(2));
+
+    verify(reviewAggregateRepository).findItemStatisticsBetween(LocalDate.of(2025, 4, 1), null);
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void best_items_rejects_a_range_that_ends_before_it_starts() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/statistics/items/best").param("from", "2025-04-30").param("to", "2025-04-01"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("from must not be after to"));
+    verify(reviewAggregateRepository, times(0)).findItemStatisticsBetween(any(), any());
+  }
+
+  @Test
+  public void logged_out_users_cannot_rebuild_aggregates() throws Exception {
+    mockMvc
+        .perform(post("/api/statistics/aggregates/rebuild").with(csrf()))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void regular_users_cannot_rebuild_aggregates() throws Exception {
+    mockMvc
+        .perform(post("/api/statistics/aggregates/rebuild").with(csrf()))
+        .andExpect(status().is(403));
+    verify(reviewAggregateService, times(0)).rebuild();
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void admin_can_rebuild_aggregates() throws Exception {
+    when(reviewAggregateService.rebuild()).thenReturn(12);
+
+    mockMvc
+        .perform(post("/api/statistics/aggregates/rebuild").with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("Rebuilt 12 rating aggregates"));
+    verify(reviewAggregateService, times(1)).rebuild();
+  }
+
+  // ---------- caching ----------
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void responses_carry_the_cache_version_as_etag() throws Exception {
+    givenApprovedReviews(Collections.emptyList());
+
+    mockMvc
+        .perform(get("/api/statistics/commons/averages"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", statisticsCache.etag()));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void repeated_requests_are_answered_from_the_cache() throws Exception {
+    LocalDateTime t = LocalDateTime.of(2025, 4, 1, 12, 0);
+    givenApprovedReviews(Arrays.asList(review(item(1L, "A", "carrillo", "lunch", "S"), 4L, t)));
+
+    for (int i = 0; i < 3; i++) {
+      mockMvc
+          .perform(get("/api/statistics/commons/averages"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$[0].reviewCount").value(1));
+      mockMvc
+          .perform(get("/api/statistics/commons/carrillo/meals/averages"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$[0].mealCode").value("lunch"));
+      mockMvc
+          .perform(get("/api/statistics/items/worst").param("period", "1M"))
+          .andExpect(status().isOk());
+    }
+
+    verify(reviewAggregateRepository, times(1)).findByScope(ReviewAggregate.Scope.COMMONS);
+    verify(reviewAggregateRepository, times(1))
+        .findByScopeAndDiningCommonsCode(ReviewAggregate.Scope.COMMONS_MEAL, "carrillo");
+    verify(reviewAggregateRepository, times(1)).findItemStatisticsBetween(any(), any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void cache_keys_include_the_parameters() throws Exception {
+    givenApprovedReviews(Collections.emptyList());
+
+    mockMvc.perform(get("/api/statistics/items/best").param("limit", "1"));
+    mockMvc.perform(get("/api/statistics/items/best").param("limit", "2"));
+    mockMvc.perform(get("/api/statistics/items/worst").param("limit", "2"));
+    mockMvc.perform(get("/api/statistics/commons/ortega/meals/averages"));
+    mockMvc.perform(get("/api/statistics/commons/carrillo/meals/averages"));
+
+    verify(reviewAggregateRepository, times(3)).findByScope(ReviewAggregate.Scope.ITEM);
+    verify(reviewAggregateRepository, times(2))
+        .findByScopeAndDiningCommonsCode(eq(ReviewAggregate.Scope.COMMONS_MEAL), any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void matching_if_none_match_gets_304_without_recomputing() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/statistics/commons/averages/overtime")
+                .header("If-None-Match", statisticsCache.etag()))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    verify(reviewAggregateRepository, times(0)).findByScope(any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void stale_if_none_match_gets_the_new_statistics() throws Exception {
+    givenApprovedReviews(Collections.emptyList());
+    String oldEtag = statisticsCache.etag();
+    statisticsCache.invalidate();
+
+    mockMvc
+        .perform(get("/api/statistics/items/best").header("If-None-Match", oldEtag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", statisticsCache.etag()));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void invalid_limit_is_rejected_even_when_not_modified() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/statistics/items/worst")
+                .param("limit", "-1")
+                .header("If-None-Match", statisticsCache.etag()))
+        .andExpect(status().isBadRequest());
+  }
+
+  // ---------- top-K ordering ----------
+
+  /** Random statistics with few distinct values, so that every tie-break gets exercised. */
+  private List<ItemStatistic> randomStatistics(Random random) {
+    List<ItemStatistic> stats = new ArrayList<>();
+    int n = random.nextInt(40);
+    for (int i = 0; i < n; i++) {
+      stats.add(
+          ItemStatistic.builder()
+              .itemId((long) i * 7 % 41)
+              .averageStars(1.0 + random.nextInt(9) * 0.5)
+              .reviewCount((long) 1 + random.nextInt(3))
+              .build());
+    }
+    return stats;
+  }
+
+  @Test
+  public void top_k_matches_the_full_sort_on_random_data() {
+    Comparator<ItemStatistic> fullSortBest =
+        Comparator.comparingDouble(ItemStatistic::getAverageStars)
+            .reversed()
+            .thenComparing(Comparator.comparingLong(ItemStatistic::getReviewCount).reversed())
+            .thenComparing(Comparator.comparing(ItemStatistic::getItemId));
+    Comparator<ItemStatistic> fullSortWorst =
+        Comparator.comparingDouble(ItemStatistic::getAverageStars)
+            .thenComparing(Comparator.comparingLong(ItemStatistic::getReviewCount).reversed())
+            .thenComparing(Comparator.comparing(ItemStatistic::getItemId));
+    Random random = new Random(18);
+    for (int trial = 0; trial < 500; trial++) {
+      List<ItemStatistic> stats = randomStatistics(random);
+      int limit = random.nextInt(10);
+
+      List<ItemStatistic> best = new ArrayList<>(stats);
+      best.sort(fullSortBest);
+      assertEquals(
+          best.stream().limit(limit).toList(),
+          TopK.first(stats, limit, StatisticsController.BEST_FIRST));
+
+      List<ItemStatistic> worst = new ArrayList<>(stats);
+      worst.sort(fullSortWorst);
+      assertEquals(
+          worst.stream().limit(limit).toList(),
+          TopK.first(stats, limit, StatisticsController.WORST_FIRST));
+    }
+  }
+
   // ---------- DTO sanity (covers Lombok no-args + setters) ----------
 
   @Test
@@ -3,7 +3,10 @@ package edu.ucsb.cs156.dining.controllers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -14,10 +17,14 @@ import edu.ucsb.cs156.dining.ControllerTestCase;
 import edu.ucsb.cs156.dining.config.SecurityConfig;
 import edu.ucsb.cs156.dining.entities.MenuItem;
 import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
 import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.ReviewView;
 import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
 import edu.ucsb.cs156.dining.repositories.ReviewRepository;
-import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsService;
+import edu.ucsb.cs156.dining.services.MenuItemService;
+import edu.ucsb.cs156.dining.services.UCSBDiningMenuItemsCache;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,13 +41,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(value = UCSBDiningMenuItemsController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, MenuItemService.class})
 @AutoConfigureDataJpa
 public class UCSBDiningMenuItemsControllerTests extends ControllerTestCase {
 
   @Autowired private MockMvc mockMvc;
 
-  @MockBean private UCSBDiningMenuItemsService ucsbDiningMenuItemsService;
+  @MockBean private UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache;
 
   @Autowired private ObjectMapper objectMapper;
 
@@ -48,6 +55,8 @@ public class UCSBDiningMenuItemsControllerTests extends ControllerTestCase {
 
   @MockBean ReviewRepository reviewRepository;
 
+  @MockBean ReviewAggregateRepository reviewAggregateRepository;
+
   private static final String NAME = "NAME";
   private static final String STATION = "STATION";
 
@@ -64,21 +73,20 @@ public class UCSBDiningMenuItemsControllerTests extends ControllerTestCase {
     List<Entree> entrees = new ArrayList<>();
     entrees.add(entree);
 
-    when(ucsbDiningMenuItemsService.get(dateTime, diningCommonCode, mealCode)).thenReturn(entrees);
+    when(ucsbDiningMenuItemsCache.get(dateTime, diningCommonCode, mealCode)).thenReturn(entrees);
 
-    when(menuItemRepository.findByDiningCommonsCodeAndMealCodeAndNameAndStation(
-            diningCommonCode, mealCode, name, station))
-        .thenReturn(Optional.empty());
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode(diningCommonCode, mealCode))
+        .thenReturn(List.of());
 
-    when(menuItemRepository.save(any(MenuItem.class)))
+    when(menuItemRepository.saveAll(anyList()))
         .thenAnswer(
             invocation -> {
-              MenuItem menuItem = invocation.getArgument(0);
-              menuItem.setId(1L);
-              return menuItem;
+              List<MenuItem> menuItems = invocation.getArgument(0);
+              menuItems.forEach(menuItem -> menuItem.setId(1L));
+              return menuItems;
             });
 
-    when(reviewRepository.findByItemAndStatus(any(MenuItem.class), eq(ModerationStatus.APPROVED)))
+    when(reviewRepository.findViewsByItemIdInAndStatus(anyList(), eq(ModerationStatus.APPROVED)))
         .thenReturn(new ArrayList<>());
 
     MvcResult result =
@@ -127,30 +135,30 @@ public class UCSBDiningMenuItemsControllerTests extends ControllerTestCase {
     List<Entree> entrees = new ArrayList<>();
     entrees.add(entree);
 
-    when(ucsbDiningMenuItemsService.get(dateTime, diningCommonCode, mealCode)).thenReturn(entrees);
+    when(ucsbDiningMenuItemsCache.get(dateTime, diningCommonCode, mealCode)).thenReturn(entrees);
 
-    when(menuItemRepository.findByDiningCommonsCodeAndMealCodeAndNameAndStation(
-            diningCommonCode, mealCode, name, station))
-        .thenReturn(Optional.empty());
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode(diningCommonCode, mealCode))
+        .thenReturn(List.of());
 
-    when(menuItemRepository.save(any(MenuItem.class)))
+    when(menuItemRepository.saveAll(anyList()))
         .thenAnswer(
             invocation -> {
-              MenuItem menuItem = invocation.getArgument(0);
-              menuItem.setId(1L);
-              return menuItem;
+              List<MenuItem> menuItems = invocation.getArgument(0);
+              menuItems.forEach(menuItem -> menuItem.setId(1L));
+              return menuItems;
             });
 
     Review approvedReview =
         Review.builder()
             .id(10L)
+            .item(MenuItem.builder().id(1L).build())
             .itemsStars(4L)
             .reviewerComments("Great!")
             .status(ModerationStatus.APPROVED)
             .build();
 
-    when(reviewRepository.findByItemAndStatus(any(MenuItem.class), eq(ModerationStatus.APPROVED)))
-        .thenReturn(List.of(approvedReview));
+    when(reviewRepository.findViewsByItemIdInAndStatus(anyList(), eq(ModerationStatus.APPROVED)))
+        .thenReturn(List.of(ReviewView.of(approvedReview)));
 
     mockMvc
         .perform(
@@ -161,7 +169,110 @@ public class UCSBDiningMenuItemsControllerTests extends ControllerTestCase {
         .andExpect(jsonPath("$[0].reviews").isArray())
         .andExpect(jsonPath("$[0].reviews.length()").value(1))
         .andExpect(jsonPath("$[0].reviews[0].itemsStars").value(4))
-        .andExpect(jsonPath("$[0].reviews[0].reviewerComments").value("Great!"));
+        .andExpect(jsonPath("$[0].reviews[0].reviewerComments").value("Great!"))
+        .andExpect(jsonPath("$[0].reviews[0].reviewer").doesNotExist());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void existing_menu_items_are_not_written_again() throws Exception {
+    MenuItem existing = new MenuItem(5L, "portola", "dinner", NAME, STATION, null);
+    when(ucsbDiningMenuItemsCache.get("2023-10-11", "portola", "dinner"))
+        .thenReturn(List.of(new Entree(NAME, STATION), new Entree("Soup", "Stove")));
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of(existing));
+    when(reviewRepository.findViewsByItemIdInAndStatus(anyList(), eq(ModerationStatus.APPROVED)))
+        .thenReturn(new ArrayList<>());
+
+    mockMvc
+        .perform(
+            get("/api/diningcommons/2023-10-11/portola/dinner")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(5))
+        .andExpect(jsonPath("$[1].name").value("Soup"));
+
+    verify(menuItemRepository, times(0)).save(any(MenuItem.class));
+    verify(menuItemRepository, times(1))
+        .saveAll(List.of(new MenuItem(0L, "portola", "dinner", "Soup", "Stove", List.of())));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void reviews_of_the_whole_menu_are_loaded_with_one_query() throws Exception {
+    MenuItem tunaRoll = new MenuItem(5L, "portola", "dinner", NAME, STATION, null);
+    MenuItem soup = new MenuItem(6L, "portola", "dinner", "Soup", "Stove", null);
+    when(ucsbDiningMenuItemsCache.get("2023-10-11", "portola", "dinner"))
+        .thenReturn(List.of(new Entree(NAME, STATION), new Entree("Soup", "Stove")));
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of(tunaRoll, soup));
+    when(reviewRepository.findViewsByItemIdInAndStatus(List.of(5L, 6L), ModerationStatus.APPROVED))
+        .thenReturn(
+            List.of(
+                ReviewView.of(Review.builder().id(1L).item(soup).itemsStars(2L).build()),
+                ReviewView.of(Review.builder().id(2L).item(soup).itemsStars(3L).build())));
+
+    mockMvc
+        .perform(get("/api/diningcommons/2023-10-11/portola/dinner"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].reviews.length()").value(0))
+        .andExpect(jsonPath("$[1].reviews.length()").value(2))
+        .andExpect(jsonPath("$[1].reviews[1].itemsStars").value(3));
+
+    verify(reviewRepository, times(1)).findViewsByItemIdInAndStatus(anyList(), any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void summaries_have_the_average_and_count_instead_of_reviews() throws Exception {
+    MenuItem tunaRoll = new MenuItem(5L, "portola", "dinner", NAME, STATION, null);
+    MenuItem soup = new MenuItem(6L, "portola", "dinner", "Soup", "Stove", null);
+    when(ucsbDiningMenuItemsCache.get("2023-10-11", "portola", "dinner"))
+        .thenReturn(List.of(new Entree(NAME, STATION), new Entree("Soup", "Stove")));
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of(tunaRoll, soup));
+    when(reviewAggregateRepository.findByScopeAndItemIdIn(
+            ReviewAggregate.Scope.ITEM, List.of(5L, 6L)))
+        .thenReturn(
+            List.of(
+                ReviewAggregate.builder()
+                    .scope(ReviewAggregate.Scope.ITEM)
+                    .itemId(6L)
+                    .starsSum(5L)
+                    .reviewCount(2L)
+                    .build()));
+
+    mockMvc
+        .perform(get("/api/diningcommons/2023-10-11/portola/dinner/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(5))
+        .andExpect(jsonPath("$[0].name").value(NAME))
+        .andExpect(jsonPath("$[0].averageStars").isEmpty())
+        .andExpect(jsonPath("$[0].reviewCount").value(0))
+        .andExpect(jsonPath("$[1].station").value("Stove"))
+        .andExpect(jsonPath("$[1].averageStars").value(2.5))
+        .andExpect(jsonPath("$[1].reviewCount").value(2))
+        .andExpect(jsonPath("$[1].reviews").doesNotExist());
+
+    verify(reviewRepository, times(0)).findViewsByItemIdInAndStatus(anyList(), any());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void empty_menus_do_not_query_reviews() throws Exception {
+    when(ucsbDiningMenuItemsCache.get("2023-10-11", "portola", "dinner")).thenReturn(List.of());
+
+    mockMvc
+        .perform(get("/api/diningcommons/2023-10-11/portola/dinner"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+    mockMvc
+        .perform(get("/api/diningcommons/2023-10-11/portola/dinner/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+
+    verify(reviewRepository, times(0)).findViewsByItemIdInAndStatus(anyList(), any());
+    verify(reviewAggregateRepository, times(0)).findByScopeAndItemIdIn(any(), any());
   }
 
   @Test
@@ -179,7 +290,11 @@ public class UCSBDiningMenuItemsControllerTests extends ControllerTestCase {
         .andExpect(jsonPath("$.name").value("Spicy Tuna Roll"))
         .andExpect(jsonPath("$.station").value("International"))
         .andExpect(jsonPath("$.diningCommonsCode").value("portola"))
-        .andExpect(jsonPath("$.mealCode").value("dinner"));
+        .andExpect(jsonPath("$.mealCode").value("dinner"))
+        .andExpect(jsonPath("$.reviews.length()").value(0));
+
+    verify(reviewRepository, times(1))
+        .findViewsByItemIdInAndStatus(List.of(1L), ModerationStatus.APPROVED);
   }
 
   @Test
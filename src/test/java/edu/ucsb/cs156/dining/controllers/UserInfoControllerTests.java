@@ -14,8 +14,12 @@ import edu.ucsb.cs156.dining.models.UserDTO;
 import edu.ucsb.cs156.dining.repositories.AdminRepository;
 import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
 import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import edu.ucsb.cs156.dining.testconfig.TestConfig;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -32,6 +36,14 @@ public class UserInfoControllerTests extends ControllerTestCase {
   @MockBean AdminRepository adminRepository;
   @MockBean ModeratorRepository moderatorRepository;
 
+  @Autowired RoleRegistry roleRegistry;
+
+  @BeforeEach
+  public void resetRoleRegistry() {
+    // the repository mocks are reset after each test, so this empties the registry
+    roleRegistry.reload();
+  }
+
   @Test
   public void currentUser__logged_out() throws Exception {
     mockMvc.perform(get("/api/currentUser")).andExpect(status().is(403));
@@ -44,8 +56,8 @@ public class UserInfoControllerTests extends ControllerTestCase {
     // arrange
 
     CurrentUser currentUser = currentUserService.getCurrentUser();
-    when(adminRepository.existsByEmail("user@example.org")).thenReturn(false);
-    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(true);
+    when(moderatorRepository.findAllEmails()).thenReturn(List.of("user@example.org"));
+    roleRegistry.reload();
     CurrentUserDTO currentUserDTO =
         new CurrentUserDTO(new UserDTO(currentUser.getUser(), false, true), currentUser.getRoles());
     String expectedJson = mapper.writeValueAsString(currentUserDTO);
@@ -69,7 +81,6 @@ public class UserInfoControllerTests extends ControllerTestCase {
     // arrange
 
     CurrentUser currentUser = currentUserService.getCurrentUser();
-    when(moderatorRepository.existsByEmail("admin@example.org")).thenReturn(false);
     CurrentUserDTO currentUserDTO =
         new CurrentUserDTO(new UserDTO(currentUser.getUser(), true, false), currentUser.getRoles());
     String expectedJson = mapper.writeValueAsString(currentUserDTO);
@@ -94,8 +105,8 @@ public class UserInfoControllerTests extends ControllerTestCase {
     // arrange
 
     CurrentUser currentUser = currentUserService.getCurrentUser();
-    when(adminRepository.existsByEmail("repositoryadmin@example.org")).thenReturn(true);
-    when(moderatorRepository.existsByEmail("repositoryadmin@example.org")).thenReturn(false);
+    when(adminRepository.findAllEmails()).thenReturn(List.of("repositoryadmin@example.org"));
+    roleRegistry.reload();
     CurrentUserDTO currentUserDTO =
         new CurrentUserDTO(new UserDTO(currentUser.getUser(), true, false), currentUser.getRoles());
     String expectedJson = mapper.writeValueAsString(currentUserDTO);
@@ -1,7 +1,12 @@
 package edu.ucsb.cs156.dining.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -14,22 +19,35 @@ import edu.ucsb.cs156.dining.ControllerTestCase;
 import edu.ucsb.cs156.dining.entities.Admin;
 import edu.ucsb.cs156.dining.entities.Moderator;
 import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.AliasModeration;
+import edu.ucsb.cs156.dining.models.ModerationOutcome;
 import edu.ucsb.cs156.dining.models.UserDTO;
 import edu.ucsb.cs156.dining.repositories.AdminRepository;
 import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
 import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.ModerationService;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
+import edu.ucsb.cs156.dining.services.UserCache;
 import edu.ucsb.cs156.dining.statuses.ModerationStatus;
 import edu.ucsb.cs156.dining.testconfig.TestConfig;
+import jakarta.servlet.ServletException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MvcResult;
@@ -43,6 +61,15 @@ public class UsersControllerTests extends ControllerTestCase {
   @MockBean UserRepository userRepository;
   @MockBean AdminRepository adminRepository;
   @MockBean ModeratorRepository moderatorRepository;
+  @SpyBean RoleRegistry roleRegistry;
+  @SpyBean UserCache userCache;
+  @MockBean ModerationService moderationService;
+
+  @BeforeEach
+  public void resetRoleRegistry() {
+    // the repository mocks are reset after each test, so this empties the registry
+    roleRegistry.reload();
+  }
 
   @Test
   public void users__logged_out() throws Exception {
@@ -66,13 +93,10 @@ public class UsersControllerTests extends ControllerTestCase {
     ArrayList<User> expectedUsers = new ArrayList<>();
     expectedUsers.addAll(Arrays.asList(u1, u2, u));
 
-    when(userRepository.findAll()).thenReturn(expectedUsers);
-    when(adminRepository.existsByEmail(u1.getEmail())).thenReturn(false);
-    when(moderatorRepository.existsByEmail(u1.getEmail())).thenReturn(false);
-    when(adminRepository.existsByEmail(u2.getEmail())).thenReturn(true);
-    when(moderatorRepository.existsByEmail(u2.getEmail())).thenReturn(false);
-    when(adminRepository.existsByEmail(u.getEmail())).thenReturn(false);
-    when(moderatorRepository.existsByEmail(u.getEmail())).thenReturn(true);
+    when(userRepository.findAll(Sort.by("id"))).thenReturn(expectedUsers);
+    when(adminRepository.findAllEmails()).thenReturn(List.of(u2.getEmail()));
+    when(moderatorRepository.findAllEmails()).thenReturn(List.of(u.getEmail()));
+    roleRegistry.reload();
     List<UserDTO> expectedUserDTOs =
         Arrays.asList(
             new UserDTO(u1, false, false),
@@ -85,15 +109,101 @@ public class UsersControllerTests extends ControllerTestCase {
         mockMvc.perform(get("/api/admin/users")).andExpect(status().isOk()).andReturn();
 
     // assert
-    verify(userRepository, times(1)).findAll();
-    verify(adminRepository, times(1)).existsByEmail(u1.getEmail());
-    verify(moderatorRepository, times(1)).existsByEmail(u1.getEmail());
-    verify(adminRepository, times(1)).existsByEmail(u2.getEmail());
-    verify(moderatorRepository, times(1)).existsByEmail(u2.getEmail());
-    verify(adminRepository, times(1)).existsByEmail(u.getEmail());
-    verify(moderatorRepository, times(1)).existsByEmail(u.getEmail());
+    verify(userRepository, times(1)).findAll(Sort.by("id"));
+    verify(adminRepository, times(0)).existsByEmail(any());
+    verify(moderatorRepository, times(0)).existsByEmail(any());
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
+    assertNull(response.getResponse().getHeader("X-Total-Count"));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void users__one_page() throws Exception {
+    // arrange
+    User u1 = User.builder().id(1L).email("zed@example.org").build();
+    User u2 = User.builder().id(2L).email("yan@example.org").build();
+    PageRequest pageRequest =
+        PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "email").and(Sort.by("id")));
+
+    when(userRepository.findAll(pageRequest))
+        .thenReturn(new PageImpl<>(List.of(u1, u2), pageRequest, 5));
+    when(moderatorRepository.findAllEmails()).thenReturn(List.of(u2.getEmail()));
+    roleRegistry.reload();
+    String expectedJson =
+        mapper.writeValueAsString(
+            List.of(new UserDTO(u1, false, false), new UserDTO(u2, false, true)));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/admin/users?page=1&size=2&sort=email,desc"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(userRepository, times(1)).findAll(pageRequest);
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+    assertEquals("5", response.getResponse().getHeader("X-Total-Count"));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void users__sort_by_id_is_not_doubled() throws Exception {
+    PageRequest pageRequest = PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "id"));
+    when(userRepository.findAll(pageRequest)).thenReturn(new PageImpl<>(List.of(), pageRequest, 0));
+
+    mockMvc.perform(get("/api/admin/users?page=0&sort=id,desc")).andExpect(status().isOk());
+
+    verify(userRepository, times(1)).findAll(pageRequest);
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void users__rejects_unknown_sort_property() throws Exception {
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/admin/users?sort=googleSub"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        "sort must be one of [alias, email, familyName, fullName, givenName, id],"
+            + " optionally followed by ,asc or ,desc",
+        json.get("error"));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void users__rejects_unknown_sort_direction() throws Exception {
+    mockMvc.perform(get("/api/admin/users?sort=email,up")).andExpect(status().isBadRequest());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void users__rejects_sort_with_more_than_a_direction() throws Exception {
+    mockMvc.perform(get("/api/admin/users?sort=email,desc,id")).andExpect(status().isBadRequest());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void users__rejects_bad_page_and_size() throws Exception {
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/admin/users?page=-1"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+    assertEquals("page must be non-negative", responseToJson(response).get("error"));
+
+    response =
+        mockMvc
+            .perform(get("/api/admin/users?page=0&size=0"))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+    assertEquals("size must be between 1 and 1000", responseToJson(response).get("error"));
+
+    mockMvc.perform(get("/api/admin/users?page=0&size=1001")).andExpect(status().isBadRequest());
   }
 
   @WithMockUser(roles = {"ADMIN", "USER"})
@@ -116,7 +226,23 @@ public class UsersControllerTests extends ControllerTestCase {
             .proposedAlias("Chipotle")
             .status(ModerationStatus.AWAITING_REVIEW)
             .build();
+    User storedUser =
+        User.builder()
+            .id(1L)
+            .email("user@example.org")
+            .googleSub("fake_user")
+            .pictureUrl("https://example.org/user.jpg")
+            .fullName("Fake user")
+            .givenName("Fake")
+            .familyName("user")
+            .emailVerified(true)
+            .locale("")
+            .hostedDomain("example.org")
+            .alias("Anonymous User")
+            .status(ModerationStatus.APPROVED)
+            .build();
 
+    when(userRepository.findById(1L)).thenReturn(Optional.of(storedUser));
     when(userRepository.save(eq(currentUser1))).thenReturn(currentUser1);
 
     // act
@@ -127,12 +253,66 @@ public class UsersControllerTests extends ControllerTestCase {
             .andReturn();
 
     // assert
+    verify(userRepository, times(1)).findById(1L);
     verify(userRepository, times(1)).save(currentUser1);
+    verify(userCache, times(1)).invalidate("user@example.org");
     String expectedJson = mapper.writeValueAsString(currentUser1);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
   }
 
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void a_new_alias_is_proposed_on_the_user_read_from_the_database() throws Exception {
+    User storedUser =
+        User.builder().id(1L).email("user@example.org").fullName("Name in the database").build();
+    when(userRepository.findById(1L)).thenReturn(Optional.of(storedUser));
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    mockMvc
+        .perform(post("/api/currentUser/updateAlias?proposedAlias=Chipotle").with(csrf()))
+        .andExpect(status().isOk());
+
+    assertSame(storedUser, savedUser());
+    assertEquals("Name in the database", storedUser.getFullName());
+    assertEquals("Chipotle", storedUser.getProposedAlias());
+    assertEquals(ModerationStatus.AWAITING_REVIEW, storedUser.getStatus());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void the_cached_user_is_forgotten_even_if_saving_the_alias_fails() throws Exception {
+    User storedUser = User.builder().id(1L).email("user@example.org").build();
+    when(userRepository.findById(1L)).thenReturn(Optional.of(storedUser));
+    when(userRepository.save(any(User.class))).thenThrow(new IllegalStateException("database"));
+
+    assertThrows(
+        ServletException.class,
+        () ->
+            mockMvc.perform(
+                post("/api/currentUser/updateAlias?proposedAlias=Chipotle").with(csrf())));
+
+    verify(userCache, times(1)).invalidate("user@example.org");
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void a_user_that_no_longer_exists_cannot_propose_an_alias() throws Exception {
+    when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+    mockMvc
+        .perform(post("/api/currentUser/updateAlias?proposedAlias=Chipotle").with(csrf()))
+        .andExpect(status().isNotFound());
+
+    verify(userRepository, times(0)).save(any());
+  }
+
+  private User savedUser() {
+    ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+    verify(userRepository).save(saved.capture());
+    return saved.getValue();
+  }
+
   @Test
   @WithMockUser(roles = {"ADMIN"})
   public void admin_can_approve_proposed_alias() throws Exception {
@@ -173,6 +353,7 @@ public class UsersControllerTests extends ControllerTestCase {
     // assert
     verify(userRepository, times(1)).findById(7L);
     verify(userRepository, times(1)).save(userEdited);
+    verify(userCache, times(1)).invalidate("user@example.org");
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
@@ -309,6 +490,7 @@ public class UsersControllerTests extends ControllerTestCase {
     // assert
     verify(userRepository, times(1)).findById(7L);
     verify(userRepository, times(1)).save(userUnchanged);
+    verify(userCache, times(1)).invalidate("user@example.org");
     String responseString = response.getResponse().getContentAsString();
     String expectedJson = mapper.writeValueAsString(userUnchanged);
     assertEquals(expectedJson, responseString);
@@ -376,8 +558,7 @@ public class UsersControllerTests extends ControllerTestCase {
     Admin admin = new Admin("user@example.org");
 
     when(userRepository.findById(7L)).thenReturn(Optional.of(user));
-    when(adminRepository.existsByEmail("user@example.org")).thenReturn(false, true);
-    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(false);
+    when(adminRepository.existsByEmail("user@example.org")).thenReturn(false);
 
     // act
     MvcResult response =
@@ -388,8 +569,9 @@ public class UsersControllerTests extends ControllerTestCase {
 
     // assert
     verify(userRepository, times(1)).findById(7L);
-    verify(adminRepository, times(2)).existsByEmail("user@example.org");
+    verify(adminRepository, times(1)).existsByEmail("user@example.org");
     verify(adminRepository, times(1)).save(admin);
+    verify(roleRegistry, times(1)).setAdmin("user@example.org", true);
     String responseString = response.getResponse().getContentAsString();
     String expectedJson = mapper.writeValueAsString(new UserDTO(user, true, false));
     assertEquals(expectedJson, responseString);
@@ -402,8 +584,7 @@ public class UsersControllerTests extends ControllerTestCase {
     User user = User.builder().id(7L).email("user@example.org").build();
 
     when(userRepository.findById(7L)).thenReturn(Optional.of(user));
-    when(adminRepository.existsByEmail("user@example.org")).thenReturn(true, false);
-    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(false);
+    when(adminRepository.existsByEmail("user@example.org")).thenReturn(true);
 
     // act
     MvcResult response =
@@ -414,8 +595,9 @@ public class UsersControllerTests extends ControllerTestCase {
 
     // assert
     verify(userRepository, times(1)).findById(7L);
-    verify(adminRepository, times(2)).existsByEmail("user@example.org");
+    verify(adminRepository, times(1)).existsByEmail("user@example.org");
     verify(adminRepository, times(1)).deleteByEmail("user@example.org");
+    verify(roleRegistry, times(1)).setAdmin("user@example.org", false);
     String responseString = response.getResponse().getContentAsString();
     String expectedJson = mapper.writeValueAsString(new UserDTO(user, false, false));
     assertEquals(expectedJson, responseString);
@@ -428,7 +610,6 @@ public class UsersControllerTests extends ControllerTestCase {
     User user = User.builder().id(7L).email("superadmin@example.org").build();
 
     when(userRepository.findById(7L)).thenReturn(Optional.of(user));
-    when(moderatorRepository.existsByEmail("superadmin@example.org")).thenReturn(false);
 
     // act
     MvcResult response =
@@ -439,6 +620,8 @@ public class UsersControllerTests extends ControllerTestCase {
 
     // assert
     verify(userRepository, times(1)).findById(7L);
+    verify(adminRepository, times(0)).existsByEmail(any());
+    verify(roleRegistry, times(0)).setAdmin(eq("superadmin@example.org"), anyBoolean());
     String responseString = response.getResponse().getContentAsString();
     String expectedJson = mapper.writeValueAsString(new UserDTO(user, true, false));
     assertEquals(expectedJson, responseString);
@@ -471,8 +654,7 @@ public class UsersControllerTests extends ControllerTestCase {
     Moderator moderator = new Moderator("user@example.org");
 
     when(userRepository.findById(7L)).thenReturn(Optional.of(user));
-    when(adminRepository.existsByEmail("user@example.org")).thenReturn(false);
-    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(false, true);
+    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(false);
 
     // act
     MvcResult response =
@@ -483,8 +665,9 @@ public class UsersControllerTests extends ControllerTestCase {
 
     // assert
     verify(userRepository, times(1)).findById(7L);
-    verify(moderatorRepository, times(2)).existsByEmail("user@example.org");
+    verify(moderatorRepository, times(1)).existsByEmail("user@example.org");
     verify(moderatorRepository, times(1)).save(moderator);
+    verify(roleRegistry, times(1)).setModerator("user@example.org", true);
     String responseString = response.getResponse().getContentAsString();
     String expectedJson = mapper.writeValueAsString(new UserDTO(user, false, true));
     assertEquals(expectedJson, responseString);
@@ -498,8 +681,7 @@ public class UsersControllerTests extends ControllerTestCase {
     Moderator moderator = new Moderator("user@example.org");
 
     when(userRepository.findById(7L)).thenReturn(Optional.of(user));
-    when(adminRepository.existsByEmail("user@example.org")).thenReturn(false);
-    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(true, false);
+    when(moderatorRepository.existsByEmail("user@example.org")).thenReturn(true);
 
     // act
     MvcResult response =
@@ -510,8 +692,9 @@ public class UsersControllerTests extends ControllerTestCase {
 
     // assert
     verify(userRepository, times(1)).findById(7L);
-    verify(moderatorRepository, times(2)).existsByEmail("user@example.org");
+    verify(moderatorRepository, times(1)).existsByEmail("user@example.org");
     verify(moderatorRepository, times(1)).deleteByEmail("user@example.org");
+    verify(roleRegistry, times(1)).setModerator("user@example.org", false);
     String responseString = response.getResponse().getContentAsString();
     String expectedJson = mapper.writeValueAsString(new UserDTO(user, false, false));
     assertEquals(expectedJson, responseString);
@@ -586,4 +769,61 @@ public class UsersControllerTests extends ControllerTestCase {
 
     assertEquals(expectedJson, response.getResponse().getContentAsString());
   }
+
+  @Test
+  @WithMockUser(roles = {"USER"})
+  public void users_cannot_moderate_aliases_in_bulk() throws Exception {
+    mockMvc
+        .perform(
+            put("/api/currentUser/updateAliasModeration/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]")
+                .with(csrf()))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = {"MODERATOR"})
+  public void moderator_can_moderate_aliases_in_bulk() throws Exception {
+    List<AliasModeration> moderations =
+        List.of(new AliasModeration(1L, true), new AliasModeration(2L, false));
+    List<ModerationOutcome> outcomes =
+        List.of(
+            new ModerationOutcome(1L, ModerationOutcome.Outcome.UPDATED),
+            new ModerationOutcome(2L, ModerationOutcome.Outcome.UPDATED));
+    when(moderationService.moderateAliases(moderations)).thenReturn(outcomes);
+
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/currentUser/updateAliasModeration/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(moderations))
+                    .with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    assertEquals(mapper.writeValueAsString(outcomes), response.getResponse().getContentAsString());
+  }
+
+  @Test
+  @WithMockUser(roles = {"ADMIN"})
+  public void invalid_bulk_alias_moderations_are_rejected() throws Exception {
+    List<AliasModeration> moderations =
+        List.of(new AliasModeration(1L, true), new AliasModeration(1L, false));
+    when(moderationService.moderateAliases(moderations))
+        .thenThrow(new IllegalArgumentException("id 1 is given more than once"));
+
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/currentUser/updateAliasModeration/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(moderations))
+                    .with(csrf()))
+            .andExpect(status().isBadRequest())
+            .andReturn();
+
+    assertEquals("id 1 is given more than once", responseToJson(response).get("error"));
+  }
 }
@@ -1,15 +1,18 @@
 package edu.ucsb.cs156.dining.interceptors;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import edu.ucsb.cs156.dining.ControllerTestCase;
 import edu.ucsb.cs156.dining.repositories.AdminRepository;
 import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.HashMap;
@@ -21,6 +24,7 @@ import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -36,7 +40,6 @@ import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
-import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
@@ -48,10 +51,22 @@ public class RoleInterceptorTests extends ControllerTestCase {
   @MockBean AdminRepository adminRepository;
   @MockBean ModeratorRepository moderatorRepository;
 
-  @Autowired private RequestMappingHandlerMapping mapping;
+  @Autowired
+  @Qualifier("requestMappingHandlerMapping")
+  private RequestMappingHandlerMapping mapping;
+
+  @Autowired private RoleRegistry roleRegistry;
+
+  private void loadRoles(List<String> admins, List<String> moderators) {
+    when(adminRepository.findAllEmails()).thenReturn(admins);
+    when(moderatorRepository.findAllEmails()).thenReturn(moderators);
+    roleRegistry.reload();
+  }
 
   @BeforeEach
   public void mockLogin() {
+    loadRoles(List.of(), List.of());
+
     Map<String, Object> attributes = new HashMap<>();
     attributes.put("sub", "sub");
     attributes.put("name", "name");
@@ -99,15 +114,15 @@ public class RoleInterceptorTests extends ControllerTestCase {
     SecurityContextHolder.setContext(SecurityContextHolder.createEmptyContext());
     SecurityContextHolder.getContext().setAuthentication(authentication);
 
-    RoleInterceptor roleInterceptor = new RoleInterceptor(adminRepository, moderatorRepository);
+    RoleInterceptor roleInterceptor = new RoleInterceptor(roleRegistry);
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
     MockHttpServletResponse response = new MockHttpServletResponse();
 
     assertTrue(roleInterceptor.preHandle(request, response, new Object()));
 
-    verify(adminRepository, never()).existsByEmail("cgaucho@ucsb.edu");
-    verify(moderatorRepository, never()).existsByEmail("cgaucho@ucsb.edu");
+    verify(adminRepository, never()).existsByEmail(any());
+    verify(moderatorRepository, never()).existsByEmail(any());
     assertTrue(
         SecurityContextHolder.getContext()
             .getAuthentication()
@@ -117,8 +132,7 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
   @Test
   public void removes_admin_role_when_user_not_in_admin_repository() throws Exception {
-    when(adminRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(false);
-    when(moderatorRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(true);
+    loadRoles(List.of(), List.of("cgaucho@ucsb.edu"));
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
     HandlerExecutionChain chain = mapping.getHandler(request);
@@ -132,8 +146,8 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
     RoleInterceptor.get().preHandle(request, response, chain.getHandler());
 
-    verify(adminRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
-    verify(moderatorRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
+    verify(adminRepository, never()).existsByEmail(any());
+    verify(moderatorRepository, never()).existsByEmail(any());
 
     Collection<? extends GrantedAuthority> authorities =
         SecurityContextHolder.getContext().getAuthentication().getAuthorities();
@@ -154,8 +168,7 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
   @Test
   public void removes_moderator_role_when_user_not_in_moderator_repository() throws Exception {
-    when(adminRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(true);
-    when(moderatorRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(false);
+    loadRoles(List.of("cgaucho@ucsb.edu"), List.of());
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
     HandlerExecutionChain chain = mapping.getHandler(request);
@@ -169,8 +182,8 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
     RoleInterceptor.get().preHandle(request, response, chain.getHandler());
 
-    verify(adminRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
-    verify(moderatorRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
+    verify(adminRepository, never()).existsByEmail(any());
+    verify(moderatorRepository, never()).existsByEmail(any());
 
     Collection<? extends GrantedAuthority> authorities =
         SecurityContextHolder.getContext().getAuthentication().getAuthorities();
@@ -191,8 +204,7 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
   @Test
   public void keeps_admin_and_moderator_roles_when_user_is_in_both_repositories() throws Exception {
-    when(adminRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(true);
-    when(moderatorRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(true);
+    loadRoles(List.of("cgaucho@ucsb.edu"), List.of("cgaucho@ucsb.edu"));
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
     HandlerExecutionChain chain = mapping.getHandler(request);
@@ -206,8 +218,8 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
     RoleInterceptor.get().preHandle(request, response, chain.getHandler());
 
-    verify(adminRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
-    verify(moderatorRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
+    verify(adminRepository, never()).existsByEmail(any());
+    verify(moderatorRepository, never()).existsByEmail(any());
 
     Collection<? extends GrantedAuthority> authorities =
         SecurityContextHolder.getContext().getAuthentication().getAuthorities();
@@ -228,19 +240,17 @@ public class RoleInterceptorTests extends ControllerTestCase {
 
   @Test
   public void keeps_admin_role_when_user_is_in_admin_emails() throws Exception {
-    when(moderatorRepository.existsByEmail("cgaucho@ucsb.edu")).thenReturn(true);
+    when(moderatorRepository.findAllEmails()).thenReturn(List.of("cgaucho@ucsb.edu"));
 
-    RoleInterceptor roleInterceptor = new RoleInterceptor(adminRepository, moderatorRepository);
-    ReflectionTestUtils.setField(roleInterceptor, "adminEmails", List.of("cgaucho@ucsb.edu"));
+    RoleRegistry registry =
+        new RoleRegistry(adminRepository, moderatorRepository, List.of("cgaucho@ucsb.edu"));
+    RoleInterceptor roleInterceptor = new RoleInterceptor(registry);
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
     MockHttpServletResponse response = new MockHttpServletResponse();
 
     assertTrue(roleInterceptor.preHandle(request, response, new Object()));
 
-    verify(adminRepository, never()).existsByEmail("cgaucho@ucsb.edu");
-    verify(moderatorRepository, times(1)).existsByEmail("cgaucho@ucsb.edu");
-
     Collection<? extends GrantedAuthority> authorities =
         SecurityContextHolder.getContext().getAuthentication().getAuthorities();
 
@@ -276,19 +286,15 @@ public class RoleInterceptorTests extends ControllerTestCase {
     SecurityContextHolder.setContext(SecurityContextHolder.createEmptyContext());
     SecurityContextHolder.getContext().setAuthentication(authentication);
 
-    when(adminRepository.existsByEmail("oidc-user@ucsb.edu")).thenReturn(true);
-    when(moderatorRepository.existsByEmail("oidc-user@ucsb.edu")).thenReturn(false);
+    loadRoles(List.of("oidc-user@ucsb.edu"), List.of());
 
-    RoleInterceptor roleInterceptor = new RoleInterceptor(adminRepository, moderatorRepository);
+    RoleInterceptor roleInterceptor = new RoleInterceptor(roleRegistry);
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
     MockHttpServletResponse response = new MockHttpServletResponse();
 
     assertTrue(roleInterceptor.preHandle(request, response, new Object()));
 
-    verify(adminRepository, times(1)).existsByEmail("oidc-user@ucsb.edu");
-    verify(moderatorRepository, times(1)).existsByEmail("oidc-user@ucsb.edu");
-
     Collection<? extends GrantedAuthority> revisedAuthorities =
         SecurityContextHolder.getContext().getAuthentication().getAuthorities();
 
@@ -306,4 +312,59 @@ public class RoleInterceptorTests extends ControllerTestCase {
     assertFalse(role_moderator, "ROLE_MODERATOR should not be in roles list");
     assertTrue(role_member, "ROLE_MEMBER should be in roles list");
   }
+
+  @Test
+  public void role_changes_apply_on_the_next_request() throws Exception {
+    loadRoles(List.of("cgaucho@ucsb.edu"), List.of("cgaucho@ucsb.edu"));
+
+    RoleInterceptor roleInterceptor = new RoleInterceptor(roleRegistry);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    roleInterceptor.preHandle(request, response, new Object());
+    assertTrue(
+        SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+            .anyMatch(grantedAuth -> grantedAuth.getAuthority().equals("ROLE_ADMIN")));
+
+    roleRegistry.setAdmin("CGaucho@umail.ucsb.edu", false);
+    roleInterceptor.preHandle(request, response, new Object());
+
+    verify(adminRepository, never()).existsByEmail(any());
+    assertFalse(
+        SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+            .anyMatch(grantedAuth -> grantedAuth.getAuthority().equals("ROLE_ADMIN")));
+  }
+
+  @Test
+  public void authentication_is_only_replaced_when_the_roles_changed() throws Exception {
+    loadRoles(List.of("cgaucho@ucsb.edu"), List.of("cgaucho@ucsb.edu"));
+
+    RoleInterceptor roleInterceptor = new RoleInterceptor(roleRegistry);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    Authentication original = SecurityContextHolder.getContext().getAuthentication();
+
+    roleInterceptor.preHandle(request, response, new Object());
+    assertSame(original, SecurityContextHolder.getContext().getAuthentication());
+
+    roleRegistry.setModerator("cgaucho@ucsb.edu", false);
+    roleInterceptor.preHandle(request, response, new Object());
+    assertNotSame(original, SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  @Test
+  public void users_without_an_email_have_no_roles() throws Exception {
+    Set<GrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    OAuth2User user = new DefaultOAuth2User(authorities, Map.of("name", "name"), "name");
+    SecurityContextHolder.getContext()
+        .setAuthentication(new OAuth2AuthenticationToken(user, authorities, "userRegistrationId"));
+
+    new RoleInterceptor(roleRegistry)
+        .preHandle(
+            new MockHttpServletRequest("GET", "/api/currentUser"),
+            new MockHttpServletResponse(),
+            new Object());
+
+    assertTrue(SecurityContextHolder.getContext().getAuthentication().getAuthorities().isEmpty());
+  }
 }
@@ -0,0 +1,130 @@
+package edu.ucsb.cs156.dining.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuItemView;
+import edu.ucsb.cs156.dining.services.MenuItemService;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Counts the statements and the entities loaded by the queries behind logging in, posting a review
+ * and listing a menu, so that none of them loads the review history of a user or a menu item.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(MenuItemService.class)
+public class FetchStatisticsTests {
+
+  private static final String EMAIL = "cgaucho@ucsb.edu";
+
+  @Autowired UserRepository userRepository;
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired MenuItemService menuItemService;
+
+  @Autowired TestEntityManager testEntityManager;
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  @MockBean WiremockService wiremockService;
+
+  private Statistics statistics;
+  private MenuItem waffle;
+  private MenuItem soup;
+
+  private MenuItem item(String name) {
+    return MenuItem.builder()
+        .diningCommonsCode("carrillo")
+        .mealCode("breakfast")
+        .name(name)
+        .station("Bakery")
+        .build();
+  }
+
+  @BeforeEach
+  public void setup() {
+    User reviewer = userRepository.save(User.builder().email(EMAIL).build());
+    waffle = menuItemRepository.save(item("Waffle"));
+    soup = menuItemRepository.save(item("Soup"));
+    for (int i = 0; i < 10; i++) {
+      reviewRepository.save(
+          Review.builder()
+              .item(i % 2 == 0 ? waffle : soup)
+              .reviewer(reviewer)
+              .itemsStars(4L)
+              .status(ModerationStatus.APPROVED)
+              .dateItemServed(LocalDateTime.of(2025, 4, 1, 8, 0))
+              .build());
+    }
+
+    testEntityManager.flush();
+    testEntityManager.clear();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  public void login_loads_only_the_user() {
+    userRepository.findByEmail(EMAIL).orElseThrow();
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getEntityLoadCount());
+    assertEquals(0, statistics.getCollectionLoadCount());
+  }
+
+  @Test
+  public void posting_a_review_loads_only_the_item() {
+    User reviewer = userRepository.findByEmail(EMAIL).orElseThrow();
+    testEntityManager.clear();
+    statistics.clear();
+
+    MenuItem item = menuItemRepository.findById(waffle.getId()).orElseThrow();
+    reviewRepository.save(
+        Review.builder()
+            .item(item)
+            .reviewer(reviewer)
+            .itemsStars(5L)
+            .dateItemServed(LocalDateTime.of(2025, 4, 2, 8, 0))
+            .build());
+    testEntityManager.flush();
+
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getEntityLoadCount());
+    assertEquals(1, statistics.getEntityInsertCount());
+    assertEquals(0, statistics.getCollectionLoadCount());
+  }
+
+  @Test
+  public void listing_a_menu_loads_the_items_and_one_row_per_review() {
+    List<MenuItem> items =
+        menuItemService.upsert(
+            "carrillo",
+            "breakfast",
+            List.of(new Entree("Waffle", "Bakery"), new Entree("Soup", "Bakery")));
+    List<MenuItemView> views = menuItemService.withApprovedReviews(items);
+
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(2, statistics.getEntityLoadCount());
+    assertEquals(0, statistics.getCollectionLoadCount());
+    assertEquals(10, views.get(0).reviews().size() + views.get(1).reviews().size());
+  }
+}
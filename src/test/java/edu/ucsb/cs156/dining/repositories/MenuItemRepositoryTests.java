@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.dining.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import jakarta.persistence.PersistenceException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@DataJpaTest
+public class MenuItemRepositoryTests {
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired TestEntityManager testEntityManager;
+
+  @MockBean WiremockService wiremockService;
+
+  private MenuItem item(String mealCode, String name) {
+    return MenuItem.builder()
+        .diningCommonsCode("portola")
+        .mealCode(mealCode)
+        .name(name)
+        .station("Grill")
+        .build();
+  }
+
+  @Test
+  public void findByDiningCommonsCodeAndMealCode_returns_only_that_meal() {
+    menuItemRepository.saveAll(
+        List.of(item("lunch", "Burger"), item("lunch", "Fries"), item("dinner", "Steak")));
+
+    assertEquals(
+        List.of("Burger", "Fries"),
+        menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "lunch").stream()
+            .map(MenuItem::getName)
+            .sorted()
+            .toList());
+  }
+
+  @Test
+  public void batched_inserts_get_distinct_ids_from_the_sequence() {
+    List<MenuItem> items = List.of(item("lunch", "Burger"), item("lunch", "Fries"));
+
+    menuItemRepository.saveAll(items);
+
+    assertNotEquals(0L, items.get(0).getId());
+    assertEquals(items.get(0).getId() + 1, items.get(1).getId());
+  }
+
+  @Test
+  public void the_same_item_cannot_be_inserted_twice() {
+    menuItemRepository.save(item("lunch", "Burger"));
+    menuItemRepository.save(item("lunch", "Burger"));
+
+    assertThrows(PersistenceException.class, () -> testEntityManager.flush());
+  }
+}
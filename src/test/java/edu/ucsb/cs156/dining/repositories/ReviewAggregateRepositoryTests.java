@@ -0,0 +1,90 @@
+package edu.ucsb.cs156.dining.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.models.ItemStatistic;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@DataJpaTest
+public class ReviewAggregateRepositoryTests {
+
+  @Autowired ReviewAggregateRepository reviewAggregateRepository;
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @MockBean WiremockService wiremockService;
+
+  private MenuItem waffle;
+
+  private void day(LocalDate day, long starsSum, long reviewCount) {
+    reviewAggregateRepository.save(
+        ReviewAggregate.builder()
+            .groupKey("ITEM_DAY|" + waffle.getId() + "|" + day)
+            .scope(ReviewAggregate.Scope.ITEM_DAY)
+            .itemId(waffle.getId())
+            .dayServed(day)
+            .starsSum(starsSum)
+            .reviewCount(reviewCount)
+            .build());
+  }
+
+  @BeforeEach
+  public void setup() {
+    waffle =
+        menuItemRepository.save(
+            MenuItem.builder()
+                .name("Waffle")
+                .diningCommonsCode("carrillo")
+                .mealCode("breakfast")
+                .station("Bakery")
+                .build());
+    day(LocalDate.of(2025, 3, 31), 5L, 1L);
+    day(LocalDate.of(2025, 4, 1), 7L, 2L);
+    day(LocalDate.of(2025, 4, 30), 1L, 1L);
+    day(LocalDate.of(2025, 5, 1), 4L, 1L);
+  }
+
+  @Test
+  public void findItemStatisticsBetween_sums_the_days_in_the_range() {
+    assertEquals(
+        List.of(
+            new ItemStatistic(
+                waffle.getId(), "Waffle", "carrillo", "breakfast", "Bakery", 8.0 / 3, 3L)),
+        reviewAggregateRepository.findItemStatisticsBetween(
+            LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30)));
+  }
+
+  @Test
+  public void findItemStatisticsBetween_treats_null_as_unbounded() {
+    assertEquals(
+        List.of(
+            new ItemStatistic(
+                waffle.getId(), "Waffle", "carrillo", "breakfast", "Bakery", 17.0 / 5, 5L)),
+        reviewAggregateRepository.findItemStatisticsBetween(null, null));
+    assertEquals(
+        4L,
+        reviewAggregateRepository
+            .findItemStatisticsBetween(LocalDate.of(2025, 4, 1), null)
+            .get(0)
+            .getReviewCount());
+  }
+
+  @Test
+  public void addToGroup_and_deleteIfEmpty_update_a_single_group() {
+    String key = "ITEM_DAY|" + waffle.getId() + "|2025-04-30";
+
+    assertEquals(1, reviewAggregateRepository.addToGroup(key, -1L, -1L));
+    assertEquals(0, reviewAggregateRepository.addToGroup("ITEM|0", 1L, 1L));
+    assertEquals(1, reviewAggregateRepository.deleteIfEmpty(key));
+    assertEquals(3, reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM_DAY).size());
+  }
+}
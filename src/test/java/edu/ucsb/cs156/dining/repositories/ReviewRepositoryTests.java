@@ -0,0 +1,312 @@
+package edu.ucsb.cs156.dining.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.CommonsTotal;
+import edu.ucsb.cs156.dining.models.DailyItemTotal;
+import edu.ucsb.cs156.dining.models.ItemTotal;
+import edu.ucsb.cs156.dining.models.MealTotal;
+import edu.ucsb.cs156.dining.models.MonthlyCommonsTotal;
+import edu.ucsb.cs156.dining.models.ReviewExportRow;
+import edu.ucsb.cs156.dining.models.ReviewView;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+@DataJpaTest
+public class ReviewRepositoryTests {
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired UserRepository userRepository;
+
+  @MockBean WiremockService wiremockService;
+
+  private MenuItem waffle;
+  private MenuItem soup;
+  private User reviewer;
+
+  private void review(MenuItem item, Long stars, ModerationStatus status, LocalDateTime served) {
+    reviewRepository.save(
+        Review.builder()
+            .item(item)
+            .reviewer(reviewer)
+            .itemsStars(stars)
+            .status(status)
+            .dateItemServed(served)
+            .build());
+  }
+
+  @BeforeEach
+  public void setup() {
+    reviewer = userRepository.save(User.builder().email("reviewer@ucsb.edu").build());
+    waffle =
+        menuItemRepository.save(
+            MenuItem.builder()
+                .name("Waffle")
+                .diningCommonsCode("carrillo")
+                .mealCode("breakfast")
+                .station("Bakery")
+                .build());
+    soup =
+        menuItemRepository.save(
+            MenuItem.builder()
+                .name("Soup")
+                .diningCommonsCode("carrillo")
+                .mealCode("lunch")
+                .station("Stove")
+                .build());
+    review(waffle, 5L, ModerationStatus.APPROVED, LocalDateTime.of(2025, 3, 30, 8, 0));
+    review(waffle, 4L, ModerationStatus.APPROVED, LocalDateTime.of(2025, 4, 2, 8, 0));
+    review(soup, 1L, ModerationStatus.APPROVED, LocalDateTime.of(2025, 4, 3, 12, 0));
+    review(soup, null, ModerationStatus.APPROVED, LocalDateTime.of(2025, 4, 3, 12, 0));
+    review(soup, 5L, ModerationStatus.AWAITING_REVIEW, LocalDateTime.of(2025, 4, 3, 12, 0));
+  }
+
+  @Test
+  public void findItemTotals_sums_approved_reviews_by_item() {
+    List<ItemTotal> totals =
+        reviewRepository.findItemTotals(ModerationStatus.APPROVED).stream()
+            .sorted(Comparator.comparing(ItemTotal::itemId))
+            .toList();
+
+    assertEquals(
+        List.of(new ItemTotal(waffle.getId(), 9L, 2L), new ItemTotal(soup.getId(), 1L, 1L)),
+        totals);
+  }
+
+  @Test
+  public void findCommonsTotals_sums_by_commons() {
+    assertEquals(
+        List.of(new CommonsTotal("carrillo", 10L, 3L)),
+        reviewRepository.findCommonsTotals(ModerationStatus.APPROVED));
+  }
+
+  @Test
+  public void findMealTotals_sums_by_commons_and_meal() {
+    List<MealTotal> totals =
+        reviewRepository.findMealTotals(ModerationStatus.APPROVED).stream()
+            .sorted(Comparator.comparing(MealTotal::mealCode))
+            .toList();
+
+    assertEquals(
+        List.of(
+            new MealTotal("carrillo", "breakfast", 9L, 2L),
+            new MealTotal("carrillo", "lunch", 1L, 1L)),
+        totals);
+  }
+
+  @Test
+  public void findMonthlyCommonsTotals_sums_by_commons_and_month() {
+    List<MonthlyCommonsTotal> totals =
+        reviewRepository.findMonthlyCommonsTotals(ModerationStatus.APPROVED).stream()
+            .sorted(Comparator.comparing(MonthlyCommonsTotal::period))
+            .toList();
+
+    assertEquals(
+        List.of(
+            new MonthlyCommonsTotal("carrillo", "2025-03", 5L, 1L),
+            new MonthlyCommonsTotal("carrillo", "2025-04", 5L, 2L)),
+        totals);
+  }
+
+  @Test
+  public void findDailyItemTotals_groups_by_item_and_day_served() {
+    review(waffle, 3L, ModerationStatus.APPROVED, LocalDateTime.of(2025, 4, 2, 19, 0));
+
+    List<DailyItemTotal> totals =
+        reviewRepository.findDailyItemTotals(ModerationStatus.APPROVED).stream()
+            .sorted(Comparator.comparing(DailyItemTotal::day))
+            .toList();
+
+    assertEquals(
+        List.of(
+            new DailyItemTotal(waffle.getId(), LocalDate.of(2025, 3, 30), 5L, 1L),
+            new DailyItemTotal(waffle.getId(), LocalDate.of(2025, 4, 2), 7L, 2L),
+            new DailyItemTotal(soup.getId(), LocalDate.of(2025, 4, 3), 1L, 1L)),
+        totals);
+  }
+
+  @Test
+  public void findByItemInAndStatus_loads_the_reviews_of_several_items() {
+    List<Review> approved =
+        reviewRepository.findByItemInAndStatus(List.of(waffle, soup), ModerationStatus.APPROVED);
+
+    assertEquals(4, approved.size());
+    assertEquals(
+        List.of(waffle.getId(), waffle.getId(), soup.getId(), soup.getId()),
+        approved.stream().map(r -> r.getItem().getId()).sorted().toList());
+    assertEquals(
+        2, reviewRepository.findByItemInAndStatus(List.of(soup), ModerationStatus.APPROVED).size());
+  }
+
+  @Test
+  public void findViewsAfter_pages_by_id() {
+    List<Long> ids =
+        reviewRepository.findViewsAfter(0L, Pageable.unpaged()).stream()
+            .map(ReviewView::id)
+            .toList();
+    assertEquals(5, ids.size());
+    assertEquals(ids.stream().sorted().toList(), ids);
+
+    Slice<ReviewView> first = reviewRepository.findViewsAfter(0L, PageRequest.ofSize(3));
+    assertEquals(ids.subList(0, 3), first.stream().map(ReviewView::id).toList());
+    assertTrue(first.hasNext());
+
+    Slice<ReviewView> second = reviewRepository.findViewsAfter(ids.get(2), PageRequest.ofSize(3));
+    assertEquals(ids.subList(3, 5), second.stream().map(ReviewView::id).toList());
+    assertFalse(second.hasNext());
+  }
+
+  @Test
+  public void findViewsByStatusAfter_pages_one_status() {
+    Slice<ReviewView> awaiting =
+        reviewRepository.findViewsByStatusAfter(
+            ModerationStatus.AWAITING_REVIEW, 0L, PageRequest.ofSize(10));
+
+    assertEquals(1, awaiting.getNumberOfElements());
+    assertEquals(ModerationStatus.AWAITING_REVIEW, awaiting.getContent().get(0).status());
+    assertFalse(awaiting.hasNext());
+  }
+
+  @Test
+  public void findViewsByReviewerIdAfter_pages_one_reviewer() {
+    User other =
+        userRepository.save(User.builder().email("other@ucsb.edu").alias("Gaucho").build());
+    reviewRepository.save(
+        Review.builder()
+            .item(waffle)
+            .reviewer(other)
+            .status(ModerationStatus.AWAITING_REVIEW)
+            .dateItemServed(LocalDateTime.of(2025, 4, 4, 8, 0))
+            .build());
+
+    Slice<ReviewView> mine =
+        reviewRepository.findViewsByReviewerIdAfter(reviewer.getId(), 0L, PageRequest.ofSize(4));
+    assertEquals(4, mine.getNumberOfElements());
+    assertTrue(mine.hasNext());
+
+    Slice<ReviewView> theirs =
+        reviewRepository.findViewsByReviewerIdAfter(other.getId(), 0L, PageRequest.ofSize(4));
+    assertEquals(1, theirs.getNumberOfElements());
+    assertEquals("Gaucho", theirs.getContent().get(0).reviewerAlias());
+    assertFalse(theirs.hasNext());
+  }
+
+  @Test
+  public void findViewsByItemIdInAndStatus_loads_the_reviews_of_several_items() {
+    List<ReviewView> approved =
+        reviewRepository.findViewsByItemIdInAndStatus(
+            List.of(waffle.getId(), soup.getId()), ModerationStatus.APPROVED);
+
+    assertEquals(4, approved.size());
+    assertEquals(
+        List.of(waffle.getId(), waffle.getId(), soup.getId(), soup.getId()),
+        approved.stream().map(r -> r.item().id()).sorted().toList());
+    assertEquals(
+        2,
+        reviewRepository
+            .findViewsByItemIdInAndStatus(List.of(soup.getId()), ModerationStatus.APPROVED)
+            .size());
+  }
+
+  @Test
+  public void findViewById_has_the_item_and_the_reviewer_alias() {
+    long id = reviewRepository.findViewsAfter(0L, PageRequest.ofSize(1)).getContent().get(0).id();
+
+    ReviewView view = reviewRepository.findViewById(id).get();
+
+    assertEquals(
+        new ReviewView(
+            id,
+            5L,
+            null,
+            ModerationStatus.APPROVED,
+            LocalDateTime.of(2025, 3, 30, 8, 0),
+            new ReviewView.Item(waffle.getId(), "Waffle", "carrillo"),
+            reviewer.getId(),
+            "Anonymous User"),
+        view);
+    assertTrue(reviewRepository.findViewById(id + 1000).isEmpty());
+  }
+
+  private List<ReviewExportRow> exportRows(
+      ModerationStatus status, LocalDateTime from, LocalDateTime to) {
+    try (Stream<ReviewExportRow> rows = reviewRepository.streamExportRows(status, from, to)) {
+      return rows.toList();
+    }
+  }
+
+  @Test
+  public void streamExportRows_returns_every_review_in_id_order() {
+    List<ReviewExportRow> rows = exportRows(null, null, null);
+
+    assertEquals(5, rows.size());
+    assertEquals(
+        rows.stream().map(ReviewExportRow::id).sorted().toList(),
+        rows.stream().map(ReviewExportRow::id).toList());
+    ReviewExportRow first = rows.get(0);
+    assertEquals(waffle.getId(), (long) first.itemId());
+    assertEquals("Waffle", first.itemName());
+    assertEquals("Bakery", first.station());
+    assertEquals(reviewer.getId(), (long) first.reviewerId());
+    assertEquals("Anonymous User", first.reviewerAlias());
+    assertEquals(5L, (long) first.itemsStars());
+    assertEquals(LocalDateTime.of(2025, 3, 30, 8, 0), first.dateItemServed());
+  }
+
+  @Test
+  public void streamExportRows_filters_by_status_and_date_served() {
+    assertEquals(1, exportRows(ModerationStatus.AWAITING_REVIEW, null, null).size());
+
+    List<ReviewExportRow> april2 =
+        exportRows(null, LocalDateTime.of(2025, 4, 2, 0, 0), LocalDateTime.of(2025, 4, 3, 0, 0));
+    assertEquals(1, april2.size());
+    assertEquals("Waffle", april2.get(0).itemName());
+
+    assertEquals(
+        3, exportRows(ModerationStatus.APPROVED, LocalDateTime.of(2025, 4, 1, 0, 0), null).size());
+  }
+
+  @Test
+  public void moderate_updates_only_the_given_reviews() {
+    List<Long> ids =
+        reviewRepository.findViewsAfter(0, Pageable.unpaged()).stream()
+            .map(ReviewView::id)
+            .toList();
+    List<Long> moderated = List.of(ids.get(0), ids.get(4));
+    LocalDateTime edited = LocalDateTime.of(2025, 5, 1, 9, 0);
+
+    assertEquals(2, reviewRepository.findByIdIn(List.of(ids.get(0), ids.get(4), -1L)).size());
+    assertEquals(
+        2, reviewRepository.moderate(moderated, ModerationStatus.REJECTED, "spam", edited));
+
+    for (Long id : moderated) {
+      Review review = reviewRepository.findById(id).get();
+      assertEquals(ModerationStatus.REJECTED, review.getStatus());
+      assertEquals("spam", review.getModeratorComments());
+      assertEquals(edited, review.getDateEdited());
+    }
+    assertEquals(
+        ModerationStatus.APPROVED, reviewRepository.findById(ids.get(1)).get().getStatus());
+  }
+}
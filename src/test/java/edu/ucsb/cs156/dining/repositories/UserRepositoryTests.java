@@ -0,0 +1,89 @@
+package edu.ucsb.cs156.dining.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@DataJpaTest
+public class UserRepositoryTests {
+
+  @Autowired UserRepository userRepository;
+
+  @MockBean WiremockService wiremockService;
+
+  @Test
+  public void the_same_email_cannot_be_inserted_twice() {
+    userRepository.save(User.builder().email("cgaucho@ucsb.edu").build());
+
+    assertThrows(
+        DataIntegrityViolationException.class,
+        () -> userRepository.save(User.builder().email("cgaucho@ucsb.edu").build()));
+  }
+
+  @Test
+  public void findByEmail_finds_the_user() {
+    User user = userRepository.save(User.builder().email("cgaucho@ucsb.edu").build());
+
+    assertEquals(user.getId(), userRepository.findByEmail("cgaucho@ucsb.edu").get().getId());
+  }
+
+  @Test
+  public void approveProposedAliases_makes_the_proposed_alias_the_alias() {
+    User chris =
+        userRepository.save(
+            User.builder()
+                .email("cgaucho@ucsb.edu")
+                .proposedAlias("Chris")
+                .status(ModerationStatus.AWAITING_REVIEW)
+                .build());
+    User other =
+        userRepository.save(
+            User.builder()
+                .email("ldelplaya@ucsb.edu")
+                .proposedAlias("Laurie")
+                .status(ModerationStatus.AWAITING_REVIEW)
+                .build());
+    LocalDate today = LocalDate.of(2025, 4, 1);
+
+    assertEquals(
+        1,
+        userRepository.approveProposedAliases(
+            List.of(chris.getId()), ModerationStatus.APPROVED, today));
+
+    User approved = userRepository.findById(chris.getId()).get();
+    assertEquals("Chris", approved.getAlias());
+    assertNull(approved.getProposedAlias());
+    assertEquals(ModerationStatus.APPROVED, approved.getStatus());
+    assertEquals(today, approved.getDateApproved());
+    assertEquals("Laurie", userRepository.findById(other.getId()).get().getProposedAlias());
+  }
+
+  @Test
+  public void updateStatus_sets_the_status_of_the_given_users() {
+    User chris =
+        userRepository.save(
+            User.builder()
+                .email("cgaucho@ucsb.edu")
+                .proposedAlias("Chris")
+                .status(ModerationStatus.AWAITING_REVIEW)
+                .build());
+
+    assertEquals(
+        1, userRepository.updateStatus(List.of(chris.getId()), ModerationStatus.REJECTED));
+
+    User rejected = userRepository.findById(chris.getId()).get();
+    assertEquals(ModerationStatus.REJECTED, rejected.getStatus());
+    assertEquals("Chris", rejected.getProposedAlias());
+  }
+}
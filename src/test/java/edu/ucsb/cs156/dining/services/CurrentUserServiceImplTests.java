@@ -0,0 +1,157 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.repositories.UserRepository;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserServiceImplTests {
+
+  private static final String EMAIL = "cgaucho@ucsb.edu";
+
+  @Mock UserRepository userRepository;
+
+  @Spy UserCache userCache = new UserCache(Duration.ofMinutes(10), 100);
+
+  @InjectMocks CurrentUserServiceImpl currentUserService;
+
+  private final User stored = User.builder().id(1L).email(EMAIL).build();
+
+  @BeforeEach
+  void login() {
+    Set<SimpleGrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+    DefaultOAuth2User user =
+        new DefaultOAuth2User(
+            authorities,
+            Map.of(
+                "sub", "sub",
+                "name", "Chris Gaucho",
+                "email", EMAIL,
+                "given_name", "Chris",
+                "family_name", "Gaucho",
+                "email_verified", true),
+            "name");
+    SecurityContextHolder.getContext()
+        .setAuthentication(new OAuth2AuthenticationToken(user, authorities, "google"));
+  }
+
+  @AfterEach
+  void logout() {
+    SecurityContextHolder.clearContext();
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private void newRequest() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+  }
+
+  @Test
+  void the_user_is_looked_up_once_per_request() {
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(stored));
+    newRequest();
+
+    User first = currentUserService.getUser();
+    userCache.invalidate(EMAIL);
+    User second = currentUserService.getUser();
+
+    assertSame(stored, first);
+    assertSame(first, second);
+    verify(userRepository, times(1)).findByEmail(EMAIL);
+  }
+
+  @Test
+  void the_user_is_cached_between_requests_until_invalidated() {
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(stored));
+
+    newRequest();
+    currentUserService.getUser();
+    newRequest();
+    currentUserService.getUser();
+    verify(userRepository, times(1)).findByEmail(EMAIL);
+
+    userCache.invalidate(EMAIL);
+    newRequest();
+    currentUserService.getUser();
+    verify(userRepository, times(2)).findByEmail(EMAIL);
+  }
+
+  @Test
+  void invalidating_without_an_email_does_nothing() {
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(stored));
+    newRequest();
+    currentUserService.getUser();
+
+    userCache.invalidate(null);
+    newRequest();
+    currentUserService.getUser();
+
+    verify(userRepository, times(1)).findByEmail(EMAIL);
+  }
+
+  @Test
+  void works_outside_of_a_request() {
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(stored));
+
+    assertSame(stored, currentUserService.getUser());
+  }
+
+  @Test
+  void first_login_stores_the_user() {
+    when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+    User user = currentUserService.getUser();
+
+    assertEquals(EMAIL, user.getEmail());
+    assertEquals("Chris Gaucho", user.getFullName());
+    verify(userRepository, times(1)).save(user);
+  }
+
+  @Test
+  void concurrent_first_logins_return_the_user_stored_first() {
+    when(userRepository.findByEmail(EMAIL))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(stored));
+    when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+    assertSame(stored, currentUserService.getUser());
+  }
+
+  @Test
+  void users_not_logged_in_with_oauth_have_no_user() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new TestingAuthenticationToken("cgaucho", "password"));
+
+    assertNull(currentUserService.getUser());
+    verify(userRepository, never()).findByEmail(any());
+  }
+}
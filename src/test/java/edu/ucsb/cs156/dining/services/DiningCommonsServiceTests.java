@@ -1,26 +1,35 @@
 package edu.ucsb.cs156.dining.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
+import edu.ucsb.cs156.dining.config.UCSBApiClientConfig;
 import edu.ucsb.cs156.dining.models.DiningCommons;
 import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.testconfig.MetricsTestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
 
 @RestClientTest(DiningCommonsService.class)
+@Import({MetricsTestConfig.class, UCSBApiClientConfig.class})
 @AutoConfigureDataJpa
 @ContextConfiguration(classes = {})
 class DiningCommonsServiceTests {
@@ -31,6 +40,19 @@ class DiningCommonsServiceTests {
 
   @Autowired private DiningCommonsService diningCommonsService;
 
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private UCSBApiMetrics ucsbApiMetrics;
+
+  @BeforeEach
+  void clearMetrics() {
+    meterRegistry.clear();
+  }
+
+  private long requests(UCSBApiMetrics.Outcome outcome) {
+    return ucsbApiMetrics.timer(DiningCommonsService.class, outcome).count();
+  }
+
   @Value("${app.ucsb.api.consumer_key}")
   private String apiKey;
 
@@ -88,5 +110,16 @@ class DiningCommonsServiceTests {
     List<DiningCommons> expectedList = new ArrayList<>();
     expectedList.addAll(Arrays.asList(expectedCommons));
     assertEquals(expectedList, actualResult);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.SUCCESS));
+  }
+
+  @Test
+  void get_counts_a_server_error() {
+    this.mockRestServiceServer
+        .expect(requestTo(DiningCommonsService.ENDPOINT))
+        .andRespond(withServerError());
+
+    assertThrows(HttpServerErrorException.class, () -> diningCommonsService.get());
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.SERVER_ERROR));
   }
 }
@@ -0,0 +1,165 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuItemSummary;
+import edu.ucsb.cs156.dining.models.MenuItemView;
+import edu.ucsb.cs156.dining.models.ReviewView;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@ExtendWith(MockitoExtension.class)
+class MenuItemServiceTests {
+
+  @Mock MenuItemRepository menuItemRepository;
+
+  @Mock ReviewRepository reviewRepository;
+
+  @Mock ReviewAggregateRepository reviewAggregateRepository;
+
+  @InjectMocks MenuItemService menuItemService;
+
+  private MenuItem item(long id, String name, String station) {
+    return MenuItem.builder()
+        .id(id)
+        .diningCommonsCode("portola")
+        .mealCode("dinner")
+        .name(name)
+        .station(station)
+        .build();
+  }
+
+  @Test
+  void upsert_reuses_existing_items_and_inserts_missing_ones_in_one_batch() {
+    MenuItem tunaRoll = item(7L, "Tuna Roll", "International");
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of(tunaRoll));
+
+    List<MenuItem> items =
+        menuItemService.upsert(
+            "portola",
+            "dinner",
+            List.of(
+                new Entree("Salad", "Greens"),
+                new Entree("Tuna Roll", "International"),
+                new Entree("Soup", null)));
+
+    assertEquals(List.of(item(0L, "Salad", "Greens"), tunaRoll, item(0L, "Soup", null)), items);
+    assertSame(tunaRoll, items.get(1));
+    verify(menuItemRepository).saveAll(List.of(items.get(0), items.get(2)));
+    verify(menuItemRepository, times(0)).save(any());
+  }
+
+  @Test
+  void upsert_creates_an_entree_listed_twice_only_once() {
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of());
+
+    List<MenuItem> items =
+        menuItemService.upsert(
+            "portola", "dinner", List.of(new Entree("Soup", "Stove"), new Entree("Soup", "Stove")));
+
+    assertSame(items.get(0), items.get(1));
+    verify(menuItemRepository).saveAll(List.of(item(0L, "Soup", "Stove")));
+  }
+
+  @Test
+  void upsert_writes_nothing_when_all_items_exist() {
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of(item(7L, "Tuna Roll", "International")));
+
+    menuItemService.upsert("portola", "dinner", List.of(new Entree("Tuna Roll", "International")));
+
+    verify(menuItemRepository, times(0)).saveAll(any());
+    verify(menuItemRepository, times(0)).save(any());
+  }
+
+  @Test
+  void upsert_looks_the_meal_up_again_when_the_items_were_inserted_concurrently() {
+    MenuItem soup = item(7L, "Soup", "Stove");
+    when(menuItemRepository.findByDiningCommonsCodeAndMealCode("portola", "dinner"))
+        .thenReturn(List.of())
+        .thenReturn(List.of(soup));
+    when(menuItemRepository.saveAll(any()))
+        .thenThrow(new DataIntegrityViolationException("MENUITEM_NATURAL_KEY_UK"));
+
+    List<MenuItem> items =
+        menuItemService.upsert("portola", "dinner", List.of(new Entree("Soup", "Stove")));
+
+    assertSame(soup, items.get(0));
+    verify(menuItemRepository, times(1)).saveAll(any());
+  }
+
+  @Test
+  void withApprovedReviews_loads_the_reviews_of_all_items_with_one_query() {
+    MenuItem salad = item(1L, "Salad", "Greens");
+    MenuItem soup = item(2L, "Soup", "Stove");
+    ReviewView first = ReviewView.of(Review.builder().id(10L).item(soup).itemsStars(4L).build());
+    ReviewView second = ReviewView.of(Review.builder().id(11L).item(soup).itemsStars(2L).build());
+    when(reviewRepository.findViewsByItemIdInAndStatus(List.of(1L, 2L), ModerationStatus.APPROVED))
+        .thenReturn(List.of(first, second));
+
+    List<MenuItemView> items = menuItemService.withApprovedReviews(List.of(salad, soup));
+
+    assertEquals(List.of(1L, 2L), items.stream().map(MenuItemView::id).toList());
+    assertEquals("Salad", items.get(0).name());
+    assertEquals(List.of(), items.get(0).reviews());
+    assertEquals(List.of(first, second), items.get(1).reviews());
+    verify(reviewRepository, times(1)).findViewsByItemIdInAndStatus(any(), any());
+  }
+
+  @Test
+  void withApprovedReviews_of_an_empty_menu_does_not_query() {
+    assertEquals(List.of(), menuItemService.withApprovedReviews(List.of()));
+    verify(reviewRepository, times(0)).findViewsByItemIdInAndStatus(any(), any());
+  }
+
+  @Test
+  void summaries_use_the_item_aggregates() {
+    when(reviewAggregateRepository.findByScopeAndItemIdIn(
+            ReviewAggregate.Scope.ITEM, List.of(1L, 2L)))
+        .thenReturn(
+            List.of(
+                ReviewAggregate.builder()
+                    .scope(ReviewAggregate.Scope.ITEM)
+                    .itemId(2L)
+                    .starsSum(7L)
+                    .reviewCount(2L)
+                    .build()));
+
+    List<MenuItemSummary> summaries =
+        menuItemService.summaries(List.of(item(1L, "Salad", "Greens"), item(2L, "Soup", "Stove")));
+
+    assertEquals(
+        List.of(
+            new MenuItemSummary(1L, "portola", "dinner", "Salad", "Greens", null, 0L),
+            new MenuItemSummary(2L, "portola", "dinner", "Soup", "Stove", 3.5, 2L)),
+        summaries);
+    assertNull(summaries.get(0).getAverageStars());
+  }
+
+  @Test
+  void summaries_of_an_empty_menu_do_not_query() {
+    assertEquals(List.of(), menuItemService.summaries(List.of()));
+    verify(reviewAggregateRepository, times(0)).findByScopeAndItemIdIn(any(), any());
+  }
+}
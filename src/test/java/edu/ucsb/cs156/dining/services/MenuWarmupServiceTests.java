@@ -0,0 +1,201 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.models.DiningCommons;
+import edu.ucsb.cs156.dining.models.Entree;
+import edu.ucsb.cs156.dining.models.MenuWarmupReport;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MenuWarmupServiceTests {
+
+  private static final String TODAY = "2025-04-02";
+  private static final String TOMORROW = "2025-04-03";
+
+  private static final String MEALS =
+      """
+      [
+        {"name": "Breakfast", "code": "breakfast"},
+        {"name": "Dinner", "code": "dinner"}
+      ]
+      """;
+
+  @Mock DiningCommonsService diningCommonsService;
+
+  @Mock UCSBDiningMenuService ucsbDiningMenuService;
+
+  @Mock UCSBDiningMenuItemsCache ucsbDiningMenuItemsCache;
+
+  @Mock MenuItemService menuItemService;
+
+  @InjectMocks MenuWarmupService menuWarmupService;
+
+  private final List<Entree> entrees = List.of(new Entree("Waffle", "Bakery"));
+
+  @BeforeEach
+  void setup() {
+    menuWarmupService.objectMapper = new ObjectMapper();
+    menuWarmupService.concurrency = 2;
+    menuWarmupService.clock =
+        Clock.fixed(Instant.parse("2025-04-02T19:00:00Z"), ZoneId.of("America/Los_Angeles"));
+  }
+
+  private DiningCommons commons(String code) {
+    return DiningCommons.builder().code(code).build();
+  }
+
+  @Test
+  void warmup_loads_every_meal_of_every_commons_for_today_and_tomorrow() throws Exception {
+    when(diningCommonsService.get()).thenReturn(List.of(commons("carrillo"), commons("ortega")));
+    when(ucsbDiningMenuService.getJSON(anyString(), eq("carrillo"))).thenReturn(MEALS);
+    when(ucsbDiningMenuService.getJSON(anyString(), eq("ortega"))).thenReturn(null);
+    when(ucsbDiningMenuItemsCache.get(anyString(), anyString(), anyString())).thenReturn(entrees);
+    when(menuItemService.upsert(anyString(), anyString(), eq(entrees)))
+        .thenReturn(List.of(new MenuItem()));
+
+    MenuWarmupReport report = menuWarmupService.warmup();
+
+    assertEquals(List.of(TODAY, TOMORROW), report.getDates());
+    assertEquals(2, report.getDiningCommons());
+    // 4 meal lists (ortega is closed) and 2 meals at carrillo on each day
+    assertEquals(8, report.getKeysLoaded());
+    assertEquals(0, report.getFailures());
+    assertEquals(4, report.getMenuItems());
+    assertTrue(report.getDurationMillis() >= 0);
+    for (String date : List.of(TODAY, TOMORROW)) {
+      verify(ucsbDiningMenuItemsCache).get(date, "carrillo", "breakfast");
+      verify(ucsbDiningMenuItemsCache).get(date, "carrillo", "dinner");
+    }
+    verify(menuItemService, times(2)).upsert("carrillo", "dinner", entrees);
+  }
+
+  @Test
+  void failures_are_counted_and_do_not_stop_the_warmup() throws Exception {
+    when(diningCommonsService.get()).thenReturn(List.of(commons("carrillo"), commons("ortega")));
+    when(ucsbDiningMenuService.getJSON(anyString(), eq("carrillo"))).thenReturn(MEALS);
+    when(ucsbDiningMenuService.getJSON(anyString(), eq("ortega")))
+        .thenThrow(new IllegalStateException("upstream down"));
+    when(ucsbDiningMenuItemsCache.get(anyString(), eq("carrillo"), eq("breakfast")))
+        .thenThrow(new JsonParseException(null, "bad json"));
+    when(ucsbDiningMenuItemsCache.get(anyString(), eq("carrillo"), eq("dinner")))
+        .thenReturn(entrees);
+    when(menuItemService.upsert("carrillo", "dinner", entrees))
+        .thenReturn(List.of(new MenuItem(), new MenuItem()));
+
+    MenuWarmupReport report = menuWarmupService.warmup();
+
+    assertEquals(4, report.getKeysLoaded());
+    assertEquals(4, report.getFailures());
+    assertEquals(4, report.getMenuItems());
+  }
+
+  @Test
+  void meals_are_null_when_they_cannot_be_fetched() throws Exception {
+    when(ucsbDiningMenuService.getJSON(TODAY, "carrillo")).thenReturn("not json");
+
+    assertNull(menuWarmupService.meals(TODAY, "carrillo"));
+  }
+
+  @Test
+  void meals_lists_the_meal_codes() throws Exception {
+    when(ucsbDiningMenuService.getJSON(TODAY, "carrillo")).thenReturn(MEALS);
+
+    assertEquals(
+        List.of(
+            new MenuWarmupService.Meal(TODAY, "carrillo", "breakfast"),
+            new MenuWarmupService.Meal(TODAY, "carrillo", "dinner")),
+        menuWarmupService.meals(TODAY, "carrillo"));
+  }
+
+  @Test
+  void warmup_loads_today_on_campus_once_it_is_tomorrow_in_utc() throws Exception {
+    // 6 pm on April 2nd on campus
+    menuWarmupService.clock =
+        Clock.fixed(Instant.parse("2025-04-03T01:00:00Z"), ZoneId.of("America/Los_Angeles"));
+    when(diningCommonsService.get()).thenReturn(List.of());
+
+    assertEquals(List.of(TODAY, TOMORROW), menuWarmupService.warmup().getDates());
+  }
+
+  @Test
+  void scheduledWarmup_runs_the_warmup() throws Exception {
+    when(diningCommonsService.get()).thenReturn(List.of());
+
+    menuWarmupService.scheduledWarmup();
+
+    verify(diningCommonsService).get();
+  }
+
+  /**
+   * Warms up 3 closed dining commons, and records the threads that fetched their meals and how many
+   * fetched them at the same time.
+   */
+  private List<Thread> warmupThreads(AtomicInteger maxRunning) throws Exception {
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    when(diningCommonsService.get())
+        .thenReturn(List.of(commons("carrillo"), commons("ortega"), commons("portola")));
+    when(ucsbDiningMenuService.getJSON(anyString(), anyString()))
+        .thenAnswer(
+            invocation -> {
+              threads.add(Thread.currentThread());
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              Thread.sleep(20);
+              running.decrementAndGet();
+              return null;
+            });
+
+    MenuWarmupReport report = menuWarmupService.warmup();
+
+    assertEquals(6, report.getKeysLoaded());
+    return threads;
+  }
+
+  @Test
+  void warmup_fetches_on_virtual_threads_in_the_virtual_thread_mode() throws Exception {
+    menuWarmupService.virtualThreads = true;
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<Thread> threads = warmupThreads(maxRunning);
+
+    assertEquals(6, threads.size());
+    assertTrue(threads.stream().allMatch(Thread::isVirtual));
+    assertTrue(threads.stream().allMatch(t -> t.getName().startsWith("menu-warmup-")));
+    assertTrue(maxRunning.get() <= 2);
+  }
+
+  @Test
+  void warmup_fetches_on_platform_threads_otherwise() throws Exception {
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<Thread> threads = warmupThreads(maxRunning);
+
+    assertEquals(6, threads.size());
+    assertFalse(threads.stream().anyMatch(Thread::isVirtual));
+    assertTrue(threads.stream().allMatch(t -> t.getName().startsWith("menu-warmup-")));
+    assertTrue(maxRunning.get() <= 2);
+  }
+}
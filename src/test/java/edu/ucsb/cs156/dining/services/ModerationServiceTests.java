@@ -0,0 +1,234 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.models.AliasModeration;
+import edu.ucsb.cs156.dining.models.ModerationOutcome;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.models.ReviewModeration;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ModerationServiceTests {
+
+  @Mock ReviewRepository reviewRepository;
+
+  @Mock ReviewAggregateService reviewAggregateService;
+
+  @Mock UserRepository userRepository;
+
+  @Mock UserCache userCache;
+
+  @InjectMocks ModerationService moderationService;
+
+  private static final LocalDateTime SERVED = LocalDateTime.of(2025, 4, 1, 12, 0);
+
+  private static final LocalDateTime EDITED = LocalDateTime.of(2025, 4, 2, 1, 0);
+
+  @BeforeEach
+  void setup() {
+    moderationService.utcDateTimeProvider =
+        () -> Optional.of(ZonedDateTime.of(EDITED, ZoneOffset.UTC));
+  }
+
+  private final MenuItem waffle =
+      MenuItem.builder().id(1L).diningCommonsCode("carrillo").mealCode("breakfast").build();
+
+  private Review review(long id, ModerationStatus status) {
+    return Review.builder()
+        .id(id)
+        .item(waffle)
+        .itemsStars(4L)
+        .dateItemServed(SERVED)
+        .status(status)
+        .build();
+  }
+
+  private static ModerationOutcome updated(long id) {
+    return new ModerationOutcome(id, ModerationOutcome.Outcome.UPDATED);
+  }
+
+  private static ModerationOutcome notFound(long id) {
+    return new ModerationOutcome(id, ModerationOutcome.Outcome.NOT_FOUND);
+  }
+
+  // ---------- reviews ----------
+
+  @Test
+  void reviews_are_updated_with_one_statement_per_decision() {
+    Review awaiting = review(1L, ModerationStatus.AWAITING_REVIEW);
+    Review approved = review(2L, ModerationStatus.APPROVED);
+    Review alsoAwaiting = review(3L, ModerationStatus.AWAITING_REVIEW);
+    when(reviewRepository.findByIdIn(List.of(1L, 2L, 3L, 4L)))
+        .thenReturn(List.of(awaiting, approved, alsoAwaiting));
+
+    List<ModerationOutcome> outcomes =
+        moderationService.moderateReviews(
+            List.of(
+                new ReviewModeration(1L, ModerationStatus.APPROVED, null),
+                new ReviewModeration(2L, ModerationStatus.REJECTED, "off topic"),
+                new ReviewModeration(3L, ModerationStatus.APPROVED, null),
+                new ReviewModeration(4L, ModerationStatus.APPROVED, null)));
+
+    assertEquals(List.of(updated(1L), updated(2L), updated(3L), notFound(4L)), outcomes);
+    verify(reviewRepository).moderate(List.of(1L, 3L), ModerationStatus.APPROVED, null, EDITED);
+    verify(reviewRepository).moderate(List.of(2L), ModerationStatus.REJECTED, "off topic", EDITED);
+    ReviewContribution contribution =
+        new ReviewContribution(1L, "carrillo", "breakfast", SERVED, 4L);
+    verify(reviewAggregateService)
+        .onReviewsChanged(List.of(contribution), List.of(contribution, contribution));
+  }
+
+  @Test
+  void reviews_that_keep_their_contribution_do_not_change_the_aggregates() {
+    when(reviewRepository.findByIdIn(List.of(1L)))
+        .thenReturn(List.of(review(1L, ModerationStatus.AWAITING_REVIEW)));
+
+    moderationService.moderateReviews(
+        List.of(new ReviewModeration(1L, ModerationStatus.REJECTED, "spam")));
+
+    verify(reviewAggregateService).onReviewsChanged(List.of(), List.of());
+  }
+
+  @Test
+  void review_decisions_need_a_status() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> moderationService.moderateReviews(List.of(new ReviewModeration(1L, null, null))));
+
+    assertEquals("review 1 needs a status", e.getMessage());
+    verifyNoInteractions(reviewRepository);
+  }
+
+  // ---------- ids ----------
+
+  @Test
+  void ids_must_be_given_once() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                moderationService.moderateAliases(
+                    List.of(new AliasModeration(1L, true), new AliasModeration(1L, false))));
+
+    assertEquals("id 1 is given more than once", e.getMessage());
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void ids_are_required() {
+    List<Long> ids = new ArrayList<>();
+    ids.add(null);
+
+    assertThrows(IllegalArgumentException.class, () -> ModerationService.checkIds(ids));
+  }
+
+  @Test
+  void batches_are_limited() {
+    ModerationService.checkIds(
+        LongStream.rangeClosed(1, ModerationService.MAX_BATCH_SIZE).boxed().toList());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            ModerationService.checkIds(
+                LongStream.rangeClosed(0, ModerationService.MAX_BATCH_SIZE).boxed().toList()));
+  }
+
+  // ---------- aliases ----------
+
+  @Test
+  void aliases_are_approved_and_rejected_in_groups() {
+    when(userRepository.findAllById(List.of(1L, 2L, 3L, 4L)))
+        .thenReturn(
+            List.of(
+                User.builder().id(1L).email("a@ucsb.edu").build(),
+                User.builder().id(2L).email("b@ucsb.edu").build(),
+                User.builder().id(3L).email("c@ucsb.edu").build()));
+
+    List<ModerationOutcome> outcomes =
+        moderationService.moderateAliases(
+            List.of(
+                new AliasModeration(1L, true),
+                new AliasModeration(2L, false),
+                new AliasModeration(3L, true),
+                new AliasModeration(4L, true)));
+
+    assertEquals(List.of(updated(1L), updated(2L), updated(3L), notFound(4L)), outcomes);
+    verify(userRepository)
+        .approveProposedAliases(eq(List.of(1L, 3L)), eq(ModerationStatus.APPROVED), any());
+    verify(userRepository).updateStatus(List.of(2L), ModerationStatus.REJECTED);
+    verify(userCache).invalidate("a@ucsb.edu");
+    verify(userCache).invalidate("b@ucsb.edu");
+    verify(userCache).invalidate("c@ucsb.edu");
+  }
+
+  @Test
+  void aliases_that_are_all_approved_reject_nothing() {
+    when(userRepository.findAllById(List.of(1L)))
+        .thenReturn(List.of(User.builder().id(1L).email("a@ucsb.edu").build()));
+
+    assertEquals(
+        List.of(updated(1L)),
+        moderationService.moderateAliases(List.of(new AliasModeration(1L, true))));
+
+    verify(userRepository)
+        .approveProposedAliases(eq(List.of(1L)), eq(ModerationStatus.APPROVED), any());
+    verify(userRepository, never()).updateStatus(any(), any());
+    verify(userCache).invalidate("a@ucsb.edu");
+  }
+
+  @Test
+  void alias_decisions_need_approved() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> moderationService.moderateAliases(List.of(new AliasModeration(1L, null))));
+  }
+
+  @Test
+  void users_are_forgotten_only_after_the_transaction_commits() {
+    when(userRepository.findAllById(List.of(1L)))
+        .thenReturn(List.of(User.builder().id(1L).email("a@ucsb.edu").build()));
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      moderationService.moderateAliases(List.of(new AliasModeration(1L, false)));
+      verify(userCache, never()).invalidate(any());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      verify(userCache).invalidate("a@ucsb.edu");
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    verify(userRepository, never()).approveProposedAliases(any(), any(), any());
+  }
+}
@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+/** Tests of {@link ReviewAggregateService} against the database, with its unique group keys. */
+@DataJpaTest
+@Import({ReviewAggregateService.class, StatisticsCache.class})
+public class ReviewAggregateServiceDatabaseTests {
+
+  @Autowired ReviewAggregateService reviewAggregateService;
+
+  @Autowired ReviewAggregateRepository reviewAggregateRepository;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired UserRepository userRepository;
+
+  @MockBean WiremockService wiremockService;
+
+  private MenuItem waffle;
+
+  private User reviewer;
+
+  private void review(Long stars, LocalDateTime served) {
+    reviewRepository.save(
+        Review.builder()
+            .item(waffle)
+            .reviewer(reviewer)
+            .itemsStars(stars)
+            .status(ModerationStatus.APPROVED)
+            .dateItemServed(served)
+            .build());
+  }
+
+  @BeforeEach
+  public void setup() {
+    reviewer = userRepository.save(User.builder().email("reviewer@ucsb.edu").build());
+    waffle =
+        menuItemRepository.save(
+            MenuItem.builder()
+                .name("Waffle")
+                .diningCommonsCode("carrillo")
+                .mealCode("breakfast")
+                .station("Bakery")
+                .build());
+    review(5L, LocalDateTime.of(2025, 4, 1, 8, 0));
+    review(3L, LocalDateTime.of(2025, 4, 2, 8, 0));
+  }
+
+  @Test
+  public void rebuild_can_run_again_over_existing_aggregates() {
+    // ITEM, 2 ITEM_DAY, COMMONS, COMMONS_MEAL and COMMONS_MONTH
+    assertEquals(6, reviewAggregateService.rebuild());
+    assertEquals(6, reviewAggregateService.rebuild());
+
+    assertEquals(6, reviewAggregateRepository.count());
+    ReviewAggregate item = reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM).get(0);
+    assertEquals(8L, item.getStarsSum());
+    assertEquals(2L, item.getReviewCount());
+  }
+}
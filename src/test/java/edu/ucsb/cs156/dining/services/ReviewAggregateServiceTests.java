@@ -0,0 +1,377 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.errors.AggregateGroupConflictException;
+import edu.ucsb.cs156.dining.models.CommonsTotal;
+import edu.ucsb.cs156.dining.models.DailyItemTotal;
+import edu.ucsb.cs156.dining.models.ItemTotal;
+import edu.ucsb.cs156.dining.models.MealTotal;
+import edu.ucsb.cs156.dining.models.MonthlyCommonsTotal;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewAggregateServiceTests {
+
+  @Mock ReviewAggregateRepository reviewAggregateRepository;
+
+  @Mock ReviewRepository reviewRepository;
+
+  @Mock StatisticsCache statisticsCache;
+
+  @InjectMocks ReviewAggregateService reviewAggregateService;
+
+  private static final LocalDateTime SERVED = LocalDateTime.of(2025, 4, 1, 12, 0);
+
+  private final MenuItem waffle =
+      MenuItem.builder().id(1L).diningCommonsCode("carrillo").mealCode("breakfast").build();
+
+  private Review review(MenuItem item, Long stars, ModerationStatus status) {
+    return Review.builder()
+        .item(item)
+        .itemsStars(stars)
+        .dateItemServed(SERVED)
+        .status(status)
+        .build();
+  }
+
+  private List<String> keys(List<ReviewAggregate> groups) {
+    return groups.stream().map(ReviewAggregate::getGroupKey).toList();
+  }
+
+  // ---------- ReviewContribution ----------
+
+  @Test
+  void contribution_is_null_for_reviews_that_are_not_counted() {
+    assertNull(ReviewContribution.of(null));
+    assertNull(ReviewContribution.of(review(waffle, 4L, ModerationStatus.AWAITING_REVIEW)));
+    assertNull(ReviewContribution.of(review(waffle, null, ModerationStatus.APPROVED)));
+    assertNull(ReviewContribution.of(review(null, 4L, ModerationStatus.APPROVED)));
+  }
+
+  @Test
+  void contribution_captures_the_counted_fields() {
+    assertEquals(
+        new ReviewContribution(1L, "carrillo", "breakfast", SERVED, 4L),
+        ReviewContribution.of(review(waffle, 4L, ModerationStatus.APPROVED)));
+  }
+
+  // ---------- groupsFor ----------
+
+  @Test
+  void groupsFor_null_is_empty() {
+    assertEquals(List.of(), ReviewAggregateService.groupsFor(null));
+  }
+
+  @Test
+  void groupsFor_full_contribution_covers_every_scope() {
+    List<ReviewAggregate> groups =
+        ReviewAggregateService.groupsFor(
+            new ReviewContribution(1L, "carrillo", "breakfast", SERVED, 4L));
+    assertEquals(
+        List.of(
+            "ITEM|1",
+            "ITEM_DAY|1|2025-04-01",
+            "COMMONS|carrillo",
+            "COMMONS_MEAL|carrillo|breakfast",
+            "COMMONS_MONTH|carrillo|2025-04"),
+        keys(groups));
+    assertEquals(LocalDate.of(2025, 4, 1), groups.get(1).getDayServed());
+    assertEquals("2025-04", groups.get(4).getPeriod());
+    assertEquals(0L, groups.get(0).getReviewCount());
+  }
+
+  @Test
+  void groupsFor_without_commons_only_counts_the_item() {
+    assertEquals(
+        List.of("ITEM|1", "ITEM_DAY|1|2025-04-01"),
+        keys(
+            ReviewAggregateService.groupsFor(
+                new ReviewContribution(1L, null, "breakfast", SERVED, 4L))));
+  }
+
+  @Test
+  void groupsFor_skips_meal_and_month_when_missing() {
+    assertEquals(
+        List.of("ITEM|1", "COMMONS|carrillo"),
+        keys(
+            ReviewAggregateService.groupsFor(
+                new ReviewContribution(1L, "carrillo", null, null, 4L))));
+  }
+
+  // ---------- onReviewChanged ----------
+
+  @Test
+  void unchanged_contribution_does_nothing() {
+    ReviewContribution c = new ReviewContribution(1L, null, null, null, 4L);
+    reviewAggregateService.onReviewChanged(c, c);
+    reviewAggregateService.onReviewChanged(null, null);
+    verify(reviewAggregateRepository, times(0)).addToGroup(anyString(), anyLong(), anyLong());
+    verify(statisticsCache, times(0)).invalidate();
+  }
+
+  @Test
+  void new_contribution_is_added_to_existing_groups() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(1);
+
+    reviewAggregateService.onReviewChanged(
+        null, new ReviewContribution(1L, "carrillo", null, null, 4L));
+
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", 4L, 1L);
+    verify(reviewAggregateRepository).addToGroup("COMMONS|carrillo", 4L, 1L);
+    verify(reviewAggregateRepository, times(0)).save(any());
+    verify(statisticsCache).invalidate();
+  }
+
+  @Test
+  void new_contribution_creates_missing_groups() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(0);
+
+    reviewAggregateService.onReviewChanged(null, new ReviewContribution(1L, null, null, null, 4L));
+
+    ArgumentCaptor<ReviewAggregate> saved = ArgumentCaptor.forClass(ReviewAggregate.class);
+    verify(reviewAggregateRepository).save(saved.capture());
+    assertEquals("ITEM|1", saved.getValue().getGroupKey());
+    assertEquals(ReviewAggregate.Scope.ITEM, saved.getValue().getScope());
+    assertEquals(1L, saved.getValue().getItemId());
+    assertEquals(4L, saved.getValue().getStarsSum());
+    assertEquals(1L, saved.getValue().getReviewCount());
+  }
+
+  @Test
+  void a_group_inserted_concurrently_is_reported_as_a_conflict() {
+    DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate");
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(0);
+    when(reviewAggregateRepository.save(any())).thenThrow(duplicate);
+
+    AggregateGroupConflictException e =
+        assertThrows(
+            AggregateGroupConflictException.class,
+            () ->
+                reviewAggregateService.onReviewChanged(
+                    null, new ReviewContribution(1L, null, null, null, 4L)));
+
+    assertEquals("ITEM|1", e.getGroupKey());
+    assertEquals("review aggregate group ITEM|1 already exists", e.getMessage());
+    assertSame(duplicate, e.getCause());
+  }
+
+  @Test
+  void removed_contribution_is_subtracted_and_empty_groups_deleted() {
+    reviewAggregateService.onReviewChanged(
+        new ReviewContribution(1L, "carrillo", null, null, 4L), null);
+
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", -4L, -1L);
+    verify(reviewAggregateRepository).addToGroup("COMMONS|carrillo", -4L, -1L);
+    verify(reviewAggregateRepository).deleteIfEmpty("ITEM|1");
+    verify(reviewAggregateRepository).deleteIfEmpty("COMMONS|carrillo");
+    verify(reviewAggregateRepository, times(0)).save(any());
+  }
+
+  @Test
+  void changed_stars_are_moved_between_totals() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(1);
+
+    reviewAggregateService.onReviewChanged(
+        new ReviewContribution(1L, null, null, null, 2L),
+        new ReviewContribution(1L, null, null, null, 5L));
+
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", -2L, -1L);
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", 5L, 1L);
+    verify(reviewAggregateRepository, times(0)).save(any());
+  }
+
+  @Test
+  void cache_is_invalidated_only_after_the_transaction_commits() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      reviewAggregateService.onReviewChanged(
+          new ReviewContribution(1L, null, null, null, 4L), null);
+      verify(statisticsCache, times(0)).invalidate();
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      verify(statisticsCache).invalidate();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  // ---------- onReviewsChanged ----------
+
+  @Test
+  void contribution_with_another_status() {
+    Review awaiting = review(waffle, 4L, ModerationStatus.AWAITING_REVIEW);
+    assertEquals(
+        new ReviewContribution(1L, "carrillo", "breakfast", SERVED, 4L),
+        ReviewContribution.of(awaiting, ModerationStatus.APPROVED));
+    assertNull(
+        ReviewContribution.of(
+            review(waffle, 4L, ModerationStatus.APPROVED), ModerationStatus.REJECTED));
+  }
+
+  @Test
+  void changes_of_many_reviews_update_each_group_once() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(1);
+
+    reviewAggregateService.onReviewsChanged(
+        List.of(new ReviewContribution(2L, "carrillo", null, null, 1L)),
+        List.of(
+            new ReviewContribution(1L, "carrillo", null, null, 4L),
+            new ReviewContribution(1L, "carrillo", null, null, 5L)));
+
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", 9L, 2L);
+    verify(reviewAggregateRepository).addToGroup("ITEM|2", -1L, -1L);
+    verify(reviewAggregateRepository).addToGroup("COMMONS|carrillo", 8L, 1L);
+    verify(reviewAggregateRepository).deleteIfEmpty("ITEM|2");
+    verify(reviewAggregateRepository, times(3)).addToGroup(anyString(), anyLong(), anyLong());
+    verify(reviewAggregateRepository, times(1)).deleteIfEmpty(anyString());
+    verify(statisticsCache).invalidate();
+  }
+
+  @Test
+  void changes_of_many_reviews_create_missing_groups() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(0);
+
+    reviewAggregateService.onReviewsChanged(
+        List.of(),
+        List.of(
+            new ReviewContribution(1L, null, null, null, 4L),
+            new ReviewContribution(1L, null, null, null, 3L)));
+
+    ArgumentCaptor<ReviewAggregate> saved = ArgumentCaptor.forClass(ReviewAggregate.class);
+    verify(reviewAggregateRepository).save(saved.capture());
+    assertEquals("ITEM|1", saved.getValue().getGroupKey());
+    assertEquals(7L, saved.getValue().getStarsSum());
+    assertEquals(2L, saved.getValue().getReviewCount());
+  }
+
+  @Test
+  void changes_whose_stars_cancel_out_still_change_the_count() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(1);
+
+    reviewAggregateService.onReviewsChanged(
+        List.of(new ReviewContribution(1L, null, null, null, 5L)),
+        List.of(
+            new ReviewContribution(1L, null, null, null, 3L),
+            new ReviewContribution(1L, null, null, null, 2L)));
+
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", 0L, 1L);
+    verify(reviewAggregateRepository, times(0)).deleteIfEmpty(anyString());
+    verify(statisticsCache).invalidate();
+  }
+
+  @Test
+  void removals_from_missing_groups_create_nothing() {
+    when(reviewAggregateRepository.addToGroup(anyString(), anyLong(), anyLong())).thenReturn(0);
+
+    reviewAggregateService.onReviewsChanged(
+        List.of(new ReviewContribution(1L, null, null, null, 4L)), List.of());
+
+    verify(reviewAggregateRepository).addToGroup("ITEM|1", -4L, -1L);
+    verify(reviewAggregateRepository, times(0)).save(any());
+    verify(reviewAggregateRepository, times(0)).deleteIfEmpty(anyString());
+  }
+
+  @Test
+  void changes_that_cancel_out_do_nothing() {
+    ReviewContribution c = new ReviewContribution(1L, null, null, null, 4L);
+
+    reviewAggregateService.onReviewsChanged(List.of(c), List.of(c));
+    reviewAggregateService.onReviewsChanged(List.of(), List.of());
+
+    verify(reviewAggregateRepository, times(0)).addToGroup(anyString(), anyLong(), anyLong());
+    verify(statisticsCache, times(0)).invalidate();
+  }
+
+  // ---------- rebuild ----------
+
+  @Test
+  void rebuild_replaces_all_rows_from_the_grouped_queries() {
+    when(reviewRepository.findItemTotals(ModerationStatus.APPROVED))
+        .thenReturn(List.of(new ItemTotal(1L, 9L, 2L)));
+    when(reviewRepository.findCommonsTotals(ModerationStatus.APPROVED))
+        .thenReturn(List.of(new CommonsTotal("carrillo", 11L, 3L)));
+    when(reviewRepository.findMealTotals(ModerationStatus.APPROVED))
+        .thenReturn(List.of(new MealTotal("carrillo", "breakfast", 10L, 3L)));
+    when(reviewRepository.findMonthlyCommonsTotals(ModerationStatus.APPROVED))
+        .thenReturn(List.of(new MonthlyCommonsTotal("carrillo", "2025-04", 12L, 3L)));
+    when(reviewRepository.findDailyItemTotals(ModerationStatus.APPROVED))
+        .thenReturn(List.of(new DailyItemTotal(1L, LocalDate.of(2025, 4, 1), 9L, 2L)));
+
+    assertEquals(5, reviewAggregateService.rebuild());
+
+    verify(reviewAggregateRepository).deleteAllGroups();
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Iterable<ReviewAggregate>> saved = ArgumentCaptor.forClass(Iterable.class);
+    verify(reviewAggregateRepository).saveAll(saved.capture());
+    List<ReviewAggregate> rows = new ArrayList<>();
+    saved.getValue().forEach(rows::add);
+    assertEquals(
+        List.of(
+            "ITEM|1",
+            "COMMONS|carrillo",
+            "COMMONS_MEAL|carrillo|breakfast",
+            "COMMONS_MONTH|carrillo|2025-04",
+            "ITEM_DAY|1|2025-04-01"),
+        keys(rows));
+    assertEquals(9L, rows.get(0).getStarsSum());
+    assertEquals(2L, rows.get(0).getReviewCount());
+    assertEquals(11L, rows.get(1).getStarsSum());
+    assertEquals(10L, rows.get(2).getStarsSum());
+    assertEquals(12L, rows.get(3).getStarsSum());
+    assertEquals("2025-04", rows.get(3).getPeriod());
+    assertEquals(9L, rows.get(4).getStarsSum());
+    assertEquals(2L, rows.get(4).getReviewCount());
+    assertEquals(LocalDate.of(2025, 4, 1), rows.get(4).getDayServed());
+    verify(statisticsCache).invalidate();
+    verify(reviewRepository, times(0)).findByStatus(any());
+  }
+
+  @Test
+  void rebuildOnStartup_rebuilds_when_enabled() {
+    reviewAggregateService.rebuildOnStartup = true;
+
+    reviewAggregateService.rebuildOnStartup();
+
+    verify(reviewAggregateRepository).deleteAllGroups();
+  }
+
+  @Test
+  void rebuildOnStartup_does_nothing_when_disabled() {
+    reviewAggregateService.rebuildOnStartup = false;
+
+    reviewAggregateService.rebuildOnStartup();
+
+    verify(reviewAggregateRepository, times(0)).deleteAllGroups();
+    verify(reviewRepository, times(0)).findItemTotals(any());
+  }
+}
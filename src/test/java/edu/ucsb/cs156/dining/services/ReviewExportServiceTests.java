@@ -0,0 +1,157 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.dining.models.ReviewExportRow;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewExportServiceTests {
+
+  @Mock ReviewRepository reviewRepository;
+
+  @Spy ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @InjectMocks ReviewExportService reviewExportService;
+
+  private final ReviewExportRow row =
+      new ReviewExportRow(
+          7L,
+          3L,
+          "Waffle",
+          "carrillo",
+          "breakfast",
+          "Bakery",
+          2L,
+          "Chris",
+          5L,
+          "Crispy, \"golden\"",
+          ModerationStatus.APPROVED,
+          LocalDateTime.of(2025, 4, 2, 8, 0),
+          LocalDateTime.of(2025, 4, 2, 9, 30),
+          null,
+          null,
+          null);
+
+  private final ReviewExportRow otherRow =
+      new ReviewExportRow(
+          9L,
+          4L,
+          "Soup",
+          "carrillo",
+          "lunch",
+          "Stove",
+          2L,
+          "Chris",
+          1L,
+          "=HYPERLINK(\"x\")",
+          ModerationStatus.APPROVED,
+          LocalDateTime.of(2025, 4, 3, 12, 0),
+          LocalDateTime.of(2025, 4, 3, 13, 0),
+          null,
+          null,
+          null);
+
+  @Test
+  void ndjson_has_one_review_per_line() throws Exception {
+    when(reviewRepository.streamExportRows(null, null, null)).thenReturn(Stream.of(row, otherRow));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count =
+        reviewExportService.export(ReviewExportService.Format.NDJSON, null, null, null, out);
+
+    assertEquals(2, count);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(row, mapper.readValue(lines[0], ReviewExportRow.class));
+    assertEquals(otherRow, mapper.readValue(lines[1], ReviewExportRow.class));
+    assertTrue(lines[0].contains("\"dateItemServed\":\"2025-04-02T08:00:00\""));
+  }
+
+  @Test
+  void csv_has_a_header_and_escapes_fields() throws Exception {
+    when(reviewRepository.streamExportRows(ModerationStatus.APPROVED, null, null))
+        .thenReturn(Stream.of(row, otherRow));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    reviewExportService.export(
+        ReviewExportService.Format.CSV, ModerationStatus.APPROVED, null, null, out);
+
+    assertEquals(
+        "id,itemId,itemName,diningCommonsCode,mealCode,station,reviewerId,reviewerAlias,"
+            + "itemsStars,reviewerComments,status,dateItemServed,dateCreated,dateEdited,"
+            + "userIdModerator,moderatorComments\r\n"
+            + "7,3,Waffle,carrillo,breakfast,Bakery,2,Chris,5,\"Crispy, \"\"golden\"\"\","
+            + "APPROVED,2025-04-02T08:00,2025-04-02T09:30,,,\r\n"
+            + "9,4,Soup,carrillo,lunch,Stove,2,Chris,1,\"'=HYPERLINK(\"\"x\"\")\","
+            + "APPROVED,2025-04-03T12:00,2025-04-03T13:00,,,\r\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void the_date_range_includes_both_days() throws Exception {
+    when(reviewRepository.streamExportRows(
+            null, LocalDateTime.of(2025, 4, 1, 0, 0), LocalDateTime.of(2025, 5, 1, 0, 0)))
+        .thenReturn(Stream.of(row));
+
+    long count =
+        reviewExportService.export(
+            ReviewExportService.Format.NDJSON,
+            null,
+            LocalDate.of(2025, 4, 1),
+            LocalDate.of(2025, 4, 30),
+            new ByteArrayOutputStream());
+
+    assertEquals(1, count);
+  }
+
+  @Test
+  void the_stream_is_closed() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    when(reviewRepository.streamExportRows(null, null, null))
+        .thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+    reviewExportService.export(
+        ReviewExportService.Format.CSV, null, null, null, new ByteArrayOutputStream());
+
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void formats_are_parsed_in_any_case() {
+    assertEquals(ReviewExportService.Format.CSV, ReviewExportService.Format.parse("csv"));
+    assertEquals(ReviewExportService.Format.NDJSON, ReviewExportService.Format.parse("NDJSON"));
+    assertThrows(IllegalArgumentException.class, () -> ReviewExportService.Format.parse("xml"));
+    assertThrows(IllegalArgumentException.class, () -> ReviewExportService.Format.parse(null));
+  }
+
+  @Test
+  void csv_fields() {
+    assertEquals("", ReviewExportService.csvField(null));
+    assertEquals("-1", ReviewExportService.csvField(-1L));
+    assertEquals("plain", ReviewExportService.csvField("plain"));
+    assertEquals("'-1", ReviewExportService.csvField("-1"));
+    assertEquals("'@home", ReviewExportService.csvField("@home"));
+    assertEquals("\"two\nlines\"", ReviewExportService.csvField("two\nlines"));
+    assertEquals("\"two\rlines\"", ReviewExportService.csvField("two\rlines"));
+    assertEquals("", ReviewExportService.csvField(""));
+  }
+}
@@ -0,0 +1,164 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.entities.ReviewAggregate;
+import edu.ucsb.cs156.dining.entities.User;
+import edu.ucsb.cs156.dining.repositories.MenuItemRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewAggregateRepository;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.repositories.UserRepository;
+import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tests of {@link ReviewService} against the database. The tests do not run in a transaction of
+ * their own, so that every write commits as it would in the app.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReviewService.class, ReviewAggregateService.class, StatisticsCache.class})
+public class ReviewServiceDatabaseTests {
+
+  private static final int REVIEWS = 8;
+
+  @Autowired ReviewService reviewService;
+
+  @Autowired ReviewAggregateRepository reviewAggregateRepository;
+
+  @Autowired ReviewRepository reviewRepository;
+
+  @Autowired MenuItemRepository menuItemRepository;
+
+  @Autowired UserRepository userRepository;
+
+  @MockBean WiremockService wiremockService;
+
+  private MenuItem waffle;
+
+  private User reviewer;
+
+  @BeforeEach
+  public void setup() {
+    reviewer = userRepository.save(User.builder().email("reviewer@ucsb.edu").build());
+    waffle =
+        menuItemRepository.save(
+            MenuItem.builder()
+                .name("Waffle")
+                .diningCommonsCode("carrillo")
+                .mealCode("breakfast")
+                .station("Bakery")
+                .build());
+  }
+
+  @AfterEach
+  public void teardown() {
+    reviewRepository.deleteAll();
+    reviewAggregateRepository.deleteAll();
+    menuItemRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  private Review review(long stars) {
+    return Review.builder()
+        .item(waffle)
+        .reviewer(reviewer)
+        .itemsStars(stars)
+        .status(ModerationStatus.APPROVED)
+        .dateItemServed(LocalDateTime.of(2025, 4, 1, 8, 0))
+        .build();
+  }
+
+  @Test
+  public void concurrent_first_reviews_of_an_item_are_all_counted() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(REVIEWS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Review>> posted = new ArrayList<>();
+    for (int i = 0; i < REVIEWS; i++) {
+      Review review = review(1 + i % 5);
+      posted.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return reviewService.create(review);
+              }));
+    }
+    start.countDown();
+    for (Future<Review> review : posted) {
+      review.get();
+    }
+    executor.shutdown();
+
+    assertEquals(REVIEWS, reviewRepository.count());
+    ReviewAggregate item = reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM).get(0);
+    // 1 + 2 + 3 + 4 + 5 + 1 + 2 + 3
+    assertEquals(21L, item.getStarsSum());
+    assertEquals(REVIEWS, item.getReviewCount());
+  }
+
+  @Test
+  public void concurrent_changes_of_a_review_each_replace_the_one_before() throws Exception {
+    Review posted = reviewService.create(review(1));
+    ExecutorService executor = Executors.newFixedThreadPool(REVIEWS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Review>> changed = new ArrayList<>();
+    for (int i = 0; i < REVIEWS; i++) {
+      long stars = 1 + i % 5;
+      changed.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return reviewService.update(posted.getId(), review -> review.setItemsStars(stars));
+              }));
+    }
+    start.countDown();
+    for (Future<Review> review : changed) {
+      review.get();
+    }
+    executor.shutdown();
+
+    long stars = reviewRepository.findById(posted.getId()).get().getItemsStars();
+    ReviewAggregate item = reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM).get(0);
+    assertEquals(stars, item.getStarsSum());
+    assertEquals(1L, item.getReviewCount());
+  }
+
+  @Test
+  public void a_refused_change_leaves_the_review_and_the_aggregates_as_they_were() {
+    Review posted = reviewService.create(review(4));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            reviewService.update(
+                posted.getId(),
+                review -> {
+                  review.setItemsStars(1L);
+                  throw new IllegalArgumentException("refused");
+                }));
+
+    assertEquals(4L, reviewRepository.findById(posted.getId()).get().getItemsStars());
+    ReviewAggregate item = reviewAggregateRepository.findByScope(ReviewAggregate.Scope.ITEM).get(0);
+    assertEquals(4L, item.getStarsSum());
+    assertEquals(1L, item.getReviewCount());
+  }
+}
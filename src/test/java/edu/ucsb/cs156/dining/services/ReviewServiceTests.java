@@ -0,0 +1,184 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.dining.entities.MenuItem;
+import edu.ucsb.cs156.dining.entities.Review;
+import edu.ucsb.cs156.dining.errors.AggregateGroupConflictException;
+import edu.ucsb.cs156.dining.errors.EntityNotFoundException;
+import edu.ucsb.cs156.dining.models.ReviewContribution;
+import edu.ucsb.cs156.dining.repositories.ReviewRepository;
+import edu.ucsb.cs156.dining.statuses.ModerationStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTests {
+
+  @Mock ReviewRepository reviewRepository;
+
+  @Mock ReviewAggregateService reviewAggregateService;
+
+  @Mock PlatformTransactionManager transactionManager;
+
+  @InjectMocks ReviewService reviewService;
+
+  private final MenuItem waffle =
+      MenuItem.builder().id(1L).diningCommonsCode("carrillo").mealCode("breakfast").build();
+
+  private Review review(long id, long stars) {
+    return Review.builder()
+        .id(id)
+        .item(waffle)
+        .itemsStars(stars)
+        .dateItemServed(LocalDateTime.of(2025, 4, 1, 12, 0))
+        .status(ModerationStatus.APPROVED)
+        .build();
+  }
+
+  private static AggregateGroupConflictException conflict() {
+    return new AggregateGroupConflictException(
+        "ITEM|1", new DataIntegrityViolationException("duplicate group key"));
+  }
+
+  @Test
+  void create_saves_the_review_and_adds_it_to_the_aggregates() {
+    Review review = review(0, 4);
+    Review saved = review(7, 4);
+    when(reviewRepository.save(review)).thenReturn(saved);
+
+    assertSame(saved, reviewService.create(review));
+
+    verify(reviewAggregateService).onReviewChanged(null, ReviewContribution.of(saved));
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void update_subtracts_the_review_as_it_was_read_and_adds_it_as_changed() {
+    Review review = review(7, 2);
+    ReviewContribution before = ReviewContribution.of(review);
+    when(reviewRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(review));
+    when(reviewRepository.save(review)).thenReturn(review);
+
+    assertSame(review, reviewService.update(7, r -> r.setItemsStars(5L)));
+
+    verify(reviewAggregateService).onReviewChanged(before, ReviewContribution.of(review(7, 5)));
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void update_of_a_missing_review_throws() {
+    when(reviewRepository.findByIdForUpdate(7L)).thenReturn(Optional.empty());
+
+    assertThrows(EntityNotFoundException.class, () -> reviewService.update(7, r -> {}));
+
+    verify(reviewRepository, never()).save(any());
+    verifyNoInteractions(reviewAggregateService);
+    verify(transactionManager).rollback(any());
+  }
+
+  @Test
+  void update_that_is_refused_changes_nothing() {
+    when(reviewRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(review(7, 2)));
+
+    assertThrows(
+        AccessDeniedException.class,
+        () ->
+            reviewService.update(
+                7,
+                r -> {
+                  throw new AccessDeniedException("no");
+                }));
+
+    verify(reviewRepository, never()).save(any());
+    verifyNoInteractions(reviewAggregateService);
+    verify(transactionManager).rollback(any());
+  }
+
+  @Test
+  void delete_checks_deletes_and_subtracts_the_review() {
+    Review review = review(7, 3);
+    when(reviewRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(review));
+    List<Review> checked = new ArrayList<>();
+
+    assertSame(review, reviewService.delete(7, checked::add));
+
+    assertEquals(List.of(review), checked);
+    verify(reviewRepository).delete(review);
+    verify(reviewAggregateService).onReviewChanged(ReviewContribution.of(review), null);
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void a_conflicting_write_is_rolled_back_and_run_again() {
+    Review review = review(0, 4);
+    doThrow(conflict())
+        .doNothing()
+        .when(reviewAggregateService)
+        .onReviewChanged(null, ReviewContribution.of(review));
+    List<Long> idsSaved = new ArrayList<>();
+    when(reviewRepository.save(review))
+        .thenAnswer(
+            invocation -> {
+              idsSaved.add(review.getId());
+              // the database generates an id even for an insert that is rolled back later
+              review.setId(7);
+              return review;
+            });
+
+    assertSame(review, reviewService.create(review));
+
+    assertEquals(List.of(0L, 0L), idsSaved);
+    verify(reviewAggregateService, times(2)).onReviewChanged(null, ReviewContribution.of(review));
+    verify(transactionManager).rollback(any());
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void a_write_that_keeps_conflicting_fails() {
+    Review review = review(7, 3);
+    when(reviewRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(review));
+    when(reviewRepository.save(review)).thenReturn(review);
+    doThrow(conflict()).when(reviewAggregateService).onReviewChanged(any(), any());
+
+    assertThrows(
+        AggregateGroupConflictException.class,
+        () -> reviewService.update(7, r -> r.setItemsStars(4L)));
+
+    verify(reviewRepository, times(ReviewService.MAX_ATTEMPTS)).save(review);
+    verify(transactionManager, times(ReviewService.MAX_ATTEMPTS)).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
+  @Test
+  void other_integrity_violations_are_not_run_again() {
+    Review review = review(0, 4);
+    when(reviewRepository.save(review))
+        .thenThrow(new DataIntegrityViolationException("reviewer does not exist"));
+
+    assertThrows(DataIntegrityViolationException.class, () -> reviewService.create(review));
+
+    verify(reviewRepository, times(1)).save(review);
+    verifyNoInteractions(reviewAggregateService);
+    verify(transactionManager).rollback(any());
+  }
+}
@@ -0,0 +1,136 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.dining.repositories.AdminRepository;
+import edu.ucsb.cs156.dining.repositories.ModeratorRepository;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTests {
+
+  @Mock AdminRepository adminRepository;
+
+  @Mock ModeratorRepository moderatorRepository;
+
+  private RoleRegistry registry(String... adminEmails) {
+    return new RoleRegistry(adminRepository, moderatorRepository, Arrays.asList(adminEmails));
+  }
+
+  @Test
+  void roles_come_from_the_admin_and_moderator_tables() {
+    when(adminRepository.findAllEmails()).thenReturn(List.of("admin@ucsb.edu"));
+    when(moderatorRepository.findAllEmails())
+        .thenReturn(List.of("admin@ucsb.edu", "moderator@ucsb.edu"));
+
+    RoleRegistry roleRegistry = registry();
+
+    assertEquals(
+        Set.of(RoleRegistry.ROLE_ADMIN, RoleRegistry.ROLE_MODERATOR),
+        roleRegistry.roles("admin@ucsb.edu"));
+    assertEquals(Set.of(RoleRegistry.ROLE_MODERATOR), roleRegistry.roles("moderator@ucsb.edu"));
+    assertEquals(Set.of(), roleRegistry.roles("user@ucsb.edu"));
+    assertTrue(roleRegistry.isAdmin("admin@ucsb.edu"));
+    assertFalse(roleRegistry.isAdmin("moderator@ucsb.edu"));
+    assertTrue(roleRegistry.isModerator("moderator@ucsb.edu"));
+    assertFalse(roleRegistry.isModerator("user@ucsb.edu"));
+  }
+
+  @Test
+  void checks_do_not_query_the_database() {
+    RoleRegistry roleRegistry = registry();
+
+    roleRegistry.roles("user@ucsb.edu");
+    roleRegistry.isAdmin("user@ucsb.edu");
+    roleRegistry.isModerator("user@ucsb.edu");
+
+    verify(adminRepository, times(1)).findAllEmails();
+    verify(moderatorRepository, times(1)).findAllEmails();
+    verify(adminRepository, never()).existsByEmail(any());
+    verify(moderatorRepository, never()).existsByEmail(any());
+  }
+
+  @Test
+  void admin_emails_are_admins_but_not_in_the_admins_table() {
+    RoleRegistry roleRegistry = registry("Admin@umail.ucsb.edu");
+
+    assertEquals(Set.of(RoleRegistry.ROLE_ADMIN), roleRegistry.roles("admin@ucsb.edu"));
+    assertTrue(roleRegistry.isAdmin("admin@ucsb.edu"));
+    assertTrue(roleRegistry.isInAdminEmails("ADMIN@ucsb.edu"));
+    assertFalse(roleRegistry.isInAdminEmails("user@ucsb.edu"));
+  }
+
+  @Test
+  void emails_are_compared_in_canonical_form() {
+    when(adminRepository.findAllEmails()).thenReturn(List.of("Admin@umail.ucsb.edu"));
+
+    RoleRegistry roleRegistry = registry();
+
+    assertTrue(roleRegistry.isAdmin("admin@ucsb.edu"));
+    assertTrue(roleRegistry.isAdmin("ADMIN@umail.ucsb.edu"));
+  }
+
+  @Test
+  void changes_take_effect_immediately() {
+    RoleRegistry roleRegistry = registry();
+
+    roleRegistry.setAdmin("user@umail.ucsb.edu", true);
+    roleRegistry.setModerator("user@ucsb.edu", true);
+    assertEquals(
+        Set.of(RoleRegistry.ROLE_ADMIN, RoleRegistry.ROLE_MODERATOR),
+        roleRegistry.roles("user@ucsb.edu"));
+
+    roleRegistry.setAdmin("user@ucsb.edu", false);
+    assertEquals(Set.of(RoleRegistry.ROLE_MODERATOR), roleRegistry.roles("user@ucsb.edu"));
+
+    roleRegistry.setModerator("USER@ucsb.edu", false);
+    assertEquals(Set.of(), roleRegistry.roles("user@ucsb.edu"));
+  }
+
+  @Test
+  void removing_an_admin_email_from_the_table_keeps_it_an_admin() {
+    RoleRegistry roleRegistry = registry("admin@ucsb.edu");
+
+    roleRegistry.setAdmin("admin@ucsb.edu", false);
+
+    assertTrue(roleRegistry.isAdmin("admin@ucsb.edu"));
+  }
+
+  @Test
+  void reload_replaces_the_snapshot() {
+    when(adminRepository.findAllEmails())
+        .thenReturn(List.of("admin@ucsb.edu"))
+        .thenReturn(List.of("other@ucsb.edu"));
+
+    RoleRegistry roleRegistry = registry();
+    roleRegistry.setModerator("user@ucsb.edu", true);
+    roleRegistry.reload();
+
+    assertFalse(roleRegistry.isAdmin("admin@ucsb.edu"));
+    assertTrue(roleRegistry.isAdmin("other@ucsb.edu"));
+    assertFalse(roleRegistry.isModerator("user@ucsb.edu"));
+  }
+
+  @Test
+  void null_email_has_no_roles() {
+    RoleRegistry roleRegistry = registry("admin@ucsb.edu");
+
+    assertEquals(Set.of(), roleRegistry.roles(null));
+    assertFalse(roleRegistry.isAdmin(null));
+    assertFalse(roleRegistry.isModerator(null));
+    assertFalse(roleRegistry.isInAdminEmails(null));
+  }
+}
@@ -0,0 +1,80 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class StatisticsCacheTests {
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final StatisticsCache cache = new StatisticsCache(Duration.ofHours(1), 3, nanos::get);
+
+  @Test
+  void values_are_computed_once_per_version() {
+    AtomicInteger calls = new AtomicInteger();
+
+    assertEquals(1, (int) cache.get("key", calls::incrementAndGet));
+    assertEquals(1, (int) cache.get("key", calls::incrementAndGet));
+    assertEquals(2, (int) cache.get("other", calls::incrementAndGet));
+
+    cache.invalidate();
+
+    assertEquals(3, (int) cache.get("key", calls::incrementAndGet));
+    assertEquals(3, calls.get());
+  }
+
+  @Test
+  void a_value_computed_during_an_invalidation_is_not_served_afterwards() {
+    AtomicInteger calls = new AtomicInteger();
+
+    cache.get(
+        "key",
+        () -> {
+          cache.invalidate();
+          return calls.incrementAndGet();
+        });
+
+    assertEquals(2, (int) cache.get("key", calls::incrementAndGet));
+  }
+
+  @Test
+  void invalidation_changes_the_version_and_etag() {
+    long version = cache.version();
+    String etag = cache.etag();
+    assertEquals("\"statistics-" + version + "\"", etag);
+
+    cache.invalidate();
+
+    assertEquals(version + 1, cache.version());
+    assertNotEquals(etag, cache.etag());
+  }
+
+  @Test
+  void the_number_of_entries_is_bounded() {
+    for (int i = 0; i < 10; i++) {
+      int value = i;
+      cache.get("key" + i, () -> value);
+    }
+
+    cache.nativeCache().cleanUp();
+    assertTrue(cache.nativeCache().estimatedSize() <= 3);
+  }
+
+  @Test
+  void entries_expire_after_the_ttl() {
+    AtomicInteger calls = new AtomicInteger();
+    cache.get("key", calls::incrementAndGet);
+
+    nanos.addAndGet(Duration.ofMinutes(59).toNanos());
+    assertEquals(1, (int) cache.get("key", calls::incrementAndGet));
+
+    nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+    assertEquals(2, (int) cache.get("key", calls::incrementAndGet));
+  }
+}
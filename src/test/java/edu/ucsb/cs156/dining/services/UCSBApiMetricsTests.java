@@ -0,0 +1,108 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+class UCSBApiMetricsTests {
+
+  private UCSBApiMetrics metrics;
+
+  @BeforeEach
+  void setup() {
+    metrics = new UCSBApiMetrics();
+    metrics.meterRegistry = new SimpleMeterRegistry();
+  }
+
+  private long requests(UCSBApiMetrics.Outcome outcome) {
+    return metrics.timer(DiningCommonsService.class, outcome).count();
+  }
+
+  @Test
+  void record_returns_the_result_and_times_it_as_a_success() {
+    assertEquals("result", metrics.record(DiningCommonsService.class, () -> "result"));
+
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.SUCCESS));
+    assertEquals(
+        "DiningCommonsService",
+        metrics
+            .meterRegistry
+            .get(UCSBApiMetrics.TIMER)
+            .tag("outcome", "SUCCESS")
+            .timer()
+            .getId()
+            .getTag("service"));
+  }
+
+  @Test
+  void record_rethrows_and_times_the_failure() {
+    IOException cause = new SocketTimeoutException("Read timed out");
+    ResourceAccessException timeout = new ResourceAccessException("I/O error", cause);
+
+    ResourceAccessException thrown =
+        assertThrows(
+            ResourceAccessException.class,
+            () ->
+                metrics.record(
+                    DiningCommonsService.class,
+                    () -> {
+                      throw timeout;
+                    }));
+
+    assertSame(timeout, thrown);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.IO_ERROR));
+    assertEquals(0, requests(UCSBApiMetrics.Outcome.SUCCESS));
+  }
+
+  @Test
+  void record_rethrows_checked_exceptions() {
+    JsonParseException invalid = new JsonParseException(null, "Unexpected character");
+
+    JsonParseException thrown =
+        assertThrows(
+            JsonParseException.class,
+            () ->
+                metrics.record(
+                    DiningCommonsService.class,
+                    () -> {
+                      throw invalid;
+                    }));
+
+    assertSame(invalid, thrown);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.INVALID_RESPONSE));
+  }
+
+  @Test
+  void outcomes_of_failures() {
+    assertEquals(
+        UCSBApiMetrics.Outcome.CLIENT_ERROR,
+        UCSBApiMetrics.outcomeOf(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+    assertEquals(
+        UCSBApiMetrics.Outcome.SERVER_ERROR,
+        UCSBApiMetrics.outcomeOf(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+    assertEquals(
+        UCSBApiMetrics.Outcome.UNKNOWN,
+        UCSBApiMetrics.outcomeOf(new UnknownHttpStatusCodeException(299, "", null, null, null)));
+    assertEquals(
+        UCSBApiMetrics.Outcome.IO_ERROR,
+        UCSBApiMetrics.outcomeOf(new ResourceAccessException("Connection refused")));
+    assertEquals(
+        UCSBApiMetrics.Outcome.INVALID_RESPONSE,
+        UCSBApiMetrics.outcomeOf(new JsonParseException(null, "Unexpected character")));
+    assertEquals(
+        UCSBApiMetrics.Outcome.UNKNOWN,
+        UCSBApiMetrics.outcomeOf(new IllegalStateException("unexpected")));
+  }
+}
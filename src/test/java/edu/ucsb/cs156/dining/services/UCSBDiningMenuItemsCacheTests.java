@@ -0,0 +1,202 @@
+package edu.ucsb.cs156.dining.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import edu.ucsb.cs156.dining.models.Entree;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UCSBDiningMenuItemsCacheTests {
+
+  private static final String TODAY = "2025-04-02";
+  private static final String YESTERDAY = "2025-04-01";
+
+  @Mock UCSBDiningMenuItemsService ucsbDiningMenuItemsService;
+
+  private final Clock clock =
+      Clock.fixed(Instant.parse("2025-04-02T19:00:00Z"), ZoneId.of("America/Los_Angeles"));
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  /** Loads and refreshes are queued here instead of run right away while deferLoads is set. */
+  private final List<Runnable> pending = new ArrayList<>();
+
+  private boolean deferLoads = false;
+
+  private UCSBDiningMenuItemsCache cache;
+
+  private final List<Entree> oldItems = List.of(Entree.builder().name("Waffle").build());
+  private final List<Entree> newItems = List.of(Entree.builder().name("Pancake").build());
+
+  @BeforeEach
+  void setup() {
+    cache =
+        new UCSBDiningMenuItemsCache(
+            ucsbDiningMenuItemsService,
+            clock,
+            nanos::get,
+            task -> {
+              if (deferLoads) {
+                pending.add(task);
+              } else {
+                task.run();
+              }
+            },
+            100,
+            Duration.ofMinutes(15),
+            Duration.ofHours(1),
+            Duration.ofDays(7));
+  }
+
+  private void runPending() {
+    List<Runnable> tasks = new ArrayList<>(pending);
+    pending.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  private void advance(Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+  }
+
+  private List<Entree> lookup(String date) throws Exception {
+    return cache.get(date, "carrillo", "lunch");
+  }
+
+  @Test
+  void concurrent_lookups_share_one_upstream_call() throws Exception {
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch")).thenReturn(oldItems);
+    deferLoads = true;
+
+    CompletableFuture<List<Entree>> first = cache.getAsync(TODAY, "carrillo", "lunch");
+    CompletableFuture<List<Entree>> second = cache.getAsync(TODAY, "carrillo", "lunch");
+    assertSame(first, second);
+    assertFalse(first.isDone());
+
+    runPending();
+
+    assertEquals(oldItems, first.join());
+    assertEquals(oldItems, lookup(TODAY));
+    verify(ucsbDiningMenuItemsService, times(1)).get(TODAY, "carrillo", "lunch");
+  }
+
+  @Test
+  void expired_entries_are_served_stale_while_one_refresh_runs() throws Exception {
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch"))
+        .thenReturn(oldItems)
+        .thenReturn(newItems);
+    assertEquals(oldItems, lookup(TODAY));
+
+    advance(Duration.ofMinutes(16));
+    deferLoads = true;
+
+    assertEquals(oldItems, lookup(TODAY));
+    assertEquals(oldItems, lookup(TODAY));
+    verify(ucsbDiningMenuItemsService, times(1)).get(TODAY, "carrillo", "lunch");
+    runPending();
+
+    assertEquals(newItems, lookup(TODAY));
+    verify(ucsbDiningMenuItemsService, times(2)).get(TODAY, "carrillo", "lunch");
+  }
+
+  @Test
+  void entries_for_today_are_not_served_after_maxStale() throws Exception {
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch"))
+        .thenReturn(oldItems)
+        .thenReturn(newItems);
+    assertEquals(oldItems, lookup(TODAY));
+
+    advance(Duration.ofMinutes(61));
+
+    assertEquals(newItems, lookup(TODAY));
+  }
+
+  @Test
+  void entries_for_past_days_are_never_refreshed() throws Exception {
+    when(ucsbDiningMenuItemsService.get(YESTERDAY, "carrillo", "lunch")).thenReturn(oldItems);
+    assertEquals(oldItems, lookup(YESTERDAY));
+
+    advance(Duration.ofDays(1));
+    assertEquals(oldItems, lookup(YESTERDAY));
+    assertEquals(oldItems, lookup(YESTERDAY));
+
+    verify(ucsbDiningMenuItemsService, times(1)).get(YESTERDAY, "carrillo", "lunch");
+  }
+
+  @Test
+  void failed_lookups_are_not_cached() throws Exception {
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch"))
+        .thenThrow(new IllegalStateException("upstream down"))
+        .thenReturn(oldItems);
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> lookup(TODAY));
+    assertEquals("upstream down", e.getMessage());
+
+    assertEquals(oldItems, lookup(TODAY));
+  }
+
+  @Test
+  void get_rethrows_json_errors() throws Exception {
+    JsonParseException error = new JsonParseException(null, "bad json");
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch")).thenThrow(error);
+
+    assertSame(error, assertThrows(JsonParseException.class, () -> lookup(TODAY)));
+  }
+
+  @Test
+  void get_leaves_other_failures_wrapped() throws Exception {
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch"))
+        .thenThrow(new AssertionError("boom"));
+
+    CompletionException e = assertThrows(CompletionException.class, () -> lookup(TODAY));
+    assertEquals("boom", e.getCause().getMessage());
+  }
+
+  @Test
+  void lookups_are_counted_in_the_statistics() throws Exception {
+    when(ucsbDiningMenuItemsService.get(TODAY, "carrillo", "lunch")).thenReturn(oldItems);
+    lookup(TODAY);
+    lookup(TODAY);
+
+    assertEquals(1, cache.nativeCache().stats().hitCount());
+    assertEquals(1, cache.nativeCache().stats().missCount());
+    assertEquals(1, cache.nativeCache().estimatedSize());
+  }
+
+  @Test
+  void entries_are_loaded_on_virtual_threads_in_the_virtual_thread_mode() throws Exception {
+    CompletableFuture<Thread> loader = new CompletableFuture<>();
+
+    UCSBDiningMenuItemsCache.loadExecutor(true)
+        .execute(() -> loader.complete(Thread.currentThread()));
+
+    assertTrue(loader.get().isVirtual());
+    assertTrue(loader.get().getName().startsWith("menu-items-"));
+  }
+
+  @Test
+  void entries_are_loaded_on_the_common_pool_otherwise() {
+    assertSame(ForkJoinPool.commonPool(), UCSBDiningMenuItemsCache.loadExecutor(false));
+  }
+}
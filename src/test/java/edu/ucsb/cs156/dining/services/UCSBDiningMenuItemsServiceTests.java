@@ -1,15 +1,21 @@
 package edu.ucsb.cs156.dining.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import edu.ucsb.cs156.dining.config.UCSBApiClientConfig;
 import edu.ucsb.cs156.dining.models.Entree;
 import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.testconfig.MetricsTestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,11 +23,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 @RestClientTest(UCSBDiningMenuItemsService.class)
+@Import({MetricsTestConfig.class, UCSBApiClientConfig.class})
 @AutoConfigureDataJpa
 public class UCSBDiningMenuItemsServiceTests {
 
@@ -36,6 +44,19 @@ public class UCSBDiningMenuItemsServiceTests {
 
   @Autowired private UCSBDiningMenuItemsService ucsbDiningMenuItemsService;
 
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private UCSBApiMetrics ucsbApiMetrics;
+
+  @BeforeEach
+  void clearMetrics() {
+    meterRegistry.clear();
+  }
+
+  private long requests(UCSBApiMetrics.Outcome outcome) {
+    return ucsbApiMetrics.timer(UCSBDiningMenuItemsService.class, outcome).count();
+  }
+
   private static final String NAME = "NAME";
   private static final String STATION = "STATION";
 
@@ -77,5 +98,19 @@ public class UCSBDiningMenuItemsServiceTests {
     List<Entree> expectedList = new ArrayList<>();
     expectedList.addAll(Arrays.asList(expectedEntree));
     assertEquals(expectedList, actualResult);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.SUCCESS));
+  }
+
+  @Test
+  void test_get_counts_a_response_that_is_not_json_as_invalid() throws Exception {
+    this.mockRestServiceServer
+        .expect(requestTo("https://api.ucsb.edu/dining/menu/v1/2023-10-10/ortega/lunch"))
+        .andRespond(withSuccess("<html>Maintenance</html>", MediaType.TEXT_HTML));
+
+    assertThrows(
+        JsonProcessingException.class,
+        () -> ucsbDiningMenuItemsService.get("2023-10-10", "ortega", "lunch"));
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.INVALID_RESPONSE));
+    assertEquals(0, requests(UCSBApiMetrics.Outcome.SUCCESS));
   }
 }
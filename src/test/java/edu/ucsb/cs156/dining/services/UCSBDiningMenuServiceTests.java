@@ -9,7 +9,11 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
+import edu.ucsb.cs156.dining.config.UCSBApiClientConfig;
 import edu.ucsb.cs156.dining.services.wiremock.WiremockService;
+import edu.ucsb.cs156.dining.testconfig.MetricsTestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,12 +21,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 @RestClientTest(UCSBDiningMenuService.class)
+@Import({MetricsTestConfig.class, UCSBApiClientConfig.class})
 @AutoConfigureDataJpa
 public class UCSBDiningMenuServiceTests {
 
@@ -37,6 +43,19 @@ public class UCSBDiningMenuServiceTests {
 
   @Autowired private UCSBDiningMenuService ucs;
 
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private UCSBApiMetrics ucsbApiMetrics;
+
+  @BeforeEach
+  void clearMetrics() {
+    meterRegistry.clear();
+  }
+
+  private long requests(UCSBApiMetrics.Outcome outcome) {
+    return ucsbApiMetrics.timer(UCSBDiningMenuService.class, outcome).count();
+  }
+
   @Test
   public void test_getJSON_success() throws Exception {
     String expectedResult = "{expectedResult}";
@@ -59,6 +78,7 @@ public class UCSBDiningMenuServiceTests {
     String result = ucs.getJSON(dateTime, diningCommonCode);
 
     assertEquals(expectedResult, result);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.SUCCESS));
   }
 
   @Test
@@ -81,6 +101,7 @@ public class UCSBDiningMenuServiceTests {
     String result = ucs.getJSON(dateTime, diningCommonCode);
 
     assertNull(result);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.CLIENT_ERROR));
   }
 
   @Test
@@ -103,6 +124,7 @@ public class UCSBDiningMenuServiceTests {
     String result = ucs.getJSON(dateTime, diningCommonCode);
 
     assertNull(result);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.CLIENT_ERROR));
   }
 
   @Test
@@ -125,5 +147,6 @@ public class UCSBDiningMenuServiceTests {
     String result = ucs.getJSON(dateTime, diningCommonCode);
 
     assertNull(result);
+    assertEquals(1, requests(UCSBApiMetrics.Outcome.SERVER_ERROR));
   }
 }
@@ -0,0 +1,19 @@
+package edu.ucsb.cs156.dining.testconfig;
+
+import edu.ucsb.cs156.dining.services.UCSBApiMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/** Metrics for tests of the services that call the UCSB API, recorded in memory. */
+@TestConfiguration
+@Import(UCSBApiMetrics.class)
+public class MetricsTestConfig {
+
+  @Bean
+  public MeterRegistry meterRegistry() {
+    return new SimpleMeterRegistry();
+  }
+}
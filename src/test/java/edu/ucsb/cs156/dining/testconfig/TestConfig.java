@@ -3,13 +3,15 @@ package edu.ucsb.cs156.dining.testconfig;
 import edu.ucsb.cs156.dining.config.SecurityConfig;
 import edu.ucsb.cs156.dining.services.CurrentUserService;
 import edu.ucsb.cs156.dining.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.dining.services.RoleRegistry;
+import edu.ucsb.cs156.dining.services.UserCache;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 
 @TestConfiguration
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, RoleRegistry.class, UserCache.class})
 @AutoConfigureDataJpa
 public class TestConfig {
 
@@ -0,0 +1,59 @@
+package edu.ucsb.cs156.dining.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class TopKTests {
+
+  @Test
+  public void returns_the_first_k_in_order() {
+    assertEquals(
+        List.of(1, 2, 3), TopK.first(List.of(5, 3, 9, 1, 2, 8), 3, Comparator.naturalOrder()));
+    assertEquals(
+        List.of(9, 8), TopK.first(List.of(5, 3, 9, 1, 2, 8), 2, Comparator.reverseOrder()));
+  }
+
+  @Test
+  public void returns_everything_sorted_when_k_is_large() {
+    assertEquals(
+        List.of(1, 2, 3),
+        TopK.first(List.of(3, 1, 2), Integer.MAX_VALUE, Comparator.naturalOrder()));
+  }
+
+  @Test
+  public void returns_nothing_when_k_is_zero() {
+    assertEquals(List.of(), TopK.first(List.of(3, 1, 2), 0, Comparator.naturalOrder()));
+  }
+
+  @Test
+  public void rejects_negative_k() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> TopK.first(List.of(3, 1, 2), -1, Comparator.naturalOrder()));
+    assertEquals("k must be non-negative", e.getMessage());
+  }
+
+  @Test
+  public void matches_a_full_sort_on_random_data() {
+    Random random = new Random(156);
+    for (int trial = 0; trial < 200; trial++) {
+      List<Integer> items = new ArrayList<>();
+      int n = random.nextInt(50);
+      for (int i = 0; i < n; i++) {
+        items.add(random.nextInt(20));
+      }
+      int k = random.nextInt(60);
+      List<Integer> sorted = new ArrayList<>(items);
+      sorted.sort(Comparator.naturalOrder());
+      assertEquals(
+          sorted.subList(0, Math.min(k, n)), TopK.first(items, k, Comparator.naturalOrder()));
+    }
+  }
+}